@@ -0,0 +1,53 @@
+package dev.ornamental.sqlite.statement.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Describes a table for which {@link TableProcessor} generates a subclass of
+ * <code>dev.ornamental.sqlite.statement.Table</code> in the package of the annotated type (or package).
+ * The generated class has a public constructor, a public final <code>String</code> field holding
+ * the name of each column (to be used where an unqualified column name is expected) and a public method
+ * returning the expression referring to each column (to be used where an expression is expected).
+ * The column expressions are static final fields created when the class is loaded, with their quoted
+ * qualified names rendered once, so no map lookups or reflection are involved at run time.<br>
+ * The members are named after the columns; the characters which cannot be a part of a Java identifier
+ * are replaced with underscores, and an underscore is appended to the names which are Java keywords
+ * or which are the names of the methods inherited from <code>Table</code> (e.g. <code>copy</code>).
+ * The annotation is repeatable, so all the tables of a schema may be described on a single type
+ * or in <code>package-info.java</code>.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target({ ElementType.TYPE, ElementType.PACKAGE })
+@Repeatable(TableDefinitions.class)
+public @interface TableDefinition {
+
+	/**
+	 * The name of the schema qualifying the table and the column names; by default,
+	 * the names are not qualified with a schema name.
+	 * @return the schema name or an empty string
+	 */
+	String schema() default "";
+
+	/**
+	 * The name of the table.
+	 * @return the table name
+	 */
+	String name();
+
+	/**
+	 * The names of the columns of the table.
+	 * @return the column names
+	 */
+	String[] columns();
+
+	/**
+	 * The simple name of the generated class; by default, the table name converted into an identifier
+	 * followed by <code>Table</code>.
+	 * @return the simple class name or an empty string
+	 */
+	String className() default "";
+}
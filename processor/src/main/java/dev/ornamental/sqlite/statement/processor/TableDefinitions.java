@@ -0,0 +1,20 @@
+package dev.ornamental.sqlite.statement.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The container of the repeated {@link TableDefinition} annotations.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target({ ElementType.TYPE, ElementType.PACKAGE })
+public @interface TableDefinitions {
+
+	/**
+	 * The descriptions of the tables.
+	 * @return the table descriptions
+	 */
+	TableDefinition[] value();
+}
@@ -0,0 +1,211 @@
+package dev.ornamental.sqlite.statement.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates the subclasses of <code>dev.ornamental.sqlite.statement.Table</code> described by
+ * the {@link TableDefinition} annotations. The processor is registered as a service, so it is run
+ * by the compiler whenever this artifact is on the (processor) class path; the generated classes
+ * only depend on the statement builder library.<br>
+ * The invalid descriptions (an empty table name, no columns, duplicate columns or the columns
+ * whose member names coincide, an invalid class name) are reported as compilation errors.
+ */
+@SupportedAnnotationTypes({
+	"dev.ornamental.sqlite.statement.processor.TableDefinition",
+	"dev.ornamental.sqlite.statement.processor.TableDefinitions" })
+public final class TableProcessor extends AbstractProcessor {
+
+	/**
+	 * The names of the parameterless methods inherited by the generated classes.
+	 */
+	private static final Set<String> INHERITED_METHODS = new HashSet<>(Arrays.asList(
+		"isJoin", "copy", "schemaName", "tableName",
+		"getClass", "hashCode", "toString", "clone", "finalize", "notify", "notifyAll", "wait"));
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Set<Element> elements = new LinkedHashSet<>(roundEnv.getElementsAnnotatedWith(TableDefinition.class));
+		elements.addAll(roundEnv.getElementsAnnotatedWith(TableDefinitions.class));
+		for (Element element : elements) {
+			for (TableDefinition definition : element.getAnnotationsByType(TableDefinition.class)) {
+				generate(element, definition);
+			}
+		}
+
+		return true;
+	}
+
+	private void generate(Element element, TableDefinition definition) {
+		if (definition.name().isEmpty()) {
+			error(element, "The table name must not be empty.");
+			return;
+		}
+		if (definition.columns().length == 0) {
+			error(element, "The table " + definition.name() + " must have at least one column.");
+			return;
+		}
+
+		String className = definition.className().isEmpty()
+			? capitalize(identifier(definition.name())) + "Table"
+			: definition.className();
+		if (!SourceVersion.isIdentifier(className) || SourceVersion.isKeyword(className)) {
+			error(element, "The class name " + className + " is not a valid identifier.");
+			return;
+		}
+
+		// the column names are compared case-insensitively, as they are by SQLite
+		Set<String> columnNames = new HashSet<>();
+		Map<String, String> columnsByMember = new HashMap<>();
+		List<String> members = new ArrayList<>();
+		for (String column : definition.columns()) {
+			String member = memberName(column);
+			if (!columnNames.add(column.toLowerCase(Locale.ROOT))) {
+				error(element, "The column " + column + " of the table " + definition.name() + " is duplicated.");
+				return;
+			} else if (columnsByMember.containsKey(member)) {
+				error(element, "The columns " + columnsByMember.get(member) + " and " + column
+					+ " of the table " + definition.name() + " have the same member name " + member + ".");
+				return;
+			}
+			columnsByMember.put(member, column);
+			members.add(member);
+		}
+
+		PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(element);
+		String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+		String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+		try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, element).openWriter()) {
+			writer.write(source(packageName, className, element, definition, members));
+		} catch (IOException e) {
+			error(element, "The class " + qualifiedName + " cannot be generated: " + e.getMessage());
+		}
+	}
+
+	private void error(Element element, String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+
+	private static String source(
+		String packageName, String className, Element element, TableDefinition definition, List<String> members) {
+
+		String schema = definition.schema().isEmpty() ? null : literal(definition.schema());
+		String table = literal(definition.name());
+		String[] columns = definition.columns();
+
+		StringBuilder source = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+		source.append("import dev.ornamental.sqlite.statement.SqlExpression;\n")
+			.append("import dev.ornamental.sqlite.statement.SqlExpressions;\n")
+			.append("import dev.ornamental.sqlite.statement.Table;\n\n")
+			.append("/**\n")
+			.append(" * The table <code>").append(comment(definition.name())).append("</code>")
+			.append(" (generated from the description on <code>").append(element).append("</code>).\n")
+			.append(" */\n")
+			.append("public final class ").append(className).append(" extends Table {\n");
+
+		for (int i = 0; i < columns.length; i++) {
+			source.append("\n\tprivate static final SqlExpression $").append(members.get(i)).append(" =\n")
+				.append("\t\tSqlExpressions.column(").append(schema == null ? "" : schema + ", ")
+				.append(table).append(", ").append(literal(columns[i])).append(");\n");
+		}
+		for (int i = 0; i < columns.length; i++) {
+			source.append("\n\tpublic final String ").append(members.get(i)).append(" = ")
+				.append(literal(columns[i])).append(";\n");
+		}
+
+		source.append("\n\tpublic ").append(className).append("() {\n")
+			.append("\t\tsuper(").append(schema == null ? "" : schema + ", ").append(table).append(");\n")
+			.append("\t}\n");
+		for (String member : members) {
+			source.append("\n\tpublic SqlExpression ").append(member).append("() {\n")
+				.append("\t\treturn $").append(member).append(";\n")
+				.append("\t}\n");
+		}
+
+		return source.append("}\n").toString();
+	}
+
+	private static String memberName(String column) {
+		String identifier = identifier(column);
+		return SourceVersion.isKeyword(identifier) || INHERITED_METHODS.contains(identifier)
+			? identifier + "_"
+			: identifier;
+	}
+
+	private static String identifier(String name) {
+		StringBuilder result = new StringBuilder(name.length() + 1);
+		if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))) {
+			result.append('_');
+		}
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			// the dollar sign is left to the names of the static fields
+			boolean valid = Character.isJavaIdentifierPart(c) && !Character.isIdentifierIgnorable(c) && c != '$';
+			result.append(valid ? c : '_');
+		}
+		return result.toString();
+	}
+
+	private static String capitalize(String identifier) {
+		return Character.toUpperCase(identifier.charAt(0)) + identifier.substring(1);
+	}
+
+	private static String literal(String value) {
+		StringBuilder result = new StringBuilder(value.length() + 2).append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				result.append('\\').append(c);
+			} else if (c < ' ') {
+				// the Unicode escapes of the line terminators would end the literal
+				result.append(String.format("\\%03o", (int)c));
+			} else if (c > '~') {
+				result.append(String.format("\\u%04x", (int)c));
+			} else {
+				result.append(c);
+			}
+		}
+		return result.append('"').toString();
+	}
+
+	private static String comment(String value) {
+		// the backslashes are replaced, as the Unicode escapes are translated in the comments as well
+		StringBuilder result = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			boolean endsComment = c == '*' && i + 1 < value.length() && value.charAt(i + 1) == '/';
+			if (c < ' ' || c > '~' || c == '\\' || c == '<' || c == '>' || c == '&' || endsComment) {
+				result.append("&#").append((int)c).append(';');
+			} else {
+				result.append(c);
+			}
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,107 @@
+package dev.ornamental.sqlite.statement.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Test;
+
+public final class TableProcessorTest {
+
+	private static final String SCHEMA = String.join("\n",
+		"package sample;",
+		"",
+		"import static dev.ornamental.sqlite.statement.Literal.value;",
+		"import static dev.ornamental.sqlite.statement.SelectStatements.select;",
+		"import static dev.ornamental.sqlite.statement.SqlStatements.update;",
+		"",
+		"import dev.ornamental.sqlite.statement.processor.TableDefinition;",
+		"",
+		"@TableDefinition(name = \"File\", columns = { \"id\", \"unusedBytes\", \"copy\", \"2nd \\\"column\\\"\" })",
+		"@TableDefinition(schema = \"aux\", name = \"Tag\", columns = { \"name\" }, className = \"Tags\")",
+		"public final class Schema {",
+		"",
+		"\tpublic static String[] statements() {",
+		"\t\tFileTable file = new FileTable();",
+		"\t\tTags tags = new Tags();",
+		"\t\treturn new String[] {",
+		"\t\t\tupdate(file).set(file.unusedBytes, value(1)).set(file._2nd__column_, value(2))",
+		"\t\t\t\t.where(file.id().eq(file.copy_())).build(),",
+		"\t\t\tselect(tags.name()).from(tags).build() };",
+		"\t}",
+		"}");
+
+	@Test
+	public void testGeneration() throws Exception {
+		Path output = Files.createTempDirectory("generated");
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		assertTrue(diagnostics.getDiagnostics().toString(), compile(SCHEMA, output, diagnostics));
+
+		try (URLClassLoader loader = new URLClassLoader(
+			new URL[] { output.toUri().toURL() }, getClass().getClassLoader())) {
+
+			String[] statements = (String[])loader.loadClass("sample.Schema").getMethod("statements").invoke(null);
+			assertEquals(
+				Arrays.asList(
+					"UPDATE \"File\" SET \"unusedBytes\" = 1, \"2nd \"\"column\"\"\" = 2 "
+						+ "WHERE \"File\".\"id\" = \"File\".\"copy\"",
+					"SELECT \"aux\".\"Tag\".\"name\" FROM \"aux\".\"Tag\""),
+				Arrays.asList(statements));
+		}
+	}
+
+	@Test
+	public void testDuplicateColumns() throws IOException {
+		String schema = String.join("\n",
+			"package sample;",
+			"@dev.ornamental.sqlite.statement.processor.TableDefinition(name = \"T\", columns = { \"a\", \"A\" })",
+			"final class Schema { }");
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+		assertFalse(compile(schema, Files.createTempDirectory("generated"), diagnostics));
+		Diagnostic<? extends JavaFileObject> error = diagnostics.getDiagnostics().get(0);
+		assertTrue(error.getMessage(null).contains("The column A of the table T is duplicated."));
+	}
+
+	private static boolean compile(String source, Path output, DiagnosticCollector<JavaFileObject> diagnostics)
+		throws IOException {
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		JavaFileObject file = new SimpleJavaFileObject(
+			URI.create("string:///sample/Schema.java"), JavaFileObject.Kind.SOURCE) {
+
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return source;
+			}
+		};
+		List<String> options = Arrays.asList(
+			"-classpath", System.getProperty("java.class.path"),
+			"-d", output.toString(), "-s", output.toString());
+
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+			JavaCompiler.CompilationTask task = compiler.getTask(
+				null, fileManager, diagnostics, options, null, Collections.singletonList(file));
+			task.setProcessors(Collections.singletonList(new TableProcessor()));
+			return task.call();
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package dev.ornamental.sqlite.statement;
+
+/**
+ * This class has no functionality of its own. It is destined for grouping the classes pertaining
+ * to the aggregate function invocations having an <code>ORDER BY</code> or a <code>FILTER</code> clause,
+ * namely {@link Sorted} and {@link Filtered}.
+ */
+public final class Aggregate {
+
+	/**
+	 * Represents an aggregate function invocation having an <code>ORDER BY</code> clause
+	 * following the arguments. It has the form<br>
+	 * <code><strong><em>aggregateName</em>([DISTINCT] <em>arg<sub>0</sub></em>{, <em>arg<sub>i</sub></em>}
+	 * ORDER BY <em>sortingKey<sub>0</sub></em> [<em>order<sub>0</sub></em>]{,
+	 * <em>sortingKey<sub>j</sub></em> [<em>order<sub>j</sub></em>]})</strong></code>.<br>
+	 * This is a complete SQL expression.
+	 */
+	public static final class Sorted implements SqlExpression {
+
+		private final FunctionExpression function;
+
+		private final Sorted previous;
+
+		private final Sort sort;
+
+		Sorted(FunctionExpression function, Sort sort) {
+			this(function, null, sort);
+		}
+
+		Sorted(Sorted previous, Sort sort) {
+			this(null, previous, sort);
+		}
+
+		private Sorted(FunctionExpression function, Sorted previous, Sort sort) {
+			this.function = function;
+			this.previous = previous;
+			this.sort = sort;
+		}
+
+		/**
+		 * Adds one more <code>ORDER BY</code> sorting term with the default sorting order.<br>
+		 * The result is a complete SQL expression.
+		 * @param sortingKey the expression to sort the aggregated values by
+		 * @return the aggregate function invocation whose <code>ORDER BY</code> clause ends
+		 * with the specified sorting term
+		 */
+		public Sorted orderBy(SqlExpression sortingKey) {
+			return new Sorted(this, new Sort(sortingKey, null));
+		}
+
+		/**
+		 * Adds one more <code>ORDER BY</code> sorting term with the specified sorting order.<br>
+		 * The result is a complete SQL expression.
+		 * @param sortingKey the expression to sort the aggregated values by
+		 * @param order the sorting order
+		 * @return the aggregate function invocation whose <code>ORDER BY</code> clause ends
+		 * with the sorting term defined by the parameters of this method
+		 */
+		public Sorted orderBy(SqlExpression sortingKey, SortingOrder order) {
+			return new Sorted(this, new Sort(sortingKey, order));
+		}
+
+		/**
+		 * Adds a <code>FILTER</code> clause to this aggregate function invocation.<br>
+		 * The result is a complete SQL expression.
+		 * @param condition the condition the rows must satisfy in order to be aggregated
+		 * @return the aggregate function invocation expression ending with<br>
+		 * <code><strong>FILTER (WHERE <em>condition</em>)</strong></code>
+		 */
+		public Filtered filter(SqlExpression condition) {
+			return new Filtered(this, condition);
+		}
+
+		@Override
+		public void appendTo(StringBuilder receptacle) {
+			appendOpen(receptacle);
+			receptacle.append(')');
+		}
+
+		@Override
+		public int getPrecedence() {
+			return Integer.MAX_VALUE;
+		}
+
+		@Override
+		public Sorted copy() {
+			FunctionExpression functionCopy = function == null ? null : function.copy();
+			Sorted previousCopy = previous == null ? null : previous.copy();
+			Sort sortCopy = sort.copy();
+
+			return functionCopy == function && previousCopy == previous && sortCopy == sort
+				? this : new Sorted(functionCopy, previousCopy, sortCopy);
+		}
+
+		private void appendOpen(StringBuilder receptacle) {
+			if (function != null) {
+				function.appendOpen(receptacle);
+				receptacle.append(" ORDER BY ");
+			} else {
+				previous.appendOpen(receptacle);
+				receptacle.append(", ");
+			}
+
+			sort.appendTo(receptacle);
+		}
+
+		FunctionExpression function() {
+			return function;
+		}
+
+		Sorted previous() {
+			return previous;
+		}
+
+		Sort sort() {
+			return sort;
+		}
+	}
+
+	/**
+	 * Represents an aggregate function invocation having a <code>FILTER</code> clause.
+	 * It has the form<br>
+	 * <code><strong><em>aggregateInvocation</em> FILTER (WHERE <em>condition</em>)</strong></code>.<br>
+	 * This is a complete SQL expression.
+	 */
+	public static final class Filtered implements SqlExpression {
+
+		private final SqlExpression aggregate;
+
+		private final SqlExpression condition;
+
+		Filtered(SqlExpression aggregate, SqlExpression condition) {
+			this.aggregate = aggregate;
+			this.condition = condition;
+		}
+
+		@Override
+		public void appendTo(StringBuilder receptacle) {
+			aggregate.appendTo(receptacle);
+			receptacle.append(" FILTER (WHERE ");
+			condition.appendTo(receptacle);
+			receptacle.append(')');
+		}
+
+		@Override
+		public int getPrecedence() {
+			return Integer.MAX_VALUE;
+		}
+
+		@Override
+		public Filtered copy() {
+			SqlExpression aggregateCopy = aggregate.copy();
+			SqlExpression conditionCopy = condition.copy();
+
+			return aggregateCopy == aggregate && conditionCopy == condition
+				? this : new Filtered(aggregateCopy, conditionCopy);
+		}
+
+		SqlExpression aggregate() {
+			return aggregate;
+		}
+
+		SqlExpression condition() {
+			return condition;
+		}
+	}
+
+	private Aggregate() { }
+}
@@ -34,4 +34,8 @@ public final class AliasedSelect implements TableExpression {
 		return selectCopy == select && aliasCopy == alias
 			? this : new AliasedSelect(selectCopy, aliasCopy);
 	}
+
+	SelectStatement select() {
+		return select;
+	}
 }
@@ -58,4 +58,8 @@ public final class AliasedTable implements TableExpression {
 	public TableWithIndex notIndexed() {
 		return new TableWithIndex(this, null);
 	}
+
+	UnaliasedTable previous() {
+		return previous;
+	}
 }
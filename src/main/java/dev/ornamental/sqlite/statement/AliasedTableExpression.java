@@ -40,4 +40,8 @@ public final class AliasedTableExpression implements TableExpression {
 		return tableExpressionCopy == tableExpression && aliasCopy == alias
 			? this : new AliasedTableExpression(tableExpressionCopy, aliasCopy);
 	}
+
+	TableExpression tableExpression() {
+		return tableExpression;
+	}
 }
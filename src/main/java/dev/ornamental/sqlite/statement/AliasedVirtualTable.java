@@ -37,4 +37,8 @@ public final class AliasedVirtualTable implements TableExpression {
 		return previousCopy == previous && aliasCopy == alias
 			? this : new AliasedVirtualTable(previousCopy, aliasCopy);
 	}
+
+	UnaliasedVirtualTable previous() {
+		return previous;
+	}
 }
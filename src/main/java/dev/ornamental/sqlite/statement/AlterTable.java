@@ -51,6 +51,42 @@ public final class AlterTable {
 		public AddColumnSimpleStatement addColumn(CharSequence columnName) {
 			return new AddColumnSimpleStatement(schemaName, tableName, columnName);
 		}
+
+		/**
+		 * Supplements the stub so that it takes the form<br>
+		 * <code>ALTER TABLE <em>schemaName</em>.<em>tableName</em><strong>
+		 * RENAME COLUMN <em>columnName</em> TO <em>newColumnName</em>
+		 * </strong></code><br>
+		 * serving to rename a column of the table (requires SQLite 3.25.0 or newer).
+		 * The result is a complete SQL statement.
+		 * @param columnName the current name of the column
+		 * @param newColumnName the new name of the column
+		 * @return the complete <code>ALTER TABLE</code> statement
+		 */
+		public RenameColumn renameColumn(CharSequence columnName, CharSequence newColumnName) {
+			return new RenameColumn(schemaName, tableName, columnName, newColumnName);
+		}
+
+		/**
+		 * Supplements the stub so that it takes the form<br>
+		 * <code>ALTER TABLE <em>schemaName</em>.<em>tableName</em><strong>
+		 * DROP COLUMN <em>columnName</em>
+		 * </strong></code><br>
+		 * serving to remove a column from the table (requires SQLite 3.35.0 or newer).
+		 * Note that SQLite rewrites the whole table content to execute this statement
+		 * and refuses to drop the columns which are a part of a primary key, a uniqueness or
+		 * a foreign key constraint, or are referenced by indexes, views, triggers or other columns.
+		 * The result is a complete SQL statement.
+		 * @param columnName the name of the column to drop
+		 * @return the complete <code>ALTER TABLE</code> statement
+		 */
+		public DropColumn dropColumn(CharSequence columnName) {
+			return new DropColumn(schemaName, tableName, columnName);
+		}
+
+		AddColumnDefinition addColumn(CreateTable.ColumnDefinition column) {
+			return new AddColumnDefinition(addColumn(column.name()), column);
+		}
 	}
 
 	/**
@@ -91,6 +127,91 @@ public final class AlterTable {
 		}
 	}
 
+	/**
+	 * Represents the <code>ALTER TABLE</code> statement variant for column renaming:<br>
+	 * <code><strong>ALTER TABLE <em>schemaName</em>.<em>tableName</em>
+	 * RENAME COLUMN <em>columnName</em> TO <em>newColumnName</em></strong></code>.
+	 */
+	public static final class RenameColumn implements ExplicableStatement {
+
+		private final CharSequence schemaName;
+
+		private final CharSequence tableName;
+
+		private final CharSequence columnName;
+
+		private final CharSequence newColumnName;
+
+		RenameColumn(
+			CharSequence schemaName, CharSequence tableName, CharSequence columnName, CharSequence newColumnName) {
+
+			this.schemaName = schemaName;
+			this.tableName = tableName;
+			this.columnName = columnName;
+			this.newColumnName = newColumnName;
+		}
+
+		@Override
+		public RenameColumn copy() throws IllegalStateException {
+			CharSequence schemaNameCopy = schemaName == null ? null : schemaName.toString();
+			CharSequence tableNameCopy = tableName.toString();
+			CharSequence columnNameCopy = columnName.toString();
+			CharSequence newColumnNameCopy = newColumnName.toString();
+
+			return schemaNameCopy == schemaName && tableNameCopy == tableName
+				&& columnNameCopy == columnName && newColumnNameCopy == newColumnName
+					? this : new RenameColumn(schemaNameCopy, tableNameCopy, columnNameCopy, newColumnNameCopy);
+		}
+
+		@Override
+		public void build(StringBuilder receptacle) {
+			receptacle.append("ALTER TABLE ");
+			SqliteUtilities.appendQuotedName(receptacle, schemaName, tableName);
+			receptacle.append(" RENAME COLUMN ");
+			SqliteUtilities.appendQuotedName(receptacle, columnName);
+			receptacle.append(" TO ");
+			SqliteUtilities.appendQuotedName(receptacle, newColumnName);
+		}
+	}
+
+	/**
+	 * Represents the <code>ALTER TABLE</code> statement variant for removing a column from a table:<br>
+	 * <code><strong>ALTER TABLE <em>schemaName</em>.<em>tableName</em>
+	 * DROP COLUMN <em>columnName</em></strong></code>.
+	 */
+	public static final class DropColumn implements ExplicableStatement {
+
+		private final CharSequence schemaName;
+
+		private final CharSequence tableName;
+
+		private final CharSequence columnName;
+
+		DropColumn(CharSequence schemaName, CharSequence tableName, CharSequence columnName) {
+			this.schemaName = schemaName;
+			this.tableName = tableName;
+			this.columnName = columnName;
+		}
+
+		@Override
+		public DropColumn copy() throws IllegalStateException {
+			CharSequence schemaNameCopy = schemaName == null ? null : schemaName.toString();
+			CharSequence tableNameCopy = tableName.toString();
+			CharSequence columnNameCopy = columnName.toString();
+
+			return schemaNameCopy == schemaName && tableNameCopy == tableName && columnNameCopy == columnName
+				? this : new DropColumn(schemaNameCopy, tableNameCopy, columnNameCopy);
+		}
+
+		@Override
+		public void build(StringBuilder receptacle) {
+			receptacle.append("ALTER TABLE ");
+			SqliteUtilities.appendQuotedName(receptacle, schemaName, tableName);
+			receptacle.append(" DROP COLUMN ");
+			SqliteUtilities.appendQuotedName(receptacle, columnName);
+		}
+	}
+
 	/**
 	 * Represents the <code>ALTER TABLE</code> statement variant for adding a column to a table:<br>
 	 * <code><strong>ALTER TABLE <em>schemaName</em>.<em>tableName</em>
@@ -401,6 +522,36 @@ public final class AlterTable {
 			return new AddColumnCollate(this, collation);
 		}
 
+		/**
+		 * Makes the added column a generated column with the default (<code>VIRTUAL</code>) storage.
+		 * The statement takes the form<br>
+		 * <code>ALTER TABLE .. ADD COLUMN .. <strong>GENERATED ALWAYS AS (<em>expression</em>)</strong></code>.<br>
+		 * The result is a complete SQL statement.
+		 * @param expression the expression computing the column value from the other columns of the same row
+		 * @return the <code>ALTER TABLE .. ADD COLUMN</code> statement with a generated column constraint
+		 * on the added column
+		 */
+		public AddColumnGenerated generatedAs(SqlExpression expression) {
+			return new AddColumnGenerated(this, expression, null);
+		}
+
+		/**
+		 * Makes the added column a generated column with the specified storage. The statement takes
+		 * the form<br>
+		 * <code>ALTER TABLE .. ADD COLUMN .. <strong>GENERATED ALWAYS AS (<em>expression</em>)
+		 * VIRTUAL|STORED</strong></code>.<br>
+		 * Note that SQLite does not allow adding <code>STORED</code> generated columns
+		 * to an existing table.<br>
+		 * The result is a complete SQL statement.
+		 * @param expression the expression computing the column value from the other columns of the same row
+		 * @param storage the way the generated values are stored
+		 * @return the <code>ALTER TABLE .. ADD COLUMN</code> statement with a generated column constraint
+		 * on the added column
+		 */
+		public AddColumnGenerated generatedAs(SqlExpression expression, GeneratedColumnStorage storage) {
+			return new AddColumnGenerated(this, expression, storage);
+		}
+
 		/**
 		 * Adds a foreign key constraint referencing the primary key of another table
 		 * to the column definition. The statement takes the form<br>
@@ -490,6 +641,42 @@ public final class AlterTable {
 		}
 	}
 
+	/**
+	 * Represents an <code>ALTER TABLE .. ADD COLUMN</code> statement with the last
+	 * column constraint being a generated column constraint.
+	 */
+	public static final class AddColumnGenerated implements AddColumnStatement {
+
+		private final AddColumnWithConstraintStub stub;
+
+		private final SqlExpression expression;
+
+		private final GeneratedColumnStorage storage; // may be null
+
+		AddColumnGenerated(
+			AddColumnWithConstraintStub stub, SqlExpression expression, GeneratedColumnStorage storage) {
+
+			this.stub = stub;
+			this.expression = expression;
+			this.storage = storage;
+		}
+
+		@Override
+		public AddColumnGenerated copy() throws IllegalStateException {
+			AddColumnWithConstraintStub stubCopy = stub.copy();
+			SqlExpression expressionCopy = expression.copy();
+
+			return stubCopy == stub && expressionCopy == expression
+				? this : new AddColumnGenerated(stubCopy, expressionCopy, storage);
+		}
+
+		@Override
+		public void build(StringBuilder receptacle) {
+			stub.appendTo(receptacle);
+			Constraints.appendGenerated(receptacle, expression, storage);
+		}
+	}
+
 	/**
 	 * Represents an <code>ALTER TABLE .. ADD COLUMN</code> statement with the last
 	 * column constraint being a default value constraint.
@@ -937,5 +1124,34 @@ public final class AlterTable {
 		}
 	}
 
+	/**
+	 * Represents the <code>ALTER TABLE .. ADD COLUMN</code> statement adding a column
+	 * having the same definition as a column of a <code>CREATE TABLE</code> statement.
+	 */
+	static final class AddColumnDefinition implements ExplicableStatement {
+
+		private final AddColumnSimpleStatement previous;
+
+		private final CreateTable.ColumnDefinition column;
+
+		AddColumnDefinition(AddColumnSimpleStatement previous, CreateTable.ColumnDefinition column) {
+			this.previous = previous;
+			this.column = column;
+		}
+
+		@Override
+		public AddColumnDefinition copy() throws IllegalStateException {
+			AddColumnSimpleStatement previousCopy = previous.copy();
+
+			return previousCopy == previous ? this : new AddColumnDefinition(previousCopy, column);
+		}
+
+		@Override
+		public void build(StringBuilder receptacle) {
+			previous.build(receptacle);
+			receptacle.append(column.definition());
+		}
+	}
+
 	private AlterTable() { }
 }
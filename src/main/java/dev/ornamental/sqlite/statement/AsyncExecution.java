@@ -0,0 +1,191 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * This class contains static methods executing the statements asynchronously. The library has
+ * no connection layer, so the statements are executed by the functions supplied by the caller
+ * (e.g. using a JDBC connection), which are run by the specified {@link Executor}; the statements
+ * themselves are rendered on the calling thread, so the mutable statements may be changed as soon
+ * as the methods return.<br>
+ * As the executing functions usually block, they are never run by the common fork-join pool: by default,
+ * each of them is run by a new virtual thread if the runtime supports them (Java 21 or later),
+ * otherwise by a dedicated pool of {@value #DEFAULT_POOL_SIZE} daemon threads shared by all
+ * the calls. An executor sized for the number of the statements executed concurrently
+ * (e.g. after the number of the available connections) may be specified instead.
+ */
+public final class AsyncExecution {
+
+	/**
+	 * The number of the threads of the default executor used if the runtime does not support virtual threads.
+	 */
+	public static final int DEFAULT_POOL_SIZE = 16;
+
+	/**
+	 * Holds the default executor, which is created on first use.
+	 */
+	private static final class DefaultExecutor {
+
+		private static final Executor INSTANCE = create();
+
+		private DefaultExecutor() { }
+
+		private static Executor create() {
+			try {
+				// looked up reflectively, as the library is compiled for Java 8
+				return (Executor)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				// no virtual threads (or they are a preview feature which is not enabled)
+				AtomicInteger threadCount = new AtomicInteger();
+				ThreadFactory threadFactory = task -> {
+					Thread thread = new Thread(task, "sqlite-async-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				};
+				ThreadPoolExecutor executor = new ThreadPoolExecutor(
+					DEFAULT_POOL_SIZE, DEFAULT_POOL_SIZE, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(), threadFactory);
+				executor.allowCoreThreadTimeOut(true);
+
+				return executor;
+			}
+		}
+	}
+
+	private AsyncExecution() { }
+
+	/**
+	 * Returns the executor running the blocking functions by default: the virtual thread per task
+	 * executor if the runtime supports virtual threads, otherwise a pool of {@value #DEFAULT_POOL_SIZE}
+	 * daemon threads (which terminate after staying idle for a minute).
+	 * @return the default executor shared by all the calls
+	 */
+	public static Executor defaultExecutor() {
+		return DefaultExecutor.INSTANCE;
+	}
+
+	/**
+	 * Executes the statement asynchronously using the {@link #defaultExecutor() default executor}.
+	 * @param statement the statement to execute
+	 * @param runner the function executing the SQL text passed as its argument and returning the result
+	 * @param <R> the type of the result
+	 * @return the future completed with the result of the function, or completed exceptionally
+	 * if the function throws an exception
+	 */
+	public static <R> CompletableFuture<R> execute(
+		SqlStatement statement, Function<? super String, ? extends R> runner) {
+
+		return execute(statement, defaultExecutor(), runner);
+	}
+
+	/**
+	 * Executes the statement asynchronously using the specified executor.
+	 * @param statement the statement to execute
+	 * @param executor the executor running the function
+	 * @param runner the function executing the SQL text passed as its argument and returning the result
+	 * @param <R> the type of the result
+	 * @return the future completed with the result of the function, or completed exceptionally
+	 * if the function throws an exception
+	 */
+	public static <R> CompletableFuture<R> execute(
+		SqlStatement statement, Executor executor, Function<? super String, ? extends R> runner) {
+
+		String sql = statement.build();
+		return CompletableFuture.supplyAsync(() -> runner.apply(sql), executor);
+	}
+
+	/**
+	 * Reads the pages of the paginated statement asynchronously using
+	 * the {@link #defaultExecutor() default executor},
+	 * passing each page to the consumer (see
+	 * {@link #forEachPage(KeysetPagination, Executor, BiFunction, Function, Function)}).
+	 * @param pagination the paginated statement
+	 * @param runner the function executing the SQL text passed as its first argument
+	 * with the parameter values passed as its second argument and returning the rows of the page
+	 * @param keyOf the function extracting the values of the sorting keys (in the order of the keys)
+	 * from a row
+	 * @param consumer the function processing a page and returning the stage completed
+	 * when the next page may be read
+	 * @param <R> the type of the rows
+	 * @return the future completed when all the pages have been processed, or completed exceptionally
+	 * if reading or processing a page fails
+	 */
+	public static <R> CompletableFuture<Void> forEachPage(
+		KeysetPagination pagination,
+		BiFunction<? super String, ? super List<Object>, ? extends List<? extends R>> runner,
+		Function<? super R, ? extends List<?>> keyOf,
+		Function<? super List<R>, ? extends CompletionStage<?>> consumer) {
+
+		return forEachPage(pagination, defaultExecutor(), runner, keyOf, consumer);
+	}
+
+	/**
+	 * Reads the pages of the paginated statement asynchronously using the specified executor,
+	 * passing each page to the consumer. The reading is driven by the consumer demand: the next page
+	 * is read only after the stage returned by the consumer for the previous page completes,
+	 * so at most one page is held in memory and a slow consumer does not cause the rows to pile up.
+	 * The reading stops after an empty or incomplete page, or when the consumer stage completes
+	 * exceptionally.
+	 * @param pagination the paginated statement
+	 * @param executor the executor running the function reading the pages
+	 * @param runner the function executing the SQL text passed as its first argument
+	 * with the parameter values passed as its second argument and returning the rows of the page
+	 * @param keyOf the function extracting the values of the sorting keys (in the order of the keys)
+	 * from a row
+	 * @param consumer the function processing a page and returning the stage completed
+	 * when the next page may be read
+	 * @param <R> the type of the rows
+	 * @return the future completed when all the pages have been processed, or completed exceptionally
+	 * if reading or processing a page fails
+	 */
+	public static <R> CompletableFuture<Void> forEachPage(
+		KeysetPagination pagination, Executor executor,
+		BiFunction<? super String, ? super List<Object>, ? extends List<? extends R>> runner,
+		Function<? super R, ? extends List<?>> keyOf,
+		Function<? super List<R>, ? extends CompletionStage<?>> consumer) {
+
+		Iterator<List<R>> pages = pagination.pages(runner, keyOf);
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		executor.execute(() -> readPages(pages, executor, consumer, result));
+
+		return result;
+	}
+
+	private static <R> void readPages(
+		Iterator<List<R>> pages, Executor executor,
+		Function<? super List<R>, ? extends CompletionStage<?>> consumer, CompletableFuture<Void> result) {
+
+		// the pages whose processing completes synchronously are read in a loop rather than recursively
+		try {
+			while (pages.hasNext()) {
+				CompletableFuture<?> processed = consumer.apply(pages.next()).toCompletableFuture();
+				if (!processed.isDone()) {
+					processed.whenComplete((ignored, e) -> {
+						if (e != null) {
+							result.completeExceptionally(e);
+						} else {
+							executor.execute(() -> readPages(pages, executor, consumer, result));
+						}
+					});
+					return;
+				}
+				processed.join();
+			}
+			result.complete(null);
+		} catch (RuntimeException e) {
+			result.completeExceptionally(e);
+		}
+	}
+}
@@ -0,0 +1,261 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Collects the point lookups of single keys requested by concurrent callers and executes them
+ * as a single query per batch, so that <em>N</em> lookups cost one statement execution
+ * instead of <em>N</em>. Each call to {@link #load(Object)} returns a future completed with the rows
+ * matching the key once the batch containing the key is executed; the batch is executed as soon as
+ * it contains the maximum number of distinct keys, when {@link #dispatch()} is called, or
+ * (if the loader has been created with a scheduler) when the batching window started by the first key
+ * of the batch elapses.<br>
+ * The keys of a batch are passed to the query as the parameters of an <code>IN</code> list;
+ * the number of the parameters is rounded up to a power of two (repeating the last key), so that
+ * only a few distinct statements have to be prepared. The batches of more than {@value #IN_LIST_LIMIT} keys
+ * are executed in chunks of at most {@value #IN_LIST_LIMIT} keys, one query per chunk; the keys are
+ * always bound as the separate parameters, so they are compared to the key expression with its affinity
+ * applied (e.g. the numeric keys match the numeric text values of a <code>TEXT</code> column).<br>
+ * The query is executed by the executor supplied by the caller on the thread dispatching the batch;
+ * the rows are distributed among the keys using the key extractor, which must return the keys equal
+ * to the requested ones (e.g. of the same boxed type).<br>
+ * The instances of this class are thread-safe.
+ * @param <K> the type of the keys
+ * @param <R> the type of the result rows
+ */
+public final class BatchLoader<K, R> {
+
+	/**
+	 * The maximum number of the keys passed as the parameters of an <code>IN</code> list in a single query.
+	 */
+	public static final int IN_LIST_LIMIT = 128;
+
+	private final Select.NotFiltered source;
+
+	private final SqlExpression key;
+
+	private final int maxBatchSize;
+
+	private final Function<? super R, ? extends K> keyOf;
+
+	private final BiFunction<? super String, ? super List<Object>, ? extends Iterable<? extends R>> executor;
+
+	private final ScheduledExecutorService scheduler; // may be null
+
+	private final long windowNanos;
+
+	private Map<K, CompletableFuture<List<R>>> pending = new LinkedHashMap<>();
+
+	private long batchNumber;
+
+	private BatchLoader(
+		Select.NotFiltered source, SqlExpression key, int maxBatchSize,
+		Function<? super R, ? extends K> keyOf,
+		BiFunction<? super String, ? super List<Object>, ? extends Iterable<? extends R>> executor,
+		ScheduledExecutorService scheduler, long windowNanos) {
+
+		if (maxBatchSize <= 0) {
+			throw new IllegalArgumentException("The batch size must be positive.");
+		}
+		if (windowNanos < 0) {
+			throw new IllegalArgumentException("The batching window must not be negative.");
+		}
+
+		this.source = source;
+		this.key = key;
+		this.maxBatchSize = maxBatchSize;
+		this.keyOf = keyOf;
+		this.executor = executor;
+		this.scheduler = scheduler;
+		this.windowNanos = windowNanos;
+	}
+
+	/**
+	 * Creates the loader executing the batches when they are full or when {@link #dispatch()} is called.
+	 * @param source the <code>SELECT</code> statement reading the rows; it must have
+	 * no <code>WHERE</code>, <code>GROUP BY</code>, <code>ORDER BY</code> nor <code>LIMIT</code> clauses
+	 * @param key the expression (usually a column) compared to the requested keys
+	 * @param maxBatchSize the maximum number of distinct keys in a batch
+	 * @param keyOf the function extracting the key from a result row
+	 * @param executor the function executing the SQL text passed as its first argument
+	 * with the parameter values passed as its second argument and returning the result rows
+	 * @param <K> the type of the keys
+	 * @param <R> the type of the result rows
+	 * @return the new loader
+	 * @throws IllegalArgumentException if the batch size is not positive
+	 */
+	public static <K, R> BatchLoader<K, R> of(
+		Select.NotFiltered source, SqlExpression key, int maxBatchSize,
+		Function<? super R, ? extends K> keyOf,
+		BiFunction<? super String, ? super List<Object>, ? extends Iterable<? extends R>> executor)
+		throws IllegalArgumentException {
+
+		return new BatchLoader<>(source, key, maxBatchSize, keyOf, executor, null, 0);
+	}
+
+	/**
+	 * Creates the loader executing the batches when they are full, when {@link #dispatch()} is called,
+	 * or when the specified window elapses after the first key of the batch has been requested.
+	 * @param source the <code>SELECT</code> statement reading the rows; it must have
+	 * no <code>WHERE</code>, <code>GROUP BY</code>, <code>ORDER BY</code> nor <code>LIMIT</code> clauses
+	 * @param key the expression (usually a column) compared to the requested keys
+	 * @param maxBatchSize the maximum number of distinct keys in a batch
+	 * @param keyOf the function extracting the key from a result row
+	 * @param executor the function executing the SQL text passed as its first argument
+	 * with the parameter values passed as its second argument and returning the result rows
+	 * @param scheduler the scheduler dispatching the batches when their windows elapse
+	 * @param window the duration of the batching window
+	 * @param unit the time unit of the window duration
+	 * @param <K> the type of the keys
+	 * @param <R> the type of the result rows
+	 * @return the new loader
+	 * @throws IllegalArgumentException if the batch size is not positive or the window is negative
+	 */
+	public static <K, R> BatchLoader<K, R> of(
+		Select.NotFiltered source, SqlExpression key, int maxBatchSize,
+		Function<? super R, ? extends K> keyOf,
+		BiFunction<? super String, ? super List<Object>, ? extends Iterable<? extends R>> executor,
+		ScheduledExecutorService scheduler, long window, TimeUnit unit) throws IllegalArgumentException {
+
+		return new BatchLoader<>(source, key, maxBatchSize, keyOf, executor, scheduler, unit.toNanos(window));
+	}
+
+	/**
+	 * Requests the rows matching the specified key. The requests of the same key within a batch
+	 * share the same future.
+	 * @param keyValue the key; it must not be {@literal null}
+	 * @return the future completed with the (possibly empty) list of the rows matching the key
+	 * or completed exceptionally if the execution of the batch (or of its chunk containing the key) fails
+	 * @throws IllegalArgumentException if the key is {@literal null}
+	 */
+	public CompletableFuture<List<R>> load(K keyValue) throws IllegalArgumentException {
+		if (keyValue == null) {
+			throw new IllegalArgumentException("The key must not be null.");
+		}
+
+		Map<K, CompletableFuture<List<R>>> batch = null;
+		CompletableFuture<List<R>> result;
+		synchronized (this) {
+			result = pending.get(keyValue);
+			if (result == null) {
+				result = new CompletableFuture<>();
+				pending.put(keyValue, result);
+				if (pending.size() >= maxBatchSize) {
+					batch = takePending();
+				} else if (pending.size() == 1 && scheduler != null) {
+					long scheduledBatch = batchNumber;
+					scheduler.schedule(() -> dispatch(scheduledBatch), windowNanos, TimeUnit.NANOSECONDS);
+				}
+			}
+		}
+
+		if (batch != null) {
+			execute(batch);
+		}
+		return result;
+	}
+
+	/**
+	 * Executes the pending batch (if any) on the calling thread.
+	 */
+	public void dispatch() {
+		dispatch(-1);
+	}
+
+	/**
+	 * Returns the statement executed for the batch (or the chunk of a larger batch)
+	 * of the specified number of keys.
+	 * @param keyCount the number of the distinct keys in the batch or chunk
+	 * @return the <code>SELECT</code> statement having the form<br>
+	 * <code><strong><em>source</em> WHERE <em>key</em> IN (?1{, ?<em>i</em>})</strong></code>
+	 * with the number of the parameters rounded up to a power of two
+	 * @throws IllegalArgumentException if the number of the keys is not positive
+	 * or exceeds {@value #IN_LIST_LIMIT}
+	 */
+	public SelectStatement statement(int keyCount) throws IllegalArgumentException {
+		if (keyCount <= 0 || keyCount > IN_LIST_LIMIT) {
+			throw new IllegalArgumentException(
+				"The number of the keys must be positive and must not exceed " + IN_LIST_LIMIT + ".");
+		}
+
+		int parameterCount = parameterCount(keyCount);
+		List<SqlExpression> parameters = new ArrayList<>(parameterCount);
+		for (int i = 1; i <= parameterCount; i++) {
+			parameters.add(SqlExpressions.parameter("?" + i));
+		}
+		return source.where(key.in(parameters));
+	}
+
+	private void dispatch(long scheduledBatch) {
+		Map<K, CompletableFuture<List<R>>> batch;
+		synchronized (this) {
+			// the batch the window has been started for may have been dispatched already
+			batch = scheduledBatch < 0 || scheduledBatch == batchNumber ? takePending() : Collections.emptyMap();
+		}
+
+		if (!batch.isEmpty()) {
+			execute(batch);
+		}
+	}
+
+	private Map<K, CompletableFuture<List<R>>> takePending() {
+		Map<K, CompletableFuture<List<R>>> batch = pending;
+		if (!batch.isEmpty()) {
+			pending = new LinkedHashMap<>();
+			batchNumber++;
+		}
+		return batch;
+	}
+
+	private void execute(Map<K, CompletableFuture<List<R>>> batch) {
+		List<K> keys = new ArrayList<>(batch.keySet());
+		for (int start = 0; start < keys.size(); start += IN_LIST_LIMIT) {
+			// the failure of a chunk fails only the keys of the chunk
+			execute(batch, keys.subList(start, Math.min(start + IN_LIST_LIMIT, keys.size())));
+		}
+	}
+
+	private void execute(Map<K, CompletableFuture<List<R>>> batch, List<K> keys) {
+		Map<K, List<R>> rowsByKey = new HashMap<>();
+		try {
+			String sql = statement(keys.size()).build();
+			for (R row : executor.apply(sql, parameters(keys))) {
+				rowsByKey.computeIfAbsent(keyOf.apply(row), k -> new ArrayList<>()).add(row);
+			}
+		} catch (RuntimeException e) {
+			for (K keyValue : keys) {
+				batch.get(keyValue).completeExceptionally(e);
+			}
+			return;
+		}
+
+		for (K keyValue : keys) {
+			List<R> rows = rowsByKey.get(keyValue);
+			batch.get(keyValue).complete(rows == null ? Collections.emptyList() : Collections.unmodifiableList(rows));
+		}
+	}
+
+	private static List<Object> parameters(List<?> keys) {
+		int parameterCount = parameterCount(keys.size());
+		List<Object> parameters = new ArrayList<>(parameterCount);
+		parameters.addAll(keys);
+		while (parameters.size() < parameterCount) {
+			parameters.add(keys.get(keys.size() - 1));
+		}
+		return parameters;
+	}
+
+	private static int parameterCount(int keyCount) {
+		return keyCount == 1 ? 1 : Integer.highestOneBit(keyCount - 1) << 1;
+	}
+}
@@ -55,4 +55,20 @@ public final class BetweenExpression implements SqlExpression {
 		return comparandCopy == comparand && minCopy == min && maxCopy == max
 			? this : new BetweenExpression(not, comparandCopy, minCopy, maxCopy);
 	}
+
+	BetweenExpression negated() {
+		return new BetweenExpression(!not, comparand, min, max);
+	}
+
+	SqlExpression comparand() {
+		return comparand;
+	}
+
+	SqlExpression min() {
+		return min;
+	}
+
+	SqlExpression max() {
+		return max;
+	}
 }
@@ -22,12 +22,9 @@ public final class BinaryOperator implements SqlExpression {
 
 	@Override
 	public void appendTo(StringBuilder receptacle) {
-		boolean leftParentheses = left.getPrecedence() < operator.getPrecedence();
-		boolean rightParentheses = right.getPrecedence() <= operator.getPrecedence();
-
-		SqliteUtilities.parentheses(receptacle, leftParentheses, left::appendTo);
-		receptacle.append(' ').append(operator.getSymbol()).append(' ');
-		SqliteUtilities.parentheses(receptacle, rightParentheses, right::appendTo);
+		// the nested operator expressions (such as the ones built by chaining and(...) or or(...))
+		// are rendered iteratively, so that their depth is not limited by the stack size
+		OperatorTree.appendTo(this, receptacle);
 	}
 
 	@Override
@@ -37,10 +34,22 @@ public final class BinaryOperator implements SqlExpression {
 
 	@Override
 	public BinaryOperator copy() {
-		SqlExpression leftCopy = left.copy();
-		SqlExpression rightCopy = right.copy();
+		return (BinaryOperator)OperatorTree.copy(this);
+	}
+
+	SqlExpression left() {
+		return left;
+	}
+
+	SqlExpression right() {
+		return right;
+	}
+
+	Operator operator() {
+		return operator;
+	}
 
-		return leftCopy == left && rightCopy == right
-			? this : new BinaryOperator(leftCopy, rightCopy, operator);
+	BinaryOperator withOperands(SqlExpression newLeft, SqlExpression newRight) {
+		return newLeft == left && newRight == right ? this : new BinaryOperator(newLeft, newRight, operator);
 	}
 }
@@ -21,17 +21,21 @@ import java.util.regex.Pattern;
  */
 public final class BindingParameter implements SqlExpression {
 
-	static final BindingParameter NAMELESS = new BindingParameter("?");
-
-	private final String parameter;
+	static final BindingParameter NAMELESS = new BindingParameter();
 
 	private static final Pattern NAME_PATTERN = Pattern.compile("^\\?([1-9]\\d*)?|([:@$])[a-zA-Z0-9]+$");
 
+	private final String parameter;
+
 	BindingParameter(String parameter) { // do not support variability
 		checkName(parameter);
 		this.parameter = parameter;
 	}
 
+	private BindingParameter() { // NAMELESS is initialized before NAME_PATTERN, so it must not be checked
+		this.parameter = "?";
+	}
+
 	@Override
 	public void appendTo(StringBuilder receptacle) {
 		receptacle.append(parameter);
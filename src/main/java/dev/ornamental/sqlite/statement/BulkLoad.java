@@ -0,0 +1,220 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the statement plan for loading a large number of rows into a table
+ * (see {@link #of(Insert.WithColumnNames)}):
+ * <ol>
+ * <li>the {@link #prologue()} applies the load-optimized <code>PRAGMA</code>s and drops
+ * the registered secondary indexes;</li>
+ * <li>the rows are inserted in large transactions using the multi-row parametrized statement
+ * returned by {@link #insert()}, which is built once and should be prepared once
+ * (the remainder of the rows is inserted with {@link #insert(int)});</li>
+ * <li>the {@link #epilogue()} recreates the dropped indexes, which is considerably cheaper than
+ * maintaining them row by row.</li>
+ * </ol>
+ * The regular connection settings have to be restored after the load, e.g. with
+ * {@link PerformanceProfile#statements()}. The plan is executed with the records converted
+ * in parallel by {@link BulkLoader}.<br>
+ * The instances of this class are immutable.
+ */
+public final class BulkLoad {
+
+	/**
+	 * The default maximum number of binding parameters in a statement
+	 * (<code>SQLITE_MAX_VARIABLE_NUMBER</code> of SQLite versions prior to 3.32.0).
+	 */
+	public static final int DEFAULT_MAX_PARAMETERS = 999;
+
+	private final Insert.WithColumnNames target;
+
+	private final int columnCount;
+
+	private final PerformanceProfile profile;
+
+	private final List<SqlStatement> dropIndexes;
+
+	private final List<SqlStatement> createIndexes;
+
+	private final int rowsPerStatement;
+
+	private final Insert.Values insert;
+
+	private BulkLoad(
+		Insert.WithColumnNames target, int columnCount, PerformanceProfile profile,
+		List<SqlStatement> dropIndexes, List<SqlStatement> createIndexes, int maxParameters) {
+
+		if (maxParameters < columnCount) {
+			throw new IllegalArgumentException(
+				"The maximum number of parameters must not be less than the number of columns.");
+		}
+
+		this.target = target;
+		this.columnCount = columnCount;
+		this.profile = profile;
+		this.dropIndexes = dropIndexes;
+		this.createIndexes = createIndexes;
+		this.rowsPerStatement = maxParameters / columnCount;
+		this.insert = buildInsert(rowsPerStatement);
+	}
+
+	/**
+	 * Creates the plan for loading rows using the specified <code>INSERT</code> statement stub.
+	 * @param target the <code>INSERT</code> statement stub with explicitly specified target columns
+	 * @return the bulk load plan
+	 */
+	public static BulkLoad of(Insert.WithColumnNames target) {
+		Insert.WithColumnNames targetCopy = target.copy();
+		int columnCount = targetCopy.columnCount();
+		if (columnCount == 0) {
+			throw new IllegalArgumentException("At least one column must be specified.");
+		}
+
+		return new BulkLoad(
+			targetCopy, columnCount, PerformanceProfile.bulkLoad(),
+			Collections.emptyList(), Collections.emptyList(), DEFAULT_MAX_PARAMETERS);
+	}
+
+	/**
+	 * Returns the plan differing from this one in the connection settings applied before the load
+	 * (by default, {@link PerformanceProfile#bulkLoad()}).
+	 * @param profile the settings to apply before the load
+	 * @return the new plan
+	 */
+	public BulkLoad withProfile(PerformanceProfile profile) {
+		return new BulkLoad(
+			target, columnCount, profile, dropIndexes, createIndexes, maxParameters());
+	}
+
+	/**
+	 * Returns the plan differing from this one in the maximum number of binding parameters
+	 * in the insertion statement, which defines the number of rows inserted by a single statement.
+	 * @param maxParameters the maximum number of binding parameters (<code>SQLITE_MAX_VARIABLE_NUMBER</code>
+	 * of the SQLite library in use)
+	 * @return the new plan
+	 */
+	public BulkLoad withMaxParameters(int maxParameters) {
+		return new BulkLoad(
+			target, columnCount, profile, dropIndexes, createIndexes, maxParameters);
+	}
+
+	/**
+	 * Returns the plan which additionally drops the specified index before the load
+	 * and recreates it afterwards. Note that the indexes backing <code>UNIQUE</code> and
+	 * <code>PRIMARY KEY</code> constraints cannot be dropped.
+	 * @param index the definition of the index (see <code>PRAGMA index_list</code>
+	 * for the list of the indexes of the table)
+	 * @return the new plan
+	 */
+	public BulkLoad withIndex(CreateIndex.OnColumns index) {
+		return withIndex(index.dropIfExists(), index);
+	}
+
+	/**
+	 * Returns the plan which additionally drops the specified partial index before the load
+	 * and recreates it afterwards.
+	 * @param index the definition of the index (see <code>PRAGMA index_list</code>
+	 * for the list of the indexes of the table)
+	 * @return the new plan
+	 */
+	public BulkLoad withIndex(CreateIndex.Constrained index) {
+		return withIndex(index.dropIfExists(), index);
+	}
+
+	/**
+	 * Returns the number of rows inserted by the statement returned by {@link #insert()}.
+	 * @return the number of rows per insertion statement
+	 */
+	public int rowsPerStatement() {
+		return rowsPerStatement;
+	}
+
+	/**
+	 * Returns the statements to execute before the load.
+	 * @return the unmodifiable list of the statements applying the load-optimized settings
+	 * and dropping the registered indexes
+	 */
+	public List<SqlStatement> prologue() {
+		List<SqlStatement> result = new ArrayList<>(profile.statements());
+		result.addAll(dropIndexes);
+
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Returns the parametrized statement inserting {@link #rowsPerStatement()} rows;
+	 * the values of the rows are bound to the unnamed parameters row by row.
+	 * @return the statement having the form<br>
+	 * <code><strong>INSERT INTO [<em>schemaName</em>.]<em>tableName</em>(<em>column<sub>0</sub></em>{,
+	 * <em>column<sub>i</sub></em>}) VALUES (?{, ?}){, (?{, ?})}</strong></code>
+	 */
+	public Insert.Values insert() {
+		return insert;
+	}
+
+	/**
+	 * Returns the parametrized statement inserting the specified number of rows,
+	 * which is meant for the remainder of the rows that does not fill the statement
+	 * returned by {@link #insert()}.
+	 * @param rowCount the number of rows to insert
+	 * @return the statement having the form<br>
+	 * <code><strong>INSERT INTO [<em>schemaName</em>.]<em>tableName</em>(<em>column<sub>0</sub></em>{,
+	 * <em>column<sub>i</sub></em>}) VALUES (?{, ?}){, (?{, ?})}</strong></code>
+	 */
+	public Insert.Values insert(int rowCount) {
+		if (rowCount <= 0 || rowCount > rowsPerStatement) {
+			throw new IllegalArgumentException(
+				"The number of rows must be positive and must not exceed " + rowsPerStatement + ".");
+		}
+
+		return rowCount == rowsPerStatement ? insert : buildInsert(rowCount);
+	}
+
+	/**
+	 * Returns the statements to execute after the load.
+	 * @return the unmodifiable list of the statements recreating the registered indexes
+	 */
+	public List<SqlStatement> epilogue() {
+		return createIndexes;
+	}
+
+	/**
+	 * Returns the number of the target columns, i.e. of the parameters per inserted row.
+	 * @return the number of the columns
+	 */
+	int columnCount() {
+		return columnCount;
+	}
+
+	private BulkLoad withIndex(SqlStatement drop, SqlStatement create) {
+		List<SqlStatement> drops = new ArrayList<>(dropIndexes);
+		drops.add(drop.copy());
+		List<SqlStatement> creates = new ArrayList<>(createIndexes);
+		creates.add(create.copy());
+
+		return new BulkLoad(
+			target, columnCount, profile,
+			Collections.unmodifiableList(drops), Collections.unmodifiableList(creates), maxParameters());
+	}
+
+	private int maxParameters() {
+		return rowsPerStatement * columnCount;
+	}
+
+	private Insert.Values buildInsert(int rowCount) {
+		SqlExpression[] row = new SqlExpression[columnCount];
+		Arrays.fill(row, SqlExpressions.parameter());
+		List<SqlExpression> rowList = Arrays.asList(row);
+
+		Insert.ValuesList result = target.values();
+		for (int i = 0; i < rowCount; i++) {
+			result = result.add(rowList);
+		}
+
+		return (Insert.Values) result;
+	}
+}
@@ -0,0 +1,451 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Loads a large number of records into a table executing a {@link BulkLoad} plan: the producer tasks
+ * convert the records into the binding parameters of the multi-row insertion statement in parallel,
+ * while the single writer task executes the statements in large transactions. The writer executes
+ * the {@link BulkLoad#prologue() prologue} of the plan first and its {@link BulkLoad#epilogue() epilogue}
+ * (recreating the dropped indexes) last, also when the load fails, so that the table keeps its indexes.
+ * The insertion statement is rendered once and executed with the parameters of
+ * {@link BulkLoad#rowsPerStatement()} records (the remainder of the records is inserted by a shorter statement);
+ * the order in which the records are inserted is not defined if there is more than one producer.<br>
+ * The statements are executed by the function supplied by the caller (e.g. using the JDBC connection
+ * dedicated to the load), which is called by the writer task only. The producer tasks and the writer task
+ * are run by the specified executor (by default, by {@link AsyncExecution#defaultExecutor()}), which has to
+ * be able to run all of them concurrently. After each transaction is committed, the progress of the load
+ * (the numbers of the rows and bytes loaded so far and their rates) is passed to the reporter.<br>
+ * The instances of this class are immutable provided the functions are.
+ * @param <T> the type of the records
+ */
+public final class BulkLoader<T> {
+
+	/**
+	 * The default number of rows inserted in a transaction.
+	 */
+	public static final int DEFAULT_ROWS_PER_TRANSACTION = 100_000;
+
+	private static final int QUEUED_BATCHES_PER_PRODUCER = 4;
+
+	private static final long POLL_MILLIS = 10;
+
+	/**
+	 * The progress of a load: the numbers of the rows and of the bytes loaded and the time elapsed
+	 * since the load has been started. The bytes are the approximate size of the bound values:
+	 * the UTF-8 length of the strings, the length of the byte arrays and eight bytes per any other
+	 * non-{@literal null} value.
+	 */
+	public static final class Progress {
+
+		private final long rows;
+
+		private final long bytes;
+
+		private final long elapsedNanos;
+
+		Progress(long rows, long bytes, long elapsedNanos) {
+			this.rows = rows;
+			this.bytes = bytes;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		/**
+		 * Returns the number of the rows loaded.
+		 * @return the number of the rows
+		 */
+		public long rows() {
+			return rows;
+		}
+
+		/**
+		 * Returns the approximate number of the bytes loaded.
+		 * @return the number of the bytes
+		 */
+		public long bytes() {
+			return bytes;
+		}
+
+		/**
+		 * Returns the time elapsed since the load has been started.
+		 * @param unit the time unit of the result
+		 * @return the elapsed time
+		 */
+		public long elapsed(TimeUnit unit) {
+			return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * Returns the average number of the rows loaded per second.
+		 * @return the rate of the rows
+		 */
+		public double rowsPerSecond() {
+			return perSecond(rows);
+		}
+
+		/**
+		 * Returns the average number of the bytes loaded per second.
+		 * @return the rate of the bytes
+		 */
+		public double bytesPerSecond() {
+			return perSecond(bytes);
+		}
+
+		private double perSecond(long count) {
+			return elapsedNanos == 0 ? 0 : count * (double)TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+		}
+	}
+
+	/**
+	 * The binding parameters of a single execution of an insertion statement.
+	 */
+	private static final class Batch {
+
+		private final List<Object> parameters;
+
+		private final int rowCount;
+
+		private final long bytes;
+
+		Batch(List<Object> parameters, int rowCount, long bytes) {
+			this.parameters = parameters;
+			this.rowCount = rowCount;
+			this.bytes = bytes;
+		}
+	}
+
+	/**
+	 * The state of a single load shared by its producer and writer tasks.
+	 */
+	private static final class Load<T> {
+
+		private final Iterator<? extends T> records;
+
+		private final BlockingQueue<Batch> batches;
+
+		private final AtomicInteger activeProducers;
+
+		private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+		Load(Iterator<? extends T> records, int producerCount) {
+			this.records = records;
+			this.batches = new ArrayBlockingQueue<>(QUEUED_BATCHES_PER_PRODUCER * producerCount);
+			this.activeProducers = new AtomicInteger(producerCount);
+		}
+	}
+
+	private final BulkLoad plan;
+
+	private final Function<? super T, ? extends List<?>> binder;
+
+	private final BiFunction<? super String, ? super List<Object>, ?> runner;
+
+	private final Executor executor;
+
+	private final int producerCount;
+
+	private final int statementsPerTransaction;
+
+	private final Consumer<? super Progress> reporter;
+
+	private BulkLoader(
+		BulkLoad plan, Function<? super T, ? extends List<?>> binder,
+		BiFunction<? super String, ? super List<Object>, ?> runner, Executor executor,
+		int producerCount, int statementsPerTransaction, Consumer<? super Progress> reporter) {
+
+		this.plan = plan;
+		this.binder = binder;
+		this.runner = runner;
+		this.executor = executor;
+		this.producerCount = producerCount;
+		this.statementsPerTransaction = statementsPerTransaction;
+		this.reporter = reporter;
+	}
+
+	/**
+	 * Creates the loader executing the specified plan with the default settings: the records are converted
+	 * by as many producers as there are processors (but by no more than {@value AsyncExecution#DEFAULT_POOL_SIZE}
+	 * less one), {@value #DEFAULT_ROWS_PER_TRANSACTION} rows (rounded down to whole statements) are inserted
+	 * in a transaction, and the progress is not reported.
+	 * @param plan the bulk load plan
+	 * @param binder the function converting a record into the values of the target columns of the plan
+	 * (in the order of the columns)
+	 * @param runner the function executing the SQL text passed as its first argument
+	 * with the parameter values passed as its second argument
+	 * @param <T> the type of the records
+	 * @return the new loader
+	 */
+	public static <T> BulkLoader<T> of(
+		BulkLoad plan, Function<? super T, ? extends List<?>> binder,
+		BiFunction<? super String, ? super List<Object>, ?> runner) {
+
+		int producerCount = Math.min(
+			Runtime.getRuntime().availableProcessors(), AsyncExecution.DEFAULT_POOL_SIZE - 1);
+		return new BulkLoader<>(
+			plan, binder, runner, AsyncExecution.defaultExecutor(), producerCount,
+			statementsPerTransaction(plan, DEFAULT_ROWS_PER_TRANSACTION), progress -> { });
+	}
+
+	/**
+	 * Returns the loader differing from this one in the executor running the producer and writer tasks.
+	 * @param executor the executor, which has to be able to run the producer tasks and the writer task
+	 * concurrently
+	 * @return the new loader
+	 */
+	public BulkLoader<T> withExecutor(Executor executor) {
+		return new BulkLoader<>(
+			plan, binder, runner, executor, producerCount, statementsPerTransaction, reporter);
+	}
+
+	/**
+	 * Returns the loader differing from this one in the number of the producer tasks.
+	 * @param producerCount the number of the producer tasks converting the records
+	 * @return the new loader
+	 * @throws IllegalArgumentException if the number of the producers is not positive
+	 */
+	public BulkLoader<T> withProducers(int producerCount) throws IllegalArgumentException {
+		if (producerCount <= 0) {
+			throw new IllegalArgumentException("The number of the producers must be positive.");
+		}
+
+		return new BulkLoader<>(
+			plan, binder, runner, executor, producerCount, statementsPerTransaction, reporter);
+	}
+
+	/**
+	 * Returns the loader differing from this one in the number of the rows inserted in a transaction.
+	 * @param rowsPerTransaction the number of the rows, which is rounded down to a multiple of
+	 * {@link BulkLoad#rowsPerStatement()} (but a transaction inserts the rows of at least one statement)
+	 * @return the new loader
+	 * @throws IllegalArgumentException if the number of the rows is not positive
+	 */
+	public BulkLoader<T> withRowsPerTransaction(int rowsPerTransaction) throws IllegalArgumentException {
+		if (rowsPerTransaction <= 0) {
+			throw new IllegalArgumentException("The number of the rows per transaction must be positive.");
+		}
+
+		return new BulkLoader<>(
+			plan, binder, runner, executor, producerCount,
+			statementsPerTransaction(plan, rowsPerTransaction), reporter);
+	}
+
+	/**
+	 * Returns the loader differing from this one in the function the progress is reported to.
+	 * @param reporter the function called by the writer task after each transaction is committed
+	 * @return the new loader
+	 */
+	public BulkLoader<T> withReporter(Consumer<? super Progress> reporter) {
+		return new BulkLoader<>(
+			plan, binder, runner, executor, producerCount, statementsPerTransaction, reporter);
+	}
+
+	/**
+	 * Starts loading the records. The records are taken from the iterator by the producer tasks
+	 * (one at a time), so it need not be thread-safe.
+	 * @param records the records to load
+	 * @return the future completed with the final progress of the load when all the records
+	 * have been loaded and the indexes have been recreated, or completed exceptionally if converting
+	 * a record or executing a statement fails (in which case the open transaction is rolled back)
+	 */
+	public CompletableFuture<Progress> load(Iterator<? extends T> records) {
+		Load<T> load = new Load<>(records, producerCount);
+		CompletableFuture<Progress> result = new CompletableFuture<>();
+		for (int i = 0; i < producerCount; i++) {
+			executor.execute(() -> produce(load));
+		}
+		executor.execute(() -> write(load, result));
+
+		return result;
+	}
+
+	private void produce(Load<T> load) {
+		int rowsPerStatement = plan.rowsPerStatement();
+		List<T> chunk = new ArrayList<>(rowsPerStatement);
+		try {
+			while (load.failure.get() == null) {
+				chunk.clear();
+				synchronized (load.records) {
+					while (chunk.size() < rowsPerStatement && load.records.hasNext()) {
+						chunk.add(load.records.next());
+					}
+				}
+				if (chunk.isEmpty()) {
+					break;
+				}
+				load.batches.put(bind(chunk));
+			}
+		} catch (RuntimeException e) {
+			load.failure.compareAndSet(null, e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			load.failure.compareAndSet(null, new IllegalStateException("A producer has been interrupted.", e));
+		} finally {
+			// the batches put by the producer precede the decrement
+			load.activeProducers.decrementAndGet();
+		}
+	}
+
+	private Batch bind(List<T> chunk) {
+		int columnCount = plan.columnCount();
+		List<Object> parameters = new ArrayList<>(chunk.size() * columnCount);
+		long bytes = 0;
+		for (T record : chunk) {
+			List<?> values = binder.apply(record);
+			if (values.size() != columnCount) {
+				throw new IllegalArgumentException(
+					"A record has been converted into " + values.size() + " values instead of " + columnCount + ".");
+			}
+			for (Object value : values) {
+				bytes += size(value);
+			}
+			parameters.addAll(values);
+		}
+
+		return new Batch(parameters, chunk.size(), bytes);
+	}
+
+	private void write(Load<T> load, CompletableFuture<Progress> result) {
+		long start = System.nanoTime();
+		long rows = 0;
+		long bytes = 0;
+		boolean prologueExecuted = false;
+		boolean inTransaction = false;
+		try {
+			execute(plan.prologue());
+			prologueExecuted = true;
+
+			String insert = plan.insert().build();
+			int statementCount = 0;
+			Batch batch;
+			while ((batch = take(load)) != null) {
+				if (!inTransaction) {
+					runner.apply(TransactionType.IMMEDIATE.beginStatement().build(), Collections.emptyList());
+					inTransaction = true;
+				}
+				String sql = batch.rowCount == plan.rowsPerStatement() ? insert : plan.insert(batch.rowCount).build();
+				runner.apply(sql, batch.parameters);
+				rows += batch.rowCount;
+				bytes += batch.bytes;
+				if (++statementCount == statementsPerTransaction) {
+					commit();
+					inTransaction = false;
+					statementCount = 0;
+					reporter.accept(new Progress(rows, bytes, System.nanoTime() - start));
+				}
+			}
+			if (load.failure.get() != null) {
+				throw load.failure.get();
+			}
+			if (inTransaction) {
+				commit();
+				inTransaction = false;
+				reporter.accept(new Progress(rows, bytes, System.nanoTime() - start));
+			}
+
+			execute(plan.epilogue());
+			result.complete(new Progress(rows, bytes, System.nanoTime() - start));
+		} catch (RuntimeException e) {
+			load.failure.compareAndSet(null, e);
+			RuntimeException failure = load.failure.get();
+			if (inTransaction) {
+				recover(failure, Collections.singletonList(SqlStatements.rollbackTransaction()));
+			}
+			if (prologueExecuted) {
+				recover(failure, plan.epilogue());
+			}
+			drain(load);
+			result.completeExceptionally(failure);
+		}
+	}
+
+	private Batch take(Load<T> load) {
+		try {
+			while (load.failure.get() == null) {
+				Batch batch = load.batches.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (batch != null) {
+					return batch;
+				} else if (load.activeProducers.get() == 0) {
+					// the producers may have put their last batches after the poll has timed out
+					return load.batches.poll();
+				}
+			}
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("The writer has been interrupted.", e);
+		}
+	}
+
+	private void drain(Load<T> load) {
+		// unblocks the producers waiting for the space in the queue until they notice the failure
+		while (load.activeProducers.get() > 0) {
+			load.batches.clear();
+			Thread.yield();
+		}
+		load.batches.clear();
+	}
+
+	private void commit() {
+		runner.apply(SqlStatements.commitTransaction().build(), Collections.emptyList());
+	}
+
+	private void execute(List<SqlStatement> statements) {
+		for (SqlStatement statement : statements) {
+			runner.apply(statement.build(), Collections.emptyList());
+		}
+	}
+
+	private void recover(RuntimeException failure, List<SqlStatement> statements) {
+		try {
+			execute(statements);
+		} catch (RuntimeException e) {
+			failure.addSuppressed(e);
+		}
+	}
+
+	private static int statementsPerTransaction(BulkLoad plan, int rowsPerTransaction) {
+		return Math.max(1, rowsPerTransaction / plan.rowsPerStatement());
+	}
+
+	private static long size(Object value) {
+		if (value == null) {
+			return 0;
+		} else if (value instanceof byte[]) {
+			return ((byte[])value).length;
+		} else if (!(value instanceof CharSequence)) {
+			return Long.BYTES;
+		}
+
+		CharSequence text = (CharSequence)value;
+		long size = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c < 0x80) {
+				size += 1;
+			} else if (c < 0x800) {
+				size += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+				&& Character.isLowSurrogate(text.charAt(i + 1))) {
+
+				size += 4;
+				i++;
+			} else {
+				size += 3;
+			}
+		}
+		return size;
+	}
+}
@@ -1,6 +1,7 @@
 package dev.ornamental.sqlite.statement;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -126,6 +127,33 @@ public final class CaseExpression {
 				&& conditionCopy == condition && resultCopy == result
 					? this : new NoDefault(stubCopy, previousCopy, conditionCopy, resultCopy);
 		}
+
+		SqlExpression comparand() {
+			NoDefault first = this;
+			while (first.previous != null) {
+				first = first.previous;
+			}
+
+			return first.stub.comparand;
+		}
+
+		List<NoDefault> clauses() {
+			List<NoDefault> result = new ArrayList<>();
+			for (NoDefault current = this; current != null; current = current.previous) {
+				result.add(current);
+			}
+			Collections.reverse(result);
+
+			return result;
+		}
+
+		SqlExpression condition() {
+			return condition;
+		}
+
+		SqlExpression result() {
+			return result;
+		}
 	}
 
 	/**
@@ -200,6 +228,14 @@ public final class CaseExpression {
 			return clausesCopy == clauses && orElseResultCopy == orElseResult
 				? this : new WithDefault(clausesCopy, orElseResultCopy);
 		}
+
+		NoDefault clauses() {
+			return clauses;
+		}
+
+		SqlExpression orElseResult() {
+			return orElseResult;
+		}
 	}
 
 	private static void appendTo(StringBuilder receptacle, NoDefault clauses, SqlExpression orElseResult) {
@@ -37,4 +37,8 @@ public final class CastExpression implements SqlExpression {
 
 		return expressionCopy == expression ? this : new CastExpression(expressionCopy, type);
 	}
+
+	SqlExpression expression() {
+		return expression;
+	}
 }
@@ -0,0 +1,212 @@
+package dev.ornamental.sqlite.statement;
+
+import static dev.ornamental.sqlite.statement.Literal.value;
+import static dev.ornamental.sqlite.statement.SqlExpressions.column;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Produces the statements capturing the changes of a table in a change log table, so that the changes
+ * can be read incrementally (e.g. to synchronize the table with another store) instead of comparing
+ * the whole table contents. The change log table has the form<br>
+ * <code><strong><em>logTableName</em>("seq" INTEGER PRIMARY KEY AUTOINCREMENT,
+ * "changedRow" INTEGER NOT NULL, "operation" TEXT NOT NULL)</strong></code>,<br>
+ * where <code>"seq"</code> is the monotonically increasing sequence number of the change
+ * (<code>AUTOINCREMENT</code> guarantees that the numbers are never reused, even after the log is pruned),
+ * <code>"changedRow"</code> is the rowid of the changed row, and <code>"operation"</code> is the code
+ * of the change: <code>'I'</code>, <code>'U'</code>, or <code>'D'</code> (see {@link #operationOf(String)}).
+ * The log is filled by <code>AFTER</code> triggers; an update changing the rowid of a row is recorded
+ * as the deletion of the old rowid followed by the update of the new one.<br>
+ * The rows deleted by the <code>REPLACE</code> conflict resolution (<code>REPLACE</code>,
+ * <code>INSERT OR REPLACE</code>, <code>UPDATE OR REPLACE</code>) fire the delete trigger only if
+ * the recursive triggers are enabled (see {@link Pragmas#recursiveTriggers(boolean)}); otherwise, their
+ * deletions are not logged. As the setting is per-connection, it must be enabled on every connection
+ * writing to the table; {@link #statements()} enables it on the connection setting up the change log.<br>
+ * The changes are read in batches: the consumer executes {@link #changesSince()} with the sequence number
+ * of the last change processed (the checkpoint, initially <code>0</code>) bound to the parameter
+ * <code>?1</code>, processes the returned changes together with the current contents of the changed rows,
+ * and uses the last sequence number as the next checkpoint until a batch is empty; the changes up to
+ * the checkpoint may then be removed with {@link #prune()}.<br>
+ * The instances of this class are immutable.
+ */
+public final class ChangeLog {
+
+	private static final String SEQUENCE = "seq";
+
+	private static final String CHANGED_ROW = "changedRow";
+
+	private static final String OPERATION = "operation";
+
+	private static final String OLD = "OLD";
+
+	private static final String NEW = "NEW";
+
+	private final CharSequence schemaName; // may be null
+
+	private final CharSequence tableName;
+
+	private final CharSequence logName;
+
+	private final long batchSize;
+
+	private ChangeLog(CharSequence schemaName, CharSequence tableName, CharSequence logName, long batchSize) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("The batch size must be positive.");
+		}
+
+		this.schemaName = schemaName;
+		this.tableName = tableName;
+		this.logName = logName;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Creates the change log of the specified table; the change log table is named
+	 * <code><em>tableName</em>_changes</code> and is placed in the schema of the table.
+	 * @param table the table whose changes are captured; it must not be a <code>WITHOUT ROWID</code> table
+	 * @param batchSize the maximum number of changes read at once
+	 * @return the change log
+	 * @throws IllegalArgumentException if the batch size is not positive
+	 */
+	public static ChangeLog of(Table table, long batchSize) throws IllegalArgumentException {
+		return new ChangeLog(table.schemaName(), table.tableName(), table.tableName() + "_changes", batchSize);
+	}
+
+	/**
+	 * Returns the change log differing from this one in the name of the change log table.
+	 * @param logTableName the name of the change log table
+	 * @return the change log using the specified table
+	 */
+	public ChangeLog named(CharSequence logTableName) {
+		return new ChangeLog(schemaName, tableName, logTableName, batchSize);
+	}
+
+	/**
+	 * Decodes the operation recorded in the change log.
+	 * @param code the value of the <code>"operation"</code> column
+	 * @return the event which has changed the row
+	 * @throws IllegalArgumentException if the code is unknown
+	 */
+	public static TriggerEvent operationOf(String code) throws IllegalArgumentException {
+		for (TriggerEvent event : TriggerEvent.values()) {
+			if (code(event).equals(code)) {
+				return event;
+			}
+		}
+
+		throw new IllegalArgumentException(String.format("Unknown change log operation '%s'.", code));
+	}
+
+	/**
+	 * Returns the statement creating the change log table.
+	 * @return the <code>CREATE TABLE</code> statement
+	 */
+	public ExplicableStatement createTable() {
+		return SqlStatements.createTable(schemaName, logName)
+			.addColumn(SEQUENCE).ofType("INTEGER").withColumnConstraint().primaryKey().autoincrement()
+			.addColumn(CHANGED_ROW).ofType("INTEGER").withColumnConstraint().notNull()
+			.addColumn(OPERATION).ofType("TEXT").withColumnConstraint().notNull();
+	}
+
+	/**
+	 * Returns the statements creating the triggers recording the changes of the table.
+	 * @return the <code>CREATE TRIGGER</code> statements
+	 */
+	public List<CreateTrigger> createTriggers() {
+		return Collections.unmodifiableList(Arrays.asList(
+			trigger(TriggerEvent.INSERT, record(NEW, TriggerEvent.INSERT)),
+			trigger(TriggerEvent.UPDATE,
+				SqlStatements.insertInto(logName).columns(CHANGED_ROW, OPERATION).from(
+					SelectStatements.select(SqlExpressions.rowIdOf(OLD), value(code(TriggerEvent.DELETE)))
+						.where(SqlExpressions.rowIdOf(OLD).isNot(SqlExpressions.rowIdOf(NEW)))),
+				record(NEW, TriggerEvent.UPDATE)),
+			trigger(TriggerEvent.DELETE, record(OLD, TriggerEvent.DELETE))));
+	}
+
+	/**
+	 * Returns all the statements setting up the change log in the order of execution:
+	 * enabling the recursive triggers on the connection (required for the deletions
+	 * by the <code>REPLACE</code> conflict resolution to be logged), the creation of the change log table
+	 * and the creation of the triggers.
+	 * @return the statements setting up the change log
+	 */
+	public List<ExplicableStatement> statements() {
+		List<ExplicableStatement> result = new ArrayList<>();
+		result.add(Pragmas.recursiveTriggers(true));
+		result.add(createTable());
+		result.addAll(createTriggers());
+
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Returns the parametrized statement reading the batch of the changes following the checkpoint
+	 * bound to the parameter <code>?1</code>. Each change is accompanied by the current contents
+	 * of the changed row (all <code>NULL</code> if the row does not exist anymore).
+	 * The same statement may be prepared once and executed for each batch.
+	 * @return the <code>SELECT</code> statement having the form<br>
+	 * <code><strong>SELECT <em>log</em>."seq", <em>log</em>."changedRow", <em>log</em>."operation",
+	 * <em>tableName</em>.* FROM <em>log</em> LEFT JOIN <em>tableName</em>
+	 * ON <em>tableName</em>."ROWID" = <em>log</em>."changedRow" WHERE <em>log</em>."seq" &gt; ?1
+	 * ORDER BY <em>log</em>."seq" LIMIT <em>batchSize</em></strong></code>
+	 */
+	public SelectStatement changesSince() {
+		return changesSince(SqlExpressions.parameter("?1"));
+	}
+
+	/**
+	 * Returns the statement reading the batch of the changes following the specified checkpoint.
+	 * Each change is accompanied by the current contents of the changed row (all <code>NULL</code>
+	 * if the row does not exist anymore).
+	 * @param checkpoint the sequence number of the last change already processed
+	 * (<code>0</code> to read from the beginning)
+	 * @return the <code>SELECT</code> statement reading the changes following the checkpoint
+	 */
+	public SelectStatement changesSince(long checkpoint) {
+		return changesSince(value(checkpoint));
+	}
+
+	/**
+	 * Returns the parametrized statement removing from the change log the changes up to the checkpoint
+	 * bound to the parameter <code>?1</code> (inclusive), i.e. the changes already processed.
+	 * @return the <code>DELETE</code> statement having the form<br>
+	 * <code><strong>DELETE FROM <em>log</em> WHERE "seq" &lt;= ?1</strong></code>
+	 */
+	public ExplicableStatement prune() {
+		return SqlStatements.deleteFrom(schemaName, logName)
+			.where(column(SEQUENCE).leq(SqlExpressions.parameter("?1")));
+	}
+
+	private SelectStatement changesSince(SqlExpression checkpoint) {
+		SqlExpression sequence = column(logName, SEQUENCE);
+		return SelectStatements
+			.select(sequence, column(logName, CHANGED_ROW), column(logName, OPERATION), ResultElements.allOf(tableName))
+			.from(TableExpressions.table(schemaName, logName).leftJoin(TableExpressions.table(schemaName, tableName))
+				.on(SqlExpressions.rowIdOf(tableName).eq(column(logName, CHANGED_ROW))))
+			.where(sequence.gt(checkpoint))
+			.orderBy(sequence)
+			.limit(batchSize);
+	}
+
+	private CreateTrigger trigger(TriggerEvent event, TriggerStatement... statements) {
+		CreateTrigger.WithTiming timing = SqlStatements
+			.createTrigger(schemaName, logName + "_" + event.name().toLowerCase(Locale.ROOT)).after();
+		CreateTrigger.OnEvent onEvent = event == TriggerEvent.INSERT ? timing.insert()
+			: event == TriggerEvent.UPDATE ? timing.update() : timing.delete();
+
+		return onEvent.on(tableName).execute(statements);
+	}
+
+	private TriggerStatement record(String rowReference, TriggerEvent event) {
+		return SqlStatements.insertInto(logName).columns(CHANGED_ROW, OPERATION)
+			.values(SqlExpressions.rowOf(SqlExpressions.rowIdOf(rowReference), value(code(event))));
+	}
+
+	private static String code(TriggerEvent event) {
+		return event.name().substring(0, 1);
+	}
+}
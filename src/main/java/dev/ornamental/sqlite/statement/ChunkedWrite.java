@@ -0,0 +1,131 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Splits a mass <code>DELETE</code> or <code>UPDATE</code> statement into a sequence of statements
+ * each affecting a bounded part of the rows, so that every part may be executed in a short
+ * transaction (with pauses in between if desired) instead of holding the write lock and growing
+ * the WAL for the duration of the whole operation. Two strategies are supported:
+ * <ul>
+ * <li>key ranges: the <code>WHERE</code> condition is restricted to consecutive ranges
+ * of an integral key (the rowid by default), which requires the key bounds to be known
+ * (e.g. from <code>SELECT MIN(rowid), MAX(rowid) FROM <em>tableName</em></code>);</li>
+ * <li><code>LIMIT</code> batches: the same statement with a <code>LIMIT</code> clause is executed
+ * repeatedly until it affects no rows, which requires SQLite to be compiled with the
+ * <code>SQLITE_ENABLE_UPDATE_DELETE_LIMIT</code> option; note that an <code>UPDATE</code> has to
+ * make its rows stop satisfying the condition for this strategy to terminate.</li>
+ * </ul>
+ * The instances of this class are immutable provided the original statement is immutable.
+ */
+public final class ChunkedWrite {
+
+	private final Delete.Filtered delete; // null if update is not null
+
+	private final Update.Filtered update; // null if delete is not null
+
+	private final SqlExpression key;
+
+	private final long chunkSize;
+
+	private ChunkedWrite(Delete.Filtered delete, Update.Filtered update, SqlExpression key, long chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("The chunk size must be positive.");
+		}
+
+		this.delete = delete;
+		this.update = update;
+		this.key = key;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Creates the chunked form of the specified <code>DELETE</code> statement
+	 * using the rowid as the chunking key.
+	 * @param delete the statement to split
+	 * @param chunkSize the size of the key range or the maximum number of rows in a chunk
+	 * @return the chunked statement
+	 */
+	public static ChunkedWrite of(Delete.Filtered delete, long chunkSize) {
+		return new ChunkedWrite(delete, null, SqlExpressions.rowId(), chunkSize);
+	}
+
+	/**
+	 * Creates the chunked form of the specified <code>UPDATE</code> statement
+	 * using the rowid as the chunking key.
+	 * @param update the statement to split
+	 * @param chunkSize the size of the key range or the maximum number of rows in a chunk
+	 * @return the chunked statement
+	 */
+	public static ChunkedWrite of(Update.Filtered update, long chunkSize) {
+		return new ChunkedWrite(null, update, SqlExpressions.rowId(), chunkSize);
+	}
+
+	/**
+	 * Returns the chunked statement differing from this one in the chunking key, which is necessary
+	 * for <code>WITHOUT ROWID</code> tables. The key should be an indexed integral column.
+	 * @param key the chunking key expression
+	 * @return the chunked statement using the specified key
+	 */
+	public ChunkedWrite byKey(SqlExpression key) {
+		return new ChunkedWrite(delete, update, key, chunkSize);
+	}
+
+	/**
+	 * Returns the parametrized statement affecting the rows whose key values
+	 * are between the values bound to the parameters <code>?1</code> and <code>?2</code> (inclusive).
+	 * The same statement may be prepared once and executed for each chunk.
+	 * @return the original statement with its <code>WHERE</code> clause having the form<br>
+	 * <code><strong>WHERE <em>condition</em> AND <em>key</em> BETWEEN ?1 AND ?2</strong></code>
+	 */
+	public TriggerStatement rangeChunk() {
+		return restrict(SqlExpressions.parameter("?1"), SqlExpressions.parameter("?2"));
+	}
+
+	/**
+	 * Returns the statements covering the specified range of the key values
+	 * with consecutive chunks.
+	 * @param minKey the minimum key value of the rows to affect
+	 * @param maxKey the maximum key value of the rows to affect
+	 * @return the unmodifiable list of the statements each having the <code>WHERE</code> clause of the form<br>
+	 * <code><strong>WHERE <em>condition</em> AND <em>key</em> BETWEEN <em>lowerBound</em>
+	 * AND <em>upperBound</em></strong></code>
+	 */
+	public List<TriggerStatement> rangeChunks(long minKey, long maxKey) {
+		if (minKey > maxKey) {
+			throw new IllegalArgumentException("The minimum key value must not exceed the maximum one.");
+		}
+
+		List<TriggerStatement> result = new ArrayList<>();
+		long lowerBound = minKey;
+		while (true) {
+			long upperBound = Long.compareUnsigned(maxKey - lowerBound, chunkSize) < 0
+				? maxKey : lowerBound + chunkSize - 1;
+			result.add(restrict(Literal.value(lowerBound), Literal.value(upperBound)));
+			if (upperBound == maxKey) {
+				break;
+			}
+			lowerBound = upperBound + 1;
+		}
+
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Returns the statement affecting at most the chunk size of rows; it has to be executed
+	 * repeatedly until it affects no rows. Requires the <code>SQLITE_ENABLE_UPDATE_DELETE_LIMIT</code>
+	 * compile-time option.
+	 * @return the original statement with a <code><strong>LIMIT <em>chunkSize</em></strong></code> clause
+	 */
+	public TriggerStatement limitChunk() {
+		return delete != null ? delete.limit(chunkSize) : update.limit(chunkSize);
+	}
+
+	private TriggerStatement restrict(SqlExpression lowerBound, SqlExpression upperBound) {
+		SqlExpression range = key.between(lowerBound, upperBound);
+
+		return delete != null ? delete.and(range) : update.and(range);
+	}
+}
@@ -39,4 +39,8 @@ public final class CollationExpression implements SqlExpression {
 		return expressionCopy == expression
 			? this : new CollationExpression(expressionCopy, collation);
 	}
+
+	SqlExpression expression() {
+		return expression;
+	}
 }
@@ -14,6 +14,8 @@ public final class ColumnExpression implements SqlExpression {
 
 	private final CharSequence column;
 
+	private String rendered; // rendered on first use if all the name parts are immutable, racy but idempotent
+
 	ColumnExpression(CharSequence schema, CharSequence table, CharSequence column) {
 		this.schema = schema;
 		this.table = table;
@@ -22,7 +24,12 @@ public final class ColumnExpression implements SqlExpression {
 
 	@Override
 	public void appendTo(StringBuilder receptacle) {
-		SqliteUtilities.appendQuotedName(receptacle, schema, table, column);
+		String name = renderedName();
+		if (name != null) {
+			receptacle.append(name);
+		} else {
+			SqliteUtilities.appendQuotedName(receptacle, schema, table, column);
+		}
 	}
 
 	@Override
@@ -39,4 +46,35 @@ public final class ColumnExpression implements SqlExpression {
 		return schemaCopy == schema && tableCopy == table && columnCopy == column
 			? this : new ColumnExpression(schemaCopy, tableCopy, columnCopy);
 	}
+
+	/**
+	 * Returns the rendered qualified name of the column; the name is rendered on the first call.
+	 * @return the rendered name or {@literal null} if some of the name parts are mutable
+	 */
+	String renderedName() {
+		String result = rendered;
+		if (result == null && isImmutable(schema) && isImmutable(table) && column instanceof String
+			&& (schema == null || table != null)) {
+
+			result = render();
+			rendered = result;
+		}
+
+		return result;
+	}
+
+	CharSequence columnName() {
+		return column;
+	}
+
+	private String render() {
+		StringBuilder result = new StringBuilder();
+		SqliteUtilities.appendQuotedName(result, schema, table, column);
+
+		return result.toString();
+	}
+
+	private static boolean isImmutable(CharSequence namePart) {
+		return namePart == null || namePart instanceof String;
+	}
 }
@@ -0,0 +1,233 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects the small write statements submitted by concurrent callers and executes them
+ * on the single writer connection in {@link GroupCommit groups}, so that a group of <em>N</em> statements
+ * pays for one transaction commit instead of <em>N</em>. Each call to {@link #submit(SqlStatement)} returns
+ * a future completed once the group containing the statement is committed; the group is executed as soon as
+ * it contains the maximum number of statements, when {@link #flush()} is called, or (if the coordinator
+ * has been created with a scheduler) when the latency window started by the first statement
+ * of the group elapses.<br>
+ * Each statement of a group is enclosed in its own savepoint: if it fails, its changes are rolled back
+ * to the savepoint and only its future is completed exceptionally, while the rest of the group is committed.
+ * If a transaction control statement fails (or the commit does), the whole group is rolled back
+ * and the futures of all its statements are completed exceptionally.<br>
+ * The statements are executed by the executor supplied by the caller (e.g. using the writer JDBC connection)
+ * on the thread flushing the group; the groups are executed one at a time. The submitted statements
+ * are copied (see {@link SqlStatement#copy()}), so the mutable statements may be changed as soon as
+ * {@link #submit(SqlStatement)} returns.<br>
+ * The instances of this class are thread-safe.
+ * @param <R> the type of the results of the statements (e.g. the number of the changed rows)
+ */
+public final class CommitCoordinator<R> {
+
+	/**
+	 * A statement waiting for its group to be executed.
+	 */
+	private static final class Member<R> {
+
+		private final SqlStatement statement;
+
+		private final CompletableFuture<R> future = new CompletableFuture<>();
+
+		private R result;
+
+		private boolean failed;
+
+		Member(SqlStatement statement) {
+			this.statement = statement;
+		}
+	}
+
+	private final int maxGroupSize;
+
+	private final Function<? super String, ? extends R> executor;
+
+	private final ScheduledExecutorService scheduler; // may be null
+
+	private final long windowNanos;
+
+	private final Object executionLock = new Object();
+
+	private List<Member<R>> pending = new ArrayList<>();
+
+	private long groupNumber;
+
+	private CommitCoordinator(
+		int maxGroupSize, Function<? super String, ? extends R> executor,
+		ScheduledExecutorService scheduler, long windowNanos) {
+
+		if (maxGroupSize <= 0) {
+			throw new IllegalArgumentException("The group size must be positive.");
+		}
+		if (windowNanos < 0) {
+			throw new IllegalArgumentException("The latency window must not be negative.");
+		}
+
+		this.maxGroupSize = maxGroupSize;
+		this.executor = executor;
+		this.scheduler = scheduler;
+		this.windowNanos = windowNanos;
+	}
+
+	/**
+	 * Creates the coordinator executing the groups when they are full or when {@link #flush()} is called.
+	 * @param maxGroupSize the maximum number of statements in a group
+	 * @param executor the function executing the SQL text passed as its argument on the writer connection
+	 * and returning the result of the statement
+	 * @param <R> the type of the results of the statements
+	 * @return the new coordinator
+	 * @throws IllegalArgumentException if the group size is not positive
+	 */
+	public static <R> CommitCoordinator<R> of(
+		int maxGroupSize, Function<? super String, ? extends R> executor) throws IllegalArgumentException {
+
+		return new CommitCoordinator<>(maxGroupSize, executor, null, 0);
+	}
+
+	/**
+	 * Creates the coordinator executing the groups when they are full, when {@link #flush()} is called,
+	 * or when the specified window elapses after the first statement of the group has been submitted.
+	 * @param maxGroupSize the maximum number of statements in a group
+	 * @param executor the function executing the SQL text passed as its argument on the writer connection
+	 * and returning the result of the statement
+	 * @param scheduler the scheduler flushing the groups when their windows elapse
+	 * @param window the maximum time a statement waits for its group to be executed
+	 * @param unit the time unit of the window duration
+	 * @param <R> the type of the results of the statements
+	 * @return the new coordinator
+	 * @throws IllegalArgumentException if the group size is not positive or the window is negative
+	 */
+	public static <R> CommitCoordinator<R> of(
+		int maxGroupSize, Function<? super String, ? extends R> executor,
+		ScheduledExecutorService scheduler, long window, TimeUnit unit) throws IllegalArgumentException {
+
+		return new CommitCoordinator<>(maxGroupSize, executor, scheduler, unit.toNanos(window));
+	}
+
+	/**
+	 * Submits the write statement to be executed in a group.
+	 * @param statement the statement to execute; it must not be a transaction control statement
+	 * @return the future completed with the result of the statement once its group is committed,
+	 * or completed exceptionally if the statement or the group fails
+	 * @throws IllegalArgumentException if the statement is a transaction control statement
+	 */
+	public CompletableFuture<R> submit(SqlStatement statement) throws IllegalArgumentException {
+		GroupCommit.checkMember(statement);
+
+		Member<R> member = new Member<>(statement.copy());
+		List<Member<R>> group = null;
+		synchronized (this) {
+			pending.add(member);
+			if (pending.size() >= maxGroupSize) {
+				group = takePending();
+			} else if (pending.size() == 1 && scheduler != null) {
+				long scheduledGroup = groupNumber;
+				scheduler.schedule(() -> flush(scheduledGroup), windowNanos, TimeUnit.NANOSECONDS);
+			}
+		}
+
+		if (group != null) {
+			execute(group);
+		}
+		return member.future;
+	}
+
+	/**
+	 * Executes the pending group (if any) on the calling thread.
+	 */
+	public void flush() {
+		flush(-1);
+	}
+
+	private void flush(long scheduledGroup) {
+		List<Member<R>> group;
+		synchronized (this) {
+			// the group the window has been started for may have been flushed already
+			group = scheduledGroup < 0 || scheduledGroup == groupNumber ? takePending() : Collections.emptyList();
+		}
+
+		if (!group.isEmpty()) {
+			execute(group);
+		}
+	}
+
+	private List<Member<R>> takePending() {
+		List<Member<R>> group = pending;
+		if (!group.isEmpty()) {
+			pending = new ArrayList<>();
+			groupNumber++;
+		}
+		return group;
+	}
+
+	private void execute(List<Member<R>> members) {
+		List<SqlStatement> statements = new ArrayList<>(members.size());
+		for (Member<R> member : members) {
+			statements.add(member.statement);
+		}
+		GroupCommit group = GroupCommit.of(statements);
+
+		synchronized (executionLock) {
+			try {
+				executor.apply(group.begin().build());
+			} catch (RuntimeException e) {
+				fail(members, e);
+				return;
+			}
+
+			try {
+				for (int i = 0; i < members.size(); i++) {
+					executeMember(group, i, members.get(i));
+				}
+				executor.apply(group.commit().build());
+			} catch (RuntimeException e) {
+				rollback(e);
+				fail(members, e);
+				return;
+			}
+		}
+
+		for (Member<R> member : members) {
+			if (!member.failed) {
+				member.future.complete(member.result);
+			}
+		}
+	}
+
+	private void executeMember(GroupCommit group, int index, Member<R> member) {
+		executor.apply(group.savepoint(index).build());
+		try {
+			member.result = executor.apply(group.statement(index).build());
+		} catch (RuntimeException e) {
+			// only the changes of the failed statement are undone
+			executor.apply(group.rollbackTo(index).build());
+			member.failed = true;
+			member.future.completeExceptionally(e);
+		}
+		executor.apply(group.release(index).build());
+	}
+
+	private void rollback(RuntimeException cause) {
+		try {
+			executor.apply(SqlStatements.rollbackTransaction().build());
+		} catch (RuntimeException e) {
+			// the transaction may have been rolled back automatically
+			cause.addSuppressed(e);
+		}
+	}
+
+	private static <R> void fail(List<Member<R>> members, RuntimeException e) {
+		for (Member<R> member : members) {
+			member.future.completeExceptionally(e);
+		}
+	}
+}
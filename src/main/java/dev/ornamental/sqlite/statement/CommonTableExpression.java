@@ -1,6 +1,8 @@
 package dev.ornamental.sqlite.statement;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Represents a common table expression (a. k. a. CTE, or <code><strong>WITH</strong></code> clause)
@@ -638,7 +640,27 @@ public final class CommonTableExpression extends Select.ValueProducer implements
 
 	@Override
 	public CommonTableExpression copy() {
-		CommonTableExpression previousCopy = previous == null ? null : previous.copy();
+		CommonTableExpression result = null;
+		List<CommonTableExpression> chain = chain();
+		for (int i = chain.size() - 1; i >= 0; i--) {
+			result = chain.get(i).copy(result);
+		}
+
+		return result;
+	}
+
+	void appendTo(StringBuilder receptacle) {
+		List<CommonTableExpression> chain = chain();
+		receptacle.append("WITH ");
+		for (int i = chain.size() - 1; i >= 0; i--) {
+			chain.get(i).appendDefinitionTo(receptacle);
+			if (i > 0) {
+				receptacle.append(", ");
+			}
+		}
+	}
+
+	private CommonTableExpression copy(CommonTableExpression previousCopy) {
 		CharSequence nameCopy = name.toString();
 		SelectStatement expressionCopy = expression.copy();
 		Iterable<? extends CharSequence> columnsCopy =
@@ -651,13 +673,7 @@ public final class CommonTableExpression extends Select.ValueProducer implements
 				: new CommonTableExpression(previousCopy, nameCopy, columnsCopy, expressionCopy);
 	}
 
-	void appendTo(StringBuilder receptacle) {
-		if (previous != null) {
-			previous.appendTo(receptacle);
-			receptacle.append(", ");
-		} else {
-			receptacle.append("WITH ");
-		}
+	private void appendDefinitionTo(StringBuilder receptacle) {
 		SqliteUtilities.appendQuotedName(receptacle, name);
 
 		if (columns != null) {
@@ -668,4 +684,21 @@ public final class CommonTableExpression extends Select.ValueProducer implements
 		receptacle.append(" AS ");
 		expression.appendTo(receptacle);
 	}
+
+	CharSequence name() {
+		return name;
+	}
+
+	SelectStatement expression() {
+		return expression;
+	}
+
+	List<CommonTableExpression> chain() {
+		List<CommonTableExpression> result = new ArrayList<>();
+		for (CommonTableExpression current = this; current != null; current = current.previous) {
+			result.add(current);
+		}
+
+		return result;
+	}
 }
@@ -0,0 +1,164 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Routes the statements to the connections of a database in the WAL mode according to the access
+ * they require (see {@link StatementAccess}): the statements only reading the database are executed
+ * by any of the reader connections, so that the reads scale with their number, while the rest are executed
+ * by the single writer connection one at a time. The library has no connection layer, so the connections
+ * are the objects supplied by the caller (e.g. JDBC connections) and the statements are executed on them
+ * by the functions supplied by the caller; if there are no reader connections, all the statements
+ * are executed by the writer.<br>
+ * The connections are initialized when the pool is created: the writer with
+ * {@link PerformanceProfile#statements()}, the readers with {@link PerformanceProfile#readerStatements()}
+ * (which makes them <code>query_only</code>). Each connection is used by a single thread at a time:
+ * a statement is executed by the executor of the pool as soon as a connection of the required kind is idle,
+ * the statements waiting for a connection are executed in the order of their submission.
+ * The statements are rendered on the calling thread, so the mutable statements may be changed as soon as
+ * {@link #execute(SqlStatement, BiFunction)} returns.<br>
+ * The instances of this class are thread-safe.
+ * @param <C> the type of the connections
+ */
+public final class ConnectionPool<C> {
+
+	/**
+	 * A group of interchangeable connections and the tasks waiting for any of them to become idle.
+	 */
+	private static final class Route<C> {
+
+		private final Deque<C> idle = new ArrayDeque<>();
+
+		private final Queue<Consumer<C>> waiting = new ArrayDeque<>();
+	}
+
+	private final Route<C> writer = new Route<>();
+
+	private final Route<C> readers;
+
+	private final Executor executor;
+
+	private ConnectionPool(Route<C> readers, Executor executor) {
+		this.readers = readers;
+		this.executor = executor;
+	}
+
+	/**
+	 * Creates the pool executing the statements using the {@link AsyncExecution#defaultExecutor() default executor}
+	 * and initializes its connections on the calling thread.
+	 * @param profile the profile the connections are initialized with
+	 * @param writerConnection the writer connection
+	 * @param readerConnections the reader connections (possibly none)
+	 * @param initializer the function executing the initialization statement passed as its second argument
+	 * on the connection passed as its first argument
+	 * @param <C> the type of the connections
+	 * @return the new pool
+	 * @throws IllegalArgumentException if the same connection is passed more than once
+	 * @throws IllegalStateException if the profile is inconsistent (see {@link PerformanceProfile#statements()})
+	 */
+	public static <C> ConnectionPool<C> of(
+		PerformanceProfile profile, C writerConnection, Iterable<? extends C> readerConnections,
+		BiConsumer<? super C, ? super String> initializer) throws IllegalArgumentException, IllegalStateException {
+
+		return of(profile, writerConnection, readerConnections, initializer, AsyncExecution.defaultExecutor());
+	}
+
+	/**
+	 * Creates the pool executing the statements using the specified executor
+	 * and initializes its connections on the calling thread.
+	 * @param profile the profile the connections are initialized with
+	 * @param writerConnection the writer connection
+	 * @param readerConnections the reader connections (possibly none)
+	 * @param initializer the function executing the initialization statement passed as its second argument
+	 * on the connection passed as its first argument
+	 * @param executor the executor running the functions executing the statements; it must not reject tasks
+	 * @param <C> the type of the connections
+	 * @return the new pool
+	 * @throws IllegalArgumentException if the same connection is passed more than once
+	 * @throws IllegalStateException if the profile is inconsistent (see {@link PerformanceProfile#statements()})
+	 */
+	public static <C> ConnectionPool<C> of(
+		PerformanceProfile profile, C writerConnection, Iterable<? extends C> readerConnections,
+		BiConsumer<? super C, ? super String> initializer, Executor executor)
+		throws IllegalArgumentException, IllegalStateException {
+
+		Route<C> readers = new Route<>();
+		for (C connection : readerConnections) {
+			if (connection == writerConnection || readers.idle.contains(connection)) {
+				throw new IllegalArgumentException("Each connection must be passed once.");
+			}
+			readers.idle.add(connection);
+		}
+		ConnectionPool<C> pool = new ConnectionPool<>(readers.idle.isEmpty() ? null : readers, executor);
+		pool.writer.idle.add(writerConnection);
+
+		// the writer is initialized first, as it sets the journal mode of the database
+		for (SqlStatement statement : profile.statements()) {
+			initializer.accept(writerConnection, statement.build());
+		}
+		for (C connection : readers.idle) {
+			for (SqlStatement statement : profile.readerStatements()) {
+				initializer.accept(connection, statement.build());
+			}
+		}
+
+		return pool;
+	}
+
+	/**
+	 * Executes the statement asynchronously on a connection chosen according to the access it requires.
+	 * @param statement the statement to execute
+	 * @param runner the function executing the SQL text passed as its second argument
+	 * on the connection passed as its first argument and returning the result
+	 * @param <R> the type of the result
+	 * @return the future completed with the result of the function, or completed exceptionally
+	 * if the function throws an exception
+	 */
+	public <R> CompletableFuture<R> execute(
+		SqlStatement statement, BiFunction<? super C, ? super String, ? extends R> runner) {
+
+		Route<C> route = readers != null && StatementAccess.of(statement) == StatementAccess.READ ? readers : writer;
+		String sql = statement.build();
+		CompletableFuture<R> result = new CompletableFuture<>();
+		Consumer<C> task = connection -> {
+			try {
+				result.complete(runner.apply(connection, sql));
+			} catch (RuntimeException e) {
+				result.completeExceptionally(e);
+			}
+		};
+
+		C connection;
+		synchronized (route) {
+			connection = route.idle.poll();
+			if (connection == null) {
+				route.waiting.add(task);
+				return result;
+			}
+		}
+		executor.execute(() -> run(route, connection, task));
+
+		return result;
+	}
+
+	private static <C> void run(Route<C> route, C connection, Consumer<C> task) {
+		// the connection executes the waiting tasks before it becomes idle
+		Consumer<C> current = task;
+		while (current != null) {
+			current.accept(connection);
+			synchronized (route) {
+				current = route.waiting.poll();
+				if (current == null) {
+					route.idle.push(connection);
+				}
+			}
+		}
+	}
+}
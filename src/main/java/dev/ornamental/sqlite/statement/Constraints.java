@@ -40,6 +40,17 @@ final class Constraints {
 			receptacle, !(defaultValue instanceof Literal), defaultValue::appendTo);
 	}
 
+	public static void appendGenerated(
+		StringBuilder receptacle, SqlExpression expression, GeneratedColumnStorage storage) {
+
+		receptacle.append(" GENERATED ALWAYS AS (");
+		expression.appendTo(receptacle);
+		receptacle.append(')');
+		if (storage != null) {
+			receptacle.append(' ').append(storage.toString());
+		}
+	}
+
 	public static void appendCollate(StringBuilder receptacle, Collation collation) {
 		receptacle.append(" COLLATE ");
 		collation.appendTo(receptacle);
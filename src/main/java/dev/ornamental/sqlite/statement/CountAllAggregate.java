@@ -10,6 +10,17 @@ public final class CountAllAggregate implements SqlExpression {
 
 	private CountAllAggregate() { }
 
+	/**
+	 * Adds a <code>FILTER</code> clause to the <code>COUNT(*)</code> aggregate.<br>
+	 * The result is a complete SQL expression.
+	 * @param condition the condition the rows must satisfy in order to be counted
+	 * @return the expression having the form<br>
+	 * <code><strong>COUNT(*) FILTER (WHERE <em>condition</em>)</strong></code>
+	 */
+	public Aggregate.Filtered filter(SqlExpression condition) {
+		return new Aggregate.Filtered(this, condition);
+	}
+
 	@Override
 	public void appendTo(StringBuilder receptacle) {
 		receptacle.append("COUNT(*)");
@@ -21,7 +32,7 @@ public final class CountAllAggregate implements SqlExpression {
 	}
 
 	@Override
-	public SqlExpression copy() {
+	public CountAllAggregate copy() {
 		return this;
 	}
 }
@@ -1,6 +1,7 @@
 package dev.ornamental.sqlite.statement;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -208,6 +209,18 @@ public final class CreateIndex {
 				? this : new OnTable(unique, ifNotExists, schemaNameCopy, indexNameCopy, tableNameCopy);
 		}
 
+		Drop.Index dropIfExists() {
+			return SqlStatements.dropIndexIfExists(schemaName, indexName);
+		}
+
+		CharSequence schemaName() {
+			return schemaName;
+		}
+
+		CharSequence tableName() {
+			return tableName;
+		}
+
 		void appendTo(StringBuilder receptacle) {
 			receptacle.append("CREATE ");
 			if (unique) {
@@ -304,6 +317,67 @@ public final class CreateIndex {
 		public Constrained where(SqlExpression condition) {
 			return new Constrained(this, condition);
 		}
+
+		Drop.Index dropIfExists() {
+			return first().stub.dropIfExists();
+		}
+
+		CharSequence schemaName() {
+			return first().stub.schemaName();
+		}
+
+		CharSequence tableName() {
+			return first().stub.tableName();
+		}
+
+		/**
+		 * Returns the part of the statement preceding the list of the indexed columns.
+		 * @return the rendered <code>CREATE INDEX .. ON <em>tableName</em></code> part of the statement
+		 */
+		String header() {
+			StringBuilder result = new StringBuilder();
+			first().stub.appendTo(result);
+
+			return result.toString();
+		}
+
+		/**
+		 * Returns the indexed columns and expressions.
+		 * @return the indexed expressions in the order of definition
+		 */
+		List<SqlExpression> indexedColumns() {
+			List<SqlExpression> result = new ArrayList<>();
+			for (OnColumns current = this; current != null; current = current.previous) {
+				result.add(current.indexedColumn);
+			}
+			Collections.reverse(result);
+
+			return result;
+		}
+
+		/**
+		 * Returns the sorting orders of the indexed columns and expressions.
+		 * @return the sorting orders (<code>null</code> for the ones not specified explicitly)
+		 * in the order of definition
+		 */
+		List<SortingOrder> orders() {
+			List<SortingOrder> result = new ArrayList<>();
+			for (OnColumns current = this; current != null; current = current.previous) {
+				result.add(current.order);
+			}
+			Collections.reverse(result);
+
+			return result;
+		}
+
+		private OnColumns first() {
+			OnColumns first = this;
+			while (first.previous != null) {
+				first = first.previous;
+			}
+
+			return first;
+		}
 	}
 
 	/**
@@ -339,6 +413,26 @@ public final class CreateIndex {
 			receptacle.append(" WHERE ");
 			condition.appendTo(receptacle);
 		}
+
+		Drop.Index dropIfExists() {
+			return previous.dropIfExists();
+		}
+
+		CharSequence schemaName() {
+			return previous.schemaName();
+		}
+
+		CharSequence tableName() {
+			return previous.tableName();
+		}
+
+		OnColumns columns() {
+			return previous;
+		}
+
+		SqlExpression condition() {
+			return condition;
+		}
 	}
 
 	private CreateIndex() { }
@@ -2,7 +2,10 @@ package dev.ornamental.sqlite.statement;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * This class has no functionality of its own. It is destined for grouping the classes pertaining
@@ -68,6 +71,14 @@ public final class CreateTable {
 			return new UntypedColumn(this, columnName);
 		}
 
+		CharSequence schemaName() {
+			return schemaName;
+		}
+
+		CharSequence tableName() {
+			return tableName;
+		}
+
 		Stub copy() {
 			CharSequence schemaNameCopy = schemaName == null ? null : schemaName.toString();
 			CharSequence tableNameCopy = tableName.toString();
@@ -134,6 +145,16 @@ public final class CreateTable {
 			this.previous = previous;
 		}
 
+		/**
+		 * Adds a <code><strong>STRICT</strong></code> table option to the statement.<br>
+		 * The result is a complete SQL statement.
+		 * @return the <code>CREATE TABLE</code> statement ending with
+		 * <code>WITHOUT ROWID, STRICT</code> table options
+		 */
+		public StrictWithoutRowid strict() {
+			return new StrictWithoutRowid(this);
+		}
+
 		@Override
 		public WithoutRowid copy() throws IllegalStateException {
 			ConstraintList previousCopy = previous.copy();
@@ -148,6 +169,92 @@ public final class CreateTable {
 		}
 	}
 
+	/**
+	 * Represents a <code>CREATE TABLE</code> statement ending with
+	 * <code><strong>STRICT</strong></code> table option. Each column of a strict table
+	 * must have one of the types listed in {@link Types#STRICT_TYPES}; this is checked when the statement
+	 * is built.
+	 */
+	public static final class Strict implements ExplicableStatement {
+
+		private final ConstraintList previous;
+
+		Strict(ConstraintList previous) {
+			this.previous = previous;
+		}
+
+		/**
+		 * Adds a <code><strong>WITHOUT ROWID</strong></code> table option to the statement.<br>
+		 * The result is a complete SQL statement.
+		 * @return the <code>CREATE TABLE</code> statement ending with
+		 * <code>STRICT, WITHOUT ROWID</code> table options
+		 */
+		public StrictWithoutRowid withoutRowId() {
+			return new StrictWithoutRowid(this);
+		}
+
+		@Override
+		public Strict copy() throws IllegalStateException {
+			ConstraintList previousCopy = previous.copy();
+
+			return previousCopy == previous ? this : new Strict(previousCopy);
+		}
+
+		@Override
+		public void build(StringBuilder receptacle) {
+			checkStrictColumnTypes(previous);
+			previous.build(receptacle);
+			receptacle.append(" STRICT");
+		}
+	}
+
+	/**
+	 * Represents a <code>CREATE TABLE</code> statement having both <code><strong>STRICT</strong></code>
+	 * and <code><strong>WITHOUT ROWID</strong></code> table options (in the order they were added).
+	 * Each column of a strict table must have one of the types listed in {@link Types#STRICT_TYPES};
+	 * this is checked when the statement is built.
+	 */
+	public static final class StrictWithoutRowid implements ExplicableStatement {
+
+		private final Strict strict;
+
+		private final WithoutRowid withoutRowid;
+
+		StrictWithoutRowid(Strict strict) {
+			this(strict, null);
+		}
+
+		StrictWithoutRowid(WithoutRowid withoutRowid) {
+			this(null, withoutRowid);
+		}
+
+		private StrictWithoutRowid(Strict strict, WithoutRowid withoutRowid) {
+			this.strict = strict;
+			this.withoutRowid = withoutRowid;
+		}
+
+		@Override
+		public StrictWithoutRowid copy() throws IllegalStateException {
+			Strict strictCopy = strict == null ? null : strict.copy();
+			WithoutRowid withoutRowidCopy = withoutRowid == null ? null : withoutRowid.copy();
+
+			return strictCopy == strict && withoutRowidCopy == withoutRowid
+				? this : new StrictWithoutRowid(strictCopy, withoutRowidCopy);
+		}
+
+		@Override
+		public void build(StringBuilder receptacle) {
+			if (strict != null) {
+				strict.build(receptacle);
+				receptacle.append(", WITHOUT ROWID");
+			} else {
+				checkStrictColumnTypes(withoutRowid.previous);
+				withoutRowid.build(receptacle);
+				receptacle.append(", STRICT");
+			}
+		}
+	}
+
 	/**
 	 * The common ancestor class for <code>CREATE TABLE</code> statements which may be supplemented
 	 * with table constraints. Such statements may also be supplemented with a <code>WITHOUT ROWID</code>
@@ -183,6 +290,15 @@ public final class CreateTable {
 			return new WithoutRowid(this);
 		}
 
+		/**
+		 * Adds a <code><strong>STRICT</strong></code> table option to the statement.<br>
+		 * The result is a complete SQL statement.
+		 * @return the <code>CREATE TABLE</code> statement ending with a <code>STRICT</code> table option
+		 */
+		public Strict strict() {
+			return new Strict(this);
+		}
+
 		@Override
 		public void build(StringBuilder receptacle) {
 			appendPrefix(receptacle);
@@ -193,6 +309,14 @@ public final class CreateTable {
 		public abstract ConstraintList copy();
 
 		abstract void appendPrefix(StringBuilder receptacle);
+
+		/**
+		 * Returns the part of the table definition preceding the last added column, column constraint,
+		 * or table constraint.
+		 * @return the preceding part of the table definition or {@literal null} if this is
+		 * the definition of the first column without any constraints
+		 */
+		abstract ConstraintList previousDefinition();
 	}
 
 	/**
@@ -280,6 +404,11 @@ public final class CreateTable {
 			SqliteUtilities.appendQuotedName(receptacle, columnName);
 		}
 
+		@Override
+		ConstraintList previousDefinition() {
+			return previous;
+		}
+
 		/**
 		 * Adds a type definition to the last added column.<br>
 		 * The result represents a complete SQL statement.
@@ -321,6 +450,11 @@ public final class CreateTable {
 			receptacle.append(' ');
 			SqliteUtilities.quoteType(receptacle, typeDefinition);
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return previous;
+		}
 	}
 
 	/**
@@ -541,6 +675,30 @@ public final class CreateTable {
 			return new ColumnDefault(this, defaultValue);
 		}
 
+		/**
+		 * Makes the new column constraint a generated column constraint with the default
+		 * (<code>VIRTUAL</code>) storage.<br>
+		 * The result is a complete SQL statement.
+		 * @param expression the expression computing the column value from the other columns of the same row
+		 * @return the <code>CREATE TABLE</code> statement whose last column definition contains
+		 * a <code>GENERATED ALWAYS AS</code> constraint
+		 */
+		public ColumnGenerated generatedAs(SqlExpression expression) {
+			return new ColumnGenerated(this, expression, null);
+		}
+
+		/**
+		 * Makes the new column constraint a generated column constraint with the specified storage.<br>
+		 * The result is a complete SQL statement.
+		 * @param expression the expression computing the column value from the other columns of the same row
+		 * @param storage the way the generated values are stored
+		 * @return the <code>CREATE TABLE</code> statement whose last column definition contains
+		 * a <code>GENERATED ALWAYS AS .. VIRTUAL|STORED</code> constraint
+		 */
+		public ColumnGenerated generatedAs(SqlExpression expression, GeneratedColumnStorage storage) {
+			return new ColumnGenerated(this, expression, storage);
+		}
+
 		/**
 		 * Makes the new column constraint a collation constraint.<br>
 		 * The result is a complete SQL statement.
@@ -619,6 +777,11 @@ public final class CreateTable {
 			Constraints.appendPrimaryKey(receptacle, order);
 		}
 
+		@Override
+		ConstraintList previousDefinition() {
+			return stub.previous;
+		}
+
 		/**
 		 * Adds an <code>ON CONFLICT</code> clause to the primary key column constraint definition.<br>
 		 * The result is a complete SQL statement.
@@ -669,6 +832,11 @@ public final class CreateTable {
 			Constraints.appendConflictClause(receptacle, action);
 		}
 
+		@Override
+		ConstraintList previousDefinition() {
+			return previous;
+		}
+
 		/**
 		 * Adds an <code>AUTOINCREMENT</code> clause to the primary key column constraint definition.<br>
 		 * The result is a complete SQL statement.
@@ -712,6 +880,11 @@ public final class CreateTable {
 			previous.appendPrefix(receptacle);
 			receptacle.append(" AUTOINCREMENT");
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return previous;
+		}
 	}
 
 	/**
@@ -740,6 +913,11 @@ public final class CreateTable {
 			stub.appendTo(receptacle);
 			Constraints.append(receptacle, "NOT NULL", action);
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return stub.previous;
+		}
 	}
 
 	/**
@@ -768,6 +946,11 @@ public final class CreateTable {
 			stub.appendTo(receptacle);
 			Constraints.append(receptacle, "UNIQUE", action);
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return stub.previous;
+		}
 	}
 
 	/**
@@ -798,6 +981,11 @@ public final class CreateTable {
 			stub.appendTo(receptacle);
 			Constraints.appendCheck(receptacle, condition);
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return stub.previous;
+		}
 	}
 
 	/**
@@ -828,6 +1016,49 @@ public final class CreateTable {
 			stub.appendTo(receptacle);
 			Constraints.appendDefault(receptacle, defaultValue);
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return stub.previous;
+		}
+	}
+
+	/**
+	 * Represents a <code>CREATE TABLE</code> statement ending with a generated column constraint.
+	 */
+	public static final class ColumnGenerated extends ColumnConstraintList {
+
+		private final ColumnConstraintStub stub;
+
+		private final SqlExpression expression;
+
+		private final GeneratedColumnStorage storage; // may be null
+
+		ColumnGenerated(ColumnConstraintStub stub, SqlExpression expression, GeneratedColumnStorage storage) {
+			this.stub = stub;
+			this.expression = expression;
+			this.storage = storage;
+		}
+
+		@Override
+		public ColumnGenerated copy() {
+			ColumnConstraintStub stubCopy = stub.copy();
+			SqlExpression expressionCopy = expression.copy();
+
+			return stubCopy == stub && expressionCopy == expression
+				? this : new ColumnGenerated(stubCopy, expressionCopy, storage);
+		}
+
+		@Override
+		void appendPrefix(StringBuilder receptacle) {
+			stub.appendTo(receptacle);
+			Constraints.appendGenerated(receptacle, expression, storage);
+		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return stub.previous;
+		}
 	}
 
 	/**
@@ -856,6 +1087,11 @@ public final class CreateTable {
 			stub.appendTo(receptacle);
 			Constraints.appendCollate(receptacle, collation);
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return stub.previous;
+		}
 	}
 
 	/**
@@ -949,6 +1185,11 @@ public final class CreateTable {
 			stub.appendTo(receptacle);
 			Constraints.appendForeignKey(receptacle, tableName, columnName);
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return stub.previous;
+		}
 	}
 
 	/**
@@ -987,6 +1228,11 @@ public final class CreateTable {
 			previous.appendPrefix(receptacle);
 			Constraints.appendReferentialAction(receptacle, isDeleteAction, action);
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return previous;
+		}
 	}
 
 	/**
@@ -1018,6 +1264,11 @@ public final class CreateTable {
 			previous.build(receptacle);
 			Constraints.appendForeignKeyTiming(receptacle, deferred);
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return previous;
+		}
 	}
 
 	/**
@@ -1283,19 +1534,28 @@ public final class CreateTable {
 			for (int i = columns.size() - 1; i >= 0; i--) {
 				UniqueColumn column = columns.get(i);
 				SqliteUtilities.appendQuotedName(receptacle, column.columnName);
-				if (column.collation != null) {
-					receptacle.append(" COLLATE ");
-					column.collation.appendTo(receptacle);
-				}
-				if (column.order != null) {
-					receptacle.append(' ').append(column.order.toString());
-				}
+				column.appendOptions(receptacle);
 				if (i != 0) {
 					receptacle.append(", ");
 				}
 			}
 			receptacle.append(')');
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return previous != null ? previous : stub.previous.previous;
+		}
+
+		private void appendOptions(StringBuilder receptacle) {
+			if (collation != null) {
+				receptacle.append(" COLLATE ");
+				collation.appendTo(receptacle);
+			}
+			if (order != null) {
+				receptacle.append(' ').append(order.toString());
+			}
+		}
 	}
 
 	/**
@@ -1326,6 +1586,11 @@ public final class CreateTable {
 			previous.appendPrefix(receptacle);
 			Constraints.appendConflictClause(receptacle, action);
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return previous;
+		}
 	}
 
 	/**
@@ -1498,6 +1763,11 @@ public final class CreateTable {
 			receptacle.append(" REFERENCES ");
 			SqliteUtilities.appendQuotedName(receptacle, foreignTableName);
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return stub.previous.previous;
+		}
 	}
 
 	/**
@@ -1536,6 +1806,11 @@ public final class CreateTable {
 			SqliteUtilities.appendQuotedDelimited(receptacle, foreignColumnNames);
 			receptacle.append(')');
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return previous;
+		}
 	}
 
 	/**
@@ -1571,6 +1846,11 @@ public final class CreateTable {
 			previous.appendPrefix(receptacle);
 			Constraints.appendReferentialAction(receptacle, isDeleteAction, action);
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return previous;
+		}
 	}
 
 	/**
@@ -1601,6 +1881,11 @@ public final class CreateTable {
 			previous.appendPrefix(receptacle);
 			Constraints.appendForeignKeyTiming(receptacle, deferred);
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return previous;
+		}
 	}
 
 	/**
@@ -1633,7 +1918,442 @@ public final class CreateTable {
 			stub.appendTo(receptacle);
 			Constraints.appendCheck(receptacle, condition);
 		}
+
+		@Override
+		ConstraintList previousDefinition() {
+			return stub.previous;
+		}
+	}
+
+	/**
+	 * Describes a column of a table definition: its name, the rendered remainder of its definition
+	 * (the type and the column constraints), and the restrictions SQLite imposes on adding
+	 * such a column with <code>ALTER TABLE .. ADD COLUMN</code> and dropping it
+	 * with <code>ALTER TABLE .. DROP COLUMN</code>.
+	 */
+	static final class ColumnDefinition {
+
+		private final String name;
+
+		private final String definition;
+
+		private final boolean addable;
+
+		private final boolean droppable;
+
+		private final boolean verified;
+
+		private final Set<String> references;
+
+		private ColumnDefinition(String name, String definition,
+			boolean addable, boolean droppable, boolean verified, Set<String> references) {
+
+			this.name = name;
+			this.definition = definition;
+			this.addable = addable;
+			this.droppable = droppable;
+			this.verified = verified;
+			this.references = references;
+		}
+
+		String name() {
+			return name;
+		}
+
+		/**
+		 * Returns the part of the column definition following the column name.
+		 * @return the type and the constraints of the column as rendered in the table definition
+		 */
+		String definition() {
+			return definition;
+		}
+
+		/**
+		 * Tells whether the column may be added to an existing table with <code>ALTER TABLE .. ADD COLUMN</code>:
+		 * it must not be a part of a primary key or a uniqueness constraint, nor a stored generated column,
+		 * its default value must be a constant other than <code>CURRENT_TIME</code>, <code>CURRENT_DATE</code>
+		 * and <code>CURRENT_TIMESTAMP</code>, a non-nullable column must have a non-<code>NULL</code> default
+		 * value, and a foreign key column must have a <code>NULL</code> default value.
+		 * @return whether the column may be added to an existing table
+		 */
+		boolean isAddable() {
+			return addable;
+		}
+
+		/**
+		 * Tells whether the column may be dropped with <code>ALTER TABLE .. DROP COLUMN</code>
+		 * as far as its own definition is concerned (i.e. it is not a part of a primary key,
+		 * a uniqueness constraint, or a foreign key constraint).
+		 * @return whether the column definition allows dropping the column
+		 */
+		boolean isDroppable() {
+			return droppable;
+		}
+
+		/**
+		 * Tells whether adding the column makes SQLite verify its constraints
+		 * against all the existing rows of the table.
+		 * @return whether adding the column scans the table
+		 */
+		boolean isVerifiedOnAddition() {
+			return verified;
+		}
+
+		/**
+		 * Returns the names of the columns of the table the constraints of the column refer to:
+		 * the columns used in its <code>CHECK</code> and generated column expressions,
+		 * and the column referred to by its foreign key constraint if the table refers to itself.
+		 * @return the unmodifiable set of the column names as specified in the definition
+		 */
+		Set<String> references() {
+			return references;
+		}
+	}
+
+	/**
+	 * Describes a table constraint in terms of the columns it refers to, so that the constraints
+	 * may be compared regardless of the names of these columns.
+	 */
+	static final class TableConstraint {
+
+		private final String shape;
+
+		private final List<String> columns;
+
+		private final Set<String> references;
+
+		private TableConstraint(String shape, List<String> columns, Set<String> references) {
+			this.shape = shape;
+			this.columns = columns;
+			this.references = references;
+		}
+
+		/**
+		 * Returns the rendered constraint in which the name of every column listed by the constraint
+		 * (see {@link #columns()}) is replaced with a question mark.
+		 * @return the rendered constraint without the names of the listed columns
+		 */
+		String shape() {
+			return shape;
+		}
+
+		/**
+		 * Returns the names of the columns of the table listed by a <code>PRIMARY KEY</code>,
+		 * <code>UNIQUE</code> or <code>FOREIGN KEY</code> constraint.
+		 * @return the unmodifiable list of the column names in the order of the constraint definition
+		 * (empty for a <code>CHECK</code> constraint)
+		 */
+		List<String> columns() {
+			return columns;
+		}
+
+		/**
+		 * Returns the names of the columns of the table the constraint refers to otherwise:
+		 * the columns used in a <code>CHECK</code> expression, and the referred columns of a foreign key
+		 * constraint if the table refers to itself.
+		 * @return the unmodifiable set of the column names as specified in the definition
+		 */
+		Set<String> references() {
+			return references;
+		}
+	}
+
+	/**
+	 * Represents a <code>CREATE TABLE</code> statement which is built as another one
+	 * with the table name replaced.
+	 */
+	private static final class RenamedDefinition implements ExplicableStatement {
+
+		private final SqlStatement definition;
+
+		private final CharSequence tableName;
+
+		RenamedDefinition(SqlStatement definition, CharSequence tableName) {
+			this.definition = definition;
+			this.tableName = tableName;
+		}
+
+		@Override
+		public RenamedDefinition copy() {
+			SqlStatement definitionCopy = definition.copy();
+			CharSequence tableNameCopy = tableName.toString();
+
+			return definitionCopy == definition && tableNameCopy == tableName
+				? this : new RenamedDefinition(definitionCopy, tableNameCopy);
+		}
+
+		@Override
+		public void build(StringBuilder receptacle) {
+			Stub stub = stubOf(definitionOf(definition));
+			StringBuilder original = new StringBuilder();
+			stub.appendTo(original);
+			int prefixLength = original.length();
+			original.setLength(0);
+			definition.build(original);
+
+			new Stub(stub.temporary, stub.ifNotExists, stub.schemaName, tableName).appendTo(receptacle);
+			receptacle.append(original, prefixLength, original.length());
+		}
 	}
 
 	private CreateTable() { }
+
+	/**
+	 * Returns the column and table constraint definitions of the specified <code>CREATE TABLE</code> statement.
+	 * @param createTable the <code>CREATE TABLE</code> statement
+	 * @return the column and table constraint definitions
+	 * @throws IllegalArgumentException if the statement is not a <code>CREATE TABLE</code> statement
+	 * with column definitions
+	 */
+	static ConstraintList definitionOf(SqlStatement createTable) {
+		if (createTable instanceof ConstraintList) {
+			return (ConstraintList)createTable;
+		} else if (createTable instanceof WithoutRowid) {
+			return ((WithoutRowid)createTable).previous;
+		} else if (createTable instanceof Strict) {
+			return ((Strict)createTable).previous;
+		} else if (createTable instanceof StrictWithoutRowid) {
+			StrictWithoutRowid options = (StrictWithoutRowid)createTable;
+			return options.strict != null ? options.strict.previous : options.withoutRowid.previous;
+		} else if (createTable instanceof RenamedDefinition) {
+			return definitionOf(((RenamedDefinition)createTable).definition);
+		}
+
+		throw new IllegalArgumentException("The statement is not a CREATE TABLE statement with column definitions.");
+	}
+
+	static Stub stubOf(ConstraintList definition) {
+		ConstraintList current = definition;
+		while (current.previousDefinition() != null) {
+			current = current.previousDefinition();
+		}
+
+		return ((UntypedColumn)current).stub;
+	}
+
+	/**
+	 * Lists the names of the columns of the table definition which are not generated
+	 * (i.e. the columns which can be assigned values explicitly).
+	 * @param definition the column and table constraint definitions
+	 * @return the names of the non-generated columns in the order of definition
+	 */
+	static List<String> storedColumnNames(ConstraintList definition) {
+		// walking the definition backwards, the constraints of a column are met before the column itself
+		List<String> result = new ArrayList<>();
+		boolean generated = false;
+		for (ConstraintList current = definition; current != null; current = current.previousDefinition()) {
+			if (current instanceof ColumnGenerated) {
+				generated = true;
+			} else if (current instanceof UntypedColumn) {
+				if (!generated) {
+					result.add(((UntypedColumn)current).columnName.toString());
+				}
+				generated = false;
+			}
+		}
+		Collections.reverse(result);
+
+		return result;
+	}
+
+	/**
+	 * Describes the columns of the table definition.
+	 * @param definition the column and table constraint definitions
+	 * @return the descriptions of the columns in the order of definition
+	 */
+	static List<ColumnDefinition> columnDefinitions(ConstraintList definition) {
+		List<ConstraintList> chain = new ArrayList<>();
+		for (ConstraintList current = definition; current != null; current = current.previousDefinition()) {
+			if (current instanceof ColumnConstraintList) {
+				chain.add(current);
+			}
+		}
+		Collections.reverse(chain);
+
+		String tableName = stubOf(definition).tableName().toString();
+		List<ColumnDefinition> result = new ArrayList<>();
+		int i = 0;
+		while (i < chain.size()) {
+			UntypedColumn column = (UntypedColumn)chain.get(i++);
+			boolean primaryKey = false;
+			boolean unique = false;
+			boolean notNull = false;
+			boolean foreignKey = false;
+			boolean checked = false;
+			GeneratedColumnStorage generated = null;
+			SqlExpression defaultValue = null;
+			Set<String> references = new LinkedHashSet<>();
+			for (; i < chain.size() && !(chain.get(i) instanceof UntypedColumn); i++) {
+				ConstraintList constraint = chain.get(i);
+				if (constraint instanceof ColumnPk) {
+					primaryKey = true;
+				} else if (constraint instanceof ColumnUnique) {
+					unique = true;
+				} else if (constraint instanceof ColumnNotNull) {
+					notNull = true;
+				} else if (constraint instanceof ColumnFk) {
+					ColumnFk fk = (ColumnFk)constraint;
+					foreignKey = true;
+					if (fk.columnName != null && fk.tableName.toString().equalsIgnoreCase(tableName)) {
+						references.add(fk.columnName.toString());
+					}
+				} else if (constraint instanceof ColumnCheck) {
+					checked = true;
+					references.addAll(TableReferences.columns(((ColumnCheck)constraint).condition));
+				} else if (constraint instanceof ColumnGenerated) {
+					ColumnGenerated generatedColumn = (ColumnGenerated)constraint;
+					generated = generatedColumn.storage == null
+						? GeneratedColumnStorage.VIRTUAL : generatedColumn.storage;
+					references.addAll(TableReferences.columns(generatedColumn.expression));
+				} else if (constraint instanceof ColumnDefault) {
+					defaultValue = ((ColumnDefault)constraint).defaultValue;
+				}
+			}
+
+			StringBuilder text = new StringBuilder();
+			column.appendPrefix(text);
+			int nameEnd = text.length();
+			text.setLength(0);
+			chain.get(i - 1).appendPrefix(text);
+
+			boolean nullDefault = defaultValue == null || defaultValue == Literal.NULL;
+			boolean addable = !primaryKey && !unique && generated != GeneratedColumnStorage.STORED
+				&& (defaultValue == null || defaultValue instanceof Literal
+					&& defaultValue != Literal.CURRENT_TIME && defaultValue != Literal.CURRENT_DATE
+					&& defaultValue != Literal.CURRENT_TIMESTAMP)
+				&& (!notNull || generated != null || !nullDefault)
+				&& (!foreignKey || nullDefault);
+			result.add(new ColumnDefinition(
+				column.columnName.toString(), text.substring(nameEnd), addable,
+				!primaryKey && !unique && !foreignKey, checked || notNull && generated != null,
+				Collections.unmodifiableSet(references)));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Describes the table constraints of the table definition.
+	 * @param definition the column and table constraint definitions
+	 * @return the descriptions of the table constraints in the order of definition
+	 */
+	static List<TableConstraint> tableConstraints(ConstraintList definition) {
+		String tableName = stubOf(definition).tableName().toString();
+		List<TableConstraint> result = new ArrayList<>();
+		ConstraintList current = definition;
+		while (!(current instanceof ColumnConstraintList)) {
+			ConstraintStub stub;
+			StringBuilder shape = new StringBuilder();
+			List<String> columns = new ArrayList<>();
+			Set<String> references = new LinkedHashSet<>();
+			if (current instanceof Check) {
+				Check check = (Check)current;
+				stub = check.stub;
+				shape.append(render(check).substring(renderedLength(stub.previous)));
+				references.addAll(TableReferences.columns(check.condition));
+			} else if (current instanceof UniqueColumn || current instanceof UniqueColumnConflict) {
+				UniqueColumn last = current instanceof UniqueColumn
+					? (UniqueColumn)current : ((UniqueColumnConflict)current).previous;
+				List<UniqueColumn> chain = new ArrayList<>();
+				for (UniqueColumn column = last; column != null; column = column.previous) {
+					chain.add(column);
+				}
+				Collections.reverse(chain);
+				UniqueStub uniqueStub = chain.get(0).stub;
+				stub = uniqueStub.previous;
+
+				StringBuilder head = new StringBuilder();
+				uniqueStub.appendTo(head);
+				shape.append(head, renderedLength(stub.previous), head.length()).append('(');
+				for (UniqueColumn column : chain) {
+					if (column != chain.get(0)) {
+						shape.append(", ");
+					}
+					shape.append('?');
+					column.appendOptions(shape);
+					columns.add(column.columnName.toString());
+				}
+				shape.append(')');
+				if (current != last) {
+					shape.append(render(current).substring(renderedLength(last)));
+				}
+			} else {
+				// a foreign key constraint: FkTable, optionally followed by FkColumns, FkAction and FkTiming
+				ConstraintList node = current;
+				while (!(node instanceof FkTable)) {
+					if (node instanceof FkColumns) {
+						for (CharSequence column : ((FkColumns)node).foreignColumnNames) {
+							references.add(column.toString());
+						}
+					}
+					node = node.previousDefinition();
+				}
+				FkStub fkStub = ((FkTable)node).stub;
+				if (!((FkTable)node).foreignTableName.toString().equalsIgnoreCase(tableName)) {
+					references.clear();
+				}
+				stub = fkStub.previous;
+
+				StringBuilder head = new StringBuilder();
+				stub.appendTo(head);
+				shape.append(head, renderedLength(stub.previous), head.length()).append(" FOREIGN KEY(");
+				for (CharSequence column : fkStub.columns) {
+					shape.append(columns.isEmpty() ? "?" : ", ?");
+					columns.add(column.toString());
+				}
+				StringBuilder fkStubText = new StringBuilder();
+				fkStub.appendTo(fkStubText);
+				shape.append(')').append(render(current).substring(fkStubText.length()));
+			}
+
+			result.add(new TableConstraint(
+				shape.toString(), Collections.unmodifiableList(columns), Collections.unmodifiableSet(references)));
+			current = stub.previous;
+		}
+		Collections.reverse(result);
+
+		return result;
+	}
+
+	/**
+	 * Returns the statement creating the table defined by the specified statement under another name.
+	 * @param createTable the <code>CREATE TABLE</code> statement with column definitions
+	 * @param tableName the name of the table to create
+	 * @return the statement which is the same as the specified one except for the table name
+	 */
+	static ExplicableStatement renamed(SqlStatement createTable, CharSequence tableName) {
+		definitionOf(createTable);
+
+		return new RenamedDefinition(createTable, tableName);
+	}
+
+	private static String render(ConstraintList definition) {
+		StringBuilder result = new StringBuilder();
+		definition.appendPrefix(result);
+
+		return result.toString();
+	}
+
+	private static int renderedLength(ConstraintList definition) {
+		return render(definition).length();
+	}
+
+	private static void checkStrictColumnTypes(ConstraintList definition) {
+		// walking the definition backwards, a type definition is always met before the column it belongs to
+		UntypedColumn typedColumn = null;
+		for (ConstraintList current = definition; current != null; current = current.previousDefinition()) {
+			if (current instanceof TypedColumn) {
+				TypedColumn column = (TypedColumn)current;
+				if (!Types.isStrictType(column.typeDefinition)) {
+					throw new IllegalStateException(String.format(
+						"The column \"%s\" of a STRICT table has type \"%s\" which is not one of %s.",
+						column.previous.columnName, column.typeDefinition, Types.STRICT_TYPES));
+				}
+				typedColumn = column.previous;
+			} else if (current instanceof UntypedColumn && current != typedColumn) {
+				throw new IllegalStateException(String.format(
+					"The column \"%s\" of a STRICT table must have a type.", ((UntypedColumn)current).columnName));
+			}
+		}
+	}
 }
@@ -443,4 +443,30 @@ public final class CreateTrigger implements ExplicableStatement {
 		});
 		receptacle.append("END");
 	}
+
+	Drop.Trigger dropIfExists() {
+		Stub stub = target().previous.previous.previous;
+
+		return SqlStatements.dropTriggerIfExists(stub.schemaName, stub.triggerName);
+	}
+
+	CharSequence tableName() {
+		return target().tableName;
+	}
+
+	/**
+	 * Returns the schema name of the table the trigger is attached to: the one specified
+	 * in the <code>ON</code> clause of a temporary trigger, otherwise the schema of the trigger.
+	 * @return the schema name or {@literal null} if the table is referred to implicitly
+	 */
+	CharSequence tableSchemaName() {
+		Targeted target = target();
+		Stub stub = target.previous.previous.previous;
+
+		return target.schemaName != null || stub.temporary ? target.schemaName : stub.schemaName;
+	}
+
+	private Targeted target() {
+		return previousUnconditional != null ? previousUnconditional : previousConditional.previous;
+	}
 }
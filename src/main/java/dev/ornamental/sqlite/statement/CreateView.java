@@ -71,6 +71,10 @@ public final class CreateView implements ExplicableStatement {
 			return new CreateView(this, selectStatement);
 		}
 
+		Drop.View dropIfExists() {
+			return SqlStatements.dropViewIfExists(schemaName, viewName);
+		}
+
 		Stub copy() {
 			CharSequence schemaNameCopy = schemaName == null ? null : schemaName.toString();
 			CharSequence viewNameCopy = viewName.toString();
@@ -129,6 +133,10 @@ public final class CreateView implements ExplicableStatement {
 				? this : new WithColumnNames(previousCopy, columnNamesCopy);
 		}
 
+		Drop.View dropIfExists() {
+			return previous.dropIfExists();
+		}
+
 		void appendTo(StringBuilder receptacle) {
 			previous.appendTo(receptacle);
 			receptacle.append('(');
@@ -175,6 +183,28 @@ public final class CreateView implements ExplicableStatement {
 				: new CreateView(previousNoColumnNamesCopy, previousWithColumnNamesCopy, selectStatementCopy);
 	}
 
+	CharSequence viewName() {
+		return previousWithColumnNames != null
+			? previousWithColumnNames.previous.viewName : previousNoColumnNames.viewName;
+	}
+
+	/**
+	 * Returns the explicitly specified names of the view columns.
+	 * @return the names of the view columns or {@literal null} if they are not specified
+	 */
+	Iterable<? extends CharSequence> columnNames() {
+		return previousWithColumnNames == null ? null : previousWithColumnNames.columnNames;
+	}
+
+	SelectStatement selectStatement() {
+		return selectStatement;
+	}
+
+	Drop.View dropIfExists() {
+		return previousWithColumnNames != null
+			? previousWithColumnNames.dropIfExists() : previousNoColumnNames.dropIfExists();
+	}
+
 	@Override
 	public void build(StringBuilder receptacle) {
 		if (previousWithColumnNames != null) {
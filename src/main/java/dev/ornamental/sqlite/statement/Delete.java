@@ -151,6 +151,18 @@ public final class Delete {
 			receptacle.append("DELETE FROM ");
 			SqliteUtilities.appendQuotedName(receptacle, schemaName, tableName);
 		}
+
+		CommonTableExpression cte() {
+			return cte;
+		}
+
+		CharSequence schemaName() {
+			return schemaName;
+		}
+
+		CharSequence tableName() {
+			return tableName;
+		}
 	}
 
 	/**
@@ -182,6 +194,10 @@ public final class Delete {
 			previous.build(receptacle);
 			TableWithIndex.appendIndexDirective(receptacle, indexName);
 		}
+
+		All previous() {
+			return previous;
+		}
 	}
 
 	/**
@@ -254,6 +270,14 @@ public final class Delete {
 
 			sort.appendTo(receptacle);
 		}
+
+		Sortable previous() {
+			return previousNotLimited != null ? previousNotLimited : previousOrdered;
+		}
+
+		Sort sort() {
+			return sort;
+		}
 	}
 
 	/**
@@ -330,6 +354,14 @@ public final class Delete {
 			}
 			limit.appendTo(receptacle);
 		}
+
+		Sortable previous() {
+			return previousNotLimited != null ? previousNotLimited : previousOrdered;
+		}
+
+		IntegralValueClause.Limit limit() {
+			return limit;
+		}
 	}
 
 	/**
@@ -361,6 +393,14 @@ public final class Delete {
 			previous.build(receptacle);
 			offset.appendTo(receptacle);
 		}
+
+		LimitedNoOffset previous() {
+			return previous;
+		}
+
+		IntegralValueClause.Offset offset() {
+			return offset;
+		}
 	}
 
 	/**
@@ -393,6 +433,18 @@ public final class Delete {
 			receptacle.append(" WHERE ");
 			condition.appendTo(receptacle);
 		}
+
+		Filtered and(SqlExpression extraCondition) {
+			return new Filtered(previous, condition.and(extraCondition));
+		}
+
+		TriggerStatement previous() {
+			return previous;
+		}
+
+		SqlExpression condition() {
+			return condition;
+		}
 	}
 
 	private Delete() { }
@@ -38,4 +38,12 @@ public final class ExistsExpression implements SqlExpression {
 
 		return selectCopy == select ? this : new ExistsExpression(not, selectCopy);
 	}
+
+	ExistsExpression negated() {
+		return new ExistsExpression(!not, select);
+	}
+
+	SelectStatement select() {
+		return select;
+	}
 }
@@ -33,4 +33,8 @@ public final class Explain implements SqlStatement {
 		}
 		statement.build(receptacle);
 	}
+
+	ExplicableStatement statement() {
+		return statement;
+	}
 }
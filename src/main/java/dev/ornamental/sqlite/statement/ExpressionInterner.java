@@ -0,0 +1,130 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares the structurally equal expression subtrees (hash-consing), so that a library of long-lived
+ * statement templates built from the interned expressions keeps a single instance of each recurring
+ * column reference, literal and binary operator expression. The interning is opt-in: the expressions
+ * are only shared within the scope of an interner instance, and the interner keeps all the interned
+ * expressions reachable for its lifetime.<br>
+ * The following expressions are interned: column references with immutable names, literals other than
+ * blob literals, and binary and n-ary operator expressions (whose operands are interned first); the other
+ * expressions are returned as they are, though the operator expressions having the same
+ * instances of them as operands are still shared.<br>
+ * The instances of this class are thread-safe.
+ */
+public final class ExpressionInterner {
+
+	/**
+	 * The key of an operator expression whose operands are compared by identity
+	 * (as they are interned beforehand).
+	 */
+	private static final class OperatorKey {
+
+		private final Operator operator;
+
+		private final SqlExpression[] operands;
+
+		private final boolean nary;
+
+		OperatorKey(Operator operator, boolean nary, SqlExpression... operands) {
+			this.operator = operator;
+			this.nary = nary;
+			this.operands = operands;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof OperatorKey)) {
+				return false;
+			}
+
+			OperatorKey key = (OperatorKey)other;
+			if (operator != key.operator || nary != key.nary || operands.length != key.operands.length) {
+				return false;
+			}
+			for (int i = 0; i < operands.length; i++) {
+				if (operands[i] != key.operands[i]) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = operator.hashCode() * 31 + Boolean.hashCode(nary);
+			for (SqlExpression operand : operands) {
+				result = result * 31 + System.identityHashCode(operand);
+			}
+
+			return result;
+		}
+	}
+
+	private final Map<Object, SqlExpression> expressions = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the shared reference to the specified column.
+	 * @param columnName the name of the column
+	 * @return the interned column expression
+	 */
+	public SqlExpression column(String columnName) {
+		return intern(SqlExpressions.column(columnName));
+	}
+
+	/**
+	 * Returns the shared reference to the specified column of the specified table.
+	 * @param tableName the name of the table
+	 * @param columnName the name of the column
+	 * @return the interned column expression
+	 */
+	public SqlExpression column(String tableName, String columnName) {
+		return intern(SqlExpressions.column(tableName, columnName));
+	}
+
+	/**
+	 * Returns the expression structurally equal to the specified one and sharing its subtrees
+	 * with the expressions interned earlier.
+	 * @param expression the expression to intern
+	 * @return the interned expression (the same instance for the structurally equal expressions)
+	 */
+	public SqlExpression intern(SqlExpression expression) {
+		// the nested operator expressions are interned bottom-up with an explicit work stack,
+		// so that their depth is not limited by the stack size
+		return OperatorTree.transform(expression, this::internOperand, (node, operands) -> intern(
+			new OperatorKey(OperatorTree.operator(node), node instanceof NaryOperator, operands),
+			OperatorTree.withOperands(node, operands)));
+	}
+
+	/**
+	 * Returns the number of the distinct expressions interned so far.
+	 * @return the number of the interned expressions
+	 */
+	public int size() {
+		return expressions.size();
+	}
+
+	private SqlExpression intern(Object key, SqlExpression candidate) {
+		SqlExpression previous = expressions.putIfAbsent(key, candidate);
+		return previous == null ? candidate : previous;
+	}
+
+	private SqlExpression internOperand(SqlExpression expression) {
+		Object key;
+		if (expression instanceof ColumnExpression && ((ColumnExpression)expression).renderedName() != null) {
+			key = "C" + ((ColumnExpression)expression).renderedName();
+		} else if (expression instanceof Literal && !(expression instanceof Literal.BlobLiteral)) {
+			StringBuilder text = new StringBuilder("L");
+			expression.appendTo(text);
+			key = text.toString();
+		} else {
+			return expression;
+		}
+
+		return intern(key, expression);
+	}
+}
@@ -0,0 +1,516 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Simplifies SQL expressions before rendering, so that the generated SQL is shorter and SQLite
+ * does not have to evaluate the constant parts of the expressions. The following transformations
+ * are performed:
+ * <ul>
+ *     <li>the operators applied to numeric literals (and the comparisons of string literals for equality)
+ *     are evaluated; the concatenations of string literals are merged;</li>
+ *     <li>the <code>AND</code> and <code>OR</code> terms not affecting the result (<code>x AND TRUE</code>,
+ *     <code>x OR FALSE</code>) or repeated within the same operator are removed, and the operators having
+ *     a term determining the result (<code>x AND FALSE</code>, <code>x OR TRUE</code>) are replaced
+ *     with the result;</li>
+ *     <li>double logical negation (<code>NOT NOT x</code>) is removed;</li>
+ *     <li>the <code>CASE</code> branches whose <code>WHEN</code> part is constant are removed
+ *     or become the <code>ELSE</code> part;</li>
+ *     <li>the repeated elements of <code>IN</code> lists are removed, and <code>IN</code> operators
+ *     with empty lists are replaced with their results.</li>
+ * </ul>
+ * The transformations preserve the value of the expression exactly, including the <code>NULL</code>
+ * semantics: e.g. <code>x AND TRUE</code> is only reduced to <code>x</code> if <code>x</code>
+ * is a logical expression (which evaluates to <code>0</code>, <code>1</code> or <code>NULL</code>),
+ * the terms are only considered repeated if they are deterministic (do not contain function calls,
+ * time literals or nameless parameters), and the arithmetic operations are not folded if they
+ * overflow or their result depends on SQLite's type conversions.<br>
+ * The operands of the other kinds of expressions are not simplified.
+ */
+public final class ExpressionSimplifier {
+
+	private static final Set<Operator> LOGICAL_OPERATORS = EnumSet.of(
+		Operator.LESS, Operator.LESS_EQ, Operator.GREATER, Operator.GREATER_EQ,
+		Operator.EQ, Operator.NOT_EQ, Operator.IS, Operator.IS_NOT, Operator.AND, Operator.OR);
+
+	private static final Literal ZERO = Literal.value(0);
+
+	private static final Literal ONE = Literal.value(1);
+
+	private ExpressionSimplifier() { }
+
+	/**
+	 * Returns the simplified version of the expression.
+	 * @param expression the expression to simplify
+	 * @return the simplified expression having the same value as the passed one;
+	 * the passed instance itself if it cannot be simplified
+	 */
+	public static SqlExpression simplify(SqlExpression expression) {
+		if (expression instanceof NaryOperator) {
+			NaryOperator nary = (NaryOperator)expression;
+			return simplifyTerms(nary, nary.operator(), nary.terms());
+		} else if (expression instanceof BinaryOperator) {
+			return simplifyBinary((BinaryOperator)expression);
+		} else if (expression instanceof PrefixUnaryOperator) {
+			return simplifyPrefix((PrefixUnaryOperator)expression);
+		} else if (expression instanceof CaseExpression.NoDefault) {
+			return simplifyCase(expression, (CaseExpression.NoDefault)expression, null);
+		} else if (expression instanceof CaseExpression.WithDefault) {
+			CaseExpression.WithDefault withDefault = (CaseExpression.WithDefault)expression;
+			return simplifyCase(expression, withDefault.clauses(), withDefault.orElseResult());
+		} else if (expression instanceof InExpression.ForRow) {
+			return simplifyIn((InExpression.ForRow)expression);
+		}
+
+		return expression;
+	}
+
+	private static SqlExpression simplifyBinary(BinaryOperator expression) {
+		Operator operator = expression.operator();
+		if (operator == Operator.AND || operator == Operator.OR || operator == Operator.CONCAT) {
+			// the left-deep chains of the same operator are collected iteratively
+			List<SqlExpression> terms = new ArrayList<>();
+			SqlExpression current = expression;
+			while (current instanceof BinaryOperator && ((BinaryOperator)current).operator() == operator) {
+				terms.add(((BinaryOperator)current).right());
+				current = ((BinaryOperator)current).left();
+			}
+			terms.add(current);
+			Collections.reverse(terms);
+
+			return simplifyTerms(expression, operator, terms);
+		}
+
+		SqlExpression left = simplify(expression.left());
+		SqlExpression right = simplify(expression.right());
+		Object leftValue = constantValue(left);
+		Object rightValue = constantValue(right);
+		if ((leftValue == Literal.NULL || rightValue == Literal.NULL)
+			&& operator != Operator.IS && operator != Operator.IS_NOT) {
+
+			return Literal.NULL;
+		} else if (leftValue != null && rightValue != null) {
+			SqlExpression folded = fold(operator, leftValue, rightValue);
+			if (folded != null) {
+				return folded;
+			}
+		}
+
+		return left == expression.left() && right == expression.right()
+			? expression : new BinaryOperator(left, right, operator);
+	}
+
+	private static SqlExpression simplifyTerms(SqlExpression original, Operator operator, List<SqlExpression> terms) {
+		boolean changed = !(original instanceof NaryOperator);
+		List<SqlExpression> simplified = new ArrayList<>();
+		for (SqlExpression term : terms) {
+			SqlExpression termSimplified = simplify(term);
+			changed |= termSimplified != term;
+			if (termSimplified instanceof NaryOperator && ((NaryOperator)termSimplified).operator() == operator) {
+				simplified.addAll(((NaryOperator)termSimplified).terms());
+				changed = true;
+			} else {
+				simplified.add(termSimplified);
+			}
+		}
+
+		List<SqlExpression> result = operator == Operator.CONCAT
+			? mergeConcatenated(simplified)
+			: reduceLogical(operator, simplified);
+		if (result.size() == 1) {
+			return result.get(0);
+		}
+
+		return changed || result.size() != simplified.size()
+			? NaryOperator.of(operator, result) : original;
+	}
+
+	private static List<SqlExpression> mergeConcatenated(List<SqlExpression> terms) {
+		List<SqlExpression> result = new ArrayList<>();
+		StringBuilder pending = null;
+		for (SqlExpression term : terms) {
+			Object value = constantValue(term);
+			if (value == Literal.NULL) {
+				return Collections.singletonList(Literal.NULL);
+			} else if (value instanceof String) {
+				if (pending == null) {
+					pending = new StringBuilder();
+				}
+				pending.append((String)value);
+				continue;
+			}
+
+			if (pending != null) {
+				result.add(Literal.value(pending.toString()));
+				pending = null;
+			}
+			result.add(term);
+		}
+		if (pending != null) {
+			result.add(Literal.value(pending.toString()));
+		}
+
+		return result;
+	}
+
+	private static List<SqlExpression> reduceLogical(Operator operator, List<SqlExpression> terms) {
+		// for AND the absorbing value is 0 and the neutral one is 1; for OR, vice versa
+		boolean absorbing = operator == Operator.OR;
+		List<SqlExpression> result = new ArrayList<>();
+		Set<String> deterministicTerms = new HashSet<>();
+		boolean reduced = false;
+		for (SqlExpression term : terms) {
+			Boolean truth = truthOf(constantValue(term));
+			if (truth != null && truth == absorbing) {
+				return Collections.singletonList(absorbing ? ONE : ZERO);
+			} else if (truth != null || isDeterministic(term) && !deterministicTerms.add(render(term))) {
+				reduced = true;
+			} else {
+				result.add(term);
+			}
+		}
+
+		if (result.isEmpty()) {
+			return Collections.singletonList(absorbing ? ZERO : ONE);
+		} else if (result.size() == 1 && reduced && !isLogical(result.get(0))) {
+			// the operator converts its operand to a logical value, so it cannot be omitted
+			result.add(absorbing ? ZERO : ONE);
+		}
+
+		return result;
+	}
+
+	private static SqlExpression simplifyPrefix(PrefixUnaryOperator expression) {
+		SqlExpression operand = simplify(expression.operand());
+		Operator operator = expression.operator();
+		Object value = constantValue(operand);
+		if (value == Literal.NULL && operator != Operator.NOP) {
+			return Literal.NULL;
+		}
+
+		switch (operator) {
+			case NOT:
+				if (value instanceof Long || value instanceof Double) {
+					return truthOf(value) ? ZERO : ONE;
+				} else if (operand instanceof PrefixUnaryOperator
+					&& ((PrefixUnaryOperator)operand).operator() == Operator.NOT
+					&& isLogical(((PrefixUnaryOperator)operand).operand())) {
+
+					return ((PrefixUnaryOperator)operand).operand();
+				}
+				break;
+			case NEG:
+				if (value instanceof Long && (Long)value != Long.MIN_VALUE) {
+					return Literal.value(-(Long)value);
+				} else if (value instanceof Double) {
+					return Literal.value(-(Double)value);
+				}
+				break;
+			case INV:
+				if (value instanceof Long) {
+					return Literal.value(~(Long)value);
+				}
+				break;
+			default: // the no-operation operator is kept as it prevents the use of indices
+				break;
+		}
+
+		return operand == expression.operand() ? expression : new PrefixUnaryOperator(operand, operator);
+	}
+
+	private static SqlExpression simplifyCase(
+		SqlExpression original, CaseExpression.NoDefault clauses, SqlExpression orElseResult) {
+
+		SqlExpression comparand = clauses.comparand();
+		SqlExpression comparandSimplified = comparand == null ? null : simplify(comparand);
+		Object comparandValue = constantValue(comparandSimplified);
+		boolean changed = comparandSimplified != comparand;
+
+		List<SqlExpression> conditions = new ArrayList<>();
+		List<SqlExpression> results = new ArrayList<>();
+		SqlExpression orElse = orElseResult;
+		for (CaseExpression.NoDefault clause : clauses.clauses()) {
+			SqlExpression condition = simplify(clause.condition());
+			SqlExpression result = simplify(clause.result());
+			changed |= condition != clause.condition() || result != clause.result();
+
+			Object conditionValue = constantValue(condition);
+			Boolean matches = comparand != null ? constantEquals(comparandValue, conditionValue)
+				: conditionValue == Literal.NULL ? Boolean.FALSE : truthOf(conditionValue);
+			if (matches == null) {
+				conditions.add(condition);
+				results.add(result);
+			} else if (matches) {
+				orElse = result;
+				changed = true;
+				break;
+			} else {
+				changed = true;
+			}
+		}
+		if (orElse != null && orElse == orElseResult) {
+			orElse = simplify(orElseResult);
+			changed |= orElse != orElseResult;
+		}
+
+		if (conditions.isEmpty()) {
+			return orElse == null ? Literal.NULL : orElse;
+		} else if (!changed) {
+			return original;
+		}
+
+		CaseExpression.ClauseList builder = new CaseExpression.Stub(comparandSimplified);
+		for (int i = 0; i < conditions.size(); i++) {
+			builder = builder.when(conditions.get(i)).then(results.get(i));
+		}
+		CaseExpression.NoDefault result = (CaseExpression.NoDefault)builder;
+
+		return orElse == null ? result : result.orElse(orElse);
+	}
+
+	private static SqlExpression simplifyIn(InExpression.ForRow expression) {
+		SqlExpression left = simplify(expression.left);
+		RowExpression right = expression.right();
+		if (right == null) {
+			// an empty list never contains the left operand, even a NULL one
+			return expression.not ? ONE : ZERO;
+		} else if (constantValue(left) == Literal.NULL) {
+			return Literal.NULL;
+		}
+
+		boolean changed = left != expression.left;
+		if (right instanceof RowExpression.OfExpressions) {
+			List<SqlExpression> elements = new ArrayList<>();
+			Set<String> deterministicElements = new HashSet<>();
+			for (SqlExpression element : ((RowExpression.OfExpressions)right).elements) {
+				SqlExpression elementSimplified = simplify(element);
+				changed |= elementSimplified != element;
+				if (isDeterministic(elementSimplified) && !deterministicElements.add(render(elementSimplified))) {
+					changed = true;
+				} else {
+					elements.add(elementSimplified);
+				}
+			}
+			if (changed) {
+				right = new RowExpression.OfExpressions(elements);
+			}
+		}
+
+		return changed ? new InExpression.ForRow(expression.not, left, right) : expression;
+	}
+
+	private static SqlExpression fold(Operator operator, Object left, Object right) {
+		if (operator == Operator.IS || operator == Operator.IS_NOT) {
+			Boolean equal = left == Literal.NULL || right == Literal.NULL
+				? Boolean.valueOf(left == right)
+				: constantEquals(left, right);
+			return equal == null ? null : equal == (operator == Operator.IS) ? ONE : ZERO;
+		} else if (left == Literal.NULL || right == Literal.NULL) {
+			return Literal.NULL;
+		} else if (left instanceof String && right instanceof String) {
+			return operator == Operator.EQ || operator == Operator.NOT_EQ
+				? left.equals(right) == (operator == Operator.EQ) ? ONE : ZERO
+				: null;
+		} else if (left instanceof Long && right instanceof Long) {
+			return foldIntegers(operator, (Long)left, (Long)right);
+		} else if (left instanceof Number && right instanceof Number
+			&& isExact((Number)left) && isExact((Number)right)) {
+
+			return foldReals(operator, ((Number)left).doubleValue(), ((Number)right).doubleValue());
+		}
+
+		return null;
+	}
+
+	private static SqlExpression foldIntegers(Operator operator, long left, long right) {
+		try {
+			switch (operator) {
+				case PLUS:
+					return Literal.value(Math.addExact(left, right));
+				case MINUS:
+					return Literal.value(Math.subtractExact(left, right));
+				case MULT:
+					return Literal.value(Math.multiplyExact(left, right));
+				case DIV:
+					return right == 0 ? Literal.NULL
+						: left == Long.MIN_VALUE && right == -1 ? null : Literal.value(left / right);
+				case MOD:
+					return right == 0 ? Literal.NULL : Literal.value(left % right);
+				default:
+					return compare(operator, Long.compare(left, right));
+			}
+		} catch (ArithmeticException e) { // SQLite switches to floating-point arithmetic on overflow
+			return null;
+		}
+	}
+
+	private static SqlExpression foldReals(Operator operator, double left, double right) {
+		double result;
+		switch (operator) {
+			case PLUS:
+				result = left + right;
+				break;
+			case MINUS:
+				result = left - right;
+				break;
+			case MULT:
+				result = left * right;
+				break;
+			case DIV:
+				if (right == 0) {
+					return Literal.NULL;
+				}
+				result = left / right;
+				break;
+			case MOD: // SQLite converts the operands of the modulo operator to integers
+				return null;
+			default:
+				return compareReals(operator, left, right);
+		}
+
+		return Double.isInfinite(result) || Double.isNaN(result) ? null : Literal.value(result);
+	}
+
+	private static SqlExpression compare(Operator operator, int comparison) {
+		boolean result;
+		switch (operator) {
+			case LESS:
+				result = comparison < 0;
+				break;
+			case LESS_EQ:
+				result = comparison <= 0;
+				break;
+			case GREATER:
+				result = comparison > 0;
+				break;
+			case GREATER_EQ:
+				result = comparison >= 0;
+				break;
+			case EQ:
+				result = comparison == 0;
+				break;
+			case NOT_EQ:
+				result = comparison != 0;
+				break;
+			default:
+				return null;
+		}
+
+		return result ? ONE : ZERO;
+	}
+
+	private static SqlExpression compareReals(Operator operator, double left, double right) {
+		// unlike Double.compare, the primitive comparisons treat -0.0 and 0.0 as equal, as SQLite does
+		boolean result;
+		switch (operator) {
+			case LESS:
+				result = left < right;
+				break;
+			case LESS_EQ:
+				result = left <= right;
+				break;
+			case GREATER:
+				result = left > right;
+				break;
+			case GREATER_EQ:
+				result = left >= right;
+				break;
+			case EQ:
+				result = left == right;
+				break;
+			case NOT_EQ:
+				result = left != right;
+				break;
+			default:
+				return null;
+		}
+
+		return result ? ONE : ZERO;
+	}
+
+	private static Boolean constantEquals(Object left, Object right) {
+		if (left == null || right == null) {
+			return null;
+		} else if (left == Literal.NULL || right == Literal.NULL) {
+			return false; // CASE treats NULL = x as not matching
+		} else if (left instanceof String || right instanceof String) {
+			return left.equals(right); // the literals have no affinity, so a number never equals a string
+		} else if (left instanceof Long && right instanceof Long) {
+			return left.equals(right);
+		} else if (isExact((Number)left) && isExact((Number)right)) {
+			return ((Number)left).doubleValue() == ((Number)right).doubleValue();
+		}
+
+		return null;
+	}
+
+	private static boolean isExact(Number value) {
+		// the integers beyond 2^53 are compared with the floating-point numbers exactly by SQLite, but not by Java
+		return value instanceof Double || Math.abs(value.longValue()) <= 1L << 53;
+	}
+
+	private static Boolean truthOf(Object value) {
+		if (value instanceof Long) {
+			return (Long)value != 0;
+		} else if (value instanceof Double) {
+			return (Double)value != 0;
+		}
+
+		return null; // NULL is neither true nor false; the truth of a string depends on its conversion to a number
+	}
+
+	private static Object constantValue(SqlExpression expression) {
+		return expression instanceof Literal ? ((Literal)expression).constantValue() : null;
+	}
+
+	static boolean isLogical(SqlExpression expression) {
+		if (expression instanceof BinaryOperator) {
+			return LOGICAL_OPERATORS.contains(((BinaryOperator)expression).operator());
+		} else if (expression instanceof NaryOperator) {
+			return ((NaryOperator)expression).operator() != Operator.CONCAT;
+		} else if (expression instanceof PrefixUnaryOperator) {
+			return ((PrefixUnaryOperator)expression).operator() == Operator.NOT;
+		} else if (expression instanceof Literal) {
+			Object value = ((Literal)expression).constantValue();
+			return value == Literal.NULL || Long.valueOf(0).equals(value) || Long.valueOf(1).equals(value);
+		}
+
+		return expression instanceof PostfixUnaryOperator || expression instanceof InExpression
+			|| expression instanceof BetweenExpression || expression instanceof ExistsExpression;
+	}
+
+	private static boolean isDeterministic(SqlExpression expression) {
+		if (expression instanceof Literal) {
+			return ((Literal)expression).constantValue() != null;
+		} else if (expression instanceof ColumnExpression) {
+			return true;
+		} else if (expression instanceof BindingParameter) {
+			return expression != BindingParameter.NAMELESS;
+		} else if (expression instanceof BinaryOperator) {
+			return isDeterministic(((BinaryOperator)expression).left())
+				&& isDeterministic(((BinaryOperator)expression).right());
+		} else if (expression instanceof NaryOperator) {
+			for (SqlExpression term : ((NaryOperator)expression).terms()) {
+				if (!isDeterministic(term)) {
+					return false;
+				}
+			}
+			return true;
+		} else if (expression instanceof PrefixUnaryOperator) {
+			return isDeterministic(((PrefixUnaryOperator)expression).operand());
+		}
+
+		return false;
+	}
+
+	private static String render(SqlExpression expression) {
+		StringBuilder result = new StringBuilder();
+		expression.appendTo(result);
+		return result.toString();
+	}
+}
@@ -4,6 +4,8 @@ import java.util.Iterator;
 
 /**
  * Represents an SQL expression of either scalar or aggregate function invocation.<br>
+ * The <code>ORDER BY</code> and <code>FILTER</code> clauses which may be added to the invocation
+ * are only admissible for aggregate functions.<br>
  * This is a complete SQL expression.
  */
 public final class FunctionExpression implements SqlExpression {
@@ -20,8 +22,57 @@ public final class FunctionExpression implements SqlExpression {
 		this.args = args;
 	}
 
+	/**
+	 * Adds an <code>ORDER BY</code> sorting term with the default sorting order to the arguments
+	 * of this aggregate function invocation.<br>
+	 * The result is a complete SQL expression.
+	 * @param sortingKey the expression to sort the aggregated values by
+	 * @return the aggregate function invocation expression having the form<br>
+	 * <code><strong><em>aggregateName</em>([DISTINCT] <em>arg<sub>0</sub></em>{, <em>arg<sub>i</sub></em>}
+	 * ORDER BY <em>sortingKey</em>)</strong></code>
+	 */
+	public Aggregate.Sorted orderBy(SqlExpression sortingKey) {
+		return orderBy(sortingKey, null);
+	}
+
+	/**
+	 * Adds an <code>ORDER BY</code> sorting term with the specified sorting order to the arguments
+	 * of this aggregate function invocation.<br>
+	 * The result is a complete SQL expression.
+	 * @param sortingKey the expression to sort the aggregated values by
+	 * @param order the sorting order
+	 * @return the aggregate function invocation expression having the form<br>
+	 * <code><strong><em>aggregateName</em>([DISTINCT] <em>arg<sub>0</sub></em>{, <em>arg<sub>i</sub></em>}
+	 * ORDER BY <em>sortingKey</em> [<em>order</em>])</strong></code>
+	 */
+	public Aggregate.Sorted orderBy(SqlExpression sortingKey, SortingOrder order) { // accepts null as sorting order
+		return new Aggregate.Sorted(this, new Sort(sortingKey, order));
+	}
+
+	/**
+	 * Adds a <code>FILTER</code> clause to this aggregate function invocation.<br>
+	 * The result is a complete SQL expression.
+	 * @param condition the condition the rows must satisfy in order to be aggregated
+	 * @return the aggregate function invocation expression having the form<br>
+	 * <code><strong><em>aggregateName</em>([DISTINCT] <em>arg<sub>0</sub></em>{, <em>arg<sub>i</sub></em>})
+	 * FILTER (WHERE <em>condition</em>)</strong></code>
+	 */
+	public Aggregate.Filtered filter(SqlExpression condition) {
+		return new Aggregate.Filtered(this, condition);
+	}
+
 	@Override
 	public void appendTo(StringBuilder receptacle) {
+		appendOpen(receptacle);
+		receptacle.append(')');
+	}
+
+	/**
+	 * Appends the function invocation without the closing parenthesis to the given {@link StringBuilder}
+	 * (so that an <code>ORDER BY</code> clause may follow the arguments).
+	 * @param receptacle the {@link StringBuilder} to append the invocation to
+	 */
+	void appendOpen(StringBuilder receptacle) {
 		SqliteUtilities.quoteNameIfNecessary(receptacle, functionName);
 		receptacle.append('(');
 		Iterator<? extends SqlExpression> argsIterator = args.iterator();
@@ -48,7 +99,6 @@ public final class FunctionExpression implements SqlExpression {
 			}
 			last.appendTo(receptacle);
 		}
-		receptacle.append(')');
 	}
 
 	@Override
@@ -64,4 +114,16 @@ public final class FunctionExpression implements SqlExpression {
 		return functionNameCopy == functionName && argsCopy == args
 			? this : new FunctionExpression(functionNameCopy, distinct, argsCopy);
 	}
+
+	CharSequence functionName() {
+		return functionName;
+	}
+
+	boolean isDistinct() {
+		return distinct;
+	}
+
+	Iterable<? extends SqlExpression> args() {
+		return args;
+	}
 }
@@ -31,9 +31,10 @@ public final class Functions {
 	 * @return the expression having the form<br>
 	 * <code><strong><em>aggregateName</em>([<em>arg<sub>0</sub></em>{, <em>arg<sub>i</sub></em>}])</strong></code>
 	 */
-	public static SqlExpression aggregate(CharSequence aggregateName, SqlExpression... args) {
-		// synonym for function(..), as non-DISTINCT aggregate and simple function calls have the same form
-		return function(aggregateName, args);
+	public static FunctionExpression aggregate(CharSequence aggregateName, SqlExpression... args) {
+		// same as function(..), as non-DISTINCT aggregate and simple function calls have the same form;
+		// the narrower return type gives access to the ORDER BY and FILTER clauses
+		return new FunctionExpression(aggregateName, false, Arrays.asList(args));
 	}
 
 	/**
@@ -43,7 +44,7 @@ public final class Functions {
 	 * @return the expression having the form<br>
 	 * <code><strong><em>aggregateName</em>(DISTINCT <em>arg<sub>i</sub></em>)</strong></code>
 	 */
-	public static SqlExpression aggregateDistinct(CharSequence aggregateName, SqlExpression argument) {
+	public static FunctionExpression aggregateDistinct(CharSequence aggregateName, SqlExpression argument) {
 		// DISTINCT is admitted for single-argument aggregates only
 		return new FunctionExpression(aggregateName, true, Collections.singleton(argument));
 	}
@@ -52,7 +53,7 @@ public final class Functions {
 	 * Returns the <code><strong>COUNT(*)</strong></code> expression.
 	 * @return the <code><strong>COUNT(*)</strong></code> expression
 	 */
-	public static SqlExpression countAll() {
+	public static CountAllAggregate countAll() {
 		// COUNT is the only SQLite function taking * as the argument
 		return CountAllAggregate.INSTANCE;
 	}
@@ -63,7 +64,7 @@ public final class Functions {
 	 * @param expression the function argument
 	 * @return the <code>COUNT</code> aggregate function invocation expression
 	 */
-	public static SqlExpression count(SqlExpression expression) {
+	public static FunctionExpression count(SqlExpression expression) {
 		return aggregate(StandardFunction.COUNT.toString(), expression);
 	}
 
@@ -73,7 +74,7 @@ public final class Functions {
 	 * @param expression the function argument
 	 * @return the <code>COUNT</code> aggregate function invocation expression
 	 */
-	public static SqlExpression countDistinct(SqlExpression expression) {
+	public static FunctionExpression countDistinct(SqlExpression expression) {
 		return aggregateDistinct(StandardFunction.COUNT.toString(), expression);
 	}
 
@@ -84,8 +85,8 @@ public final class Functions {
 	 * @return the <code>MAX</code> aggregate function invocation expression
 	 * (may serve as aggregate as well as a normal function)
 	 */
-	public static SqlExpression max(SqlExpression... expressions) {
-		return function(StandardFunction.MAX.toString(), expressions);
+	public static FunctionExpression max(SqlExpression... expressions) {
+		return aggregate(StandardFunction.MAX.toString(), expressions);
 	}
 
 	/**
@@ -95,8 +96,8 @@ public final class Functions {
 	 * @return the <code>MIN</code> function invocation expression
 	 * (may serve as aggregate as well as a normal function)
 	 */
-	public static SqlExpression min(SqlExpression... expressions) {
-		return function(StandardFunction.MIN.toString(), expressions);
+	public static FunctionExpression min(SqlExpression... expressions) {
+		return aggregate(StandardFunction.MIN.toString(), expressions);
 	}
 
 	/**
@@ -105,7 +106,7 @@ public final class Functions {
 	 * @param expression the function argument
 	 * @return the <code>AVG</code> aggregate function invocation expression
 	 */
-	public static SqlExpression avg(SqlExpression expression) {
+	public static FunctionExpression avg(SqlExpression expression) {
 		return aggregate(StandardFunction.AVG.toString(), expression);
 	}
 
@@ -115,7 +116,7 @@ public final class Functions {
 	 * @param expression the function argument
 	 * @return the <code>AVG</code> aggregate function invocation expression
 	 */
-	public static SqlExpression avgDistinct(SqlExpression expression) {
+	public static FunctionExpression avgDistinct(SqlExpression expression) {
 		return aggregateDistinct(StandardFunction.AVG.toString(), expression);
 	}
 
@@ -125,7 +126,7 @@ public final class Functions {
 	 * @param expression the function argument
 	 * @return the <code>SUM</code> aggregate function invocation expression
 	 */
-	public static SqlExpression sum(SqlExpression expression) {
+	public static FunctionExpression sum(SqlExpression expression) {
 		return aggregate(StandardFunction.SUM.toString(), expression);
 	}
 
@@ -135,7 +136,7 @@ public final class Functions {
 	 * @param expression the function argument
 	 * @return the <code>SUM</code> aggregate function invocation expression
 	 */
-	public static SqlExpression sumDistinct(SqlExpression expression) {
+	public static FunctionExpression sumDistinct(SqlExpression expression) {
 		return aggregateDistinct(StandardFunction.SUM.toString(), expression);
 	}
 
@@ -145,7 +146,7 @@ public final class Functions {
 	 * @param expression the function argument
 	 * @return the <code>TOTAL</code> aggregate function invocation expression
 	 */
-	public static SqlExpression total(SqlExpression expression) {
+	public static FunctionExpression total(SqlExpression expression) {
 		return aggregate(StandardFunction.TOTAL.toString(), expression);
 	}
 
@@ -155,7 +156,7 @@ public final class Functions {
 	 * @param expression the function argument
 	 * @return the <code>TOTAL</code> aggregate function invocation expression
 	 */
-	public static SqlExpression totalDistinct(SqlExpression expression) {
+	public static FunctionExpression totalDistinct(SqlExpression expression) {
 		return aggregateDistinct(StandardFunction.TOTAL.toString(), expression);
 	}
 
@@ -165,7 +166,7 @@ public final class Functions {
 	 * @param expression the function argument
 	 * @return the <code>GROUP_CONCAT</code> aggregate function invocation expression
 	 */
-	public static SqlExpression groupConcat(SqlExpression expression) {
+	public static FunctionExpression groupConcat(SqlExpression expression) {
 		return aggregate(StandardFunction.GROUP_CONCAT.toString(), expression);
 	}
 
@@ -176,7 +177,7 @@ public final class Functions {
 	 * @param delimiterExpression the concatenation delimiter expression
 	 * @return the <code>GROUP_CONCAT</code> aggregate function invocation expression
 	 */
-	public static SqlExpression groupConcat(SqlExpression expression, SqlExpression delimiterExpression) {
+	public static FunctionExpression groupConcat(SqlExpression expression, SqlExpression delimiterExpression) {
 		return aggregate(StandardFunction.GROUP_CONCAT.toString(), expression, delimiterExpression);
 	}
 
@@ -187,7 +188,7 @@ public final class Functions {
 	 * @param delimiter the concatenation delimiter
 	 * @return the <code>GROUP_CONCAT</code> aggregate function invocation expression
 	 */
-	public static SqlExpression groupConcat(SqlExpression expression, String delimiter) {
+	public static FunctionExpression groupConcat(SqlExpression expression, String delimiter) {
 		return groupConcat(expression, value(delimiter));
 	}
 
@@ -197,7 +198,7 @@ public final class Functions {
 	 * @param expression the function argument
 	 * @return the <code>GROUP_CONCAT</code> aggregate function invocation expression
 	 */
-	public static SqlExpression groupConcatDistinct(SqlExpression expression) {
+	public static FunctionExpression groupConcatDistinct(SqlExpression expression) {
 		return aggregateDistinct(StandardFunction.GROUP_CONCAT.toString(), expression);
 	}
 
@@ -280,7 +281,7 @@ public final class Functions {
 	 * @return the <code>INSTR</code> function invocation expression
 	 */
 	public static SqlExpression instr(SqlExpression string, SqlExpression substring) {
-		return function(StandardFunction.IFNULL.toString(), string, substring);
+		return function(StandardFunction.INSTR.toString(), string, substring);
 	}
 
 	/**
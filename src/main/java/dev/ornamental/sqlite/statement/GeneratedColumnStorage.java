@@ -0,0 +1,28 @@
+package dev.ornamental.sqlite.statement;
+
+/**
+ * Defines the two ways of storing the values of generated columns.
+ */
+public enum GeneratedColumnStorage {
+
+	/**
+	 * The column value is computed each time the column is read; it occupies no space in the database file
+	 */
+	VIRTUAL("VIRTUAL"),
+
+	/**
+	 * The column value is computed each time the row is written and is stored in the database file
+	 */
+	STORED("STORED");
+
+	private final String keyword;
+
+	GeneratedColumnStorage(String keyword) {
+		this.keyword = keyword;
+	}
+
+	@Override
+	public String toString() {
+		return keyword;
+	}
+}
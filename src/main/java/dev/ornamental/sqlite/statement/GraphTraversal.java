@@ -0,0 +1,284 @@
+package dev.ornamental.sqlite.statement;
+
+import static dev.ornamental.sqlite.statement.Literal.value;
+import static dev.ornamental.sqlite.statement.SqlExpressions.column;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Produces the recursive queries traversing a graph (or a tree) stored as an adjacency table,
+ * i.e. a table having a row per edge with the parent (source) node in one column and the child (target) node
+ * in another one (a tree table referring to the parent row from each row is a special case of it).
+ * Each query walks the whole hierarchy in a single statement using a recursive common table expression
+ * <code><strong>"traversal"</strong></code> instead of a query per level.<br>
+ * The traversal may be bounded by the maximum depth, guarded against cycles (by tracking the path
+ * of each row as the text <code>/<em>node<sub>0</sub></em>/<em>node<sub>1</sub></em>/.../</code>
+ * and not following the edges leading to a node on the path, which costs a string search per step
+ * and requires the node values not to contain <code>'/'</code>), and may eliminate duplicate rows
+ * using <code>UNION</code> instead of <code>UNION ALL</code>; the duplicates appear if a node is
+ * reachable by several paths of the same length (as the rows include the depth, <code>UNION</code> alone
+ * does not make the traversal of a cyclic graph finite). The traversal of a graph which may contain
+ * cycles must either be bounded or be guarded against cycles.<br>
+ * The traversal relies on the indexes created by {@link #createIndexes()}.<br>
+ * The instances of this class are immutable.
+ */
+public final class GraphTraversal {
+
+	private static final String TRAVERSAL = "traversal";
+
+	private static final String NODE = "node";
+
+	private static final String ANCESTOR = "ancestor";
+
+	private static final String DESCENDANT = "descendant";
+
+	private static final String DEPTH = "depth";
+
+	private static final String PATH = "path";
+
+	private static final SqlExpression SEPARATOR = value("/");
+
+	private final CharSequence schemaName; // may be null
+
+	private final CharSequence tableName;
+
+	private final CharSequence parentColumn;
+
+	private final CharSequence childColumn;
+
+	private final long maxDepth; // 0 if the depth is not limited
+
+	private final boolean cycleGuard;
+
+	private final boolean distinct;
+
+	private GraphTraversal(
+		CharSequence schemaName, CharSequence tableName, CharSequence parentColumn, CharSequence childColumn,
+		long maxDepth, boolean cycleGuard, boolean distinct) {
+
+		this.schemaName = schemaName;
+		this.tableName = tableName;
+		this.parentColumn = parentColumn;
+		this.childColumn = childColumn;
+		this.maxDepth = maxDepth;
+		this.cycleGuard = cycleGuard;
+		this.distinct = distinct;
+	}
+
+	/**
+	 * Creates the unbounded traversal of the graph stored in the specified adjacency table
+	 * (without the cycle guard and using <code>UNION ALL</code>).
+	 * @param table the adjacency table
+	 * @param parentColumn the name of the column containing the parent node of the edge
+	 * @param childColumn the name of the column containing the child node of the edge
+	 * @return the traversal of the graph
+	 */
+	public static GraphTraversal of(Table table, CharSequence parentColumn, CharSequence childColumn) {
+		return new GraphTraversal(
+			table.schemaName(), table.tableName(), parentColumn, childColumn, 0, false, false);
+	}
+
+	/**
+	 * Returns the traversal differing from this one in that it does not follow the paths
+	 * longer than the specified number of edges.
+	 * @param depth the maximum depth (number of edges from the starting node)
+	 * @return the bounded traversal
+	 * @throws IllegalArgumentException if the depth is not positive
+	 */
+	public GraphTraversal maxDepth(long depth) throws IllegalArgumentException {
+		if (depth <= 0) {
+			throw new IllegalArgumentException("The maximum depth must be positive.");
+		}
+
+		return new GraphTraversal(schemaName, tableName, parentColumn, childColumn, depth, cycleGuard, distinct);
+	}
+
+	/**
+	 * Returns the traversal differing from this one in that it does not follow the edges
+	 * leading to a node already present on the path.
+	 * @return the traversal guarded against cycles
+	 */
+	public GraphTraversal withCycleGuard() {
+		return new GraphTraversal(schemaName, tableName, parentColumn, childColumn, maxDepth, true, distinct);
+	}
+
+	/**
+	 * Returns the traversal differing from this one in that it combines the rows using <code>UNION</code>,
+	 * i.e. eliminates the duplicate rows.
+	 * @return the traversal eliminating the duplicates
+	 */
+	public GraphTraversal union() {
+		return new GraphTraversal(schemaName, tableName, parentColumn, childColumn, maxDepth, cycleGuard, true);
+	}
+
+	/**
+	 * Returns the traversal differing from this one in that it combines the rows using <code>UNION ALL</code>,
+	 * i.e. keeps the duplicate rows (this is the default and the cheapest option).
+	 * @return the traversal keeping the duplicates
+	 */
+	public GraphTraversal unionAll() {
+		return new GraphTraversal(schemaName, tableName, parentColumn, childColumn, maxDepth, cycleGuard, false);
+	}
+
+	/**
+	 * Returns the statements creating the indexes on the adjacency table supporting the traversal:
+	 * the index on the parent and child columns (covering the lookups of the children) and the index
+	 * on the child and parent columns (covering the lookups of the parents).
+	 * @return the <code>CREATE INDEX</code> statements
+	 */
+	public List<ExplicableStatement> createIndexes() {
+		return Collections.unmodifiableList(Arrays.asList(
+			index(parentColumn, childColumn),
+			index(childColumn, parentColumn)));
+	}
+
+	/**
+	 * Returns the query reading the nodes reachable from the specified node following the edges
+	 * from the parent to the child (e.g. the subtree of a tree node).
+	 * @param node the starting node (e.g. a parameter)
+	 * @return the <code>SELECT</code> statement having the form<br>
+	 * <code><strong>WITH "traversal"("node", "depth"[, "path"]) AS (SELECT <em>node</em>, 0[, <em>path</em>]
+	 * UNION [ALL] SELECT <em>tableName</em>.<em>childColumn</em>, "traversal"."depth" + 1[,
+	 * <em>path</em>] FROM "traversal" INNER JOIN <em>tableName</em>
+	 * ON <em>tableName</em>.<em>parentColumn</em> = "traversal"."node" [WHERE <em>guard</em>])
+	 * SELECT "node", "depth" FROM "traversal" WHERE "depth" &gt; 0</strong></code>
+	 */
+	public SelectStatement descendantsOf(SqlExpression node) {
+		return traversal(node, parentColumn, childColumn)
+			.select(column(NODE), column(DEPTH)).from(TableExpressions.table(TRAVERSAL))
+			.where(column(DEPTH).gt(value(0)));
+	}
+
+	/**
+	 * Returns the query reading the nodes from which the specified node is reachable, following the edges
+	 * from the child to the parent (e.g. the path from a tree node up to the root).
+	 * @param node the starting node (e.g. a parameter)
+	 * @return the <code>SELECT</code> statement having the form<br>
+	 * <code><strong>WITH "traversal"("node", "depth"[, "path"]) AS (SELECT <em>node</em>, 0[, <em>path</em>]
+	 * UNION [ALL] SELECT <em>tableName</em>.<em>parentColumn</em>, "traversal"."depth" + 1[,
+	 * <em>path</em>] FROM "traversal" INNER JOIN <em>tableName</em>
+	 * ON <em>tableName</em>.<em>childColumn</em> = "traversal"."node" [WHERE <em>guard</em>])
+	 * SELECT "node", "depth" FROM "traversal" WHERE "depth" &gt; 0</strong></code>
+	 */
+	public SelectStatement ancestorsOf(SqlExpression node) {
+		return traversal(node, childColumn, parentColumn)
+			.select(column(NODE), column(DEPTH)).from(TableExpressions.table(TRAVERSAL))
+			.where(column(DEPTH).gt(value(0)));
+	}
+
+	/**
+	 * Returns the query reading the minimum number of edges on a path from one node to another.
+	 * The traversal is breadth-first: the <code>ORDER BY</code> clause of the common table makes SQLite
+	 * extract the rows from its queue in the order of the depth, so the first row reaching the target
+	 * node has the minimum depth, and the <code>LIMIT</code> of the query stops the traversal there.
+	 * Regardless of the settings of this traversal, the rows are combined using <code>UNION</code>
+	 * and do not track the path, so each node is queued at most once per depth instead of once per path
+	 * (whose number may grow exponentially with the depth in a DAG); the cycles are not followed
+	 * indefinitely as the depth is bounded by the maximum depth or (as no shortest path is longer)
+	 * by the number of the edges. If the target node is not reachable, the whole graph is still traversed
+	 * up to the bound.
+	 * @param from the starting node (e.g. a parameter)
+	 * @param to the target node (e.g. a parameter)
+	 * @return the <code>SELECT</code> statement having the form<br>
+	 * <code><strong>WITH "traversal"("node", "depth") AS (SELECT <em>from</em>, 0
+	 * UNION SELECT <em>tableName</em>.<em>childColumn</em>, "traversal"."depth" + 1
+	 * FROM "traversal" INNER JOIN <em>tableName</em>
+	 * ON <em>tableName</em>.<em>parentColumn</em> = "traversal"."node"
+	 * WHERE "traversal"."depth" &lt; {<em>maxDepth</em> | (SELECT COUNT(*) FROM <em>tableName</em>)}
+	 * ORDER BY 2) SELECT "depth" FROM "traversal" WHERE "node" = <em>to</em> LIMIT 1</strong></code>;
+	 * the query returns no row if there is no such path
+	 */
+	public SelectStatement shortestHops(SqlExpression from, SqlExpression to) {
+		SqlExpression bound = maxDepth > 0
+			? value(maxDepth)
+			: SelectStatements.select(Functions.countAll()).from(TableExpressions.table(schemaName, tableName));
+		Select.NotSorted recursion = SelectStatements
+			.select(column(tableName, childColumn), column(TRAVERSAL, DEPTH).plus(value(1)))
+			.from(TableExpressions.table(TRAVERSAL).innerJoin(TableExpressions.table(schemaName, tableName))
+				.on(column(tableName, parentColumn).eq(column(TRAVERSAL, NODE))))
+			.where(column(TRAVERSAL, DEPTH).lt(bound));
+
+		// the names of the common table columns cannot be used in its ORDER BY, so the depth is referred to by position
+		return SqlStatements.with(TRAVERSAL).ofColumns(NODE, DEPTH)
+			.as(SelectStatements.select(from, value(0)).union(recursion).orderBy(value(2)))
+			.select(column(DEPTH)).from(TableExpressions.table(TRAVERSAL))
+			.where(column(NODE).eq(to))
+			.limit(1);
+	}
+
+	/**
+	 * Returns the query reading the transitive closure of the graph: the pairs of the nodes
+	 * such that the second one is reachable from the first one, together with the length of the path.
+	 * @return the <code>SELECT</code> statement having the form<br>
+	 * <code><strong>WITH "traversal"("ancestor", "descendant", "depth"[, "path"]) AS (
+	 * SELECT <em>parentColumn</em>, <em>childColumn</em>, 1[, <em>path</em>] FROM <em>tableName</em>
+	 * UNION [ALL] SELECT "traversal"."ancestor", <em>tableName</em>.<em>childColumn</em>,
+	 * "traversal"."depth" + 1[, <em>path</em>] FROM "traversal" INNER JOIN <em>tableName</em>
+	 * ON <em>tableName</em>.<em>parentColumn</em> = "traversal"."descendant" [WHERE <em>guard</em>])
+	 * SELECT "ancestor", "descendant", "depth" FROM "traversal"</strong></code>
+	 */
+	public SelectStatement transitiveClosure() {
+		List<SqlExpression> seed = new ArrayList<>(Arrays.asList(
+			column(tableName, parentColumn), column(tableName, childColumn), value(1)));
+		List<SqlExpression> step = new ArrayList<>(Arrays.asList(
+			column(TRAVERSAL, ANCESTOR), column(tableName, childColumn), column(TRAVERSAL, DEPTH).plus(value(1))));
+		List<CharSequence> columnNames = new ArrayList<>(Arrays.asList(ANCESTOR, DESCENDANT, DEPTH));
+		if (cycleGuard) {
+			seed.add(SEPARATOR.concat(column(tableName, parentColumn))
+				.concat(SEPARATOR).concat(column(tableName, childColumn)).concat(SEPARATOR));
+			step.add(column(TRAVERSAL, PATH).concat(column(tableName, childColumn)).concat(SEPARATOR));
+			columnNames.add(PATH);
+		}
+
+		Select.NotSorted recursion = recursiveStep(step, DESCENDANT, parentColumn, childColumn);
+		Select.NotSorted anchor = SelectStatements.select(seed).from(TableExpressions.table(schemaName, tableName));
+		return SqlStatements.with(TRAVERSAL).ofColumns(columnNames)
+			.as(distinct ? anchor.union(recursion) : anchor.unionAll(recursion))
+			.select(column(ANCESTOR), column(DESCENDANT), column(DEPTH)).from(TableExpressions.table(TRAVERSAL));
+	}
+
+	private CommonTableExpression traversal(SqlExpression node, CharSequence fromColumn, CharSequence toColumn) {
+		List<SqlExpression> seed = new ArrayList<>(Arrays.asList(node, value(0)));
+		List<SqlExpression> step = new ArrayList<>(Arrays.asList(
+			column(tableName, toColumn), column(TRAVERSAL, DEPTH).plus(value(1))));
+		List<CharSequence> columnNames = new ArrayList<>(Arrays.asList(NODE, DEPTH));
+		if (cycleGuard) {
+			seed.add(SEPARATOR.concat(node).concat(SEPARATOR));
+			step.add(column(TRAVERSAL, PATH).concat(column(tableName, toColumn)).concat(SEPARATOR));
+			columnNames.add(PATH);
+		}
+
+		Select.NotSorted recursion = recursiveStep(step, NODE, fromColumn, toColumn);
+		Select.NotSorted anchor = SelectStatements.select(seed);
+		return SqlStatements.with(TRAVERSAL).ofColumns(columnNames)
+			.as(distinct ? anchor.union(recursion) : anchor.unionAll(recursion));
+	}
+
+	private Select.NotSorted recursiveStep(
+		List<SqlExpression> columns, CharSequence joinColumn, CharSequence fromColumn, CharSequence toColumn) {
+
+		Select.WithSource step = SelectStatements.select(columns).from(
+			TableExpressions.table(TRAVERSAL).innerJoin(TableExpressions.table(schemaName, tableName))
+				.on(column(tableName, fromColumn).eq(column(TRAVERSAL, joinColumn))));
+
+		List<SqlExpression> guards = new ArrayList<>();
+		if (maxDepth > 0) {
+			guards.add(column(TRAVERSAL, DEPTH).lt(value(maxDepth)));
+		}
+		if (cycleGuard) {
+			guards.add(Functions.instr(column(TRAVERSAL, PATH), SEPARATOR.concat(column(tableName, toColumn))
+				.concat(SEPARATOR)).eq(value(0)));
+		}
+
+		return guards.isEmpty() ? step : step.where(SqlExpressions.and(guards));
+	}
+
+	private ExplicableStatement index(CharSequence firstColumn, CharSequence secondColumn) {
+		return SqlStatements.createIndex()
+			.named(schemaName, tableName + "_" + firstColumn + "_" + secondColumn).onTable(tableName)
+			.addColumn(firstColumn.toString()).addColumn(secondColumn.toString());
+	}
+}
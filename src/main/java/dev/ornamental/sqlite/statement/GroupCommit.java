@@ -0,0 +1,215 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a group of small write statements committed in a single transaction, so that
+ * the whole group pays for one journal synchronization instead of one per statement.
+ * The transaction is started with <code>BEGIN IMMEDIATE</code> to acquire the write lock up front;
+ * each member statement is enclosed in its own savepoint so that a failing member can be
+ * undone without aborting the rest of the group.<br>
+ * The intended execution sequence on the (single) writer connection is as follows:
+ * <ol>
+ * <li>execute {@link #begin()};</li>
+ * <li>for each member index <em>i</em>, execute {@link #savepoint(int)} and {@link #statement(int)};
+ * if the member statement succeeds, execute {@link #release(int)}; otherwise, execute
+ * {@link #rollbackTo(int)} followed by {@link #release(int)} and report the failure of this member only;</li>
+ * <li>execute {@link #commit()}.</li>
+ * </ol>
+ * If no member is expected to fail, the sequence is given by {@link #statements()}.
+ * The statements submitted by concurrent callers are grouped and executed this way
+ * by {@link CommitCoordinator}.
+ * The instances of this class are immutable provided the member statements are immutable.
+ */
+public final class GroupCommit {
+
+	private static final String DEFAULT_SAVEPOINT_PREFIX = "group_member_";
+
+	private final List<SqlStatement> members;
+
+	private final String savepointPrefix;
+
+	private GroupCommit(List<SqlStatement> members, String savepointPrefix) {
+		this.members = members;
+		this.savepointPrefix = savepointPrefix;
+	}
+
+	/**
+	 * Creates a group of the specified write statements using the default savepoint name prefix.
+	 * @param statements the member statements; must not be empty and must not contain
+	 * transaction control statements
+	 * @return the group of the statements
+	 */
+	public static GroupCommit of(Iterable<? extends SqlStatement> statements) {
+		return of(DEFAULT_SAVEPOINT_PREFIX, statements);
+	}
+
+	/**
+	 * Creates a group of the specified write statements.
+	 * @param savepointPrefix the prefix of the names of the savepoints enclosing the member statements;
+	 * the savepoint of each member is named by appending the member index to the prefix
+	 * @param statements the member statements; must not be empty and must not contain
+	 * transaction control statements
+	 * @return the group of the statements
+	 */
+	public static GroupCommit of(String savepointPrefix, Iterable<? extends SqlStatement> statements) {
+		if (savepointPrefix.isEmpty()) {
+			throw new IllegalArgumentException("The savepoint name prefix must not be empty.");
+		}
+
+		List<SqlStatement> members = new ArrayList<>();
+		for (SqlStatement statement : statements) {
+			checkMember(statement);
+			members.add(statement);
+		}
+		if (members.isEmpty()) {
+			throw new IllegalArgumentException("The group must contain at least one statement.");
+		}
+
+		return new GroupCommit(Collections.unmodifiableList(members), savepointPrefix);
+	}
+
+	/**
+	 * Splits the sequence of write statements into consecutive groups containing
+	 * at most the specified number of statements each.
+	 * @param maxGroupSize the maximum number of statements in a group
+	 * @param statements the statements to split into groups
+	 * @return the list of groups containing all the statements in their original order
+	 */
+	public static List<GroupCommit> partition(int maxGroupSize, Iterable<? extends SqlStatement> statements) {
+		if (maxGroupSize <= 0) {
+			throw new IllegalArgumentException("The maximum group size must be positive.");
+		}
+
+		List<GroupCommit> result = new ArrayList<>();
+		List<SqlStatement> current = new ArrayList<>();
+		for (SqlStatement statement : statements) {
+			current.add(statement);
+			if (current.size() == maxGroupSize) {
+				result.add(of(current));
+				current = new ArrayList<>();
+			}
+		}
+		if (!current.isEmpty()) {
+			result.add(of(current));
+		}
+
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Returns the number of member statements in this group.
+	 * @return the number of member statements
+	 */
+	public int size() {
+		return members.size();
+	}
+
+	/**
+	 * Returns the statement starting the group transaction.
+	 * @return the <code><strong>BEGIN IMMEDIATE TRANSACTION</strong></code> statement
+	 */
+	public BeginTransaction begin() {
+		return TransactionType.IMMEDIATE.beginStatement();
+	}
+
+	/**
+	 * Returns the member statement with the specified index.
+	 * @param index the index of the member
+	 * @return the member statement
+	 */
+	public SqlStatement statement(int index) {
+		return members.get(index);
+	}
+
+	/**
+	 * Returns the statement creating the savepoint for the member with the specified index.
+	 * @param index the index of the member
+	 * @return the <code><strong>SAVEPOINT</strong></code> statement
+	 */
+	public Savepoint savepoint(int index) {
+		return SqlStatements.savepoint(savepointName(index));
+	}
+
+	/**
+	 * Returns the statement releasing the savepoint of the member with the specified index.
+	 * @param index the index of the member
+	 * @return the <code><strong>RELEASE SAVEPOINT</strong></code> statement
+	 */
+	public ReleaseSavepoint release(int index) {
+		return SqlStatements.releaseSavepoint(savepointName(index));
+	}
+
+	/**
+	 * Returns the statement undoing the changes made by the failed member with the specified index.
+	 * The savepoint still has to be released after this statement is executed.
+	 * @param index the index of the member
+	 * @return the <code><strong>ROLLBACK TRANSACTION TO SAVEPOINT</strong></code> statement
+	 */
+	public RollbackTransaction rollbackTo(int index) {
+		return SqlStatements.rollbackTransactionToSavepoint(savepointName(index));
+	}
+
+	/**
+	 * Returns the statement committing the group transaction.
+	 * @return the <code><strong>COMMIT TRANSACTION</strong></code> statement
+	 */
+	public ExplicableStatement commit() {
+		return SqlStatements.commitTransaction();
+	}
+
+	/**
+	 * Returns the complete sequence of statements executing the group
+	 * provided that none of the members fails.
+	 * @return the unmodifiable list of statements
+	 */
+	public List<SqlStatement> statements() {
+		List<SqlStatement> result = new ArrayList<>(3 * members.size() + 2);
+		result.add(begin());
+		for (int i = 0; i < members.size(); i++) {
+			result.add(savepoint(i));
+			result.add(members.get(i));
+			result.add(release(i));
+		}
+		result.add(commit());
+
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Returns a deep copy of this group with all the mutable fields of the member statements
+	 * having their current values fixed.
+	 * @return the copy of this group or this group itself if it contains no mutable fields
+	 */
+	public GroupCommit copy() {
+		List<SqlStatement> membersCopy = new ArrayList<>(members.size());
+		boolean changed = false;
+		for (SqlStatement member : members) {
+			SqlStatement memberCopy = member.copy();
+			changed |= memberCopy != member;
+			membersCopy.add(memberCopy);
+		}
+
+		return changed ? new GroupCommit(Collections.unmodifiableList(membersCopy), savepointPrefix) : this;
+	}
+
+	private String savepointName(int index) {
+		if (index < 0 || index >= members.size()) {
+			throw new IndexOutOfBoundsException("No group member with index " + index + ".");
+		}
+
+		return savepointPrefix + index;
+	}
+
+	static void checkMember(SqlStatement statement) {
+		if (statement instanceof BeginTransaction || statement instanceof CommitTransaction
+			|| statement instanceof RollbackTransaction || statement instanceof Savepoint
+			|| statement instanceof ReleaseSavepoint) {
+
+			throw new IllegalArgumentException(
+				"Transaction control statements cannot be members of a commit group.");
+		}
+	}
+}
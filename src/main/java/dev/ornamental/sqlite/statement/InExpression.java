@@ -42,6 +42,15 @@ public abstract class InExpression implements SqlExpression {
 				receptacle.append("()");
 			}
 		}
+
+		@Override
+		ForRow negated() {
+			return new ForRow(!not, left, right);
+		}
+
+		RowExpression right() {
+			return right;
+		}
 	}
 
 	/**
@@ -73,6 +82,15 @@ public abstract class InExpression implements SqlExpression {
 			right.build(receptacle);
 			receptacle.append(')');
 		}
+
+		@Override
+		ForSelect negated() {
+			return new ForSelect(!not, left, right);
+		}
+
+		SelectStatement right() {
+			return right;
+		}
 	}
 
 	/**
@@ -107,6 +125,19 @@ public abstract class InExpression implements SqlExpression {
 		protected void appendRight(StringBuilder receptacle) {
 			SqliteUtilities.appendQuotedName(receptacle, schemaName, tableName);
 		}
+
+		@Override
+		ForTable negated() {
+			return new ForTable(!not, left, schemaName, tableName);
+		}
+
+		CharSequence schemaName() {
+			return schemaName;
+		}
+
+		CharSequence tableName() {
+			return tableName;
+		}
 	}
 
 	/**
@@ -162,6 +193,23 @@ public abstract class InExpression implements SqlExpression {
 			}
 			receptacle.append(')');
 		}
+
+		@Override
+		ForTableFunction negated() {
+			return new ForTableFunction(!not, left, schemaName, tableName, args);
+		}
+
+		CharSequence schemaName() {
+			return schemaName;
+		}
+
+		CharSequence tableName() {
+			return tableName;
+		}
+
+		Iterable<? extends SqlExpression> args() {
+			return args;
+		}
 	}
 
 	private static final int PRECEDENCE = 4;
@@ -197,4 +245,10 @@ public abstract class InExpression implements SqlExpression {
 	 * @param receptacle the {@link StringBuilder} to append to
 	 */
 	protected abstract void appendRight(StringBuilder receptacle);
+
+	abstract InExpression negated();
+
+	SqlExpression left() {
+		return left;
+	}
 }
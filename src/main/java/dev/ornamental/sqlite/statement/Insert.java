@@ -118,6 +118,8 @@ public final class Insert {
 		abstract void appendTo(StringBuilder receptacle);
 
 		abstract Incomplete copy();
+
+		abstract Into into();
 	}
 
 	/**
@@ -177,6 +179,22 @@ public final class Insert {
 			return cteCopy == cte && schemaNameCopy == schemaName && tableNameCopy == tableName
 				? this : new Into(cteCopy, verb, schemaNameCopy, tableNameCopy);
 		}
+
+		Into into() {
+			return this;
+		}
+
+		CommonTableExpression cte() {
+			return cte;
+		}
+
+		CharSequence schemaName() {
+			return schemaName;
+		}
+
+		CharSequence tableName() {
+			return tableName;
+		}
 	}
 
 	/**
@@ -200,6 +218,15 @@ public final class Insert {
 			receptacle.append(')');
 		}
 
+		int columnCount() {
+			int count = 0;
+			for (CharSequence ignored : columnNames) {
+				count++;
+			}
+
+			return count;
+		}
+
 		WithColumnNames copy() {
 			Into stubCopy = stub.copy();
 			Iterable<? extends CharSequence> columnNamesCopy =
@@ -208,6 +235,10 @@ public final class Insert {
 			return stubCopy == stub && columnNamesCopy == columnNames
 				? this : new WithColumnNames(stubCopy, columnNamesCopy);
 		}
+
+		Into into() {
+			return stub;
+		}
 	}
 
 	/**
@@ -234,6 +265,10 @@ public final class Insert {
 			incomplete.appendTo(receptacle);
 			receptacle.append(" DEFAULT VALUES");
 		}
+
+		Into into() {
+			return incomplete.into();
+		}
 	}
 
 	/**
@@ -266,6 +301,14 @@ public final class Insert {
 			receptacle.append(' ');
 			source.build(receptacle);
 		}
+
+		Into into() {
+			return incomplete.into();
+		}
+
+		SelectStatement source() {
+			return source;
+		}
 	}
 
 	/**
@@ -308,6 +351,14 @@ public final class Insert {
 			}
 			last.appendTo(receptacle);
 		}
+
+		Into into() {
+			return stub.into();
+		}
+
+		Iterable<? extends RowExpression> rows() {
+			return rows;
+		}
 	}
 
 	/**
@@ -380,6 +431,14 @@ public final class Insert {
 
 				return previousCopy == previous && rowCopy == row ? this : new Row(previousCopy, rowCopy);
 			}
+
+			Row previous() {
+				return previous;
+			}
+
+			Iterable<? extends SqlExpression> row() {
+				return row;
+			}
 		}
 
 		private final Incomplete stub;
@@ -443,6 +502,14 @@ public final class Insert {
 			}
 			last.appendTo(receptacle);
 		}
+
+		Into into() {
+			return stub.into();
+		}
+
+		Row tail() {
+			return tail;
+		}
 	}
 
 	private Insert() { }
@@ -77,4 +77,8 @@ abstract class IntegralValueClause {
 	abstract IntegralValueClause copy();
 
 	abstract String clauseName();
+
+	SqlExpression expression() {
+		return asExpression;
+	}
 }
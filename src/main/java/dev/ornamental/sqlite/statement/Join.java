@@ -75,4 +75,12 @@ public final class Join implements TableExpression {
 	public JoinUsing using(Iterable<? extends CharSequence> columns) {
 		return new JoinUsing(this, columns);
 	}
+
+	TableExpression left() {
+		return left;
+	}
+
+	TableExpression right() {
+		return right;
+	}
 }
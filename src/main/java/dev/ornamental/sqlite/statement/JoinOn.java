@@ -37,4 +37,12 @@ public final class JoinOn implements TableExpression {
 		return previousCopy == previous && conditionCopy == condition
 			? this : new JoinOn(previousCopy, conditionCopy);
 	}
+
+	Join previous() {
+		return previous;
+	}
+
+	SqlExpression condition() {
+		return condition;
+	}
 }
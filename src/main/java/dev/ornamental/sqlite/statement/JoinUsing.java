@@ -41,4 +41,8 @@ public final class JoinUsing implements TableExpression {
 		return previousCopy == previous && columnsCopy == columns
 			? this : new JoinUsing(previousCopy, columnsCopy);
 	}
+
+	Join previous() {
+		return previous;
+	}
 }
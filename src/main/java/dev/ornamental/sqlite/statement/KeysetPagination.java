@@ -0,0 +1,216 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Produces the statements reading the result of a (potentially large) <code>SELECT</code>
+ * in pages of bounded size, so that the consumer fetches the next page only when it is ready
+ * to process it. Unlike <code>OFFSET</code>-based paging, each page is located by the sorting key
+ * of the last row of the previous page (keyset pagination), so the cost of fetching a page
+ * does not depend on its position and no connection or statement has to be kept open
+ * between the pages.<br>
+ * The sorting keys must identify the rows uniquely (e.g. end with the primary key or the rowid)
+ * and should be covered by an index; all the keys are sorted in the same order.
+ * With several keys, the next page condition uses row values and requires SQLite 3.15.0 or newer.<br>
+ * The pages may be read on demand with {@link #pages(BiFunction, Function)}, or asynchronously
+ * with {@link AsyncExecution#forEachPage(KeysetPagination, BiFunction, Function, Function)}.<br>
+ * The instances of this class are immutable provided the source statement and the keys are immutable.
+ */
+public final class KeysetPagination {
+
+	private final Select.NotFiltered source;
+
+	private final SqlExpression filter; // may be null
+
+	private final List<SqlExpression> keys;
+
+	private final SortingOrder order;
+
+	private final long pageSize;
+
+	private KeysetPagination(
+		Select.NotFiltered source, SqlExpression filter, List<SqlExpression> keys,
+		SortingOrder order, long pageSize) {
+
+		this.source = source;
+		this.filter = filter;
+		this.keys = keys;
+		this.order = order;
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * Creates the pagination of the specified statement in the ascending order of the specified keys.
+	 * @param source the <code>SELECT</code> statement to paginate; it must have
+	 * no <code>WHERE</code>, <code>GROUP BY</code>, <code>ORDER BY</code> nor <code>LIMIT</code> clauses
+	 * @param pageSize the maximum number of rows in a page
+	 * @param keys the sorting keys uniquely identifying the rows of the result
+	 * @return the pagination of the statement
+	 */
+	public static KeysetPagination of(Select.NotFiltered source, long pageSize, SqlExpression... keys) {
+		List<SqlExpression> keyList = new ArrayList<>(keys.length);
+		for (SqlExpression key : keys) {
+			keyList.add(key);
+		}
+		if (keyList.isEmpty()) {
+			throw new IllegalArgumentException("At least one sorting key must be specified.");
+		}
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("The page size must be positive.");
+		}
+
+		return new KeysetPagination(source, null, keyList, SortingOrder.ASC, pageSize);
+	}
+
+	/**
+	 * Returns the pagination differing from this one in that only the rows satisfying
+	 * the specified condition are returned.
+	 * @param condition the filtering condition
+	 * @return the pagination of the filtered statement
+	 */
+	public KeysetPagination where(SqlExpression condition) {
+		return new KeysetPagination(source, condition, keys, order, pageSize);
+	}
+
+	/**
+	 * Returns the pagination differing from this one in that the rows are returned
+	 * in the descending order of the sorting keys.
+	 * @return the pagination in the descending order
+	 */
+	public KeysetPagination descending() {
+		return new KeysetPagination(source, filter, keys, SortingOrder.DESC, pageSize);
+	}
+
+	/**
+	 * Returns the statement retrieving the first page.
+	 * @return the <code>SELECT</code> statement ending with<br>
+	 * <code><strong>[WHERE <em>condition</em>] ORDER BY <em>key<sub>0</sub></em> ASC|DESC{,
+	 * <em>key<sub>i</sub></em> ASC|DESC} LIMIT <em>pageSize</em></strong></code>
+	 */
+	public SelectStatement firstPage() {
+		return page(filter);
+	}
+
+	/**
+	 * Returns the parametrized statement retrieving the page following the one whose
+	 * last row has the sorting key values bound to the parameters <code>?1</code>, <code>?2</code>, &hellip;
+	 * (in the order of the keys). The same statement may be prepared once and executed for each page.
+	 * @return the <code>SELECT</code> statement ending with<br>
+	 * <code><strong>WHERE [<em>condition</em> AND] (<em>key<sub>0</sub></em>{, <em>key<sub>i</sub></em>})
+	 * &gt;|&lt; (?1{, ?<em>i</em>}) ORDER BY &hellip; LIMIT <em>pageSize</em></strong></code>
+	 */
+	public SelectStatement nextPage() {
+		List<SqlExpression> parameters = new ArrayList<>(keys.size());
+		for (int i = 1; i <= keys.size(); i++) {
+			parameters.add(SqlExpressions.parameter("?" + i));
+		}
+
+		return pageAfter(parameters);
+	}
+
+	/**
+	 * Returns the statement retrieving the page following the one whose last row
+	 * has the specified sorting key values.
+	 * @param lastKey the values of the sorting keys of the last row of the previous page
+	 * (in the order of the keys)
+	 * @return the <code>SELECT</code> statement ending with<br>
+	 * <code><strong>WHERE [<em>condition</em> AND] (<em>key<sub>0</sub></em>{, <em>key<sub>i</sub></em>})
+	 * &gt;|&lt; (<em>lastKey<sub>0</sub></em>{, <em>lastKey<sub>i</sub></em>})
+	 * ORDER BY &hellip; LIMIT <em>pageSize</em></strong></code>
+	 */
+	public SelectStatement pageAfter(Iterable<? extends SqlExpression> lastKey) {
+		List<SqlExpression> values = new ArrayList<>(keys.size());
+		for (SqlExpression value : lastKey) {
+			values.add(value);
+		}
+		if (values.size() != keys.size()) {
+			throw new IllegalArgumentException("The number of key values must match the number of sorting keys.");
+		}
+
+		SqlExpression left = keys.size() == 1 ? keys.get(0) : SqlExpressions.rowOf(keys);
+		SqlExpression right = values.size() == 1 ? values.get(0) : SqlExpressions.rowOf(values);
+		SqlExpression after = order == SortingOrder.ASC ? left.gt(right) : left.lt(right);
+
+		return page(filter == null ? after : filter.and(after));
+	}
+
+	/**
+	 * Returns the iterator reading the pages on demand: a page is fetched when the iterator
+	 * is asked for it (by {@link Iterator#hasNext()} or {@link Iterator#next()}), and the iteration
+	 * ends after an empty or incomplete page. The statements are rendered once per iterator,
+	 * the subsequent pages are read by the statement returned by {@link #nextPage()}.<br>
+	 * The iterator is not thread-safe.
+	 * @param executor the function executing the SQL text passed as its first argument
+	 * with the parameter values passed as its second argument and returning the rows of the page
+	 * @param keyOf the function extracting the values of the sorting keys (in the order of the keys)
+	 * from a row
+	 * @param <R> the type of the rows
+	 * @return the iterator over the pages
+	 */
+	public <R> Iterator<List<R>> pages(
+		BiFunction<? super String, ? super List<Object>, ? extends List<? extends R>> executor,
+		Function<? super R, ? extends List<?>> keyOf) {
+
+		String firstPageSql = firstPage().build();
+		String nextPageSql = nextPage().build();
+
+		return new Iterator<List<R>>() {
+
+			private List<Object> lastKey; // null before the first page
+
+			private List<R> fetched; // null if the next page is not fetched yet
+
+			private boolean finished;
+
+			@Override
+			public boolean hasNext() {
+				if (fetched == null && !finished) {
+					List<? extends R> rows = lastKey == null
+						? executor.apply(firstPageSql, Collections.emptyList())
+						: executor.apply(nextPageSql, lastKey);
+					finished = rows.size() < pageSize;
+					if (!rows.isEmpty()) {
+						lastKey = new ArrayList<>(keyOf.apply(rows.get(rows.size() - 1)));
+						if (lastKey.size() != keys.size()) {
+							throw new IllegalArgumentException(
+								"The number of key values must match the number of sorting keys.");
+						}
+						fetched = Collections.unmodifiableList(new ArrayList<>(rows));
+					} else {
+						finished = true;
+					}
+				}
+
+				return fetched != null;
+			}
+
+			@Override
+			public List<R> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+
+				List<R> result = fetched;
+				fetched = null;
+				return result;
+			}
+		};
+	}
+
+	private SelectStatement page(SqlExpression condition) {
+		Select.NotSorted filtered = condition == null ? source : source.where(condition);
+		Iterator<SqlExpression> iterator = keys.iterator();
+		Select.Sorted sorted = filtered.orderBy(iterator.next(), order);
+		while (iterator.hasNext()) {
+			sorted = sorted.orderBy(iterator.next(), order);
+		}
+
+		return sorted.limit(pageSize);
+	}
+}
@@ -1,5 +1,7 @@
 package dev.ornamental.sqlite.statement;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.xml.bind.DatatypeConverter;
 
 /**
@@ -21,6 +23,11 @@ public abstract class Literal implements SqlExpression {
 		public void appendTo(StringBuilder receptacle) {
 			receptacle.append(value);
 		}
+
+		@Override
+		Object constantValue() {
+			return value;
+		}
 	}
 
 	private static final class DoubleLiteral extends Literal {
@@ -35,6 +42,11 @@ public abstract class Literal implements SqlExpression {
 		public void appendTo(StringBuilder receptacle) {
 			receptacle.append(value);
 		}
+
+		@Override
+		Object constantValue() {
+			return value;
+		}
 	}
 
 	private static final class NumberLiteral extends Literal {
@@ -49,6 +61,24 @@ public abstract class Literal implements SqlExpression {
 		public void appendTo(StringBuilder receptacle) {
 			receptacle.append(value);
 		}
+
+		@Override
+		Object constantValue() {
+			if (value instanceof Long || value instanceof Integer
+				|| value instanceof Short || value instanceof Byte) {
+
+				return value.longValue();
+			} else if (value instanceof Double) {
+				return value.doubleValue();
+			} else if (value instanceof Float) {
+				// the literal is rendered by Float.toString, so SQLite reads the decimal value of the text
+				// rather than the binary value of the float (e.g. 0.1 instead of 0.10000000149011612)
+				double parsed = Double.parseDouble(value.toString());
+				return Double.isInfinite(parsed) || Double.isNaN(parsed) ? null : parsed;
+			}
+
+			return null;
+		}
 	}
 
 	static final class BlobLiteral extends Literal {
@@ -83,6 +113,11 @@ public abstract class Literal implements SqlExpression {
 			append(value, receptacle);
 		}
 
+		@Override
+		Object constantValue() {
+			return value;
+		}
+
 		public static void append(CharSequence value, StringBuilder receptacle) {
 			receptacle.append('\'');
 			SqliteUtilities.escapeSingleQuotes(receptacle, value);
@@ -99,6 +134,11 @@ public abstract class Literal implements SqlExpression {
 		public void appendTo(StringBuilder receptacle) {
 			receptacle.append("NULL");
 		}
+
+		@Override
+		Object constantValue() {
+			return this;
+		}
 	};
 
 	/**
@@ -112,6 +152,11 @@ public abstract class Literal implements SqlExpression {
 		public void appendTo(StringBuilder receptacle) {
 			receptacle.append("TRUE");
 		}
+
+		@Override
+		Object constantValue() {
+			return 1L;
+		}
 	};
 
 	/**
@@ -125,6 +170,11 @@ public abstract class Literal implements SqlExpression {
 		public void appendTo(StringBuilder receptacle) {
 			receptacle.append("FALSE");
 		}
+
+		@Override
+		Object constantValue() {
+			return 0L;
+		}
 	};
 
 	/**
@@ -165,6 +215,25 @@ public abstract class Literal implements SqlExpression {
 	 */
 	public static final Literal NOW = Literal.value("NOW");
 
+	/**
+	 * The maximum length of the strings whose literals are cached by {@link #internedValue(String)}.
+	 */
+	public static final int MAX_INTERNED_LENGTH = 64;
+
+	/**
+	 * The maximum number of the string literals cached by {@link #internedValue(String)};
+	 * once it is reached, new literals are no longer cached.
+	 */
+	public static final int MAX_INTERNED_COUNT = 4096;
+
+	private static final long MIN_CACHED_INTEGER = -128;
+
+	private static final long MAX_CACHED_INTEGER = 1024;
+
+	private static final Literal[] CACHED_INTEGERS = cachedIntegers();
+
+	private static final Map<String, Literal> INTERNED_STRINGS = new ConcurrentHashMap<>();
+
 	private Literal() { }
 
 	/**
@@ -178,11 +247,13 @@ public abstract class Literal implements SqlExpression {
 
 	/**
 	 * Returns the SQL literal corresponding to the given integral value.
+	 * The literals of the small values (from -128 to 1024) are preallocated and shared.
 	 * @param value the value to wrap in an SQL literal
 	 * @return the SQL literal corresponding to the given integral value
 	 */
 	public static Literal value(long value) {
-		return new LongLiteral(value);
+		return value >= MIN_CACHED_INTEGER && value <= MAX_CACHED_INTEGER
+			? CACHED_INTEGERS[(int)(value - MIN_CACHED_INTEGER)] : new LongLiteral(value);
 	}
 
 	/**
@@ -224,13 +295,60 @@ public abstract class Literal implements SqlExpression {
 		return value == null ? NULL : new StringLiteral(value);
 	}
 
+	/**
+	 * Returns the shared SQL literal corresponding to the given {@link String}. The literals
+	 * of the strings not longer than {@link #MAX_INTERNED_LENGTH} characters are cached
+	 * (up to {@link #MAX_INTERNED_COUNT} literals) for the lifetime of the class, so this method
+	 * is meant for the recurring constants of long-lived statement templates
+	 * (e.g. status values or type tags) rather than for arbitrary data.
+	 * @param value the value to wrap in an SQL literal
+	 * @return the SQL literal corresponding to the given {@link String};
+	 * <code>NULL</code> literal if the passed object is <code>null</code>
+	 */
+	public static Literal internedValue(String value) {
+		if (value == null) {
+			return NULL;
+		} else if (value.length() > MAX_INTERNED_LENGTH) {
+			return new StringLiteral(value);
+		}
+
+		Literal result = INTERNED_STRINGS.get(value);
+		if (result == null) {
+			result = new StringLiteral(value);
+			if (INTERNED_STRINGS.size() < MAX_INTERNED_COUNT) {
+				Literal previous = INTERNED_STRINGS.putIfAbsent(value, result);
+				result = previous == null ? result : previous;
+			}
+		}
+
+		return result;
+	}
+
 	@Override
 	public int getPrecedence() {
 		return Integer.MAX_VALUE; // literal is an unbreakable expression thus never has to be put in parentheses
 	}
 
+	/**
+	 * Returns the value of the literal used in constant folding (see {@link ExpressionSimplifier}).
+	 * @return the {@link Long}, {@link Double} or {@link String} value of the literal, {@link #NULL}
+	 * for the <code>NULL</code> literal, or {@literal null} if the literal is not a foldable constant
+	 */
+	Object constantValue() {
+		return null;
+	}
+
 	@Override
 	public SqlExpression copy() {
 		return this;
 	}
+
+	private static Literal[] cachedIntegers() {
+		Literal[] result = new Literal[(int)(MAX_CACHED_INTEGER - MIN_CACHED_INTEGER + 1)];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = new LongLiteral(MIN_CACHED_INTEGER + i);
+		}
+
+		return result;
+	}
 }
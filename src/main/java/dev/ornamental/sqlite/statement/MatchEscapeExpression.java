@@ -44,4 +44,12 @@ public final class MatchEscapeExpression implements SqlExpression {
 		return expressionCopy == expression && escapeCopy == escape
 			? this : new MatchEscapeExpression(expressionCopy, escapeCopy);
 	}
+
+	MatchExpression expression() {
+		return expression;
+	}
+
+	SqlExpression escape() {
+		return escape;
+	}
 }
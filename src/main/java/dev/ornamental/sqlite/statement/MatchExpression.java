@@ -77,4 +77,24 @@ public final class MatchExpression implements SqlExpression {
 		return leftCopy == left && rightCopy == right
 			? this : new MatchExpression(operator, not, leftCopy, rightCopy);
 	}
+
+	MatchExpression negated() {
+		return new MatchExpression(operator, !not, left, right);
+	}
+
+	MatchOperator operator() {
+		return operator;
+	}
+
+	boolean isNegated() {
+		return not;
+	}
+
+	SqlExpression left() {
+		return left;
+	}
+
+	SqlExpression right() {
+		return right;
+	}
 }
@@ -0,0 +1,42 @@
+package dev.ornamental.sqlite.statement;
+
+/**
+ * Defines the cost classes of the schema migration steps (see {@link SchemaMigration}),
+ * in the ascending order of cost.
+ */
+public enum MigrationCost {
+
+	/**
+	 * The step only changes the schema records; its cost does not depend on the amount of data
+	 * (e.g. creating a table, a view or a trigger, adding a column without verified constraints,
+	 * renaming a column).
+	 */
+	METADATA(0),
+
+	/**
+	 * The step reads the whole table or index once without rewriting the table rows
+	 * (e.g. creating an index, adding a column with a <code>CHECK</code> constraint,
+	 * dropping a table or an index).
+	 */
+	TABLE_SCAN(1),
+
+	/**
+	 * The step rewrites every row of the table (dropping a column, rebuilding the table).
+	 */
+	TABLE_REWRITE(2);
+
+	private final int rowFactor;
+
+	MigrationCost(int rowFactor) {
+		this.rowFactor = rowFactor;
+	}
+
+	/**
+	 * Returns the approximate number of row operations (reads and writes) per table row
+	 * which a step of this class performs.
+	 * @return the number of row operations per table row
+	 */
+	public int rowFactor() {
+		return rowFactor;
+	}
+}
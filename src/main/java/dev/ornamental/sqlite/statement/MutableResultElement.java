@@ -50,4 +50,8 @@ public final class MutableResultElement implements ResultElement {
 				"This method must not be invoked when the underlying ResultElement instance is not set.");
 		}
 	}
+
+	ResultElement content() {
+		return resultElement;
+	}
 }
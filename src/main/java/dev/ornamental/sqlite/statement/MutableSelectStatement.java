@@ -56,4 +56,8 @@ public final class MutableSelectStatement implements SelectStatement {
 				"This method must not be invoked when the underlying SelectStatement instance is not set.");
 		}
 	}
+
+	SelectStatement content() {
+		return selectStatement;
+	}
 }
@@ -56,4 +56,8 @@ public final class MutableSqlExpression implements SqlExpression {
 				"This method must not be invoked when the underlying SqlExpression instance is not set.");
 		}
 	}
+
+	SqlExpression content() {
+		return sqlExpression;
+	}
 }
@@ -56,4 +56,8 @@ public final class MutableTableExpression implements TableExpression {
 				"This method must not be invoked when the underlying TableExpression instance is not set.");
 		}
 	}
+
+	TableExpression content() {
+		return tableExpression;
+	}
 }
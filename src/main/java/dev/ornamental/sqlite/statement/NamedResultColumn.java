@@ -30,4 +30,12 @@ public final class NamedResultColumn implements ResultElement {
 		return expressionCopy == expression && columnAliasCopy == columnAlias
 			? this : new NamedResultColumn(expressionCopy, columnAliasCopy);
 	}
+
+	SqlExpression expression() {
+		return expression;
+	}
+
+	CharSequence columnAlias() {
+		return columnAlias;
+	}
 }
@@ -0,0 +1,114 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents an SQL expression having the form
+ * <code><strong><em>term<sub>0</sub></em> <em>OPERATOR</em> <em>term<sub>1</sub></em>
+ * {<em>OPERATOR</em> <em>term<sub>i</sub></em>}</strong></code>
+ * where <code><em>OPERATOR</em></code> is one of the associative operators <code>AND</code>,
+ * <code>OR</code> or <code>||</code>.<br>
+ * Chaining the same operator (e.g. <code>a.and(b).and(c)</code>) extends the expression instead
+ * of nesting it, so the tree stays shallow regardless of the number of terms. For the same reason,
+ * an expression having more than {@value #MAX_FLAT_TERMS} terms is rendered as a balanced composition
+ * of parenthesized groups of at most {@value #MAX_FLAT_TERMS} terms each, which keeps the depth
+ * of the expression parsed by SQLite far below its limit (<code>SQLITE_MAX_EXPR_DEPTH</code>).
+ * The expressions nesting other operators (e.g. <code>a.or(b).and(c).or(d)</code>) are rendered
+ * and copied iteratively, so their depth is not limited by the stack size.<br>
+ * This is a complete SQL expression.
+ */
+public final class NaryOperator implements SqlExpression {
+
+	/**
+	 * The maximum number of terms rendered without grouping.
+	 */
+	public static final int MAX_FLAT_TERMS = 64;
+
+	private final NaryOperator previous; // null for the first node of the chain
+
+	private final SqlExpression[] terms;
+
+	private final Operator operator;
+
+	private NaryOperator(NaryOperator previous, SqlExpression[] terms, Operator operator) {
+		this.previous = previous;
+		this.terms = terms;
+		this.operator = operator;
+	}
+
+	@Override
+	public void appendTo(StringBuilder receptacle) {
+		OperatorTree.appendTo(this, receptacle);
+	}
+
+	@Override
+	public int getPrecedence() {
+		return operator.getPrecedence();
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * The copy keeps all the terms in a single node.
+	 */
+	@Override
+	public NaryOperator copy() {
+		return (NaryOperator)OperatorTree.copy(this);
+	}
+
+	static SqlExpression of(Operator operator, Iterable<? extends SqlExpression> terms)
+		throws IllegalArgumentException {
+
+		List<SqlExpression> termList = new ArrayList<>();
+		for (SqlExpression term : terms) {
+			termList.add(term);
+		}
+		if (termList.isEmpty()) {
+			throw new IllegalArgumentException(
+				String.format("At least one operand of %s operator must be specified.", operator.getSymbol()));
+		}
+
+		return termList.size() == 1
+			? termList.get(0)
+			: new NaryOperator(null, termList.toArray(new SqlExpression[0]), operator);
+	}
+
+	static SqlExpression of(Operator operator, SqlExpression left, SqlExpression right) {
+		return left instanceof NaryOperator && ((NaryOperator)left).operator == operator
+			? new NaryOperator((NaryOperator)left, new SqlExpression[] { right }, operator)
+			: new NaryOperator(null, new SqlExpression[] { left, right }, operator);
+	}
+
+	SqlExpression[] termArray() {
+		// the array of a single node is shared: it must not be modified
+		return previous == null ? terms : terms().toArray(new SqlExpression[0]);
+	}
+
+	List<SqlExpression> terms() {
+		List<NaryOperator> chain = new ArrayList<>();
+		for (NaryOperator current = this; current != null; current = current.previous) {
+			chain.add(current);
+		}
+
+		List<SqlExpression> result = new ArrayList<>();
+		for (int i = chain.size() - 1; i >= 0; i--) {
+			Collections.addAll(result, chain.get(i).terms);
+		}
+
+		return result;
+	}
+
+	Operator operator() {
+		return operator;
+	}
+
+	NaryOperator withTerms(SqlExpression[] newTerms) {
+		boolean changed = previous != null || newTerms.length != terms.length;
+		for (int i = 0; !changed && i < newTerms.length; i++) {
+			changed = newTerms[i] != terms[i];
+		}
+
+		return changed ? new NaryOperator(null, newTerms, operator) : this;
+	}
+}
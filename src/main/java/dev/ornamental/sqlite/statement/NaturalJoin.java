@@ -41,4 +41,12 @@ public final class NaturalJoin implements TableExpression {
 		return leftCopy == left && rightCopy == right
 			? this : new NaturalJoin(leftCopy, rightCopy, type);
 	}
+
+	TableExpression left() {
+		return left;
+	}
+
+	TableExpression right() {
+		return right;
+	}
 }
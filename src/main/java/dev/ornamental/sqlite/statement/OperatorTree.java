@@ -0,0 +1,347 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * This class contains static methods walking the trees of the nested {@link BinaryOperator}
+ * and {@link NaryOperator} expressions (e.g. built by alternately chaining <code>and(...)</code>
+ * and <code>or(...)</code>) so that their depth is not limited by the stack size: the walk recurses
+ * into the first {@value #RECURSION_DEPTH} levels of the tree (which covers the ordinary expressions
+ * without allocating a work stack) and continues with an explicit work stack below them.
+ * The operands which are other expressions are processed by their own methods.
+ */
+final class OperatorTree {
+
+	/**
+	 * Combines an operator expression with the results obtained for its operands.
+	 */
+	@FunctionalInterface
+	interface Combiner {
+
+		/**
+		 * Returns the result for the operator expression.
+		 * @param node the {@link BinaryOperator} or {@link NaryOperator} expression
+		 * @param operands the results obtained for its operands (in the order of the operands)
+		 * @return the result for the expression
+		 */
+		SqlExpression combine(SqlExpression node, SqlExpression[] operands);
+	}
+
+	/**
+	 * The operands of an operator expression being transformed and the results obtained for them so far.
+	 */
+	private static final class Frame {
+
+		private final SqlExpression node;
+
+		private final SqlExpression[] operands;
+
+		private final SqlExpression[] results;
+
+		private int next;
+
+		Frame(SqlExpression node, SqlExpression[] operands) {
+			this.node = node;
+			this.operands = operands;
+			this.results = new SqlExpression[operands.length];
+		}
+	}
+
+	/**
+	 * The range of the terms of an n-ary expression pending to be rendered.
+	 */
+	private static final class Terms {
+
+		private final Operator operator;
+
+		private final SqlExpression[] terms;
+
+		private final int from;
+
+		private final int to;
+
+		Terms(Operator operator, SqlExpression[] terms, int from, int to) {
+			this.operator = operator;
+			this.terms = terms;
+			this.from = from;
+			this.to = to;
+		}
+	}
+
+	private static final int RECURSION_DEPTH = 64;
+
+	private OperatorTree() { }
+
+	/**
+	 * Renders the expression.
+	 * @param root the {@link BinaryOperator} or {@link NaryOperator} expression
+	 * @param receptacle the receptacle of the text
+	 */
+	static void appendTo(SqlExpression root, StringBuilder receptacle) {
+		appendTo(root, receptacle, RECURSION_DEPTH);
+	}
+
+	/**
+	 * Transforms the expression bottom-up: each operand which is not an operator expression
+	 * is transformed by the specified function, and each operator expression is combined
+	 * with the results obtained for its operands.
+	 * @param root the expression to transform
+	 * @param operand the function transforming the operands which are not operator expressions
+	 * @param combiner the function combining an operator expression with the results for its operands
+	 * @return the result for the root expression
+	 */
+	static SqlExpression transform(
+		SqlExpression root, Function<? super SqlExpression, ? extends SqlExpression> operand, Combiner combiner) {
+
+		return transform(root, operand, combiner, RECURSION_DEPTH);
+	}
+
+	/**
+	 * Copies the expression.
+	 * @param root the {@link BinaryOperator} or {@link NaryOperator} expression
+	 * @return the copy of the expression (or the expression itself if nothing is to be copied)
+	 */
+	static SqlExpression copy(SqlExpression root) {
+		return copy(root, RECURSION_DEPTH);
+	}
+
+	/**
+	 * Returns the operator expression having the specified operands instead of the ones of the passed one.
+	 * @param node the {@link BinaryOperator} or {@link NaryOperator} expression
+	 * @param operands the new operands
+	 * @return the passed expression if it is a single node having the same operands,
+	 * otherwise the new single-node expression
+	 */
+	static SqlExpression withOperands(SqlExpression node, SqlExpression[] operands) {
+		return node instanceof BinaryOperator
+			? ((BinaryOperator)node).withOperands(operands[0], operands[1])
+			: ((NaryOperator)node).withTerms(operands);
+	}
+
+	/**
+	 * Returns the operator of the operator expression.
+	 * @param node the {@link BinaryOperator} or {@link NaryOperator} expression
+	 * @return the operator
+	 */
+	static Operator operator(SqlExpression node) {
+		return node instanceof BinaryOperator ? ((BinaryOperator)node).operator() : ((NaryOperator)node).operator();
+	}
+
+	private static void appendTo(SqlExpression expression, StringBuilder receptacle, int depth) {
+		if (!(expression instanceof BinaryOperator || expression instanceof NaryOperator)) {
+			expression.appendTo(receptacle);
+		} else if (depth == 0) {
+			appendIteratively(expression, receptacle);
+		} else if (expression instanceof BinaryOperator) {
+			BinaryOperator binary = (BinaryOperator)expression;
+			int precedence = binary.operator().getPrecedence();
+			appendOperand(receptacle, binary.left(), binary.left().getPrecedence() < precedence, depth - 1);
+			receptacle.append(' ').append(binary.operator().getSymbol()).append(' ');
+			appendOperand(receptacle, binary.right(), binary.right().getPrecedence() <= precedence, depth - 1);
+		} else {
+			NaryOperator nary = (NaryOperator)expression;
+			SqlExpression[] terms = nary.termArray();
+			appendTerms(receptacle, nary.operator(), terms, 0, terms.length, depth - 1);
+		}
+	}
+
+	private static void appendOperand(
+		StringBuilder receptacle, SqlExpression operand, boolean parentheses, int depth) {
+
+		if (parentheses) {
+			receptacle.append('(');
+		}
+		appendTo(operand, receptacle, depth);
+		if (parentheses) {
+			receptacle.append(')');
+		}
+	}
+
+	private static void appendTerms(
+		StringBuilder receptacle, Operator operator, SqlExpression[] terms, int from, int to, int depth) {
+
+		// more terms than fit in a flat expression are split into the parenthesized groups
+		// (which nest only logarithmically)
+		int count = to - from;
+		if (count <= NaryOperator.MAX_FLAT_TERMS) {
+			for (int i = from; i < to; i++) {
+				if (i > from) {
+					receptacle.append(' ').append(operator.getSymbol()).append(' ');
+				}
+				appendOperand(receptacle, terms[i], i == from
+					? terms[i].getPrecedence() < operator.getPrecedence()
+					: terms[i].getPrecedence() <= operator.getPrecedence(), depth);
+			}
+		} else {
+			int groupSize = (count + NaryOperator.MAX_FLAT_TERMS - 1) / NaryOperator.MAX_FLAT_TERMS;
+			for (int start = from; start < to; start += groupSize) {
+				if (start > from) {
+					receptacle.append(' ').append(operator.getSymbol()).append(' ');
+				}
+				receptacle.append('(');
+				appendTerms(receptacle, operator, terms, start, Math.min(start + groupSize, to), depth);
+				receptacle.append(')');
+			}
+		}
+	}
+
+	private static void appendPiece(StringBuilder receptacle, Object piece) {
+		if (piece instanceof Character) {
+			receptacle.append((char)piece);
+		} else if (piece instanceof Operator) {
+			receptacle.append(' ').append(((Operator)piece).getSymbol()).append(' ');
+		} else {
+			((SqlExpression)piece).appendTo(receptacle);
+		}
+	}
+
+	private static void appendIteratively(SqlExpression root, StringBuilder receptacle) {
+		// the pending items are the parentheses, the operators (rendered as the delimited symbols),
+		// the expressions and the ranges of n-ary terms
+		Deque<Object> pending = new ArrayDeque<>();
+		pending.push(root);
+		List<Object> pieces = new ArrayList<>();
+		while (!pending.isEmpty()) {
+			Object item = pending.pop();
+			pieces.clear();
+			if (item instanceof BinaryOperator) {
+				BinaryOperator binary = (BinaryOperator)item;
+				int precedence = binary.operator().getPrecedence();
+				addOperand(pieces, binary.left(), binary.left().getPrecedence() < precedence);
+				pieces.add(binary.operator());
+				addOperand(pieces, binary.right(), binary.right().getPrecedence() <= precedence);
+			} else if (item instanceof NaryOperator) {
+				NaryOperator nary = (NaryOperator)item;
+				SqlExpression[] terms = nary.termArray();
+				pieces.add(new Terms(nary.operator(), terms, 0, terms.length));
+			} else if (item instanceof Terms) {
+				addTerms(pieces, (Terms)item);
+			} else {
+				// the other expressions are rendered by their own methods
+				appendPiece(receptacle, item);
+			}
+
+			for (int i = pieces.size() - 1; i >= 0; i--) {
+				pending.push(pieces.get(i));
+			}
+		}
+	}
+
+	private static void addOperand(List<Object> pieces, SqlExpression operand, boolean parentheses) {
+		if (parentheses) {
+			pieces.add('(');
+		}
+		pieces.add(operand);
+		if (parentheses) {
+			pieces.add(')');
+		}
+	}
+
+	private static void addTerms(List<Object> pieces, Terms range) {
+		// more terms than fit in a flat expression are split into the parenthesized groups
+		int count = range.to - range.from;
+		if (count <= NaryOperator.MAX_FLAT_TERMS) {
+			int precedence = range.operator.getPrecedence();
+			for (int i = range.from; i < range.to; i++) {
+				if (i > range.from) {
+					pieces.add(range.operator);
+				}
+				SqlExpression term = range.terms[i];
+				addOperand(pieces, term, i == range.from
+					? term.getPrecedence() < precedence
+					: term.getPrecedence() <= precedence);
+			}
+		} else {
+			int groupSize = (count + NaryOperator.MAX_FLAT_TERMS - 1) / NaryOperator.MAX_FLAT_TERMS;
+			for (int start = range.from; start < range.to; start += groupSize) {
+				if (start > range.from) {
+					pieces.add(range.operator);
+				}
+				pieces.add('(');
+				pieces.add(new Terms(range.operator, range.terms, start, Math.min(start + groupSize, range.to)));
+				pieces.add(')');
+			}
+		}
+	}
+
+	private static SqlExpression transform(
+		SqlExpression expression, Function<? super SqlExpression, ? extends SqlExpression> operand,
+		Combiner combiner, int depth) {
+
+		SqlExpression[] operands = operands(expression);
+		if (operands == null) {
+			return operand.apply(expression);
+		} else if (depth == 0) {
+			return transformIteratively(expression, operands, operand, combiner);
+		}
+
+		SqlExpression[] results = new SqlExpression[operands.length];
+		for (int i = 0; i < operands.length; i++) {
+			results[i] = transform(operands[i], operand, combiner, depth - 1);
+		}
+		return combiner.combine(expression, results);
+	}
+
+	private static SqlExpression copy(SqlExpression expression, int depth) {
+		if (!(expression instanceof BinaryOperator || expression instanceof NaryOperator)) {
+			return expression.copy();
+		} else if (depth == 0) {
+			return transformIteratively(
+				expression, operands(expression), SqlExpression::copy, OperatorTree::withOperands);
+		} else if (expression instanceof BinaryOperator) {
+			BinaryOperator binary = (BinaryOperator)expression;
+			return binary.withOperands(copy(binary.left(), depth - 1), copy(binary.right(), depth - 1));
+		}
+
+		NaryOperator nary = (NaryOperator)expression;
+		SqlExpression[] terms = nary.termArray();
+		SqlExpression[] copies = new SqlExpression[terms.length];
+		for (int i = 0; i < terms.length; i++) {
+			copies[i] = copy(terms[i], depth - 1);
+		}
+		return nary.withTerms(copies);
+	}
+
+	private static SqlExpression transformIteratively(
+		SqlExpression root, SqlExpression[] rootOperands,
+		Function<? super SqlExpression, ? extends SqlExpression> operand, Combiner combiner) {
+
+		Deque<Frame> frames = new ArrayDeque<>();
+		frames.push(new Frame(root, rootOperands));
+		while (true) {
+			Frame top = frames.peek();
+			if (top.next < top.operands.length) {
+				SqlExpression current = top.operands[top.next];
+				SqlExpression[] currentOperands = operands(current);
+				if (currentOperands == null) {
+					top.results[top.next++] = operand.apply(current);
+				} else {
+					frames.push(new Frame(current, currentOperands));
+				}
+			} else {
+				frames.pop();
+				SqlExpression result = combiner.combine(top.node, top.results);
+				Frame parent = frames.peek();
+				if (parent == null) {
+					return result;
+				}
+				parent.results[parent.next++] = result;
+			}
+		}
+	}
+
+	private static SqlExpression[] operands(SqlExpression expression) {
+		// the returned array must not be modified
+		if (expression instanceof BinaryOperator) {
+			return new SqlExpression[] { ((BinaryOperator)expression).left(), ((BinaryOperator)expression).right() };
+		} else if (expression instanceof NaryOperator) {
+			return ((NaryOperator)expression).termArray();
+		} else {
+			return null;
+		}
+	}
+}
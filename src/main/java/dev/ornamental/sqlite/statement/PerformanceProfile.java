@@ -0,0 +1,270 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a set of tuning <code>PRAGMA</code>s applied to a connection of the main database.
+ * The instances of this class are immutable: each of the setter-like methods returns a new profile
+ * differing from this one in a single setting. The settings which have not been specified are not emitted.<br>
+ * The predefined profiles ({@link #readHeavyWal()}, {@link #bulkLoad()}, {@link #lowMemory()})
+ * are meant as starting points which can be further adjusted.<br>
+ * The statements are produced by {@link #statements()} in the following order:
+ * <code>page_size</code>, <code>journal_mode</code>, <code>synchronous</code>, <code>wal_autocheckpoint</code>,
+ * <code>cache_size</code>, <code>mmap_size</code>, <code>temp_store</code>. The page size has to be set
+ * before the first write to a new database and before it is switched to the WAL mode, in which
+ * the page size cannot be changed; on an existing database the new page size only takes effect
+ * after a <code>VACUUM</code>.
+ */
+public final class PerformanceProfile {
+
+	private static final long READ_HEAVY_MMAP_SIZE = 1L << 32;
+
+	private static final int READ_HEAVY_CACHE_KB = 65536;
+
+	private static final int READ_HEAVY_WAL_PAGES = 1000;
+
+	private static final int BULK_LOAD_CACHE_KB = 262144;
+
+	private static final int LOW_MEMORY_CACHE_KB = 512;
+
+	private static final PerformanceProfile EMPTY = new PerformanceProfile(
+		null, null, null, null, false, null, null, null, null);
+
+	private final Integer pageSize;
+
+	private final JournalMode journalMode;
+
+	private final Synchronization synchronous;
+
+	private final Integer walAutoCheckpoint;
+
+	private final boolean walAutoCheckpointSet;
+
+	private final Integer cacheSize;
+
+	private final CacheSizeUnit cacheSizeUnit;
+
+	private final Long mmapSize;
+
+	private final TempStore tempStore;
+
+	private PerformanceProfile(
+		Integer pageSize, JournalMode journalMode, Synchronization synchronous,
+		Integer walAutoCheckpoint, boolean walAutoCheckpointSet,
+		Integer cacheSize, CacheSizeUnit cacheSizeUnit, Long mmapSize, TempStore tempStore) {
+
+		this.pageSize = pageSize;
+		this.journalMode = journalMode;
+		this.synchronous = synchronous;
+		this.walAutoCheckpoint = walAutoCheckpoint;
+		this.walAutoCheckpointSet = walAutoCheckpointSet;
+		this.cacheSize = cacheSize;
+		this.cacheSizeUnit = cacheSizeUnit;
+		this.mmapSize = mmapSize;
+		this.tempStore = tempStore;
+	}
+
+	/**
+	 * Returns the profile without any settings.
+	 * @return the empty profile
+	 */
+	public static PerformanceProfile empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Returns the profile suited for databases which are read much more often than written to
+	 * by several connections: WAL journaling, <code>NORMAL</code> synchronization, 64 MiB page cache,
+	 * 4 GiB of memory-mapped I/O (subject to the compile-time limit of the SQLite library),
+	 * automatic checkpoints every 1000 pages and in-memory temporary storage.
+	 * @return the read-heavy WAL profile
+	 */
+	public static PerformanceProfile readHeavyWal() {
+		return EMPTY
+			.journalMode(JournalMode.WAL)
+			.synchronous(Synchronization.NORMAL)
+			.walAutoCheckpoint(READ_HEAVY_WAL_PAGES)
+			.cacheSize(READ_HEAVY_CACHE_KB, CacheSizeUnit.KB)
+			.mmapSize(READ_HEAVY_MMAP_SIZE)
+			.tempStore(TempStore.MEMORY);
+	}
+
+	/**
+	 * Returns the profile suited for a single connection loading large amounts of data
+	 * which can be reloaded from scratch if the process crashes: in-memory rollback journal,
+	 * no synchronization, 256 MiB page cache and in-memory temporary storage.
+	 * @return the bulk load profile
+	 */
+	public static PerformanceProfile bulkLoad() {
+		return EMPTY
+			.journalMode(JournalMode.MEMORY)
+			.synchronous(Synchronization.OFF)
+			.cacheSize(BULK_LOAD_CACHE_KB, CacheSizeUnit.KB)
+			.tempStore(TempStore.MEMORY);
+	}
+
+	/**
+	 * Returns the profile suited for memory-constrained environments: 512 KiB page cache,
+	 * no memory-mapped I/O and file-based temporary storage.
+	 * @return the low memory profile
+	 */
+	public static PerformanceProfile lowMemory() {
+		return EMPTY
+			.cacheSize(LOW_MEMORY_CACHE_KB, CacheSizeUnit.KB)
+			.mmapSize(0)
+			.tempStore(TempStore.FILE);
+	}
+
+	/**
+	 * Returns the profile differing from this one in the page size.
+	 * @param bytes the page size, in bytes; must be a power of two between 512 and 65536
+	 * @return the new profile
+	 */
+	public PerformanceProfile pageSize(int bytes) {
+		Pragmas.pageSize(bytes); // validates the value
+		return new PerformanceProfile(
+			bytes, journalMode, synchronous, walAutoCheckpoint, walAutoCheckpointSet,
+			cacheSize, cacheSizeUnit, mmapSize, tempStore);
+	}
+
+	/**
+	 * Returns the profile differing from this one in the journal mode.
+	 * @param mode the journal mode
+	 * @return the new profile
+	 */
+	public PerformanceProfile journalMode(JournalMode mode) {
+		return new PerformanceProfile(
+			pageSize, mode, synchronous, walAutoCheckpoint, walAutoCheckpointSet,
+			cacheSize, cacheSizeUnit, mmapSize, tempStore);
+	}
+
+	/**
+	 * Returns the profile differing from this one in the synchronization mode.
+	 * @param mode the synchronization mode
+	 * @return the new profile
+	 */
+	public PerformanceProfile synchronous(Synchronization mode) {
+		return new PerformanceProfile(
+			pageSize, journalMode, mode, walAutoCheckpoint, walAutoCheckpointSet,
+			cacheSize, cacheSizeUnit, mmapSize, tempStore);
+	}
+
+	/**
+	 * Returns the profile differing from this one in the automatic checkpoint threshold.
+	 * This setting is only admissible if the journal mode of the profile is either unspecified or WAL.
+	 * @param maxPages the maximum number of used WAL pages after which automatic checkpoint is run;
+	 * {@literal null} if automatic checkpoints have to be turned off
+	 * @return the new profile
+	 */
+	public PerformanceProfile walAutoCheckpoint(Integer maxPages) {
+		Pragmas.walAutoCheckpoint(maxPages); // validates the value
+		return new PerformanceProfile(
+			pageSize, journalMode, synchronous, maxPages, true,
+			cacheSize, cacheSizeUnit, mmapSize, tempStore);
+	}
+
+	/**
+	 * Returns the profile differing from this one in the page cache size.
+	 * @param size the numeric value of cache size
+	 * @param unit the unit corresponding to the cache size value
+	 * @return the new profile
+	 */
+	public PerformanceProfile cacheSize(int size, CacheSizeUnit unit) {
+		if (size < 0) {
+			throw new IllegalArgumentException("The cache size must not be negative.");
+		}
+		return new PerformanceProfile(
+			pageSize, journalMode, synchronous, walAutoCheckpoint, walAutoCheckpointSet,
+			size, unit, mmapSize, tempStore);
+	}
+
+	/**
+	 * Returns the profile differing from this one in the memory-mapped I/O limit.
+	 * @param bytes the desired size limit for memory-mapped I/O buffers, (zero to disable I/O mapping)
+	 * @return the new profile
+	 */
+	public PerformanceProfile mmapSize(long bytes) {
+		Pragmas.mmapSize(bytes); // validates the value
+		return new PerformanceProfile(
+			pageSize, journalMode, synchronous, walAutoCheckpoint, walAutoCheckpointSet,
+			cacheSize, cacheSizeUnit, bytes, tempStore);
+	}
+
+	/**
+	 * Returns the profile differing from this one in the temporary storage mode.
+	 * @param mode the temporary storage mode
+	 * @return the new profile
+	 */
+	public PerformanceProfile tempStore(TempStore mode) {
+		return new PerformanceProfile(
+			pageSize, journalMode, synchronous, walAutoCheckpoint, walAutoCheckpointSet,
+			cacheSize, cacheSizeUnit, mmapSize, mode);
+	}
+
+	/**
+	 * Produces the <code>PRAGMA</code> statements applying this profile, in the order in which
+	 * they have to be executed.
+	 * @return the unmodifiable list of the statements applying this profile
+	 * @throws IllegalStateException if the automatic checkpoint threshold is specified
+	 * along with a journal mode other than WAL
+	 */
+	public List<SqlStatement> statements() throws IllegalStateException {
+		if (walAutoCheckpointSet && journalMode != null && journalMode != JournalMode.WAL) {
+			throw new IllegalStateException(
+				"The automatic checkpoint threshold is only applicable to the WAL journal mode.");
+		}
+
+		List<SqlStatement> result = new ArrayList<>();
+		if (pageSize != null) {
+			result.add(Pragmas.pageSize(pageSize));
+		}
+		if (journalMode != null) {
+			result.add(Pragmas.journalMode(journalMode));
+		}
+		if (synchronous != null) {
+			result.add(Pragmas.synchronous(synchronous));
+		}
+		if (walAutoCheckpointSet) {
+			result.add(Pragmas.walAutoCheckpoint(walAutoCheckpoint));
+		}
+		if (cacheSize != null) {
+			result.add(Pragmas.cacheSize(cacheSize, cacheSizeUnit));
+		}
+		if (mmapSize != null) {
+			result.add(Pragmas.mmapSize(mmapSize));
+		}
+		if (tempStore != null) {
+			result.add(Pragmas.tempStore(tempStore));
+		}
+
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Produces the <code>PRAGMA</code> statements initializing a reader connection of a pool
+	 * in which a single writer connection has been initialized with {@link #statements()}.
+	 * Only the per-connection settings relevant for reading are applied (<code>cache_size</code>,
+	 * <code>mmap_size</code>, <code>temp_store</code>), followed by <code>PRAGMA query_only(TRUE)</code>
+	 * preventing the connection from making any changes to the database files. The persistent
+	 * settings (page size, journal mode) are left to the writer connection.
+	 * @return the unmodifiable list of the statements initializing a reader connection
+	 * @see StatementAccess
+	 */
+	public List<SqlStatement> readerStatements() {
+		List<SqlStatement> result = new ArrayList<>();
+		if (cacheSize != null) {
+			result.add(Pragmas.cacheSize(cacheSize, cacheSizeUnit));
+		}
+		if (mmapSize != null) {
+			result.add(Pragmas.mmapSize(mmapSize));
+		}
+		if (tempStore != null) {
+			result.add(Pragmas.tempStore(tempStore));
+		}
+		result.add(Pragmas.queryOnly(true));
+
+		return Collections.unmodifiableList(result);
+	}
+}
@@ -33,4 +33,12 @@ public final class PostfixUnaryOperator implements SqlExpression {
 
 		return operandCopy == operand ? this : new PostfixUnaryOperator(operandCopy, operator);
 	}
+
+	PostfixUnaryOperator negated() {
+		return new PostfixUnaryOperator(operand, operator == Operator.ISNULL ? Operator.NOTNULL : Operator.ISNULL);
+	}
+
+	SqlExpression operand() {
+		return operand;
+	}
 }
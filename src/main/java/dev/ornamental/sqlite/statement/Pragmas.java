@@ -972,7 +972,7 @@ public final class Pragmas {
 	 * @param bytes the desired size limit for memory-mapped I/O buffers, (zero to disable I/O mapping)
 	 * @return the <code>PRAGMA mmap_size</code> statement
 	 */
-	public static Pragma.SetNumber mmapSize(int bytes) {
+	public static Pragma.SetNumber mmapSize(long bytes) {
 		if (bytes < 0) {
 			throw new IllegalArgumentException(
 				"The amount of memory for memory-mapped I/O must not be negative.");
@@ -999,7 +999,7 @@ public final class Pragmas {
 	 * @param bytes the desired size limit for memory-mapped I/O buffers, (zero to disable I/O mapping)
 	 * @return the <code>PRAGMA mmap_size</code> statement
 	 */
-	public static Pragma.SetNumber mmapSize(CharSequence schemaName, int bytes) {
+	public static Pragma.SetNumber mmapSize(CharSequence schemaName, long bytes) {
 		if (bytes < 0) {
 			throw new IllegalArgumentException(
 				"The amount of memory for memory-mapped I/O must not be negative.");
@@ -33,4 +33,12 @@ public final class PrefixUnaryOperator implements SqlExpression {
 
 		return operandCopy == operand ? this : new PrefixUnaryOperator(operandCopy, operator);
 	}
+
+	SqlExpression operand() {
+		return operand;
+	}
+
+	Operator operator() {
+		return operator;
+	}
 }
@@ -0,0 +1,274 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded cache of query results invalidated by the writes to the tables the queries depend on
+ * (see {@link TableDependencies}). The results are keyed by the SQL text of the query and the values
+ * of its parameters; when the cache is full, the least recently used result is evicted.<br>
+ * The cache only learns about the writes it is told about: each write statement executed against
+ * the database has to be reported with {@link #written(SqlStatement)} after it is executed,
+ * and the writes performed otherwise (by triggers, foreign key actions, other connections or processes,
+ * schema changes) have to be reported with {@link #invalidate(String)} or {@link #clear()}.
+ * The queries whose results depend on anything but the table contents (e.g. calling <code>random()</code>
+ * or referring to the current time) must not be cached.<br>
+ * The writes performed by the other connections (including the ones of the other processes) can be detected
+ * by polling the value of <code>PRAGMA data_version</code> (see {@link Pragmas#dataVersion()})
+ * on a single dedicated connection and passing it to {@link #validate(long)}: the value changes
+ * whenever a commit is made by a connection other than the polling one, in which case the cache is cleared.<br>
+ * The instances of this class are thread-safe; the results are loaded outside of the cache lock,
+ * and a result is not cached if a table it depends on is written while it is being loaded.
+ * @param <R> the type of the query results
+ */
+public final class QueryResultCache<R> {
+
+	private static final class Key {
+
+		private final String sql;
+
+		private final List<?> parameters;
+
+		Key(String sql, List<?> parameters) {
+			this.sql = sql;
+			this.parameters = parameters;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+
+			Key key = (Key)other;
+			return sql.equals(key.sql) && parameters.equals(key.parameters);
+		}
+
+		@Override
+		public int hashCode() {
+			return sql.hashCode() * 31 + parameters.hashCode();
+		}
+	}
+
+	private static final class Entry<R> {
+
+		private final R result;
+
+		private final Set<String> tables;
+
+		Entry(R result, Set<String> tables) {
+			this.result = result;
+			this.tables = tables;
+		}
+	}
+
+	private final int capacity;
+
+	private final Map<String, Set<String>> viewTables;
+
+	private final LinkedHashMap<Key, Entry<R>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final Map<String, Set<Key>> keysByTable = new HashMap<>();
+
+	private final Map<String, Long> lastWrites = new HashMap<>();
+
+	private long writeCount;
+
+	private long lastClear;
+
+	private boolean dataVersionKnown;
+
+	private long dataVersion;
+
+	private QueryResultCache(int capacity, Map<String, Set<String>> viewTables) {
+		this.capacity = capacity;
+		this.viewTables = viewTables;
+	}
+
+	/**
+	 * Creates an empty cache.
+	 * @param capacity the maximum number of the cached results
+	 * @param <R> the type of the query results
+	 * @return the new cache
+	 * @throws IllegalArgumentException if the capacity is not positive
+	 */
+	public static <R> QueryResultCache<R> of(int capacity) throws IllegalArgumentException {
+		return of(capacity, Collections.emptyList());
+	}
+
+	/**
+	 * Creates an empty cache resolving the references to the specified views
+	 * into the tables read by the views.
+	 * @param capacity the maximum number of the cached results
+	 * @param views the definitions of the views the cached queries may refer to
+	 * @param <R> the type of the query results
+	 * @return the new cache
+	 * @throws IllegalArgumentException if the capacity is not positive
+	 */
+	public static <R> QueryResultCache<R> of(int capacity, Iterable<? extends CreateView> views)
+		throws IllegalArgumentException {
+
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The cache capacity must be positive.");
+		}
+
+		return new QueryResultCache<>(capacity, TableDependencies.resolveViews(views));
+	}
+
+	/**
+	 * Returns the cached result of the query, loading it if it is not cached.
+	 * @param query the query
+	 * @param parameters the values of the query parameters (compared using {@link Object#equals(Object)})
+	 * @param loader the function executing the query having the SQL text passed as its argument
+	 * @return the result of the query
+	 */
+	public R get(SelectStatement query, List<?> parameters, Function<? super String, ? extends R> loader) {
+		TableDependencies dependencies = TableDependencies.of(query, viewTables);
+		Key key = new Key(dependencies.sql(), new ArrayList<>(parameters));
+		long loadStart;
+		synchronized (this) {
+			Entry<R> entry = entries.get(key);
+			if (entry != null) {
+				return entry.result;
+			}
+			loadStart = writeCount;
+		}
+
+		R result = loader.apply(dependencies.sql());
+		Set<String> tables = new HashSet<>();
+		for (String table : dependencies.readTables()) {
+			tables.add(TableDependencies.unqualified(table));
+		}
+
+		synchronized (this) {
+			if (lastClear > loadStart) {
+				return result; // the result may be stale already
+			}
+			for (String table : tables) {
+				Long lastWrite = lastWrites.get(table);
+				if (lastWrite != null && lastWrite > loadStart) {
+					return result; // the result may be stale already
+				}
+			}
+
+			Entry<R> previous = entries.put(key, new Entry<>(result, tables));
+			if (previous != null) {
+				unindex(key, previous);
+			}
+			for (String table : tables) {
+				keysByTable.computeIfAbsent(table, t -> new HashSet<>()).add(key);
+			}
+			if (entries.size() > capacity) {
+				Iterator<Map.Entry<Key, Entry<R>>> eldest = entries.entrySet().iterator();
+				Map.Entry<Key, Entry<R>> evicted = eldest.next();
+				eldest.remove();
+				unindex(evicted.getKey(), evicted.getValue());
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the cached result of the query, loading it if it is not cached; before the cache is consulted,
+	 * the data version is polled and checked (see {@link #validate(long)}).
+	 * @param query the query
+	 * @param parameters the values of the query parameters (compared using {@link Object#equals(Object)})
+	 * @param dataVersion the function returning the value of <code>PRAGMA data_version</code>
+	 * obtained on the dedicated connection
+	 * @param loader the function executing the query having the SQL text passed as its argument
+	 * @return the result of the query
+	 */
+	public R get(SelectStatement query, List<?> parameters,
+		LongSupplier dataVersion, Function<? super String, ? extends R> loader) {
+
+		validate(dataVersion.getAsLong());
+		return get(query, parameters, loader);
+	}
+
+	/**
+	 * Checks the data version of the database; if it has changed since the previous check,
+	 * the cache is cleared, as the database has been modified by another connection.
+	 * The value must be always obtained on the same connection, as the data version values
+	 * of different connections are unrelated.
+	 * @param dataVersion the value of <code>PRAGMA data_version</code> obtained on the dedicated connection
+	 * @return <code>true</code> if the cache has been cleared, <code>false</code> otherwise
+	 */
+	public synchronized boolean validate(long dataVersion) {
+		boolean changed = dataVersionKnown && this.dataVersion != dataVersion;
+		dataVersionKnown = true;
+		this.dataVersion = dataVersion;
+		if (changed) {
+			clear();
+		}
+
+		return changed;
+	}
+
+	/**
+	 * Invalidates the cached results depending on the tables written by the statement.
+	 * This method has to be called after the statement is executed.
+	 * @param statement the executed write statement
+	 */
+	public void written(SqlStatement statement) {
+		for (String table : TableDependencies.of(statement, viewTables).writtenTables()) {
+			invalidate(table);
+		}
+	}
+
+	/**
+	 * Invalidates the cached results depending on the specified table.
+	 * @param tableName the name of the table which has been written
+	 */
+	public synchronized void invalidate(String tableName) {
+		String table = TableDependencies.unqualified(TableReferences.name(null, tableName));
+		lastWrites.put(table, ++writeCount);
+		Set<Key> keys = keysByTable.remove(table);
+		if (keys != null) {
+			for (Key key : keys) {
+				Entry<R> entry = entries.remove(key);
+				if (entry != null) {
+					unindex(key, entry);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Invalidates all the cached results.
+	 */
+	public synchronized void clear() {
+		lastClear = ++writeCount;
+		entries.clear();
+		keysByTable.clear();
+	}
+
+	/**
+	 * Returns the number of the cached results.
+	 * @return the number of the cached results
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	private void unindex(Key key, Entry<R> entry) {
+		for (String table : entry.tables) {
+			Set<Key> keys = keysByTable.get(table);
+			if (keys != null) {
+				keys.remove(key);
+				if (keys.isEmpty()) {
+					keysByTable.remove(table);
+				}
+			}
+		}
+	}
+}
@@ -243,6 +243,10 @@ public abstract class RowExpression implements SqlExpression {
 		protected void append(StringBuilder receptacle, SqlExpression value) {
 			value.appendTo(receptacle);
 		}
+
+		Iterable<? extends SqlExpression> elements() {
+			return elements;
+		}
 	}
 
 	private static final String EMPTY_ITERABLE_MESSAGE = "The row expression must have at least one element.";
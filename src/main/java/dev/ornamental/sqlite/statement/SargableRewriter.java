@@ -0,0 +1,423 @@
+package dev.ornamental.sqlite.statement;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites conditions into the equivalent forms which SQLite is able to satisfy using indices
+ * (the so-called sargable predicates). The rewrites are applied to the logical structure of the condition
+ * (the terms of <code>AND</code> and <code>OR</code> operators and the operands of <code>NOT</code>);
+ * each of them may be switched on and off separately (see {@link Rewrite}).<br>
+ * Some of the rewrites are only valid under assumptions about the stored data, which are described
+ * in the documentation of the corresponding {@link Rewrite} constants.<br>
+ * The instances of this class are immutable.
+ */
+public final class SargableRewriter {
+
+	/**
+	 * The rewrites performed by {@link SargableRewriter}.
+	 */
+	public enum Rewrite {
+
+		/**
+		 * Moves the logical negation inwards: <code>NOT (a &gt; b)</code> becomes <code>a &lt;= b</code>,
+		 * <code>NOT (x AND y)</code> becomes <code>NOT x OR NOT y</code>, <code>NOT (x IN (...))</code>
+		 * becomes <code>x NOT IN (...)</code>, etc. The rewrite is valid regardless of the data.
+		 */
+		NEGATION_PUSHDOWN,
+
+		/**
+		 * Replaces two or more equality comparisons of the same column joint by <code>OR</code>
+		 * (<code>x = 1 OR x = 2</code>) with the <code>IN</code> operator (<code>x IN (1, 2)</code>).
+		 * The rewrite is valid regardless of the data.
+		 */
+		EQUALITIES_TO_IN,
+
+		/**
+		 * Replaces the prefix patterns of <code>LIKE</code> and <code>GLOB</code> operators applied
+		 * to a column (<code>x LIKE 'abc%'</code>) with the range of values having the prefix
+		 * (<code>x &gt;= 'abc' AND x &lt; 'abd'</code>); if the pattern has wildcards after the prefix,
+		 * the original operator is kept after the range. <code>LIKE</code> patterns whose prefixes contain
+		 * letters are only rewritten if the rewriter {@linkplain #assumingCaseSensitiveLike() assumes
+		 * case-sensitive <code>LIKE</code>}.<br>
+		 * The rewrite is only valid if the column stores text values and uses the <code>BINARY</code>
+		 * collation.
+		 */
+		PREFIX_TO_RANGE,
+
+		/**
+		 * Replaces the comparisons of the <code>date(...)</code> function applied to a column
+		 * with a date literal (<code>date(x) = '2024-01-01'</code>) with the comparisons of the column
+		 * itself (<code>x &gt;= '2024-01-01' AND x &lt; '2024-01-02'</code>).<br>
+		 * The rewrite is only valid if the column stores the moments as ISO-8601 text
+		 * (<code>YYYY-MM-DD[ HH:MM[:SS[.SSS]]]</code>) without time zone suffixes.
+		 */
+		DATE_TO_RANGE
+	}
+
+	private static final Pattern DATE_PATTERN = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+
+	private static final Pattern LETTER_PATTERN = Pattern.compile("[a-zA-Z]");
+
+	private static final SargableRewriter ALL = new SargableRewriter(EnumSet.allOf(Rewrite.class), false);
+
+	private final Set<Rewrite> rewrites;
+
+	private final boolean caseSensitiveLike;
+
+	private SargableRewriter(Set<Rewrite> rewrites, boolean caseSensitiveLike) {
+		this.rewrites = rewrites;
+		this.caseSensitiveLike = caseSensitiveLike;
+	}
+
+	/**
+	 * Returns the rewriter performing all the rewrites.
+	 * @return the rewriter performing all the rewrites and assuming case-insensitive <code>LIKE</code>
+	 */
+	public static SargableRewriter all() {
+		return ALL;
+	}
+
+	/**
+	 * Returns the rewriter performing the specified rewrites.
+	 * @param rewrites the rewrites to perform
+	 * @return the rewriter performing the specified rewrites and assuming case-insensitive <code>LIKE</code>
+	 */
+	public static SargableRewriter of(Rewrite... rewrites) {
+		Set<Rewrite> rewriteSet = EnumSet.noneOf(Rewrite.class);
+		Collections.addAll(rewriteSet, rewrites);
+		return new SargableRewriter(rewriteSet, false);
+	}
+
+	/**
+	 * Returns the rewriter performing the same rewrites as this one except the specified one.
+	 * @param rewrite the rewrite to switch off
+	 * @return the rewriter not performing the specified rewrite
+	 */
+	public SargableRewriter without(Rewrite rewrite) {
+		if (!rewrites.contains(rewrite)) {
+			return this;
+		}
+
+		Set<Rewrite> rewriteSet = EnumSet.copyOf(rewrites);
+		rewriteSet.remove(rewrite);
+		return new SargableRewriter(rewriteSet, caseSensitiveLike);
+	}
+
+	/**
+	 * Returns the rewriter performing the same rewrites as this one and assuming that <code>LIKE</code>
+	 * operator is case-sensitive (i.e. that the <code>case_sensitive_like</code> pragma is set
+	 * for the connection executing the statements).
+	 * @return the rewriter assuming case-sensitive <code>LIKE</code>
+	 */
+	public SargableRewriter assumingCaseSensitiveLike() {
+		return caseSensitiveLike ? this : new SargableRewriter(rewrites, true);
+	}
+
+	/**
+	 * Rewrites the condition.
+	 * @param condition the condition to rewrite
+	 * @return the rewritten condition; the passed instance itself if none of the rewrites is applicable
+	 */
+	public SqlExpression rewrite(SqlExpression condition) {
+		List<SqlExpression> terms = termsOf(condition, Operator.AND);
+		if (terms != null) {
+			return rewriteTerms(condition, Operator.AND, terms);
+		}
+		terms = termsOf(condition, Operator.OR);
+		if (terms != null) {
+			return rewriteTerms(condition, Operator.OR, terms);
+		}
+
+		if (condition instanceof PrefixUnaryOperator && ((PrefixUnaryOperator)condition).operator() == Operator.NOT) {
+			SqlExpression operand = ((PrefixUnaryOperator)condition).operand();
+			SqlExpression negated = rewrites.contains(Rewrite.NEGATION_PUSHDOWN) ? negate(operand) : null;
+			if (negated != null) {
+				return rewrite(negated);
+			}
+
+			SqlExpression operandRewritten = rewrite(operand);
+			return operandRewritten == operand ? condition : new PrefixUnaryOperator(operandRewritten, Operator.NOT);
+		}
+
+		SqlExpression result = null;
+		if (rewrites.contains(Rewrite.PREFIX_TO_RANGE) && condition instanceof MatchExpression) {
+			result = prefixToRange((MatchExpression)condition);
+		} else if (rewrites.contains(Rewrite.DATE_TO_RANGE) && condition instanceof BinaryOperator) {
+			result = dateToRange((BinaryOperator)condition);
+		}
+
+		return result == null ? condition : result;
+	}
+
+	private SqlExpression rewriteTerms(SqlExpression original, Operator operator, List<SqlExpression> terms) {
+		boolean changed = original instanceof BinaryOperator;
+		List<SqlExpression> rewritten = new ArrayList<>();
+		for (SqlExpression term : terms) {
+			SqlExpression termRewritten = rewrite(term);
+			changed |= termRewritten != term;
+			List<SqlExpression> nestedTerms = termsOf(termRewritten, operator);
+			if (nestedTerms != null) {
+				rewritten.addAll(nestedTerms);
+				changed = true;
+			} else {
+				rewritten.add(termRewritten);
+			}
+		}
+
+		if (operator == Operator.OR && rewrites.contains(Rewrite.EQUALITIES_TO_IN)) {
+			List<SqlExpression> merged = equalitiesToIn(rewritten);
+			changed |= merged.size() != rewritten.size();
+			rewritten = merged;
+		}
+
+		return changed ? NaryOperator.of(operator, rewritten) : original;
+	}
+
+	private static SqlExpression negate(SqlExpression expression) {
+		List<SqlExpression> terms = termsOf(expression, Operator.AND);
+		Operator dualOperator = Operator.OR;
+		if (terms == null) {
+			terms = termsOf(expression, Operator.OR);
+			dualOperator = Operator.AND;
+		}
+		if (terms != null) {
+			List<SqlExpression> negatedTerms = new ArrayList<>();
+			for (SqlExpression term : terms) {
+				SqlExpression negatedTerm = negate(term);
+				negatedTerms.add(negatedTerm == null ? SqlExpressions.not(term) : negatedTerm);
+			}
+			return NaryOperator.of(dualOperator, negatedTerms);
+		}
+
+		if (expression instanceof BinaryOperator) {
+			BinaryOperator binary = (BinaryOperator)expression;
+			Operator negatedOperator = negatedComparison(binary.operator());
+			return negatedOperator == null ? null : new BinaryOperator(binary.left(), binary.right(), negatedOperator);
+		} else if (expression instanceof PrefixUnaryOperator
+			&& ((PrefixUnaryOperator)expression).operator() == Operator.NOT
+			&& ExpressionSimplifier.isLogical(((PrefixUnaryOperator)expression).operand())) {
+
+			return ((PrefixUnaryOperator)expression).operand();
+		} else if (expression instanceof InExpression) {
+			return ((InExpression)expression).negated();
+		} else if (expression instanceof BetweenExpression) {
+			return ((BetweenExpression)expression).negated();
+		} else if (expression instanceof MatchExpression) {
+			return ((MatchExpression)expression).negated();
+		} else if (expression instanceof ExistsExpression) {
+			return ((ExistsExpression)expression).negated();
+		} else if (expression instanceof PostfixUnaryOperator) {
+			return ((PostfixUnaryOperator)expression).negated();
+		}
+
+		return null;
+	}
+
+	private static List<SqlExpression> equalitiesToIn(List<SqlExpression> terms) {
+		Map<String, List<SqlExpression>> valuesByColumn = new HashMap<>();
+		for (SqlExpression term : terms) {
+			String column = equalityColumn(term);
+			if (column != null) {
+				valuesByColumn.computeIfAbsent(column, c -> new ArrayList<>()).add(((BinaryOperator)term).right());
+			}
+		}
+
+		List<SqlExpression> result = new ArrayList<>();
+		Set<String> mergedColumns = new HashSet<>();
+		for (SqlExpression term : terms) {
+			String column = equalityColumn(term);
+			List<SqlExpression> values = column == null ? null : valuesByColumn.get(column);
+			if (values == null || values.size() < 2) {
+				result.add(term);
+			} else if (mergedColumns.add(column)) { // the IN operator takes the place of the first equality
+				SqlExpression left = ((BinaryOperator)term).left();
+				result.add(new InExpression.ForRow(false, left, new RowExpression.OfExpressions(values)));
+			}
+		}
+
+		return result;
+	}
+
+	private static String equalityColumn(SqlExpression term) {
+		if (!(term instanceof BinaryOperator) || ((BinaryOperator)term).operator() != Operator.EQ) {
+			return null;
+		}
+
+		BinaryOperator equality = (BinaryOperator)term;
+		boolean isConstant = equality.right() instanceof Literal
+			|| equality.right() instanceof BindingParameter && equality.right() != BindingParameter.NAMELESS;
+		if (!(equality.left() instanceof ColumnExpression) || !isConstant) {
+			return null;
+		}
+
+		StringBuilder column = new StringBuilder();
+		equality.left().appendTo(column);
+		return column.toString();
+	}
+
+	private SqlExpression prefixToRange(MatchExpression match) {
+		Object pattern = match.right() instanceof Literal ? ((Literal)match.right()).constantValue() : null;
+		if (match.isNegated() || !(match.left() instanceof ColumnExpression) || !(pattern instanceof String)
+			|| match.operator() != MatchOperator.LIKE && match.operator() != MatchOperator.GLOB) {
+
+			return null;
+		}
+
+		String wildcards = match.operator() == MatchOperator.LIKE ? "%_" : "*?[";
+		String text = (String)pattern;
+		int prefixLength = 0;
+		while (prefixLength < text.length() && wildcards.indexOf(text.charAt(prefixLength)) < 0) {
+			prefixLength++;
+		}
+		String prefix = text.substring(0, prefixLength);
+		boolean isCaseSensitive = match.operator() == MatchOperator.GLOB || caseSensitiveLike
+			|| !LETTER_PATTERN.matcher(prefix).find();
+		// the bound is obtained by incrementing the last character, which preserves the order of UTF-8 encodings
+		// below the surrogate range
+		if (prefix.isEmpty() || !isCaseSensitive || prefix.charAt(prefix.length() - 1) >= '\uD7FF') {
+			return null;
+		}
+
+		String bound = prefix.substring(0, prefix.length() - 1) + (char)(prefix.charAt(prefix.length() - 1) + 1);
+		SqlExpression column = match.left();
+		List<SqlExpression> terms = new ArrayList<>();
+		terms.add(column.geq(Literal.value(prefix)));
+		terms.add(column.lt(Literal.value(bound)));
+		if (prefixLength != text.length() - 1 || text.charAt(prefixLength) != wildcards.charAt(0)) {
+			terms.add(match);
+		}
+
+		return SqlExpressions.and(terms);
+	}
+
+	private static SqlExpression dateToRange(BinaryOperator comparison) {
+		Operator operator = comparison.operator();
+		SqlExpression function = comparison.left();
+		SqlExpression date = comparison.right();
+		if (date instanceof FunctionExpression) {
+			operator = mirroredComparison(operator);
+			function = comparison.right();
+			date = comparison.left();
+		}
+
+		SqlExpression column = dateArgument(function);
+		Object value = date instanceof Literal ? ((Literal)date).constantValue() : null;
+		if (column == null || operator == null || !(value instanceof String)
+			|| !DATE_PATTERN.matcher((String)value).matches()) {
+
+			return null;
+		}
+
+		Literal day;
+		Literal nextDay;
+		try {
+			day = Literal.value((String)value);
+			nextDay = Literal.value(LocalDate.parse((String)value).plusDays(1).toString());
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+
+		switch (operator) {
+			case EQ:
+				return SqlExpressions.and(column.geq(day), column.lt(nextDay));
+			case LESS:
+				return column.lt(day);
+			case LESS_EQ:
+				return column.lt(nextDay);
+			case GREATER:
+				return column.geq(nextDay);
+			case GREATER_EQ:
+				return column.geq(day);
+			default:
+				return null;
+		}
+	}
+
+	private static SqlExpression dateArgument(SqlExpression expression) {
+		if (!(expression instanceof FunctionExpression)) {
+			return null;
+		}
+
+		FunctionExpression function = (FunctionExpression)expression;
+		Iterator<? extends SqlExpression> args = function.args().iterator();
+		if (function.isDistinct() || !"date".equalsIgnoreCase(function.functionName().toString())
+			|| !args.hasNext()) {
+
+			return null;
+		}
+		SqlExpression argument = args.next();
+
+		return args.hasNext() || !(argument instanceof ColumnExpression) ? null : argument;
+	}
+
+	private static List<SqlExpression> termsOf(SqlExpression expression, Operator operator) {
+		if (expression instanceof NaryOperator && ((NaryOperator)expression).operator() == operator) {
+			return ((NaryOperator)expression).terms();
+		} else if (!(expression instanceof BinaryOperator) || ((BinaryOperator)expression).operator() != operator) {
+			return null;
+		}
+
+		// the left-deep chains of the same operator are collected iteratively
+		List<SqlExpression> result = new ArrayList<>();
+		SqlExpression current = expression;
+		while (current instanceof BinaryOperator && ((BinaryOperator)current).operator() == operator) {
+			result.add(((BinaryOperator)current).right());
+			current = ((BinaryOperator)current).left();
+		}
+		result.add(current);
+		Collections.reverse(result);
+
+		return result;
+	}
+
+	private static Operator negatedComparison(Operator operator) {
+		switch (operator) {
+			case LESS:
+				return Operator.GREATER_EQ;
+			case LESS_EQ:
+				return Operator.GREATER;
+			case GREATER:
+				return Operator.LESS_EQ;
+			case GREATER_EQ:
+				return Operator.LESS;
+			case EQ:
+				return Operator.NOT_EQ;
+			case NOT_EQ:
+				return Operator.EQ;
+			case IS:
+				return Operator.IS_NOT;
+			case IS_NOT:
+				return Operator.IS;
+			default:
+				return null;
+		}
+	}
+
+	private static Operator mirroredComparison(Operator operator) {
+		switch (operator) {
+			case LESS:
+				return Operator.GREATER;
+			case LESS_EQ:
+				return Operator.GREATER_EQ;
+			case GREATER:
+				return Operator.LESS;
+			case GREATER_EQ:
+				return Operator.LESS_EQ;
+			case EQ:
+				return Operator.EQ;
+			default:
+				return null;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Represents the sequence of steps transforming one schema into another
+ * (see {@link SchemaModel#migrationTo(SchemaModel)}). Each step carries its cost class
+ * and the table whose rows it processes, which allows rejecting the migrations rewriting
+ * large tables before they are executed.<br>
+ * The statements have to be executed in order outside of a transaction, as the steps
+ * rebuilding tables change the foreign key enforcement and manage their own transactions.<br>
+ * The instances of this class are immutable.
+ */
+public final class SchemaMigration {
+
+	/**
+	 * Represents a single step of a schema migration.
+	 */
+	public static final class Step {
+
+		private final MigrationCost cost;
+
+		private final String tableName; // null if the cost does not depend on the amount of data
+
+		private final List<SqlStatement> statements;
+
+		Step(MigrationCost cost, String tableName, List<SqlStatement> statements) {
+			this.cost = cost;
+			this.tableName = tableName;
+			this.statements = statements;
+		}
+
+		/**
+		 * Returns the cost class of the step.
+		 * @return the cost class
+		 */
+		public MigrationCost cost() {
+			return cost;
+		}
+
+		/**
+		 * Returns the name of the table whose rows (or the rows of whose index) are processed by the step.
+		 * @return the table name or {@literal null} if the step is of {@link MigrationCost#METADATA} class
+		 */
+		public String tableName() {
+			return tableName;
+		}
+
+		/**
+		 * Returns the statements of the step.
+		 * @return the unmodifiable list of the statements
+		 */
+		public List<SqlStatement> statements() {
+			return statements;
+		}
+	}
+
+	private final List<Step> steps;
+
+	SchemaMigration(List<Step> steps) {
+		this.steps = Collections.unmodifiableList(new ArrayList<>(steps));
+	}
+
+	/**
+	 * Tells whether the source and the target schemas are the same.
+	 * @return {@literal true} if the migration has no steps; {@literal false} otherwise
+	 */
+	public boolean isEmpty() {
+		return steps.isEmpty();
+	}
+
+	/**
+	 * Returns the steps of the migration.
+	 * @return the unmodifiable list of the steps in the order of execution
+	 */
+	public List<Step> steps() {
+		return steps;
+	}
+
+	/**
+	 * Returns the statements of all the steps of the migration.
+	 * @return the unmodifiable list of the statements in the order of execution
+	 */
+	public List<SqlStatement> statements() {
+		List<SqlStatement> result = new ArrayList<>();
+		for (Step step : steps) {
+			result.addAll(step.statements);
+		}
+
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Returns the highest cost class of the migration steps.
+	 * @return the cost class of the most expensive step ({@link MigrationCost#METADATA}
+	 * if the migration is empty)
+	 */
+	public MigrationCost cost() {
+		MigrationCost result = MigrationCost.METADATA;
+		for (Step step : steps) {
+			if (step.cost.compareTo(result) > 0) {
+				result = step.cost;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the names of the tables whose rows are rewritten by the migration.
+	 * @return the unmodifiable list of the names of the tables processed
+	 * by the steps of {@link MigrationCost#TABLE_REWRITE} class
+	 */
+	public List<String> rewrittenTables() {
+		List<String> result = new ArrayList<>();
+		for (Step step : steps) {
+			if (step.cost == MigrationCost.TABLE_REWRITE && !result.contains(step.tableName)) {
+				result.add(step.tableName);
+			}
+		}
+
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Estimates the number of row operations performed by the migration.
+	 * @param rowCount the function returning the (approximate) number of rows of the table
+	 * having the specified name
+	 * @return the sum of the row counts of the tables processed by the steps
+	 * multiplied by the {@linkplain MigrationCost#rowFactor() row factors} of the steps
+	 */
+	public long estimateRowOperations(ToLongFunction<String> rowCount) {
+		long result = 0;
+		for (Step step : steps) {
+			if (step.tableName != null) {
+				result += step.cost.rowFactor() * rowCount.applyAsLong(step.tableName);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Ensures that no step of the migration is more expensive than allowed,
+	 * e.g. that no table is rewritten when the migration is applied to a large database.
+	 * @param maxCost the highest admissible cost class
+	 * @return this migration
+	 * @throws IllegalStateException if the migration has a step of a higher cost class
+	 */
+	public SchemaMigration requireCostAtMost(MigrationCost maxCost) throws IllegalStateException {
+		for (Step step : steps) {
+			if (step.cost.compareTo(maxCost) > 0) {
+				throw new IllegalStateException(String.format(
+					"The migration step processing the table \"%s\" has cost %s exceeding %s.",
+					step.tableName, step.cost, maxCost));
+			}
+		}
+
+		return this;
+	}
+}
@@ -0,0 +1,578 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents a database schema as the set of the statements defining its tables, indexes,
+ * triggers and views. Comparing two models (see {@link #migrationTo(SchemaModel)}) produces
+ * the migration transforming the first schema into the second one:
+ * <ul>
+ * <li>the objects absent from the target schema are dropped, and the new ones are created;</li>
+ * <li>the changed indexes, triggers and views are dropped and recreated;</li>
+ * <li>a changed table is altered in place when only its columns are renamed
+ * (a column is considered renamed if it has the same position and definition but a new name),
+ * dropped, or added at the end and these columns satisfy the restrictions of
+ * <code>ALTER TABLE .. RENAME COLUMN</code>, <code>DROP COLUMN</code> and <code>ADD COLUMN</code>
+ * respectively; otherwise the table is rebuilt (see {@link TableRebuild}) under the temporary name
+ * <code>new_<em>tableName</em></code>, and its indexes and triggers are recreated;</li>
+ * <li>if any table is rebuilt or has columns renamed or dropped, all the views are recreated,
+ * as SQLite verifies the views referring to the changed table.</li>
+ * </ul>
+ * The objects are identified by their schema and object names (compared case-insensitively), so each
+ * object must refer to its schema in the same way in both models (either explicitly or implicitly);
+ * an index or a trigger belongs to the table of the specified name in its own schema.
+ * The definitions are compared in their rendered form, so the equivalent definitions built differently
+ * are considered different. The renamed columns are matched by their structure rather than by their
+ * names in the rendered definitions: in the column lists of the table constraints and as the indexed
+ * columns; a column definition, a table constraint or an index whose expressions use a renamed column
+ * is considered changed, as are the triggers of a table having renamed columns.
+ * The references to a dropped column from other objects are only detected within the definition
+ * of its table.<br>
+ * The instances of this class are immutable.
+ */
+public final class SchemaModel {
+
+	private static final SchemaModel EMPTY = new SchemaModel(
+		Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+
+	private static final String TEMPORARY_TABLE_PREFIX = "new_";
+
+	private final Map<String, TableEntry> tables;
+
+	private final Map<String, DependentEntry> indexes;
+
+	private final Map<String, DependentEntry> triggers;
+
+	private final Map<String, DependentEntry> views;
+
+	private SchemaModel(
+		Map<String, TableEntry> tables, Map<String, DependentEntry> indexes,
+		Map<String, DependentEntry> triggers, Map<String, DependentEntry> views) {
+
+		this.tables = tables;
+		this.indexes = indexes;
+		this.triggers = triggers;
+		this.views = views;
+	}
+
+	/**
+	 * Returns the model of the schema containing no objects.
+	 * @return the empty schema model
+	 */
+	public static SchemaModel empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Returns the model differing from this one in that it contains the specified table.
+	 * @param createTable the <code>CREATE TABLE</code> statement with column definitions
+	 * @return the new schema model
+	 */
+	public SchemaModel withTable(ExplicableStatement createTable) {
+		TableEntry table = new TableEntry(createTable.copy());
+
+		return new SchemaModel(with(tables, table.key, table, "table"), indexes, triggers, views);
+	}
+
+	/**
+	 * Returns the model differing from this one in that it contains the specified index.
+	 * @param createIndex the <code>CREATE INDEX</code> statement
+	 * @return the new schema model
+	 */
+	public SchemaModel withIndex(CreateIndex.OnColumns createIndex) {
+		CreateIndex.OnColumns copy = createIndex.copy();
+
+		return withIndex(new DependentEntry(
+			copy, copy.dropIfExists(), copy.schemaName(), copy.tableName(), copy, null));
+	}
+
+	/**
+	 * Returns the model differing from this one in that it contains the specified partial index.
+	 * @param createIndex the <code>CREATE INDEX</code> statement
+	 * @return the new schema model
+	 */
+	public SchemaModel withIndex(CreateIndex.Constrained createIndex) {
+		CreateIndex.Constrained copy = createIndex.copy();
+
+		return withIndex(new DependentEntry(
+			copy, copy.dropIfExists(), copy.schemaName(), copy.tableName(), copy.columns(), copy.condition()));
+	}
+
+	/**
+	 * Returns the model differing from this one in that it contains the specified trigger.
+	 * @param createTrigger the <code>CREATE TRIGGER</code> statement
+	 * @return the new schema model
+	 */
+	public SchemaModel withTrigger(CreateTrigger createTrigger) {
+		CreateTrigger copy = createTrigger.copy();
+		DependentEntry trigger = new DependentEntry(
+			copy, copy.dropIfExists(), copy.tableSchemaName(), copy.tableName(), null, null);
+
+		return new SchemaModel(tables, indexes, with(triggers, trigger.key, trigger, "trigger"), views);
+	}
+
+	/**
+	 * Returns the model differing from this one in that it contains the specified view.
+	 * @param createView the <code>CREATE VIEW</code> statement
+	 * @return the new schema model
+	 */
+	public SchemaModel withView(CreateView createView) {
+		CreateView copy = createView.copy();
+		DependentEntry view = new DependentEntry(copy, copy.dropIfExists(), null, null, null, null);
+
+		return new SchemaModel(tables, indexes, triggers, with(views, view.key, view, "view"));
+	}
+
+	/**
+	 * Produces the migration transforming the schema represented by this model into the target one.
+	 * @param target the model of the target schema
+	 * @return the migration consisting of the steps in the following order: dropping the removed and
+	 * changed views, triggers and indexes, dropping the removed tables, creating the new tables, altering
+	 * or rebuilding the changed tables, creating the new and changed indexes, triggers and views
+	 */
+	public SchemaMigration migrationTo(SchemaModel target) {
+		List<SchemaMigration.Step> tableSteps = new ArrayList<>();
+		Set<String> rebuiltTables = new HashSet<>();
+		Map<String, Map<String, String>> columnRenames = new HashMap<>();
+		boolean restructured = false;
+		for (Map.Entry<String, TableEntry> entry : target.tables.entrySet()) {
+			TableEntry targetTable = entry.getValue();
+			TableEntry sourceTable = tables.get(entry.getKey());
+			if (sourceTable == null) {
+				tableSteps.add(step(MigrationCost.METADATA, null, targetTable.definition));
+			} else if (!sourceTable.text.equals(targetTable.text)) {
+				Map<String, String> renames = columnRenames(sourceTable, targetTable);
+				List<SchemaMigration.Step> alteration = alteration(sourceTable, targetTable, renames);
+				if (alteration == null) {
+					tableSteps.add(rebuild(sourceTable, targetTable, renames));
+					rebuiltTables.add(targetTable.key);
+					restructured = true;
+				} else {
+					tableSteps.addAll(alteration);
+					columnRenames.put(targetTable.key, renames);
+					restructured |= !renames.isEmpty();
+					for (SchemaMigration.Step step : alteration) {
+						restructured |= step.cost() == MigrationCost.TABLE_REWRITE;
+					}
+				}
+			}
+		}
+
+		List<SchemaMigration.Step> steps = new ArrayList<>();
+		for (Map.Entry<String, DependentEntry> entry : views.entrySet()) {
+			if (restructured || !isRetained(entry.getValue(), target.views.get(entry.getKey()), null)) {
+				steps.add(step(MigrationCost.METADATA, null, entry.getValue().drop));
+			}
+		}
+		Set<String> droppedTables = new HashSet<>();
+		for (TableEntry table : tables.values()) {
+			if (!target.tables.containsKey(table.key)) {
+				droppedTables.add(table.key);
+			}
+		}
+		for (Map.Entry<String, DependentEntry> entry : triggers.entrySet()) {
+			DependentEntry trigger = entry.getValue();
+			if (!droppedTables.contains(trigger.tableKey) && !rebuiltTables.contains(trigger.tableKey)
+				&& !isRetained(trigger, target.triggers.get(entry.getKey()), columnRenames.get(trigger.tableKey))) {
+
+				steps.add(step(MigrationCost.METADATA, null, trigger.drop));
+			}
+		}
+		for (Map.Entry<String, DependentEntry> entry : indexes.entrySet()) {
+			DependentEntry index = entry.getValue();
+			if (!droppedTables.contains(index.tableKey) && !rebuiltTables.contains(index.tableKey)
+				&& !isRetained(index, target.indexes.get(entry.getKey()), columnRenames.get(index.tableKey))) {
+
+				steps.add(step(MigrationCost.TABLE_SCAN, index.tableName, index.drop));
+			}
+		}
+		for (TableEntry table : tables.values()) {
+			if (!target.tables.containsKey(table.key)) {
+				steps.add(step(MigrationCost.TABLE_SCAN, table.tableName,
+					SqlStatements.dropTable(table.schemaName, table.tableName)));
+			}
+		}
+
+		steps.addAll(tableSteps);
+
+		for (Map.Entry<String, DependentEntry> entry : target.indexes.entrySet()) {
+			DependentEntry index = entry.getValue();
+			if (rebuiltTables.contains(index.tableKey)
+				|| !isRetained(indexes.get(entry.getKey()), index, columnRenames.get(index.tableKey))) {
+
+				steps.add(step(MigrationCost.TABLE_SCAN, index.tableName, index.definition));
+			}
+		}
+		for (Map.Entry<String, DependentEntry> entry : target.triggers.entrySet()) {
+			DependentEntry trigger = entry.getValue();
+			if (rebuiltTables.contains(trigger.tableKey)
+				|| !isRetained(triggers.get(entry.getKey()), trigger, columnRenames.get(trigger.tableKey))) {
+
+				steps.add(step(MigrationCost.METADATA, null, trigger.definition));
+			}
+		}
+		for (Map.Entry<String, DependentEntry> entry : target.views.entrySet()) {
+			if (restructured || !isRetained(views.get(entry.getKey()), entry.getValue(), null)) {
+				steps.add(step(MigrationCost.METADATA, null, entry.getValue().definition));
+			}
+		}
+
+		return new SchemaMigration(steps);
+	}
+
+	private SchemaModel withIndex(DependentEntry index) {
+		return new SchemaModel(tables, with(indexes, index.key, index, "index"), triggers, views);
+	}
+
+	private static <T> Map<String, T> with(Map<String, T> entries, String key, T entry, String kind) {
+		if (entries.containsKey(key)) {
+			throw new IllegalArgumentException(String.format(
+				"The schema model already contains a %s having the same name.", kind));
+		}
+
+		Map<String, T> result = new LinkedHashMap<>(entries);
+		result.put(key, entry);
+
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Detects the renamed columns: the columns of the same table definitions at the same position
+	 * having the same definitions but the names not used by the other definition.
+	 * @return the map from the normalized old column names to the new column names
+	 */
+	private static Map<String, String> columnRenames(TableEntry source, TableEntry target) {
+		if (source.columns.size() != target.columns.size()) {
+			return Collections.emptyMap();
+		}
+
+		Set<String> sourceNames = new HashSet<>();
+		Set<String> targetNames = new HashSet<>();
+		for (int i = 0; i < source.columns.size(); i++) {
+			sourceNames.add(normalize(source.columns.get(i).name()));
+			targetNames.add(normalize(target.columns.get(i).name()));
+		}
+
+		Map<String, String> result = new LinkedHashMap<>();
+		for (int i = 0; i < source.columns.size(); i++) {
+			CreateTable.ColumnDefinition sourceColumn = source.columns.get(i);
+			CreateTable.ColumnDefinition targetColumn = target.columns.get(i);
+			if (!targetNames.contains(normalize(sourceColumn.name()))
+				&& !sourceNames.contains(normalize(targetColumn.name()))
+				&& sourceColumn.definition().equals(targetColumn.definition())) {
+
+				result.put(normalize(sourceColumn.name()), targetColumn.name());
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Produces the steps altering the source table in place so that it matches the target definition.
+	 * @return the alteration steps or {@literal null} if the table has to be rebuilt
+	 */
+	private static List<SchemaMigration.Step> alteration(
+		TableEntry source, TableEntry target, Map<String, String> renames) {
+
+		if (!source.header.equals(target.header) || !source.options.equals(target.options)
+			|| !matches(source.constraints, target.constraints, renames)) {
+
+			return null;
+		}
+
+		Set<String> targetNames = new HashSet<>();
+		for (CreateTable.ColumnDefinition column : target.columns) {
+			targetNames.add(normalize(column.name()));
+		}
+		List<CreateTable.ColumnDefinition> dropped = new ArrayList<>();
+		int kept = 0;
+		for (CreateTable.ColumnDefinition column : source.columns) {
+			String name = renames.getOrDefault(normalize(column.name()), column.name());
+			if (!targetNames.contains(normalize(name))) {
+				dropped.add(column);
+			} else if (!normalize(name).equals(normalize(target.columns.get(kept).name()))
+				|| !column.definition().equals(target.columns.get(kept).definition())
+				|| refersTo(column.references(), renames)) {
+
+				return null;
+			} else {
+				kept++;
+			}
+		}
+
+		for (CreateTable.ColumnDefinition column : dropped) {
+			if (!column.isDroppable() || isReferenced(target, column.name())) {
+				return null;
+			}
+		}
+		List<CreateTable.ColumnDefinition> added = target.columns.subList(kept, target.columns.size());
+		for (CreateTable.ColumnDefinition column : added) {
+			if (!column.isAddable()) {
+				return null;
+			}
+		}
+
+		AlterTable.Stub alterTable = SqlStatements.alterTable(target.schemaName, target.tableName);
+		List<SchemaMigration.Step> result = new ArrayList<>();
+		for (CreateTable.ColumnDefinition column : source.columns) {
+			String newName = renames.get(normalize(column.name()));
+			if (newName != null) {
+				result.add(step(MigrationCost.METADATA, null, alterTable.renameColumn(column.name(), newName)));
+			}
+		}
+		for (CreateTable.ColumnDefinition column : dropped) {
+			result.add(step(MigrationCost.TABLE_REWRITE, target.tableName, alterTable.dropColumn(column.name())));
+		}
+		for (CreateTable.ColumnDefinition column : added) {
+			result.add(column.isVerifiedOnAddition()
+				? step(MigrationCost.TABLE_SCAN, target.tableName, alterTable.addColumn(column))
+				: step(MigrationCost.METADATA, null, alterTable.addColumn(column)));
+		}
+
+		return result;
+	}
+
+	private static SchemaMigration.Step rebuild(TableEntry source, TableEntry target, Map<String, String> renames) {
+		TableRebuild rebuild = TableRebuild.of(
+			source.definition, target.definition, TEMPORARY_TABLE_PREFIX + target.tableName);
+		Set<String> storedColumns = new HashSet<>();
+		for (String column : CreateTable.storedColumnNames(CreateTable.definitionOf(target.definition))) {
+			storedColumns.add(normalize(column));
+		}
+		for (CreateTable.ColumnDefinition column : source.columns) {
+			String newName = renames.get(normalize(column.name()));
+			if (newName != null && storedColumns.contains(normalize(newName))) {
+				rebuild = rebuild.mapColumn(newName, SqlExpressions.column(column.name()));
+			}
+		}
+
+		return new SchemaMigration.Step(MigrationCost.TABLE_REWRITE, target.tableName, rebuild.statements());
+	}
+
+	/**
+	 * Tells whether the object of the source schema may be retained as the object of the target schema.
+	 */
+	private static boolean isRetained(DependentEntry source, DependentEntry target, Map<String, String> renames) {
+		if (source == null || target == null) {
+			return false;
+		} else if (renames == null || renames.isEmpty()) {
+			return source.text.equals(target.text);
+		} else if (source.index == null || target.index == null) {
+			// SQLite rewrites the triggers referring to a renamed column, so they are recreated instead
+			return false;
+		}
+
+		List<SqlExpression> sourceColumns = source.index.indexedColumns();
+		List<SqlExpression> targetColumns = target.index.indexedColumns();
+		if (!source.index.header().equals(target.index.header()) || sourceColumns.size() != targetColumns.size()
+			|| !source.index.orders().equals(target.index.orders())
+			|| (source.indexCondition == null) != (target.indexCondition == null)) {
+
+			return false;
+		}
+		for (int i = 0; i < sourceColumns.size(); i++) {
+			if (!matches(sourceColumns.get(i), targetColumns.get(i), renames)) {
+				return false;
+			}
+		}
+
+		return source.indexCondition == null || matches(source.indexCondition, target.indexCondition, renames);
+	}
+
+	/**
+	 * Tells whether the table constraints of the source table are the ones of the target table
+	 * given the renamed columns.
+	 */
+	private static boolean matches(List<CreateTable.TableConstraint> source,
+		List<CreateTable.TableConstraint> target, Map<String, String> renames) {
+
+		if (source.size() != target.size()) {
+			return false;
+		}
+		for (int i = 0; i < source.size(); i++) {
+			CreateTable.TableConstraint sourceConstraint = source.get(i);
+			CreateTable.TableConstraint targetConstraint = target.get(i);
+			if (!sourceConstraint.shape().equals(targetConstraint.shape())
+				|| refersTo(sourceConstraint.references(), renames)) {
+
+				return false;
+			}
+			for (int j = 0; j < sourceConstraint.columns().size(); j++) {
+				if (!renamed(sourceConstraint.columns().get(j), renames)
+					.equals(normalize(targetConstraint.columns().get(j)))) {
+
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Tells whether the expression of the source schema is the one of the target schema given
+	 * the renamed columns: an unqualified column is matched by its new name, and any other expression
+	 * must be the same and must not use the renamed columns.
+	 */
+	private static boolean matches(SqlExpression source, SqlExpression target, Map<String, String> renames) {
+		String sourceText = render(source);
+		String targetText = render(target);
+		if (source instanceof ColumnExpression && target instanceof ColumnExpression) {
+			String sourceName = ((ColumnExpression)source).columnName().toString();
+			String targetName = ((ColumnExpression)target).columnName().toString();
+			if (sourceText.equals(quote(sourceName)) && targetText.equals(quote(targetName))) {
+				return renamed(sourceName, renames).equals(normalize(targetName));
+			}
+		}
+
+		return sourceText.equals(targetText) && !refersTo(TableReferences.columns(source), renames);
+	}
+
+	/**
+	 * Tells whether the definition of the table refers to the specified column
+	 * other than in the definition of the column itself.
+	 */
+	private static boolean isReferenced(TableEntry table, String columnName) {
+		Map<String, String> column = Collections.singletonMap(normalize(columnName), columnName);
+		for (CreateTable.TableConstraint constraint : table.constraints) {
+			if (refersTo(constraint.columns(), column) || refersTo(constraint.references(), column)) {
+				return true;
+			}
+		}
+		for (CreateTable.ColumnDefinition definition : table.columns) {
+			if (refersTo(definition.references(), column)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean refersTo(Collection<String> columnNames, Map<String, String> renames) {
+		for (String columnName : columnNames) {
+			if (renames.containsKey(normalize(columnName))) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static String renamed(String columnName, Map<String, String> renames) {
+		return normalize(renames.getOrDefault(normalize(columnName), columnName));
+	}
+
+	private static SchemaMigration.Step step(MigrationCost cost, String tableName, SqlStatement statement) {
+		return new SchemaMigration.Step(
+			cost, tableName, Collections.unmodifiableList(Arrays.asList(statement)));
+	}
+
+	private static String quote(String name) {
+		StringBuilder result = new StringBuilder();
+		SqliteUtilities.appendQuotedName(result, name);
+
+		return result.toString();
+	}
+
+	private static String render(SqlExpression expression) {
+		StringBuilder result = new StringBuilder();
+		expression.appendTo(result);
+
+		return result.toString();
+	}
+
+	private static String normalize(CharSequence name) {
+		return name.toString().toUpperCase(Locale.ROOT);
+	}
+
+	private static String tableKey(CharSequence schemaName, CharSequence tableName) {
+		return normalize(SqlStatements.dropTable(schemaName, tableName).build());
+	}
+
+	/**
+	 * Represents a table of the schema model along with the parts of its definition.
+	 */
+	private static final class TableEntry {
+
+		private final ExplicableStatement definition;
+
+		private final String key;
+
+		private final String schemaName; // may be null
+
+		private final String tableName;
+
+		private final String text;
+
+		private final String header;
+
+		private final List<CreateTable.ColumnDefinition> columns;
+
+		private final List<CreateTable.TableConstraint> constraints;
+
+		private final String options;
+
+		TableEntry(ExplicableStatement definition) {
+			CreateTable.ConstraintList columnDefinitions = CreateTable.definitionOf(definition);
+			CreateTable.Stub stub = CreateTable.stubOf(columnDefinitions);
+			StringBuilder headerText = new StringBuilder();
+			stub.appendTo(headerText);
+
+			this.definition = definition;
+			this.schemaName = stub.schemaName() == null ? null : stub.schemaName().toString();
+			this.tableName = stub.tableName().toString();
+			this.key = tableKey(schemaName, tableName);
+			this.text = definition.build();
+			this.header = headerText.toString();
+			this.columns = CreateTable.columnDefinitions(columnDefinitions);
+			this.constraints = CreateTable.tableConstraints(columnDefinitions);
+			this.options = text.substring(columnDefinitions.build().length());
+		}
+	}
+
+	/**
+	 * Represents an index, a trigger or a view of the schema model.
+	 */
+	private static final class DependentEntry {
+
+		private final SqlStatement definition;
+
+		private final SqlStatement drop;
+
+		private final String key;
+
+		private final String tableName; // null for views
+
+		private final String tableKey; // the key of the table in the schema of the object; null for views
+
+		private final String text;
+
+		private final CreateIndex.OnColumns index; // null unless this is an index
+
+		private final SqlExpression indexCondition; // null unless this is a partial index
+
+		DependentEntry(SqlStatement definition, SqlStatement drop, CharSequence schemaName, CharSequence tableName,
+			CreateIndex.OnColumns index, SqlExpression indexCondition) {
+
+			this.definition = definition;
+			this.drop = drop;
+			this.key = normalize(drop.build());
+			this.tableName = tableName == null ? null : tableName.toString();
+			this.tableKey = tableName == null ? null : tableKey(schemaName, tableName);
+			this.text = definition.build();
+			this.index = index;
+			this.indexCondition = indexCondition;
+		}
+	}
+}
@@ -1,8 +1,10 @@
 package dev.ornamental.sqlite.statement;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * This class has no functionality of its own. It is destined for grouping the classes pertaining
@@ -121,7 +123,7 @@ public final class Select {
 			if (select.hasCte()) {
 				throw new IllegalArgumentException("The argument must not have a common table expression.");
 			}
-			return new CompoundSet(this, select, CompoundOperator.UNION);
+			return new CompoundSet(flatten(this), select, CompoundOperator.UNION);
 		}
 
 		/**
@@ -144,7 +146,7 @@ public final class Select {
 			if (select.hasCte()) {
 				throw new IllegalArgumentException("The argument must not have a common table expression.");
 			}
-			return new CompoundSet(this, select, CompoundOperator.UNION_ALL);
+			return new CompoundSet(flatten(this), select, CompoundOperator.UNION_ALL);
 		}
 
 		/**
@@ -167,7 +169,7 @@ public final class Select {
 			if (select.hasCte()) {
 				throw new IllegalArgumentException("The argument must not have a common table expression.");
 			}
-			return new CompoundSet(this, select, CompoundOperator.INTERSECT);
+			return new CompoundSet(flatten(this), select, CompoundOperator.INTERSECT);
 		}
 
 		/**
@@ -190,7 +192,7 @@ public final class Select {
 			if (select.hasCte()) {
 				throw new IllegalArgumentException("The argument must not have a common table expression.");
 			}
-			return new CompoundSet(this, select, CompoundOperator.EXCEPT);
+			return new CompoundSet(flatten(this), select, CompoundOperator.EXCEPT);
 		}
 
 		/**
@@ -389,6 +391,34 @@ public final class Select {
 			}
 			last.appendTo(receptacle);
 		}
+
+		boolean isSimple() {
+			return previous == null && cte == null;
+		}
+
+		NoSource withoutPrevious() {
+			return new NoSource(distinct, columns);
+		}
+
+		boolean isDistinct() {
+			return distinct;
+		}
+
+		Iterable<? extends ResultElement> columns() {
+			return columns;
+		}
+
+		NotSorted previous() {
+			return previous;
+		}
+
+		CompoundOperator operator() {
+			return operator;
+		}
+
+		CommonTableExpression cte() {
+			return cte;
+		}
 	}
 
 	/**
@@ -427,30 +457,45 @@ public final class Select {
 			receptacle.append(" FROM ");
 			from.appendTo(receptacle);
 		}
+
+		NoSource previous() {
+			return previous;
+		}
+
+		TableExpression from() {
+			return from;
+		}
 	}
 
 	/**
-	 * Represents two <code>SELECT</code> statements joint with a compound operator:
+	 * Represents two or more <code>SELECT</code> statements joint with compound operators:
 	 * <code>UNION</code>, <code>UNION ALL</code>, <code>INTERSECT</code>, or <code>EXCEPT</code>.<br>
 	 * Note that SQLite has no compound operator precedence nor there is a feature of reordering
 	 * the composition sequence using parentheses, so all the compound operators are always evaluated
 	 * from left to right.<br>
+	 * Each compound operator applied to the statement adds a node to the chain; the {@link #copy()} of the
+	 * statement keeps all the operands of the chain in a single node, which makes it more compact
+	 * for long-lived statements with many operands.<br>
 	 * This is a complete SQL statement and expression.
 	 */
 	public static final class CompoundSet implements NotSorted {
 
 		private final NotSorted previous;
 
-		private final NotSorted current;
+		private final NotSorted[] operands;
 
-		private final CompoundOperator operator;
+		private final CompoundOperator[] operators;
 
 		private final boolean hasCte;
 
 		CompoundSet(NotSorted previous, NotSorted current, CompoundOperator operator) {
+			this(previous, new NotSorted[] { current }, new CompoundOperator[] { operator });
+		}
+
+		private CompoundSet(NotSorted previous, NotSorted[] operands, CompoundOperator[] operators) {
 			this.previous = previous;
-			this.current = current;
-			this.operator = operator;
+			this.operands = operands;
+			this.operators = operators;
 			this.hasCte = previous.hasCte();
 		}
 
@@ -461,18 +506,62 @@ public final class Select {
 
 		@Override
 		public void build(StringBuilder receptacle) {
-			previous.build(receptacle);
-			receptacle.append(' ').append(operator.toString()).append(' ');
-			current.build(receptacle);
+			List<CompoundSet> chain = chain();
+			chain.get(chain.size() - 1).previous.build(receptacle);
+			for (int i = chain.size() - 1; i >= 0; i--) {
+				CompoundSet current = chain.get(i);
+				for (int j = 0; j < current.operands.length; j++) {
+					receptacle.append(' ').append(current.operators[j].toString()).append(' ');
+					current.operands[j].build(receptacle);
+				}
+			}
 		}
 
 		@Override
 		public CompoundSet copy() throws IllegalStateException {
-			NotSorted previousCopy = previous.copy();
-			NotSorted currentCopy = current.copy();
+			List<CompoundSet> chain = chain();
+			int operandCount = 0;
+			for (CompoundSet current : chain) {
+				operandCount += current.operands.length;
+			}
 
-			return previousCopy == previous && currentCopy == current
-				? this : new CompoundSet(previous.copy(), current.copy(), operator);
+			NotSorted[] operandsCopy = new NotSorted[operandCount];
+			CompoundOperator[] operatorsCopy = new CompoundOperator[operandCount];
+			boolean changed = chain.size() > 1;
+			int k = 0;
+			for (int i = chain.size() - 1; i >= 0; i--) {
+				CompoundSet current = chain.get(i);
+				for (int j = 0; j < current.operands.length; j++) {
+					operandsCopy[k] = current.operands[j].copy();
+					operatorsCopy[k] = current.operators[j];
+					changed |= operandsCopy[k] != current.operands[j];
+					k++;
+				}
+			}
+			NotSorted first = chain.get(chain.size() - 1).previous;
+			NotSorted firstCopy = first.copy();
+
+			return !changed && firstCopy == first
+				? this : new CompoundSet(firstCopy, operandsCopy, operatorsCopy);
+		}
+
+		private List<CompoundSet> chain() {
+			List<CompoundSet> result = new ArrayList<>();
+			NotSorted current = this;
+			while (current instanceof CompoundSet) {
+				result.add((CompoundSet)current);
+				current = ((CompoundSet)current).previous;
+			}
+
+			return result;
+		}
+
+		NotSorted previous() {
+			return previous;
+		}
+
+		NotSorted[] operands() {
+			return operands;
 		}
 	}
 
@@ -487,7 +576,7 @@ public final class Select {
 		private final CompoundOperator operator;
 
 		CompoundSetBuilder(NotSorted previous, CompoundOperator operator) {
-			this.previous = previous;
+			this.previous = flatten(previous);
 			this.operator = operator;
 		}
 
@@ -601,6 +690,14 @@ public final class Select {
 			receptacle.append(" WHERE ");
 			condition.appendTo(receptacle);
 		}
+
+		NotFiltered previous() {
+			return previous;
+		}
+
+		SqlExpression condition() {
+			return condition;
+		}
 	}
 
 	/**
@@ -662,6 +759,14 @@ public final class Select {
 				last.appendTo(receptacle);
 			}
 		}
+
+		NotGrouped previous() {
+			return previous;
+		}
+
+		Iterable<? extends SqlExpression> groupings() {
+			return groupings;
+		}
 	}
 
 	/**
@@ -702,6 +807,14 @@ public final class Select {
 			receptacle.append(" HAVING ");
 			condition.appendTo(receptacle);
 		}
+
+		GroupedNotFiltered previous() {
+			return previous;
+		}
+
+		SqlExpression condition() {
+			return condition;
+		}
 	}
 
 	/**
@@ -711,24 +824,24 @@ public final class Select {
 	 */
 	public static final class Sorted implements NotLimited, Sortable {
 
-		private final NotSorted previousNotSorted;
+		private final NotSorted previousNotSorted; // null if previousSorted is not null
 
 		private final Sorted previousSorted;
 
-		private final Sort sort;
+		private final Sort[] sorts;
 
 		Sorted(NotSorted previousNotSorted, Sort sort) {
-			this(previousNotSorted, null, sort);
+			this(previousNotSorted, null, new Sort[] { sort });
 		}
 
 		Sorted(Sorted previousSorted, Sort sort) {
-			this(null, previousSorted, sort);
+			this(null, previousSorted, new Sort[] { sort });
 		}
 
-		private Sorted(NotSorted previousNotSorted, Sorted previousSorted, Sort sort) {
+		private Sorted(NotSorted previousNotSorted, Sorted previousSorted, Sort[] sorts) {
 			this.previousNotSorted = previousNotSorted;
 			this.previousSorted = previousSorted;
-			this.sort = sort;
+			this.sorts = sorts;
 		}
 
 		@Override
@@ -741,29 +854,68 @@ public final class Select {
 			return new Sorted(this, new Sort(sortingKey, order));
 		}
 
+		/**
+		 * {@inheritDoc}<br>
+		 * The copy keeps all the sorting terms of the <code>ORDER BY</code> clause in a single node,
+		 * which makes it more compact for long-lived statements with many sorting terms.
+		 */
 		@Override
 		public Sorted copy() {
-			NotSorted previousNotSortedCopy = previousNotSorted == null ? null : previousNotSorted.copy();
-			Sorted previousSortedCopy = previousSorted == null ? null : previousSorted.copy();
-			Sort sortCopy = sort.copy();
+			List<Sorted> chain = chain();
+			int sortCount = 0;
+			for (Sorted current : chain) {
+				sortCount += current.sorts.length;
+			}
 
-			return
-				previousNotSortedCopy == previousNotSorted
-				&& previousSortedCopy == previousSorted && sortCopy == sort
-					? this : new Sorted(previousNotSortedCopy, previousSortedCopy, sortCopy);
+			Sort[] sortsCopy = new Sort[sortCount];
+			boolean changed = chain.size() > 1;
+			int k = 0;
+			for (int i = chain.size() - 1; i >= 0; i--) {
+				for (Sort sort : chain.get(i).sorts) {
+					sortsCopy[k] = sort.copy();
+					changed |= sortsCopy[k] != sort;
+					k++;
+				}
+			}
+			NotSorted previous = chain.get(chain.size() - 1).previousNotSorted;
+			NotSorted previousCopy = previous.copy();
+
+			return !changed && previousCopy == previous
+				? this : new Sorted(previousCopy, null, sortsCopy);
 		}
 
 		@Override
 		public void build(StringBuilder receptacle) {
-			if (previousNotSorted != null) {
-				previousNotSorted.build(receptacle);
-				receptacle.append(" ORDER BY ");
-			} else {
-				previousSorted.build(receptacle);
-				receptacle.append(", ");
+			List<Sorted> chain = chain();
+			chain.get(chain.size() - 1).previousNotSorted.build(receptacle);
+			receptacle.append(" ORDER BY ");
+			boolean first = true;
+			for (int i = chain.size() - 1; i >= 0; i--) {
+				for (Sort sort : chain.get(i).sorts) {
+					if (!first) {
+						receptacle.append(", ");
+					}
+					sort.appendTo(receptacle);
+					first = false;
+				}
 			}
+		}
+
+		private List<Sorted> chain() {
+			List<Sorted> result = new ArrayList<>();
+			for (Sorted current = this; current != null; current = current.previousSorted) {
+				result.add(current);
+			}
+
+			return result;
+		}
+
+		NotLimited previous() {
+			return previousNotSorted != null ? previousNotSorted : previousSorted;
+		}
 
-			sort.appendTo(receptacle);
+		Sort[] sorts() {
+			return sorts;
 		}
 	}
 
@@ -817,6 +969,14 @@ public final class Select {
 			previous.build(receptacle);
 			limit.appendTo(receptacle);
 		}
+
+		NotLimited previous() {
+			return previous;
+		}
+
+		IntegralValueClause.Limit limit() {
+			return limit;
+		}
 	}
 
 	/**
@@ -849,6 +1009,14 @@ public final class Select {
 			previous.build(receptacle);
 			offset.appendTo(receptacle);
 		}
+
+		LimitedNoOffset previous() {
+			return previous;
+		}
+
+		IntegralValueClause.Offset offset() {
+			return offset;
+		}
 	}
 
 	/**
@@ -906,6 +1074,20 @@ public final class Select {
 
 		@Override
 		public abstract Values copy();
+
+		abstract Values withoutPrevious();
+
+		NotSorted previous() {
+			return previous;
+		}
+
+		CompoundOperator operator() {
+			return operator;
+		}
+
+		CommonTableExpression cte() {
+			return cte;
+		}
 	}
 
 	abstract static class ValueProducer {
@@ -1115,6 +1297,11 @@ public final class Select {
 			}
 		}
 
+		@Override
+		Values withoutPrevious() {
+			return new IntegerColumn(values, isReadonly);
+		}
+
 		@Override
 		public Values deepCopy() {
 			return new IntegerColumn(
@@ -1160,6 +1347,11 @@ public final class Select {
 			}
 		}
 
+		@Override
+		Values withoutPrevious() {
+			return new LongColumn(values, isReadonly);
+		}
+
 		@Override
 		public Values deepCopy() {
 			return new LongColumn(
@@ -1205,6 +1397,11 @@ public final class Select {
 			}
 		}
 
+		@Override
+		Values withoutPrevious() {
+			return new FloatColumn(values, isReadonly);
+		}
+
 		@Override
 		public Values deepCopy() {
 			return new FloatColumn(
@@ -1250,6 +1447,11 @@ public final class Select {
 			}
 		}
 
+		@Override
+		Values withoutPrevious() {
+			return new DoubleColumn(values, isReadonly);
+		}
+
 		@Override
 		public Values deepCopy() {
 			return new DoubleColumn(
@@ -1326,6 +1528,11 @@ public final class Select {
 			super(previous, operator, cte, values);
 		}
 
+		@Override
+		Values withoutPrevious() {
+			return new TextColumn(values);
+		}
+
 		@Override
 		public Values copy() {
 			NotSorted previousCopy = previous == null ? null : previous.copy();
@@ -1364,6 +1571,11 @@ public final class Select {
 			super(previous, operator, cte, values);
 		}
 
+		@Override
+		Values withoutPrevious() {
+			return new NumericColumn(values);
+		}
+
 		@Override
 		public Values copy() {
 			NotSorted previousCopy = previous == null ? null : previous.copy();
@@ -1401,6 +1613,11 @@ public final class Select {
 			super(previous, operator, cte, values);
 		}
 
+		@Override
+		Values withoutPrevious() {
+			return new BlobColumn(values);
+		}
+
 		@Override
 		public Values copy() {
 			NotSorted previousCopy = previous == null ? null : previous.copy();
@@ -1460,6 +1677,11 @@ public final class Select {
 			last.appendTo(receptacle);
 		}
 
+		@Override
+		Values withoutPrevious() {
+			return new Rows(rows);
+		}
+
 		@Override
 		public Values copy() {
 			NotSorted previousCopy = previous == null ? null : previous.copy();
@@ -1469,6 +1691,73 @@ public final class Select {
 			return previousCopy == previous && cteCopy == cte && rowsCopy == rows
 				? this : new Rows(previousCopy, operator, cteCopy, rowsCopy);
 		}
+
+		Iterable<? extends RowExpression> rows() {
+			return rows;
+		}
+	}
+
+	/**
+	 * Moves the compound operand appended by a {@link CompoundSetBuilder} at the start of the clause
+	 * chain of the statement to a {@link CompoundSet} node, so that all the operands preceding
+	 * a compound operator are kept in the iteratively rendered and copied chain of {@link CompoundSet}
+	 * nodes instead of being nested in the clauses of each other.
+	 * @param statement the left operand of a compound operator
+	 * @return the equivalent statement which is either a {@link CompoundSet}
+	 * or has no compound operand at the start of its clause chain
+	 */
+	static NotSorted flatten(NotSorted statement) {
+		List<NotSorted> clauses = new ArrayList<>();
+		NotSorted first = statement;
+		while (true) {
+			if (first instanceof WithSource) {
+				clauses.add(first);
+				first = ((WithSource)first).previous();
+			} else if (first instanceof Filtered) {
+				clauses.add(first);
+				first = ((Filtered)first).previous();
+			} else if (first instanceof GroupedNotFiltered) {
+				clauses.add(first);
+				first = ((GroupedNotFiltered)first).previous();
+			} else if (first instanceof GroupedFiltered) {
+				clauses.add(first);
+				first = ((GroupedFiltered)first).previous();
+			} else {
+				break;
+			}
+		}
+
+		NotSorted previous;
+		CompoundOperator operator;
+		NotSorted result;
+		if (first instanceof NoSource && ((NoSource)first).previous() != null) {
+			previous = ((NoSource)first).previous();
+			operator = ((NoSource)first).operator();
+			result = ((NoSource)first).withoutPrevious();
+		} else if (first instanceof Values && ((Values)first).previous() != null) {
+			previous = ((Values)first).previous();
+			operator = ((Values)first).operator();
+			result = ((Values)first).withoutPrevious();
+		} else {
+			return statement;
+		}
+
+		// the clauses are reapplied to the first node having no compound operand
+		for (int i = clauses.size() - 1; i >= 0; i--) {
+			NotSorted clause = clauses.get(i);
+			if (clause instanceof WithSource) {
+				result = new WithSource((NoSource)result, ((WithSource)clause).from());
+			} else if (clause instanceof Filtered) {
+				result = new Filtered((NotFiltered)result, ((Filtered)clause).condition());
+			} else if (clause instanceof GroupedNotFiltered) {
+				result = new GroupedNotFiltered((NotGrouped)result, ((GroupedNotFiltered)clause).groupings());
+			} else {
+				result = new GroupedFiltered((GroupedNotFiltered)result, ((GroupedFiltered)clause).condition());
+			}
+		}
+
+		// the preceding operands have already been flattened by the builder
+		return new CompoundSet(previous, result, operator);
 	}
 
 	private Select() { }
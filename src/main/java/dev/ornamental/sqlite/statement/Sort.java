@@ -27,4 +27,8 @@ public final class Sort implements Variable<Sort> {
 
 		return expressionCopy == expression ? this : new Sort(expressionCopy, order);
 	}
+
+	SqlExpression expression() {
+		return expression;
+	}
 }
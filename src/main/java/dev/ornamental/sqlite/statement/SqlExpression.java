@@ -37,7 +37,7 @@ public interface SqlExpression extends Variable<SqlExpression>, ResultElement {
 	 * @return the concatenation expression
 	 */
 	default SqlExpression concat(SqlExpression otherExpression) {
-		return new BinaryOperator(this, otherExpression, Operator.CONCAT);
+		return NaryOperator.of(Operator.CONCAT, this, otherExpression);
 	}
 
 	/**
@@ -235,7 +235,7 @@ public interface SqlExpression extends Variable<SqlExpression>, ResultElement {
 	 * @return the conjunction expression
 	 */
 	default SqlExpression and(SqlExpression otherExpression) {
-		return new BinaryOperator(this, otherExpression, Operator.AND);
+		return NaryOperator.of(Operator.AND, this, otherExpression);
 	}
 
 	/**
@@ -246,7 +246,7 @@ public interface SqlExpression extends Variable<SqlExpression>, ResultElement {
 	 * @return the disjunction expression
 	 */
 	default SqlExpression or(SqlExpression otherExpression) {
-		return new BinaryOperator(this, otherExpression, Operator.OR);
+		return NaryOperator.of(Operator.OR, this, otherExpression);
 	}
 
 	/**
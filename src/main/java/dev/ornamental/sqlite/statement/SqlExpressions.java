@@ -48,6 +48,84 @@ public final class SqlExpressions {
 		return new PrefixUnaryOperator(expression, Operator.NOT);
 	}
 
+	/**
+	 * Creates a logical conjunction expression having the form<br>
+	 * <code><strong><em>term<sub>0</sub></em> AND <em>term<sub>1</sub></em>
+	 * {AND <em>term<sub>i</sub></em>}</strong></code>
+	 * (see {@link NaryOperator}).
+	 * @param terms the operands of the expression
+	 * @return the conjunction expression (or the only operand if there is a single one)
+	 * @throws IllegalArgumentException if no operands are specified
+	 */
+	public static SqlExpression and(SqlExpression... terms) throws IllegalArgumentException {
+		return and(Arrays.asList(terms));
+	}
+
+	/**
+	 * Creates a logical conjunction expression having the form<br>
+	 * <code><strong><em>term<sub>0</sub></em> AND <em>term<sub>1</sub></em>
+	 * {AND <em>term<sub>i</sub></em>}</strong></code>
+	 * (see {@link NaryOperator}).
+	 * @param terms the operands of the expression
+	 * @return the conjunction expression (or the only operand if there is a single one)
+	 * @throws IllegalArgumentException if no operands are specified
+	 */
+	public static SqlExpression and(Iterable<? extends SqlExpression> terms) throws IllegalArgumentException {
+		return NaryOperator.of(Operator.AND, terms);
+	}
+
+	/**
+	 * Creates a logical disjunction expression having the form<br>
+	 * <code><strong><em>term<sub>0</sub></em> OR <em>term<sub>1</sub></em>
+	 * {OR <em>term<sub>i</sub></em>}</strong></code>
+	 * (see {@link NaryOperator}).
+	 * @param terms the operands of the expression
+	 * @return the disjunction expression (or the only operand if there is a single one)
+	 * @throws IllegalArgumentException if no operands are specified
+	 */
+	public static SqlExpression or(SqlExpression... terms) throws IllegalArgumentException {
+		return or(Arrays.asList(terms));
+	}
+
+	/**
+	 * Creates a logical disjunction expression having the form<br>
+	 * <code><strong><em>term<sub>0</sub></em> OR <em>term<sub>1</sub></em>
+	 * {OR <em>term<sub>i</sub></em>}</strong></code>
+	 * (see {@link NaryOperator}).
+	 * @param terms the operands of the expression
+	 * @return the disjunction expression (or the only operand if there is a single one)
+	 * @throws IllegalArgumentException if no operands are specified
+	 */
+	public static SqlExpression or(Iterable<? extends SqlExpression> terms) throws IllegalArgumentException {
+		return NaryOperator.of(Operator.OR, terms);
+	}
+
+	/**
+	 * Creates a concatenation expression having the form<br>
+	 * <code><strong><em>term<sub>0</sub></em> || <em>term<sub>1</sub></em>
+	 * {|| <em>term<sub>i</sub></em>}</strong></code>
+	 * (see {@link NaryOperator}).
+	 * @param terms the operands of the expression
+	 * @return the concatenation expression (or the only operand if there is a single one)
+	 * @throws IllegalArgumentException if no operands are specified
+	 */
+	public static SqlExpression concat(SqlExpression... terms) throws IllegalArgumentException {
+		return concat(Arrays.asList(terms));
+	}
+
+	/**
+	 * Creates a concatenation expression having the form<br>
+	 * <code><strong><em>term<sub>0</sub></em> || <em>term<sub>1</sub></em>
+	 * {|| <em>term<sub>i</sub></em>}</strong></code>
+	 * (see {@link NaryOperator}).
+	 * @param terms the operands of the expression
+	 * @return the concatenation expression (or the only operand if there is a single one)
+	 * @throws IllegalArgumentException if no operands are specified
+	 */
+	public static SqlExpression concat(Iterable<? extends SqlExpression> terms) throws IllegalArgumentException {
+		return NaryOperator.of(Operator.CONCAT, terms);
+	}
+
 	/**
 	 * Returns the unnamed binding parameter expression (<code><strong>?</strong></code>).
 	 * @return the unnamed binding parameter expression
@@ -0,0 +1,34 @@
+package dev.ornamental.sqlite.statement;
+
+/**
+ * Defines the kinds of database access required by the statements. In the WAL mode, any number
+ * of connections may read concurrently while writes are serialized, so the statements requiring
+ * {@link #READ} access may be routed to any of several reader connections
+ * (see {@link PerformanceProfile#readerStatements()}), while the rest have to be executed
+ * on the single writer connection.
+ */
+public enum StatementAccess {
+
+	/**
+	 * The statement only reads the database: a <code>SELECT</code> or <code>VALUES</code> statement,
+	 * or an <code>EXPLAIN</code> statement (which never executes the explained statement).
+	 */
+	READ,
+
+	/**
+	 * The statement may modify the database or the state of the connection.
+	 * Note that <code>PRAGMA</code>s belong to this kind even without an argument, as some of them
+	 * (e.g. <code>optimize</code>, <code>incremental_vacuum</code>) make changes to the database.
+	 */
+	WRITE;
+
+	/**
+	 * Determines the kind of access required by the specified statement.
+	 * @param statement the statement to classify
+	 * @return {@link #READ} if the statement is known to only read the database;
+	 * {@link #WRITE} otherwise
+	 */
+	public static StatementAccess of(SqlStatement statement) {
+		return statement instanceof SelectStatement || statement instanceof Explain ? READ : WRITE;
+	}
+}
@@ -0,0 +1,525 @@
+package dev.ornamental.sqlite.statement;
+
+import static dev.ornamental.sqlite.statement.Literal.value;
+import static dev.ornamental.sqlite.statement.SqlExpressions.column;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Produces the statements materializing an aggregate query in a summary table maintained incrementally
+ * by triggers, so that reading the aggregates becomes a lookup in the summary table instead of
+ * a scan of the source table. The aggregate query must have the form<br>
+ * <code><strong>SELECT <em>resultColumn<sub>0</sub></em>{, <em>resultColumn<sub>i</sub></em>}
+ * FROM [<em>schemaName</em>.]<em>tableName</em> [WHERE <em>condition</em>]
+ * [GROUP BY <em>key<sub>0</sub></em>{, <em>key<sub>j</sub></em>}]</strong></code>,<br>
+ * where each result column is either one of the grouping keys or an invocation of one of the aggregates
+ * which can be maintained incrementally: <code>COUNT(*)</code>, <code>COUNT(<em>x</em>)</code>,
+ * <code>SUM(<em>x</em>)</code>, <code>TOTAL(<em>x</em>)</code>, or <code>AVG(<em>x</em>)</code>
+ * (without <code>DISTINCT</code>, <code>FILTER</code> or <code>ORDER BY</code>); the result columns
+ * other than plain column references must be named. The other aggregates (e.g. <code>MIN</code>,
+ * <code>MAX</code>, <code>GROUP_CONCAT</code>) cannot be maintained when rows are deleted, thus are rejected.
+ * <br>
+ * The summary table is created in the schema of the source table; it has a column for each grouping key,
+ * the <code>rowCount</code> column, and one or two columns for each aggregate (the sum and/or the count
+ * of the non-null values). The triggers locate the changed source row by its rowid (so the source table
+ * must not be a <code>WITHOUT ROWID</code> table) and evaluate the original key, argument and filter
+ * expressions on it, subtracting the old row from its group before an update or a deletion
+ * and adding the new row to its group after an insertion or an update; the groups whose row count
+ * drops to zero are deleted. The aggregates are read using {@link #query()}.<br>
+ * The rows deleted by the <code>REPLACE</code> conflict resolution (<code>REPLACE</code>,
+ * <code>INSERT OR REPLACE</code>, <code>UPDATE OR REPLACE</code>) fire the delete triggers only if
+ * the recursive triggers are enabled (see {@link Pragmas#recursiveTriggers(boolean)}); otherwise, they are
+ * not subtracted from their groups and the summary table drifts from the source table. As the setting
+ * is per-connection, it must be enabled on every connection writing to the source table;
+ * {@link #statements()} enables it on the connection setting up the summary table.<br>
+ * The statements returned by {@link #statements()} should be executed in a single transaction,
+ * so that no write to the source table happens between the initial population of the summary table
+ * and the creation of the triggers.<br>
+ * The instances of this class are immutable provided the definition of the aggregate is immutable.
+ */
+public final class SummaryTable {
+
+	private enum Kind {
+
+		COUNT_ALL,
+
+		COUNT,
+
+		SUM,
+
+		TOTAL,
+
+		AVG
+	}
+
+	private static final class Measure {
+
+		private final Kind kind;
+
+		private final SqlExpression argument; // null for COUNT_ALL
+
+		private final String name;
+
+		Measure(Kind kind, SqlExpression argument, String name) {
+			this.kind = kind;
+			this.argument = argument;
+			this.name = name;
+		}
+
+		String sumColumn() {
+			return kind == Kind.AVG ? name + "_sum" : name;
+		}
+
+		String countColumn() {
+			return kind == Kind.COUNT ? name : name + "_count";
+		}
+
+		boolean hasSum() {
+			return kind == Kind.SUM || kind == Kind.TOTAL || kind == Kind.AVG;
+		}
+
+		boolean hasCount() {
+			return kind == Kind.COUNT || kind == Kind.SUM || kind == Kind.AVG;
+		}
+
+		SqlExpression sumPopulation() {
+			return kind == Kind.SUM
+				? Functions.coalesce(Functions.sum(argument), value(0)) : Functions.total(argument);
+		}
+
+		SqlExpression sumDelta() {
+			return Functions.coalesce(argument, value(0));
+		}
+
+		SqlExpression countDelta() {
+			return argument.isNotNull();
+		}
+
+		SqlExpression result() {
+			switch (kind) {
+				case COUNT_ALL:
+					return column(ROW_COUNT);
+				case SUM:
+					return SqlExpressions.caseOf()
+						.when(column(countColumn()).gt(value(0))).then(column(sumColumn()));
+				case AVG:
+					return column(sumColumn()).div(Functions.nullIf(column(countColumn()), value(0)));
+				default:
+					return column(kind == Kind.COUNT ? countColumn() : sumColumn());
+			}
+		}
+	}
+
+	private static final String ROW_COUNT = "rowCount";
+
+	private static final String OLD = "OLD";
+
+	private static final String NEW = "NEW";
+
+	private final CharSequence schemaName; // may be null
+
+	private final CharSequence sourceName;
+
+	private final CharSequence summaryName;
+
+	private final SqlExpression condition; // may be null
+
+	private final List<SqlExpression> keys;
+
+	private final List<String> keyNames;
+
+	private final List<Measure> measures;
+
+	private final List<ResultElement> resultColumns;
+
+	private SummaryTable(
+		CharSequence schemaName, CharSequence sourceName, CharSequence summaryName, SqlExpression condition,
+		List<SqlExpression> keys, List<String> keyNames, List<Measure> measures, List<ResultElement> resultColumns) {
+
+		this.schemaName = schemaName;
+		this.sourceName = sourceName;
+		this.summaryName = summaryName;
+		this.condition = condition;
+		this.keys = keys;
+		this.keyNames = keyNames;
+		this.measures = measures;
+		this.resultColumns = resultColumns;
+	}
+
+	/**
+	 * Creates the summary table materializing the specified aggregate query.
+	 * @param summaryTableName the name of the summary table
+	 * @param definition the aggregate query
+	 * @return the summary table
+	 * @throws IllegalArgumentException if the query does not have the supported form
+	 * or uses an aggregate which cannot be maintained incrementally
+	 */
+	public static SummaryTable of(CharSequence summaryTableName, Select.GroupedNotFiltered definition)
+		throws IllegalArgumentException {
+
+		return of(summaryTableName, definition, null);
+	}
+
+	/**
+	 * Creates the summary table materializing the aggregate view; the summary table columns
+	 * corresponding to the view columns have the same names.
+	 * @param summaryTableName the name of the summary table
+	 * @param view the definition of the view whose query is aggregate
+	 * @return the summary table
+	 * @throws IllegalArgumentException if the query of the view does not have the supported form
+	 * or uses an aggregate which cannot be maintained incrementally
+	 */
+	public static SummaryTable of(CharSequence summaryTableName, CreateView view) throws IllegalArgumentException {
+		if (!(view.selectStatement() instanceof Select.GroupedNotFiltered)) {
+			throw new IllegalArgumentException(
+				"The view must be defined by a SELECT statement ending with a GROUP BY clause.");
+		}
+
+		return of(summaryTableName, (Select.GroupedNotFiltered)view.selectStatement(), view.columnNames());
+	}
+
+	/**
+	 * Returns the statement creating the summary table.
+	 * @return the <code>CREATE TABLE</code> statement
+	 */
+	public ExplicableStatement createTable() {
+		CreateTable.ColumnList table = SqlStatements.createTable(schemaName, summaryName);
+		for (String keyName : keyNames) {
+			table = table.addColumn(keyName);
+		}
+		CreateTable.ColumnConstraintList result = table.addColumn(ROW_COUNT).ofType("INTEGER");
+		for (Measure measure : measures) {
+			if (measure.hasSum()) {
+				result = measure.kind == Kind.SUM
+					? result.addColumn(measure.sumColumn()) : result.addColumn(measure.sumColumn()).ofType("REAL");
+			}
+			if (measure.hasCount()) {
+				result = result.addColumn(measure.countColumn()).ofType("INTEGER");
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the statement creating the unique index on the grouping key columns of the summary table,
+	 * which is used to locate the group of a changed row.
+	 * @return the <code>CREATE UNIQUE INDEX</code> statement or {@literal null}
+	 * if the aggregate query has no grouping keys (the summary table has a single row)
+	 */
+	public ExplicableStatement createIndex() {
+		if (keyNames.isEmpty()) {
+			return null;
+		}
+
+		Iterator<String> iterator = keyNames.iterator();
+		CreateIndex.OnColumns result = SqlStatements.createUniqueIndex()
+			.named(schemaName, summaryName + "_key").onTable(summaryName).addColumn(iterator.next());
+		while (iterator.hasNext()) {
+			result = result.addColumn(iterator.next());
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the statement filling the empty summary table with the aggregates of the current
+	 * contents of the source table.
+	 * @return the <code>INSERT</code> statement
+	 */
+	public Insert.FromSelect populate() {
+		List<ResultElement> values = new ArrayList<>(keys);
+		values.add(Functions.countAll());
+		for (Measure measure : measures) {
+			if (measure.hasSum()) {
+				values.add(measure.sumPopulation());
+			}
+			if (measure.hasCount()) {
+				values.add(Functions.count(measure.argument));
+			}
+		}
+
+		Select.WithSource rows = SelectStatements.select(values).from(TableExpressions.table(schemaName, sourceName));
+		Select.NotGrouped source = condition == null ? rows : rows.where(condition);
+
+		return SqlStatements.insertInto(schemaName, summaryName).columns(storedColumns())
+			.from(source.groupBy(keys));
+	}
+
+	/**
+	 * Returns the statements creating the triggers maintaining the summary table.
+	 * @return the <code>CREATE TRIGGER</code> statements
+	 */
+	public List<CreateTrigger> createTriggers() {
+		List<CreateTrigger> result = new ArrayList<>(4);
+		result.add(trigger(SqlStatements.createTrigger(schemaName, summaryName + "_insert")
+			.after().insert().on(sourceName), NEW));
+		result.add(trigger(SqlStatements.createTrigger(schemaName, summaryName + "_update_old")
+			.before().update().on(sourceName), OLD));
+		result.add(trigger(SqlStatements.createTrigger(schemaName, summaryName + "_update_new")
+			.after().update().on(sourceName), NEW));
+		result.add(trigger(SqlStatements.createTrigger(schemaName, summaryName + "_delete")
+			.before().delete().on(sourceName), OLD));
+
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Returns all the statements setting up the summary table in the order of execution:
+	 * enabling the recursive triggers on the connection (required for the rows deleted
+	 * by the <code>REPLACE</code> conflict resolution to be subtracted), the creation of the table
+	 * and its index, its initial population, and the creation of the triggers.
+	 * @return the statements setting up the summary table
+	 */
+	public List<ExplicableStatement> statements() {
+		List<ExplicableStatement> result = new ArrayList<>();
+		result.add(Pragmas.recursiveTriggers(true));
+		result.add(createTable());
+		ExplicableStatement index = createIndex();
+		if (index != null) {
+			result.add(index);
+		}
+		result.add(populate());
+		result.addAll(createTriggers());
+
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Returns the query reading the aggregates from the summary table; it has the same result columns
+	 * as the original aggregate query.
+	 * @return the <code>SELECT</code> statement reading the summary table
+	 */
+	public Select.WithSource query() {
+		return SelectStatements.select(resultColumns).from(TableExpressions.table(schemaName, summaryName));
+	}
+
+	private static SummaryTable of(
+		CharSequence summaryTableName, Select.GroupedNotFiltered definition,
+		Iterable<? extends CharSequence> columnNames) throws IllegalArgumentException {
+
+		Select.NotGrouped grouped = definition.previous();
+		SqlExpression condition = null;
+		if (grouped instanceof Select.Filtered) {
+			condition = ((Select.Filtered)grouped).condition();
+			grouped = ((Select.Filtered)grouped).previous();
+		}
+		if (!(grouped instanceof Select.WithSource)
+			|| !(((Select.WithSource)grouped).from() instanceof UnaliasedTable)) {
+
+			throw new IllegalArgumentException("The aggregate query must read a single unaliased table.");
+		}
+		Select.WithSource withSource = (Select.WithSource)grouped;
+		UnaliasedTable source = (UnaliasedTable)withSource.from();
+		if (!withSource.previous().isSimple() || withSource.previous().isDistinct()) {
+			throw new IllegalArgumentException(
+				"The aggregate query must not be DISTINCT, compound or have common table expressions.");
+		}
+
+		List<SqlExpression> keys = new ArrayList<>();
+		List<String> renderedKeys = new ArrayList<>();
+		for (SqlExpression key : definition.groupings()) {
+			keys.add(key);
+			renderedKeys.add(render(key));
+		}
+		List<String> keyNames = new ArrayList<>(Collections.nCopies(keys.size(), null));
+		List<Measure> measures = new ArrayList<>();
+		List<Object> results = new ArrayList<>(); // the key indexes and the aggregate measures
+		List<String> resultNames = new ArrayList<>();
+		Iterator<? extends CharSequence> names = columnNames == null ? null : columnNames.iterator();
+		for (ResultElement element : withSource.previous().columns()) {
+			SqlExpression expression;
+			CharSequence name = names != null && names.hasNext() ? names.next() : null;
+			if (element instanceof NamedResultColumn) {
+				expression = ((NamedResultColumn)element).expression();
+				name = name != null ? name : ((NamedResultColumn)element).columnAlias();
+			} else if (element instanceof SqlExpression) {
+				expression = (SqlExpression)element;
+				if (name == null && expression instanceof ColumnExpression) {
+					name = ((ColumnExpression)expression).columnName();
+				}
+			} else {
+				throw new IllegalArgumentException("The aggregate query must list its result columns explicitly.");
+			}
+			if (name == null) {
+				throw new IllegalArgumentException("The result column " + render(expression) + " must be named.");
+			}
+
+			int keyIndex = renderedKeys.indexOf(render(expression));
+			if (keyIndex >= 0) {
+				if (keyNames.get(keyIndex) == null) {
+					keyNames.set(keyIndex, name.toString());
+				}
+				results.add(keyIndex);
+			} else {
+				Measure measure = measure(expression, name.toString());
+				measures.add(measure);
+				results.add(measure);
+			}
+			resultNames.add(name.toString());
+		}
+		for (int i = 0; i < keys.size(); i++) {
+			if (keyNames.get(i) == null) {
+				keyNames.set(i, keys.get(i) instanceof ColumnExpression
+					? ((ColumnExpression)keys.get(i)).columnName().toString() : "key" + i);
+			}
+		}
+
+		List<ResultElement> resultColumns = new ArrayList<>(results.size());
+		for (int i = 0; i < results.size(); i++) {
+			String name = resultNames.get(i);
+			SqlExpression result = results.get(i) instanceof Measure
+				? ((Measure)results.get(i)).result() : column(keyNames.get((Integer)results.get(i)));
+			resultColumns.add(result instanceof ColumnExpression
+				&& name.equals(((ColumnExpression)result).columnName().toString()) ? result : result.as(name));
+		}
+
+		return new SummaryTable(
+			source.getSchemaName(), source.getTableName(), summaryTableName, condition,
+			Collections.unmodifiableList(keys), Collections.unmodifiableList(keyNames),
+			Collections.unmodifiableList(measures), Collections.unmodifiableList(resultColumns));
+	}
+
+	private static Measure measure(SqlExpression expression, String name) throws IllegalArgumentException {
+		if (expression instanceof CountAllAggregate) {
+			return new Measure(Kind.COUNT_ALL, null, name);
+		}
+
+		if (expression instanceof FunctionExpression && !((FunctionExpression)expression).isDistinct()) {
+			FunctionExpression function = (FunctionExpression)expression;
+			Iterator<? extends SqlExpression> args = function.args().iterator();
+			SqlExpression argument = args.hasNext() ? args.next() : null;
+			if (argument != null && !args.hasNext()) {
+				switch (function.functionName().toString().toUpperCase(Locale.ROOT)) {
+					case "COUNT":
+						return new Measure(Kind.COUNT, argument, name);
+					case "SUM":
+						return new Measure(Kind.SUM, argument, name);
+					case "TOTAL":
+						return new Measure(Kind.TOTAL, argument, name);
+					case "AVG":
+						return new Measure(Kind.AVG, argument, name);
+					default:
+						break;
+				}
+			}
+		}
+
+		throw new IllegalArgumentException(String.format(
+			"The result column %s is neither a grouping key nor an incremental aggregate "
+				+ "(COUNT, SUM, TOTAL, or AVG without DISTINCT).", render(expression)));
+	}
+
+	private static String render(SqlExpression expression) {
+		StringBuilder result = new StringBuilder();
+		expression.appendTo(result);
+
+		return result.toString();
+	}
+
+	private List<String> storedColumns() {
+		List<String> result = new ArrayList<>(keyNames);
+		result.add(ROW_COUNT);
+		for (Measure measure : measures) {
+			if (measure.hasSum()) {
+				result.add(measure.sumColumn());
+			}
+			if (measure.hasCount()) {
+				result.add(measure.countColumn());
+			}
+		}
+
+		return result;
+	}
+
+	private CreateTrigger trigger(CreateTrigger.Targeted target, String rowReference) {
+		TriggerStatement[] statements = NEW.equals(rowReference)
+			? new TriggerStatement[] { addGroup(), change(NEW) } : subtract();
+		if (condition == null) {
+			return target.execute(statements);
+		}
+
+		SqlExpression filter = sourceRowFilter(rowReference).and(condition);
+		return target
+			.when(SqlExpressions.exists(
+				SelectStatements.select(value(1)).from(TableExpressions.table(sourceName)).where(filter)))
+			.execute(statements);
+	}
+
+	private SqlExpression sourceRowFilter(String rowReference) {
+		return SqlExpressions.rowId().eq(SqlExpressions.rowIdOf(rowReference));
+	}
+
+	private Select.Filtered sourceRow(String rowReference, List<? extends ResultElement> values) {
+		return SelectStatements.select(values).from(TableExpressions.table(sourceName))
+			.where(sourceRowFilter(rowReference));
+	}
+
+	private SqlExpression groupMatch(String rowReference) {
+		List<SqlExpression> terms = new ArrayList<>(keys.size());
+		for (int i = 0; i < keys.size(); i++) {
+			terms.add(column(keyNames.get(i)).is(sourceRow(rowReference, Collections.singletonList(keys.get(i)))));
+		}
+
+		return terms.isEmpty() ? null : SqlExpressions.and(terms);
+	}
+
+	private TriggerStatement addGroup() {
+		List<String> columns = storedColumns();
+		List<ResultElement> values = new ArrayList<>(keys);
+		for (int i = keys.size(); i < columns.size(); i++) {
+			values.add(value(0));
+		}
+		Select.NoSource existing = SelectStatements.select(value(1));
+		SqlExpression groupMatch = groupMatch(NEW);
+		SelectStatement group = groupMatch == null
+			? existing.from(TableExpressions.table(summaryName))
+			: existing.from(TableExpressions.table(summaryName)).where(groupMatch);
+
+		return SqlStatements.insertInto(summaryName).columns(columns).from(
+			SelectStatements.select(values).from(TableExpressions.table(sourceName))
+				.where(sourceRowFilter(NEW).and(SqlExpressions.notExists(group))));
+	}
+
+	private TriggerStatement change(String rowReference) {
+		boolean add = NEW.equals(rowReference);
+		List<String> storedColumns = storedColumns();
+		List<String> columns = storedColumns.subList(keys.size(), storedColumns.size());
+		List<SqlExpression> values = new ArrayList<>(columns.size());
+		values.add(changed(ROW_COUNT, value(1), add));
+		for (Measure measure : measures) {
+			if (measure.hasSum()) {
+				values.add(changed(measure.sumColumn(), measure.sumDelta(), add));
+			}
+			if (measure.hasCount()) {
+				values.add(changed(measure.countColumn(), measure.countDelta(), add));
+			}
+		}
+
+		Update.NotFiltered update = SqlStatements.update(summaryName).set(columns, sourceRow(rowReference, values));
+		SqlExpression groupMatch = groupMatch(rowReference);
+
+		return groupMatch == null ? update : update.where(groupMatch);
+	}
+
+	private SqlExpression changed(String storedColumn, SqlExpression delta, boolean add) {
+		SqlExpression current = column(summaryName, storedColumn);
+		return add ? current.plus(delta) : current.minus(delta);
+	}
+
+	private TriggerStatement[] subtract() {
+		SqlExpression groupMatch = groupMatch(OLD);
+		if (groupMatch == null) {
+			return new TriggerStatement[] { change(OLD) };
+		}
+
+		return new TriggerStatement[] {
+			change(OLD),
+			SqlStatements.deleteFrom(summaryName).where(column(ROW_COUNT).eq(value(0)).and(groupMatch))
+		};
+	}
+}
@@ -10,7 +10,7 @@ import java.util.function.Function;
  * <ol>
  *     <li>extend the class specifying the table name;</li>
  *     <li>add public fields for the column names and public methods for the column objects
- *     (using the protected {@link #columnFactory} function);</li>
+ *     (created once using the protected {@link #columnExpression(String)} method);</li>
  *     <li>create an instance of the class to be able to use it where a table expression is expected,
  *     and its fields (methods) where an SQL expression is</li>
  * </ol>
@@ -30,6 +30,19 @@ public abstract class Table implements TableExpression {
 		this.columnFactory = s -> column(schemaName, tableName, s);
 	}
 
+	/**
+	 * Creates the expression referring to the specified column of this table. The rendered qualified
+	 * name of the column is computed once (when the expression is first rendered), so the expression
+	 * should be created once per column and kept in a final field of the subclass, e.g.<br>
+	 * <code>private final SqlExpression idColumn = columnExpression("id");</code>
+	 * @param columnName the name of the column
+	 * @return the expression having the form
+	 * <code><strong>[<em>schemaName</em>.]<em>tableName</em>.<em>columnName</em></strong></code>
+	 */
+	protected final SqlExpression columnExpression(String columnName) {
+		return columnFactory.apply(columnName);
+	}
+
 	@Override
 	public boolean isJoin() {
 		return false;
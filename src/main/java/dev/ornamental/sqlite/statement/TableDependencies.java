@@ -0,0 +1,126 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents the tables read and written by a statement. The tables are found in all the parts
+ * of the statement: the <code>FROM</code> clauses, the joins, the common table expressions,
+ * and the subqueries nested in expressions (including <code>IN</code> and <code>EXISTS</code>).
+ * The references to the common tables are not reported; a common table name is only resolved within
+ * the statement whose <code>WITH</code> clause defines it, so a common table defined in a subquery
+ * does not hide a table of the same name read elsewhere in the statement. If the definitions
+ * of the views are supplied, the references to the views are resolved into the tables they read.<br>
+ * The table names are reported in lower case (as SQLite names are case-insensitive), prefixed with
+ * the schema name and a dot if the schema is specified in the statement.<br>
+ * Note that the writes performed by triggers and foreign key actions are not known to the statement,
+ * thus are not reported.<br>
+ * The instances of this class are immutable.
+ */
+public final class TableDependencies {
+
+	private final String sql;
+
+	private final Set<String> readTables;
+
+	private final Set<String> writtenTables;
+
+	private TableDependencies(String sql, Set<String> readTables, Set<String> writtenTables) {
+		this.sql = sql;
+		this.readTables = Collections.unmodifiableSet(readTables);
+		this.writtenTables = Collections.unmodifiableSet(writtenTables);
+	}
+
+	/**
+	 * Finds the tables read and written by the statement.
+	 * @param statement the statement to analyze
+	 * @return the tables the statement depends on
+	 */
+	public static TableDependencies of(SqlStatement statement) {
+		return of(statement, Collections.emptyMap());
+	}
+
+	/**
+	 * Finds the tables read and written by the statement, resolving the references to the specified views
+	 * into the tables read by the views.
+	 * @param statement the statement to analyze
+	 * @param views the definitions of the views the statement may refer to
+	 * @return the tables the statement depends on; both the names of the views referred to
+	 * and the names of the tables they read are reported as read
+	 */
+	public static TableDependencies of(SqlStatement statement, Iterable<? extends CreateView> views) {
+		return of(statement, resolveViews(views));
+	}
+
+	/**
+	 * Returns the SQL text of the statement rendered during the analysis.
+	 * @return the SQL text of the statement
+	 */
+	public String sql() {
+		return sql;
+	}
+
+	/**
+	 * Returns the names of the tables (and views) read by the statement.
+	 * @return the unmodifiable set of the names of the tables read
+	 */
+	public Set<String> readTables() {
+		return readTables;
+	}
+
+	/**
+	 * Returns the names of the tables written by the statement.
+	 * @return the unmodifiable set of the names of the tables written
+	 */
+	public Set<String> writtenTables() {
+		return writtenTables;
+	}
+
+	static TableDependencies of(SqlStatement statement, Map<String, Set<String>> viewTables) {
+		TableReferences references = TableReferences.collect(statement);
+		Set<String> read = new LinkedHashSet<>(references.read());
+		for (String table : references.read()) {
+			Set<String> tables = viewTables.get(unqualified(table));
+			if (tables != null) {
+				read.addAll(tables);
+			}
+		}
+
+		return new TableDependencies(references.sql(), read, new LinkedHashSet<>(references.written()));
+	}
+
+	static Map<String, Set<String>> resolveViews(Iterable<? extends CreateView> views) {
+		Map<String, Set<String>> directTables = new HashMap<>();
+		for (CreateView view : views) {
+			directTables.put(
+				TableReferences.name(null, view.viewName()),
+				TableReferences.collect(view.selectStatement()).read());
+		}
+
+		// the views may refer to other views, so the references are followed transitively
+		Map<String, Set<String>> result = new HashMap<>();
+		for (String view : directTables.keySet()) {
+			Set<String> tables = new LinkedHashSet<>();
+			Deque<String> pending = new ArrayDeque<>(directTables.get(view));
+			while (!pending.isEmpty()) {
+				String table = pending.pop();
+				Set<String> nested = directTables.get(unqualified(table));
+				if (tables.add(table) && nested != null) {
+					pending.addAll(nested);
+				}
+			}
+			result.put(view, Collections.unmodifiableSet(tables));
+		}
+
+		return result;
+	}
+
+	static String unqualified(String tableName) {
+		return tableName.substring(tableName.lastIndexOf('.') + 1);
+	}
+}
@@ -0,0 +1,379 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Generates the statements changing the definition of a table in the ways not supported
+ * by <code>ALTER TABLE</code> (changing column types or constraints, dropping constraints etc.)
+ * following the procedure recommended by SQLite: a new table is created under a temporary name,
+ * the data are copied into it, the original table is dropped, the new table is renamed,
+ * and the indexes, triggers and views depending on the table are recreated.<br>
+ * The execution is divided into three phases:
+ * <ol>
+ * <li>{@link #prepare()} disables foreign key enforcement and creates the new table;</li>
+ * <li>the data are copied by the statements returned by {@link #copyChunks(long, long)}
+ * (or {@link #copyChunk()}), each copying a range of rowids of the original table, so that every chunk
+ * may be executed in a separate short transaction, or by the single statement returned by
+ * {@link #copyAll()}; the original table must not be modified until the procedure is completed;</li>
+ * <li>{@link #finish()} replaces the original table with the new one in a single transaction,
+ * checks the foreign keys and enables foreign key enforcement back; the transaction must be
+ * rolled back instead of being committed if <code>PRAGMA foreign_key_check</code> returns any rows
+ * (if foreign key enforcement was disabled before the procedure, {@link #finish(boolean)} must be used
+ * to leave it disabled).</li>
+ * </ol>
+ * Note that the chunked copy relies on the rowid, which makes it inapplicable to
+ * <code>WITHOUT ROWID</code> original tables.<br>
+ * The instances of this class are immutable provided the statements they are built from are immutable.
+ */
+public final class TableRebuild {
+
+	/**
+	 * The default number of rowids covered by a single data copy statement.
+	 */
+	public static final long DEFAULT_CHUNK_SIZE = 10_000;
+
+	private final CreateTable.Stub original;
+
+	private final ExplicableStatement newDefinition;
+
+	private final CreateTable.Stub replacement;
+
+	private final Map<String, SqlExpression> columnSources; // keyed by the new column names
+
+	private final List<SqlStatement> dropViews;
+
+	private final List<SqlStatement> dependents;
+
+	private final long chunkSize;
+
+	private TableRebuild(
+		CreateTable.Stub original, ExplicableStatement newDefinition,
+		CreateTable.Stub replacement, Map<String, SqlExpression> columnSources,
+		List<SqlStatement> dropViews, List<SqlStatement> dependents, long chunkSize) {
+
+		this.original = original;
+		this.newDefinition = newDefinition;
+		this.replacement = replacement;
+		this.columnSources = columnSources;
+		this.dropViews = dropViews;
+		this.dependents = dependents;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Creates the plan of replacing the table having the specified definition with the new one.
+	 * Each non-generated column of the new table is filled with the values of the non-generated column
+	 * of the original table having the same name (if any), unless a different source
+	 * is specified by {@link #mapColumn(CharSequence, SqlExpression)}.
+	 * @param currentDefinition the <code>CREATE TABLE</code> statement defining the original table
+	 * @param newDefinition the <code>CREATE TABLE</code> statement defining the new table
+	 * under a temporary name (e.g. <code>new_<em>tableName</em></code>) in the same schema;
+	 * the table is renamed to the original name at the end of the procedure
+	 * @return the table rebuild plan
+	 */
+	public static TableRebuild of(ExplicableStatement currentDefinition, ExplicableStatement newDefinition) {
+		ExplicableStatement newDefinitionCopy = newDefinition.copy();
+		CreateTable.Stub replacement = CreateTable.stubOf(CreateTable.definitionOf(newDefinitionCopy));
+
+		return create(currentDefinition, newDefinitionCopy, replacement);
+	}
+
+	/**
+	 * Creates the plan of replacing the table having the specified definition with the new one
+	 * defined under the original name; the new table is created under the specified temporary name.
+	 * @param currentDefinition the <code>CREATE TABLE</code> statement defining the original table
+	 * @param newDefinition the <code>CREATE TABLE</code> statement defining the new table
+	 * under the name of the original one
+	 * @param temporaryName the name to create the new table under before the original one is dropped
+	 * @return the table rebuild plan
+	 */
+	static TableRebuild of(
+		ExplicableStatement currentDefinition, ExplicableStatement newDefinition, CharSequence temporaryName) {
+
+		CreateTable.Stub original = CreateTable.stubOf(CreateTable.definitionOf(currentDefinition));
+		CreateTable.Stub replacement = new CreateTable.Stub(false, false, original.schemaName(), temporaryName);
+
+		return create(currentDefinition, CreateTable.renamed(newDefinition.copy(), temporaryName), replacement);
+	}
+
+	private static TableRebuild create(
+		ExplicableStatement currentDefinition, ExplicableStatement newDefinition, CreateTable.Stub replacement) {
+
+		CreateTable.ConstraintList originalColumns = CreateTable.definitionOf(currentDefinition.copy());
+		CreateTable.ConstraintList newColumns = CreateTable.definitionOf(newDefinition);
+		CreateTable.Stub original = CreateTable.stubOf(originalColumns);
+		if (!schemaOf(original).equalsIgnoreCase(schemaOf(replacement))) {
+			throw new IllegalArgumentException("The new table must be created in the schema of the original one.");
+		}
+		if (original.tableName().toString().equalsIgnoreCase(replacement.tableName().toString())) {
+			throw new IllegalArgumentException("The new table must be created under a different name.");
+		}
+
+		List<String> storedOriginalColumns = CreateTable.storedColumnNames(originalColumns);
+		Map<String, SqlExpression> columnSources = new LinkedHashMap<>();
+		for (String column : CreateTable.storedColumnNames(newColumns)) {
+			String sourceColumn = find(storedOriginalColumns, column);
+			columnSources.put(column, sourceColumn == null ? null : SqlExpressions.column(sourceColumn));
+		}
+
+		return new TableRebuild(
+			original, newDefinition, replacement, columnSources,
+			Collections.emptyList(), Collections.emptyList(), DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Returns the plan differing from this one in the source of the values of the specified column
+	 * of the new table.
+	 * @param newColumnName the name of the column of the new table
+	 * @param source the expression evaluated against the rows of the original table
+	 * (e.g. a column of the original table having a different name, or a conversion of the column value)
+	 * @return the new plan
+	 */
+	public TableRebuild mapColumn(CharSequence newColumnName, SqlExpression source) {
+		String column = find(columnSources.keySet(), newColumnName.toString());
+		if (column == null) {
+			throw new IllegalArgumentException(String.format(
+				"The new table has no non-generated column \"%s\".", newColumnName));
+		}
+
+		Map<String, SqlExpression> sources = new LinkedHashMap<>(columnSources);
+		sources.put(column, source.copy());
+
+		return new TableRebuild(
+			original, newDefinition, replacement, sources, dropViews, dependents, chunkSize);
+	}
+
+	/**
+	 * Returns the plan which additionally recreates the specified index of the table.
+	 * @param index the index definition
+	 * @return the new plan
+	 */
+	public TableRebuild withIndex(CreateIndex.OnColumns index) {
+		return withDependent(null, index);
+	}
+
+	/**
+	 * Returns the plan which additionally recreates the specified partial index of the table.
+	 * @param index the index definition
+	 * @return the new plan
+	 */
+	public TableRebuild withIndex(CreateIndex.Constrained index) {
+		return withDependent(null, index);
+	}
+
+	/**
+	 * Returns the plan which additionally recreates the specified trigger of the table.
+	 * @param trigger the trigger definition
+	 * @return the new plan
+	 */
+	public TableRebuild withTrigger(CreateTrigger trigger) {
+		return withDependent(null, trigger);
+	}
+
+	/**
+	 * Returns the plan which additionally drops the specified view referring to the table
+	 * before the original table is dropped and recreates it afterwards.
+	 * @param view the view definition
+	 * @return the new plan
+	 */
+	public TableRebuild withView(CreateView view) {
+		return withDependent(view.dropIfExists(), view);
+	}
+
+	/**
+	 * Returns the plan differing from this one in the number of rowids covered by a single
+	 * data copy statement.
+	 * @param chunkSize the number of rowids covered by a single data copy statement
+	 * @return the new plan
+	 */
+	public TableRebuild withChunkSize(long chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("The chunk size must be positive.");
+		}
+
+		return new TableRebuild(
+			original, newDefinition, replacement, columnSources, dropViews, dependents, chunkSize);
+	}
+
+	/**
+	 * Returns the statements preparing the data copy. They have to be executed outside of a transaction,
+	 * as the foreign key enforcement cannot be changed within one.
+	 * @return the unmodifiable list of the statements disabling foreign key enforcement
+	 * and creating the new table
+	 */
+	public List<SqlStatement> prepare() {
+		return Collections.unmodifiableList(Arrays.<SqlStatement>asList(Pragmas.foreignKeys(false), newDefinition));
+	}
+
+	/**
+	 * Returns the statement copying all the data of the original table into the new table.
+	 * @return the statement having the form<br>
+	 * <code><strong>INSERT INTO <em>newTableName</em>(<em>column<sub>0</sub></em>{,
+	 * <em>column<sub>i</sub></em>}) SELECT <em>source<sub>0</sub></em>{, <em>source<sub>i</sub></em>}
+	 * FROM <em>tableName</em></strong></code>
+	 */
+	public Insert.FromSelect copyAll() {
+		return copy(null);
+	}
+
+	/**
+	 * Returns the parametrized statement copying the rows of the original table whose rowids
+	 * are between the values bound to the parameters <code>?1</code> and <code>?2</code> (inclusive).
+	 * @return the statement having the form<br>
+	 * <code><strong>INSERT INTO <em>newTableName</em>(<em>column<sub>0</sub></em>{,
+	 * <em>column<sub>i</sub></em>}) SELECT <em>source<sub>0</sub></em>{, <em>source<sub>i</sub></em>}
+	 * FROM <em>tableName</em> WHERE ROWID BETWEEN ?1 AND ?2</strong></code>
+	 */
+	public Insert.FromSelect copyChunk() {
+		return copy(SqlExpressions.rowId().between(SqlExpressions.parameter("?1"), SqlExpressions.parameter("?2")));
+	}
+
+	/**
+	 * Returns the statements copying the rows of the original table having the rowids
+	 * in the specified range by consecutive chunks.
+	 * @param minRowId the minimum rowid of the original table
+	 * @param maxRowId the maximum rowid of the original table
+	 * @return the unmodifiable list of the statements having the form<br>
+	 * <code><strong>INSERT INTO <em>newTableName</em>(<em>column<sub>0</sub></em>{,
+	 * <em>column<sub>i</sub></em>}) SELECT <em>source<sub>0</sub></em>{, <em>source<sub>i</sub></em>}
+	 * FROM <em>tableName</em> WHERE ROWID BETWEEN <em>lowerBound</em> AND <em>upperBound</em></strong></code>
+	 */
+	public List<Insert.FromSelect> copyChunks(long minRowId, long maxRowId) {
+		if (minRowId > maxRowId) {
+			throw new IllegalArgumentException("The minimum rowid must not exceed the maximum one.");
+		}
+
+		List<Insert.FromSelect> result = new ArrayList<>();
+		long lowerBound = minRowId;
+		while (true) {
+			long upperBound = Long.compareUnsigned(maxRowId - lowerBound, chunkSize) < 0
+				? maxRowId : lowerBound + chunkSize - 1;
+			result.add(copy(SqlExpressions.rowId().between(Literal.value(lowerBound), Literal.value(upperBound))));
+			if (upperBound == maxRowId) {
+				break;
+			}
+			lowerBound = upperBound + 1;
+		}
+
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Returns the statements replacing the original table with the new one, assuming foreign key
+	 * enforcement was enabled before the procedure.
+	 * @return the unmodifiable list of the statements: <code>BEGIN IMMEDIATE TRANSACTION</code>,
+	 * <code>DROP VIEW</code> for the registered views, <code>DROP TABLE</code> for the original table,
+	 * <code>ALTER TABLE .. RENAME TO</code> for the new table, the definitions of the registered indexes,
+	 * triggers and views, <code>PRAGMA foreign_key_check</code>, <code>COMMIT TRANSACTION</code>, and
+	 * <code>PRAGMA foreign_keys(TRUE)</code>
+	 */
+	public List<SqlStatement> finish() {
+		return finish(true);
+	}
+
+	/**
+	 * Returns the statements replacing the original table with the new one.
+	 * @param foreignKeysEnabled whether foreign key enforcement was enabled before the procedure
+	 * (the value of <code>PRAGMA foreign_keys</code> queried before executing the statements
+	 * returned by {@link #prepare()}); if it was not, the foreign keys are neither checked
+	 * nor enforced afterwards
+	 * @return the unmodifiable list of the statements: <code>BEGIN IMMEDIATE TRANSACTION</code>,
+	 * <code>DROP VIEW</code> for the registered views, <code>DROP TABLE</code> for the original table,
+	 * <code>ALTER TABLE .. RENAME TO</code> for the new table, the definitions of the registered indexes,
+	 * triggers and views, <code>PRAGMA foreign_key_check</code> (if foreign key enforcement was enabled),
+	 * <code>COMMIT TRANSACTION</code>, and <code>PRAGMA foreign_keys(TRUE)</code>
+	 * (if foreign key enforcement was enabled)
+	 */
+	public List<SqlStatement> finish(boolean foreignKeysEnabled) {
+		List<SqlStatement> result = new ArrayList<>();
+		result.add(SqlStatements.beginImmediateTransaction());
+		result.addAll(dropViews);
+		result.add(SqlStatements.dropTable(original.schemaName(), original.tableName()));
+		result.add(SqlStatements.alterTable(replacement.schemaName(), replacement.tableName())
+			.renameTo(original.tableName()));
+		result.addAll(dependents);
+		if (foreignKeysEnabled) {
+			result.add(original.schemaName() == null
+				? Pragmas.foreignKeyCheck() : Pragmas.foreignKeyCheckSchema(original.schemaName()));
+		}
+		result.add(SqlStatements.commitTransaction());
+		if (foreignKeysEnabled) {
+			result.add(Pragmas.foreignKeys(true));
+		}
+
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Returns the statements of the whole procedure with the data copied by a single statement.
+	 * @return the statements returned by {@link #prepare()}, {@link #copyAll()} (unless the new table
+	 * has no columns to copy the data into), and {@link #finish()}
+	 */
+	List<SqlStatement> statements() {
+		List<SqlStatement> result = new ArrayList<>(prepare());
+		if (columnSources.values().stream().anyMatch(Objects::nonNull)) {
+			result.add(copyAll());
+		}
+		result.addAll(finish());
+
+		return Collections.unmodifiableList(result);
+	}
+
+	private Insert.FromSelect copy(SqlExpression condition) {
+		List<String> targetColumns = new ArrayList<>();
+		List<ResultElement> sources = new ArrayList<>();
+		for (Map.Entry<String, SqlExpression> entry : columnSources.entrySet()) {
+			if (entry.getValue() != null) {
+				targetColumns.add(entry.getKey());
+				sources.add(entry.getValue());
+			}
+		}
+		if (targetColumns.isEmpty()) {
+			throw new IllegalStateException("The new table has no columns to copy the data into.");
+		}
+
+		Select.WithSource select = SelectStatements.select(sources)
+			.from(TableExpressions.table(original.schemaName(), original.tableName()));
+
+		return SqlStatements.insertInto(replacement.schemaName(), replacement.tableName())
+			.columns(targetColumns)
+			.from(condition == null ? select : select.where(condition));
+	}
+
+	private TableRebuild withDependent(SqlStatement drop, SqlStatement create) {
+		List<SqlStatement> drops = dropViews;
+		if (drop != null) {
+			drops = new ArrayList<>(dropViews);
+			drops.add(drop.copy());
+			drops = Collections.unmodifiableList(drops);
+		}
+		List<SqlStatement> creates = new ArrayList<>(dependents);
+		creates.add(create.copy());
+
+		return new TableRebuild(
+			original, newDefinition, replacement, columnSources,
+			drops, Collections.unmodifiableList(creates), chunkSize);
+	}
+
+	private static String schemaOf(CreateTable.Stub stub) {
+		return stub.schemaName() == null ? "main" : stub.schemaName().toString();
+	}
+
+	private static String find(Iterable<String> columns, String column) {
+		String normalized = column.toUpperCase(Locale.ROOT);
+		for (String candidate : columns) {
+			if (candidate.toUpperCase(Locale.ROOT).equals(normalized)) {
+				return candidate;
+			}
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,425 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Collects the names of the tables referenced by a statement (see {@link TableDependencies}) walking
+ * the statement tree, including the subqueries nested in expressions and table expressions. The walk
+ * uses an explicit stack, so deeply nested statements do not exhaust the thread stack. The names
+ * of the columns referenced by the column expressions met during the walk are collected as well
+ * (see {@link #columns(SqlExpression)}).<br>
+ * The names of the common tables are scoped as in SQLite: a <code>WITH</code> clause defines its names
+ * for its own statement only (all its definitions, the body of the statement and the subqueries
+ * nested in it), so an unqualified reference is a reference to a common table only if a <code>WITH</code>
+ * clause of the enclosing statements defines its name; otherwise, it is a reference to a table
+ * even if a subquery elsewhere defines a common table with the same name.<br>
+ * The walk descends into the <code>SELECT</code>, <code>INSERT</code>, <code>UPDATE</code>
+ * and <code>DELETE</code> statements, the <code>EXPLAIN</code> statements and the
+ * <code>CREATE VIEW</code> statements; the other statements, as well as the custom implementations
+ * of the statement, expression and table expression interfaces, are treated as referring to no tables.
+ */
+final class TableReferences {
+
+	/**
+	 * The marker pushed to the walk stack below the parts of a statement,
+	 * closing the scope of the common tables defined by the statement.
+	 */
+	private static final Object END_OF_SCOPE = new Object();
+
+	private final String sql;
+
+	private final Set<String> read = new LinkedHashSet<>();
+
+	private final Set<String> written = new LinkedHashSet<>();
+
+	private final Set<String> columns = new LinkedHashSet<>();
+
+	private final Deque<Object> pending = new ArrayDeque<>();
+
+	private final Deque<Set<String>> scopes = new ArrayDeque<>();
+
+	private TableReferences(String sql) {
+		this.sql = sql;
+	}
+
+	static TableReferences collect(SqlStatement statement) {
+		TableReferences result = new TableReferences(statement.build());
+		result.walk(statement);
+
+		return result;
+	}
+
+	/**
+	 * Collects the names of the columns referenced by the expression, including the ones referenced
+	 * by the subqueries nested in it; the names are collected regardless of the tables the columns
+	 * are qualified with.
+	 * @param expression the expression to walk
+	 * @return the column names as specified in the column expressions (in the order of their first occurrence)
+	 */
+	static Set<String> columns(SqlExpression expression) {
+		TableReferences result = new TableReferences(null);
+		result.walk(expression);
+
+		return result.columns;
+	}
+
+	static String name(CharSequence schemaName, CharSequence tableName) {
+		// SQLite names are case-insensitive for the ASCII letters
+		String name = tableName.toString().toLowerCase(Locale.ROOT);
+		return schemaName == null ? name : schemaName.toString().toLowerCase(Locale.ROOT) + '.' + name;
+	}
+
+	Set<String> read() {
+		return read;
+	}
+
+	Set<String> written() {
+		return written;
+	}
+
+	String sql() {
+		return sql;
+	}
+
+	private void walk(Object root) {
+		pending.push(root);
+		while (!pending.isEmpty()) {
+			Object node = pending.pop();
+			if (node == END_OF_SCOPE) {
+				scopes.pop();
+			} else {
+				visit(node);
+			}
+		}
+	}
+
+	private void visit(Object node) {
+		if (node instanceof MutableSelectStatement) {
+			push(((MutableSelectStatement)node).content());
+		} else if (node instanceof TriggerStatement) {
+			visitStatement(node);
+		} else if (node instanceof Explain) {
+			push(((Explain)node).statement());
+		} else if (node instanceof CreateView) {
+			push(((CreateView)node).selectStatement());
+		} else if (node instanceof ResultElement) {
+			visitExpression(node);
+		} else if (node instanceof TableExpression) {
+			visitTableExpression(node);
+		}
+	}
+
+	/**
+	 * Visits a <code>SELECT</code>, <code>INSERT</code>, <code>UPDATE</code> or <code>DELETE</code>
+	 * statement: the chain of its clauses is followed to the first one, which holds
+	 * the <code>WITH</code> clause of the statement, then the scope of the common tables is opened
+	 * and the parts of the statement are pushed to be visited within the scope.
+	 * @param statement the statement to visit
+	 */
+	private void visitStatement(Object statement) {
+		List<Object> parts = new ArrayList<>(); // in reverse order
+		CommonTableExpression cte = null;
+		Object current = statement;
+		while (current != null) {
+			Object previous = null;
+			if (current instanceof Select.LimitedWithOffset) {
+				Select.LimitedWithOffset limited = (Select.LimitedWithOffset)current;
+				parts.add(limited.offset().expression());
+				previous = limited.previous();
+			} else if (current instanceof Select.LimitedNoOffset) {
+				Select.LimitedNoOffset limited = (Select.LimitedNoOffset)current;
+				parts.add(limited.limit().expression());
+				previous = limited.previous();
+			} else if (current instanceof Select.Sorted) {
+				Select.Sorted sorted = (Select.Sorted)current;
+				for (int i = sorted.sorts().length - 1; i >= 0; i--) {
+					parts.add(sorted.sorts()[i].expression());
+				}
+				previous = sorted.previous();
+			} else if (current instanceof Select.GroupedFiltered) {
+				Select.GroupedFiltered grouped = (Select.GroupedFiltered)current;
+				parts.add(grouped.condition());
+				previous = grouped.previous();
+			} else if (current instanceof Select.GroupedNotFiltered) {
+				Select.GroupedNotFiltered grouped = (Select.GroupedNotFiltered)current;
+				addReversed(parts, grouped.groupings());
+				previous = grouped.previous();
+			} else if (current instanceof Select.Filtered) {
+				Select.Filtered filtered = (Select.Filtered)current;
+				parts.add(filtered.condition());
+				previous = filtered.previous();
+			} else if (current instanceof Select.WithSource) {
+				Select.WithSource withSource = (Select.WithSource)current;
+				parts.add(withSource.from());
+				previous = withSource.previous();
+			} else if (current instanceof Select.NoSource) {
+				Select.NoSource noSource = (Select.NoSource)current;
+				addReversed(parts, noSource.columns());
+				cte = noSource.cte() == null ? cte : noSource.cte();
+				previous = noSource.previous();
+			} else if (current instanceof Select.CompoundSet) {
+				Select.CompoundSet compound = (Select.CompoundSet)current;
+				for (int i = compound.operands().length - 1; i >= 0; i--) {
+					parts.add(compound.operands()[i]);
+				}
+				previous = compound.previous();
+			} else if (current instanceof Select.Values) {
+				Select.Values values = (Select.Values)current;
+				if (values instanceof Select.Rows) {
+					addReversed(parts, ((Select.Rows)values).rows());
+				}
+				cte = values.cte() == null ? cte : values.cte();
+				previous = values.previous();
+			} else if (current instanceof Delete.LimitedWithOffset) {
+				Delete.LimitedWithOffset limited = (Delete.LimitedWithOffset)current;
+				parts.add(limited.offset().expression());
+				previous = limited.previous();
+			} else if (current instanceof Delete.LimitedNoOffset) {
+				Delete.LimitedNoOffset limited = (Delete.LimitedNoOffset)current;
+				parts.add(limited.limit().expression());
+				previous = limited.previous();
+			} else if (current instanceof Delete.Ordered) {
+				Delete.Ordered ordered = (Delete.Ordered)current;
+				parts.add(ordered.sort().expression());
+				previous = ordered.previous();
+			} else if (current instanceof Delete.Filtered) {
+				Delete.Filtered filtered = (Delete.Filtered)current;
+				parts.add(filtered.condition());
+				previous = filtered.previous();
+			} else if (current instanceof Delete.WithIndexDirective) {
+				previous = ((Delete.WithIndexDirective)current).previous();
+			} else if (current instanceof Delete.All) {
+				Delete.All all = (Delete.All)current;
+				written.add(name(all.schemaName(), all.tableName()));
+				cte = all.cte();
+			} else if (current instanceof Update.LimitedWithOffset) {
+				Update.LimitedWithOffset limited = (Update.LimitedWithOffset)current;
+				parts.add(limited.offset().expression());
+				previous = limited.previous();
+			} else if (current instanceof Update.LimitedNoOffset) {
+				Update.LimitedNoOffset limited = (Update.LimitedNoOffset)current;
+				parts.add(limited.limit().expression());
+				previous = limited.previous();
+			} else if (current instanceof Update.Ordered) {
+				Update.Ordered ordered = (Update.Ordered)current;
+				parts.add(ordered.sort().expression());
+				previous = ordered.previous();
+			} else if (current instanceof Update.Filtered) {
+				Update.Filtered filtered = (Update.Filtered)current;
+				parts.add(filtered.condition());
+				previous = filtered.previous();
+			} else if (current instanceof Update.NotFiltered) {
+				Update.NotFiltered assignment = (Update.NotFiltered)current;
+				parts.add(assignment.value());
+				previous = assignment.previous();
+			} else if (current instanceof Update.WithIndexDirective) {
+				previous = ((Update.WithIndexDirective)current).stub();
+			} else if (current instanceof Update.Stub) {
+				Update.Stub stub = (Update.Stub)current;
+				written.add(name(stub.schemaName(), stub.tableName()));
+				cte = stub.cte();
+			} else if (current instanceof Insert.FromSelect) {
+				Insert.FromSelect fromSelect = (Insert.FromSelect)current;
+				parts.add(fromSelect.source());
+				previous = fromSelect.into();
+			} else if (current instanceof Insert.AllValues) {
+				Insert.AllValues allValues = (Insert.AllValues)current;
+				addReversed(parts, allValues.rows());
+				previous = allValues.into();
+			} else if (current instanceof Insert.Values) {
+				Insert.Values values = (Insert.Values)current;
+				for (Insert.Values.Row row = values.tail(); row != null; row = row.previous()) {
+					addReversed(parts, row.row());
+				}
+				previous = values.into();
+			} else if (current instanceof Insert.Defaults) {
+				previous = ((Insert.Defaults)current).into();
+			} else if (current instanceof Insert.Into) {
+				Insert.Into into = (Insert.Into)current;
+				written.add(name(into.schemaName(), into.tableName()));
+				cte = into.cte();
+			}
+			current = previous;
+		}
+
+		Set<String> scope = new HashSet<>();
+		if (cte != null) {
+			for (CommonTableExpression commonTable : cte.chain()) {
+				scope.add(name(null, commonTable.name()));
+			}
+		}
+		scopes.push(scope);
+		pending.push(END_OF_SCOPE);
+		for (Object part : parts) {
+			push(part);
+		}
+		if (cte != null) {
+			for (CommonTableExpression commonTable : cte.chain()) {
+				push(commonTable.expression());
+			}
+		}
+	}
+
+	private void visitExpression(Object expression) {
+		if (expression instanceof ColumnExpression) {
+			columns.add(((ColumnExpression)expression).columnName().toString());
+		} else if (expression instanceof MutableSqlExpression) {
+			push(((MutableSqlExpression)expression).content());
+		} else if (expression instanceof MutableResultElement) {
+			push(((MutableResultElement)expression).content());
+		} else if (expression instanceof NamedResultColumn) {
+			push(((NamedResultColumn)expression).expression());
+		} else if (expression instanceof BinaryOperator) {
+			BinaryOperator operator = (BinaryOperator)expression;
+			push(operator.left(), operator.right());
+		} else if (expression instanceof NaryOperator) {
+			pushAll(((NaryOperator)expression).terms());
+		} else if (expression instanceof PrefixUnaryOperator) {
+			push(((PrefixUnaryOperator)expression).operand());
+		} else if (expression instanceof PostfixUnaryOperator) {
+			push(((PostfixUnaryOperator)expression).operand());
+		} else if (expression instanceof MatchExpression) {
+			MatchExpression match = (MatchExpression)expression;
+			push(match.left(), match.right());
+		} else if (expression instanceof MatchEscapeExpression) {
+			MatchEscapeExpression match = (MatchEscapeExpression)expression;
+			push(match.expression(), match.escape());
+		} else if (expression instanceof BetweenExpression) {
+			BetweenExpression between = (BetweenExpression)expression;
+			push(between.comparand(), between.min(), between.max());
+		} else if (expression instanceof CastExpression) {
+			push(((CastExpression)expression).expression());
+		} else if (expression instanceof CollationExpression) {
+			push(((CollationExpression)expression).expression());
+		} else if (expression instanceof FunctionExpression) {
+			pushAll(((FunctionExpression)expression).args());
+		} else if (expression instanceof Aggregate.Sorted) {
+			Aggregate.Sorted aggregate = (Aggregate.Sorted)expression;
+			push(aggregate.function(), aggregate.previous(), aggregate.sort().expression());
+		} else if (expression instanceof Aggregate.Filtered) {
+			Aggregate.Filtered aggregate = (Aggregate.Filtered)expression;
+			push(aggregate.aggregate(), aggregate.condition());
+		} else if (expression instanceof CaseExpression.NoDefault) {
+			visitClauses((CaseExpression.NoDefault)expression);
+		} else if (expression instanceof CaseExpression.WithDefault) {
+			CaseExpression.WithDefault caseExpression = (CaseExpression.WithDefault)expression;
+			push(caseExpression.orElseResult());
+			visitClauses(caseExpression.clauses());
+		} else if (expression instanceof ExistsExpression) {
+			push(((ExistsExpression)expression).select());
+		} else if (expression instanceof InExpression) {
+			visitIn((InExpression)expression);
+		} else if (expression instanceof RowExpression.OfExpressions) {
+			pushAll(((RowExpression.OfExpressions)expression).elements());
+		}
+	}
+
+	private void visitClauses(CaseExpression.NoDefault clauses) {
+		List<Object> parts = new ArrayList<>();
+		parts.add(clauses.comparand());
+		for (CaseExpression.NoDefault clause : clauses.clauses()) {
+			parts.add(clause.condition());
+			parts.add(clause.result());
+		}
+		pushAll(parts);
+	}
+
+	private void visitIn(InExpression expression) {
+		if (expression instanceof InExpression.ForRow) {
+			push(((InExpression.ForRow)expression).right());
+		} else if (expression instanceof InExpression.ForSelect) {
+			push(((InExpression.ForSelect)expression).right());
+		} else if (expression instanceof InExpression.ForTable) {
+			InExpression.ForTable forTable = (InExpression.ForTable)expression;
+			read(forTable.schemaName(), forTable.tableName());
+		} else if (expression instanceof InExpression.ForTableFunction) {
+			InExpression.ForTableFunction forFunction = (InExpression.ForTableFunction)expression;
+			read(forFunction.schemaName(), forFunction.tableName());
+			pushAll(forFunction.args());
+		}
+		push(expression.left());
+	}
+
+	private void visitTableExpression(Object tableExpression) {
+		if (tableExpression instanceof Table) {
+			Table table = (Table)tableExpression;
+			read(table.schemaName(), table.tableName());
+		} else if (tableExpression instanceof UnaliasedTable) {
+			UnaliasedTable table = (UnaliasedTable)tableExpression;
+			read(table.getSchemaName(), table.getTableName());
+		} else if (tableExpression instanceof UnaliasedVirtualTable) {
+			UnaliasedVirtualTable table = (UnaliasedVirtualTable)tableExpression;
+			read(table.schemaName(), table.tableName());
+			push(table.args());
+		} else if (tableExpression instanceof AliasedTable) {
+			push(((AliasedTable)tableExpression).previous());
+		} else if (tableExpression instanceof AliasedVirtualTable) {
+			push(((AliasedVirtualTable)tableExpression).previous());
+		} else if (tableExpression instanceof AliasedSelect) {
+			push(((AliasedSelect)tableExpression).select());
+		} else if (tableExpression instanceof AliasedTableExpression) {
+			push(((AliasedTableExpression)tableExpression).tableExpression());
+		} else if (tableExpression instanceof Join) {
+			Join join = (Join)tableExpression;
+			push(join.left(), join.right());
+		} else if (tableExpression instanceof NaturalJoin) {
+			NaturalJoin join = (NaturalJoin)tableExpression;
+			push(join.left(), join.right());
+		} else if (tableExpression instanceof JoinOn) {
+			JoinOn join = (JoinOn)tableExpression;
+			push(join.previous(), join.condition());
+		} else if (tableExpression instanceof JoinUsing) {
+			push(((JoinUsing)tableExpression).previous());
+		} else if (tableExpression instanceof TableWithIndex) {
+			push(((TableWithIndex)tableExpression).table());
+		} else if (tableExpression instanceof MutableTableExpression) {
+			push(((MutableTableExpression)tableExpression).content());
+		}
+	}
+
+	private void read(CharSequence schemaName, CharSequence tableName) {
+		String name = name(schemaName, tableName);
+		if (schemaName == null) {
+			for (Set<String> scope : scopes) {
+				if (scope.contains(name)) {
+					return;
+				}
+			}
+		}
+		read.add(name);
+	}
+
+	/**
+	 * Pushes the nodes to be visited in the order they are specified in; <code>null</code> nodes are skipped.
+	 * @param nodes the nodes to visit
+	 */
+	private void push(Object... nodes) {
+		for (int i = nodes.length - 1; i >= 0; i--) {
+			if (nodes[i] != null) {
+				pending.push(nodes[i]);
+			}
+		}
+	}
+
+	private void pushAll(Iterable<?> nodes) {
+		List<Object> list = new ArrayList<>();
+		for (Object node : nodes) {
+			list.add(node);
+		}
+		push(list.toArray());
+	}
+
+	private static void addReversed(List<Object> receptacle, Iterable<?> nodes) {
+		int start = receptacle.size();
+		for (Object node : nodes) {
+			receptacle.add(start, node);
+		}
+	}
+}
@@ -51,4 +51,8 @@ public final class TableWithIndex implements TableExpression {
 			SqliteUtilities.appendQuotedName(receptacle, indexName);
 		}
 	}
+
+	TableExpression table() {
+		return table;
+	}
 }
@@ -1,5 +1,10 @@
 package dev.ornamental.sqlite.statement;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
 /**
  * This class contains some standard type names.
  */
@@ -29,5 +34,23 @@ public final class Types {
 
 	public static final String VARBINARY = "VARBINARY";
 
+	public static final String ANY = "ANY";
+
+	/**
+	 * The only type names admissible for the columns of <code>STRICT</code> tables
+	 */
+	public static final List<String> STRICT_TYPES =
+		Collections.unmodifiableList(Arrays.asList(INT, INTEGER, REAL, TEXT, BLOB, ANY));
+
 	private Types() { }
+
+	/**
+	 * Checks if a type definition may be used for a column of a <code>STRICT</code> table.
+	 * @param typeDefinition the type definition to check
+	 * @return {@literal true} if and only if the type definition is one of {@link #STRICT_TYPES}
+	 * (the comparison is case-insensitive)
+	 */
+	public static boolean isStrictType(CharSequence typeDefinition) {
+		return STRICT_TYPES.contains(typeDefinition.toString().trim().toUpperCase(Locale.ROOT));
+	}
 }
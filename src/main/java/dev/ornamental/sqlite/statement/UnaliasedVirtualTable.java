@@ -56,4 +56,16 @@ public class UnaliasedVirtualTable implements TableExpression {
 	public AliasedVirtualTable alias(CharSequence alias) {
 		return new AliasedVirtualTable(this, alias);
 	}
+
+	CharSequence schemaName() {
+		return schemaName;
+	}
+
+	CharSequence tableName() {
+		return tableName;
+	}
+
+	RowExpression args() {
+		return args;
+	}
 }
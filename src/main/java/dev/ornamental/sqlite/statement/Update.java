@@ -203,6 +203,18 @@ public final class Update {
 			receptacle.append(' ');
 			SqliteUtilities.appendQuotedName(receptacle, schemaName, tableName);
 		}
+
+		CommonTableExpression cte() {
+			return cte;
+		}
+
+		CharSequence schemaName() {
+			return schemaName;
+		}
+
+		CharSequence tableName() {
+			return tableName;
+		}
 	}
 
 	/**
@@ -232,6 +244,10 @@ public final class Update {
 			stub.appendTo(receptacle);
 			TableWithIndex.appendIndexDirective(receptacle, indexName);
 		}
+
+		Stub stub() {
+			return stub;
+		}
 	}
 
 	/**
@@ -309,6 +325,14 @@ public final class Update {
 				}
 			}
 		}
+
+		AssignmentList previous() {
+			return initial != null ? initial : previous;
+		}
+
+		SqlExpression value() {
+			return assignment.value();
+		}
 	}
 
 	/**
@@ -342,6 +366,18 @@ public final class Update {
 			receptacle.append(" WHERE ");
 			condition.appendTo(receptacle);
 		}
+
+		Filtered and(SqlExpression extraCondition) {
+			return new Filtered(previous, condition.and(extraCondition));
+		}
+
+		NotFiltered previous() {
+			return previous;
+		}
+
+		SqlExpression condition() {
+			return condition;
+		}
 	}
 
 	/**
@@ -416,6 +452,14 @@ public final class Update {
 				}
 			}
 		}
+
+		Sortable previous() {
+			return notLimited != null ? notLimited : previous;
+		}
+
+		Sort sort() {
+			return sort;
+		}
 	}
 
 	/**
@@ -486,6 +530,14 @@ public final class Update {
 			}
 			limit.appendTo(receptacle);
 		}
+
+		Sortable previous() {
+			return previousNotLimited != null ? previousNotLimited : previousOrdered;
+		}
+
+		IntegralValueClause.Limit limit() {
+			return limit;
+		}
 	}
 
 	/**
@@ -517,6 +569,14 @@ public final class Update {
 			previous.build(receptacle);
 			offset.appendTo(receptacle);
 		}
+
+		LimitedNoOffset previous() {
+			return previous;
+		}
+
+		IntegralValueClause.Offset offset() {
+			return offset;
+		}
 	}
 
 	private abstract static class Assignment {
@@ -524,6 +584,8 @@ public final class Update {
 		abstract void appendTo(StringBuilder receptacle);
 
 		abstract Assignment copy();
+
+		abstract SqlExpression value();
 	}
 
 	private static final class SingleAssignment extends Assignment {
@@ -552,6 +614,11 @@ public final class Update {
 			return columnNameCopy == columnName && valueCopy == value
 				? this : new SingleAssignment(columnNameCopy, valueCopy);
 		}
+
+		@Override
+		SqlExpression value() {
+			return value;
+		}
 	}
 
 	private static final class TupleAssignment extends Assignment {
@@ -582,6 +649,11 @@ public final class Update {
 			return columnNamesCopy == columnNames && tupleCopy == tuple
 				? this : new TupleAssignment(columnNamesCopy, tupleCopy);
 		}
+
+		@Override
+		SqlExpression value() {
+			return tuple;
+		}
 	}
 
 	private Update() { }
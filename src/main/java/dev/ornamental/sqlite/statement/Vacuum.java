@@ -8,6 +8,40 @@ package dev.ornamental.sqlite.statement;
  */
 public final class Vacuum implements ExplicableStatement {
 
+	/**
+	 * Represents a <code>VACUUM</code> statement writing the vacuumed database into a new file
+	 * instead of rewriting the original database. It has the form<br>
+	 * <code><strong>VACUUM [<em>schemaName</em>] INTO <em>fileNameExpression</em></strong></code>.<br>
+	 * This is a complete SQL statement.
+	 */
+	public static final class Into implements ExplicableStatement {
+
+		private final Vacuum previous;
+
+		private final SqlExpression fileName;
+
+		Into(Vacuum previous, SqlExpression fileName) {
+			this.previous = previous;
+			this.fileName = fileName;
+		}
+
+		@Override
+		public Into copy() throws IllegalStateException {
+			Vacuum previousCopy = previous.copy();
+			SqlExpression fileNameCopy = fileName.copy();
+
+			return previousCopy == previous && fileNameCopy == fileName
+				? this : new Into(previousCopy, fileNameCopy);
+		}
+
+		@Override
+		public void build(StringBuilder receptacle) {
+			previous.build(receptacle);
+			receptacle.append(" INTO ");
+			fileName.appendTo(receptacle);
+		}
+	}
+
 	static final Vacuum ALL = new Vacuum(null);
 
 	private final CharSequence schemaName; // nullable
@@ -16,6 +50,32 @@ public final class Vacuum implements ExplicableStatement {
 		this.schemaName = schemaName;
 	}
 
+	/**
+	 * Makes the statement write the vacuumed database into the specified file, leaving the original
+	 * database unchanged.<br>
+	 * The result is a complete SQL statement.
+	 * @param fileName the name of the file to write the vacuumed database into; the file must not exist
+	 * or be empty
+	 * @return the statement having the form<br>
+	 * <code><strong>VACUUM [<em>schemaName</em>] INTO '<em>fileName</em>'</strong></code>
+	 */
+	public Into into(String fileName) {
+		return into(Literal.value(fileName));
+	}
+
+	/**
+	 * Makes the statement write the vacuumed database into the file (or URI) determined by the expression,
+	 * leaving the original database unchanged.<br>
+	 * The result is a complete SQL statement.
+	 * @param fileNameExpression the expression evaluating to the name of the file to write
+	 * the vacuumed database into; the file must not exist or be empty
+	 * @return the statement having the form<br>
+	 * <code><strong>VACUUM [<em>schemaName</em>] INTO <em>fileNameExpression</em></strong></code>
+	 */
+	public Into into(SqlExpression fileNameExpression) {
+		return new Into(this, fileNameExpression);
+	}
+
 	@Override
 	public Vacuum copy() throws IllegalStateException {
 		CharSequence schemaNameCopy = schemaName == null ? null : schemaName.toString();
@@ -0,0 +1,194 @@
+package dev.ornamental.sqlite.statement;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Publishes the pages of a paginated statement (see {@link KeysetPagination}) to the
+ * {@link Flow.Subscriber subscribers} of the Java 9 reactive streams interfaces; this class is available
+ * when the library is used on Java 9 or later (it is a part of the multi-release jar only).<br>
+ * Each subscriber reads the pages from the first one with its own iterator
+ * (see {@link KeysetPagination#pages(BiFunction, Function)}). The reading is driven by the demand
+ * of the subscriber: a page is read only when it has been requested, so at most the requested pages
+ * are held in memory. The pages are read and the subscriber is signalled by the specified executor
+ * (by default, by {@link AsyncExecution#defaultExecutor()}, as the functions reading the pages usually block);
+ * the signals to a subscriber are never concurrent. The subscription ends with
+ * {@link Flow.Subscriber#onComplete()} after an empty or incomplete page, or with
+ * {@link Flow.Subscriber#onError(Throwable)} if reading a page fails.<br>
+ * The instances of this class are immutable provided the pagination and the functions are.
+ * @param <R> the type of the rows
+ */
+public final class PagePublisher<R> implements Flow.Publisher<List<R>> {
+
+	/**
+	 * The subscription of a single subscriber. Its signals are emitted by the drain task, which is
+	 * scheduled when there is something to do (a new demand or a cancellation) and is never run
+	 * concurrently with itself: the work counter is incremented for every scheduling request,
+	 * and only the request finding it zero submits the task, which runs until the counter drops to zero.
+	 */
+	private static final class PageSubscription<R> implements Flow.Subscription, Runnable {
+
+		private final Flow.Subscriber<? super List<R>> subscriber;
+
+		private final Iterator<List<R>> pages;
+
+		private final Executor executor;
+
+		private final AtomicLong requested = new AtomicLong();
+
+		private final AtomicInteger work = new AtomicInteger(1); // the subscription task is scheduled at creation
+
+		private volatile boolean cancelled;
+
+		private volatile boolean invalidRequest;
+
+		private boolean subscribed; // accessed by the drain task only
+
+		PageSubscription(
+			Flow.Subscriber<? super List<R>> subscriber, Iterator<List<R>> pages, Executor executor) {
+
+			this.subscriber = subscriber;
+			this.pages = pages;
+			this.executor = executor;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				invalidRequest = true;
+			} else {
+				requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+			}
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+			do {
+				try {
+					drain();
+				} catch (RuntimeException e) {
+					// a subscriber method has thrown, which cancels the subscription
+					cancelled = true;
+				}
+				missed = work.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		private void schedule() {
+			if (work.getAndIncrement() == 0) {
+				executor.execute(this);
+			}
+		}
+
+		private void drain() {
+			if (!subscribed) {
+				subscribed = true;
+				subscriber.onSubscribe(this);
+			}
+			while (!cancelled) {
+				if (invalidRequest) {
+					cancelled = true;
+					subscriber.onError(new IllegalArgumentException("The number of requested pages must be positive."));
+					return;
+				} else if (requested.get() == 0) {
+					return;
+				}
+
+				List<R> page;
+				try {
+					page = pages.hasNext() ? pages.next() : null;
+				} catch (RuntimeException e) {
+					cancelled = true;
+					subscriber.onError(e);
+					return;
+				}
+				if (page == null) {
+					cancelled = true;
+					subscriber.onComplete();
+					return;
+				}
+				requested.decrementAndGet();
+				subscriber.onNext(page);
+			}
+		}
+	}
+
+	private final KeysetPagination pagination;
+
+	private final Executor executor;
+
+	private final BiFunction<? super String, ? super List<Object>, ? extends List<? extends R>> runner;
+
+	private final Function<? super R, ? extends List<?>> keyOf;
+
+	private PagePublisher(
+		KeysetPagination pagination, Executor executor,
+		BiFunction<? super String, ? super List<Object>, ? extends List<? extends R>> runner,
+		Function<? super R, ? extends List<?>> keyOf) {
+
+		this.pagination = pagination;
+		this.executor = executor;
+		this.runner = runner;
+		this.keyOf = keyOf;
+	}
+
+	/**
+	 * Creates the publisher of the pages of the paginated statement reading the pages
+	 * using the {@link AsyncExecution#defaultExecutor() default executor}.
+	 * @param pagination the paginated statement
+	 * @param runner the function executing the SQL text passed as its first argument
+	 * with the parameter values passed as its second argument and returning the rows of the page
+	 * @param keyOf the function extracting the values of the sorting keys (in the order of the keys)
+	 * from a row
+	 * @param <R> the type of the rows
+	 * @return the publisher of the pages
+	 */
+	public static <R> PagePublisher<R> of(
+		KeysetPagination pagination,
+		BiFunction<? super String, ? super List<Object>, ? extends List<? extends R>> runner,
+		Function<? super R, ? extends List<?>> keyOf) {
+
+		return of(pagination, AsyncExecution.defaultExecutor(), runner, keyOf);
+	}
+
+	/**
+	 * Creates the publisher of the pages of the paginated statement reading the pages
+	 * using the specified executor.
+	 * @param pagination the paginated statement
+	 * @param executor the executor reading the pages and signalling the subscribers
+	 * @param runner the function executing the SQL text passed as its first argument
+	 * with the parameter values passed as its second argument and returning the rows of the page
+	 * @param keyOf the function extracting the values of the sorting keys (in the order of the keys)
+	 * from a row
+	 * @param <R> the type of the rows
+	 * @return the publisher of the pages
+	 */
+	public static <R> PagePublisher<R> of(
+		KeysetPagination pagination, Executor executor,
+		BiFunction<? super String, ? super List<Object>, ? extends List<? extends R>> runner,
+		Function<? super R, ? extends List<?>> keyOf) {
+
+		return new PagePublisher<>(pagination, executor, runner, keyOf);
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super List<R>> subscriber) {
+		// the statements are rendered on the subscribing thread, as in AsyncExecution
+		PageSubscription<R> subscription =
+			new PageSubscription<>(subscriber, pagination.pages(runner, keyOf), executor);
+		executor.execute(subscription);
+	}
+}
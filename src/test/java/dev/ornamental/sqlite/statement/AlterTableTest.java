@@ -1,17 +1,31 @@
 package dev.ornamental.sqlite.statement;
 
 import static dev.ornamental.sqlite.statement.Collation.RTRIM;
+import static dev.ornamental.sqlite.statement.Functions.ifNull;
+import static dev.ornamental.sqlite.statement.Functions.lower;
+import static dev.ornamental.sqlite.statement.GeneratedColumnStorage.VIRTUAL;
 import static dev.ornamental.sqlite.statement.Literal.value;
 import static dev.ornamental.sqlite.statement.OnConflictAction.ABORT;
 import static dev.ornamental.sqlite.statement.OnConflictAction.FAIL;
 import static dev.ornamental.sqlite.statement.OnConflictAction.IGNORE;
 import static dev.ornamental.sqlite.statement.OnConflictAction.REPLACE;
 import static dev.ornamental.sqlite.statement.OnConflictAction.ROLLBACK;
+import static dev.ornamental.sqlite.statement.ResultElements.all;
+import static dev.ornamental.sqlite.statement.SelectStatements.select;
 import static dev.ornamental.sqlite.statement.SortingOrder.ASC;
 import static dev.ornamental.sqlite.statement.SqlExpressions.column;
 import static dev.ornamental.sqlite.statement.SqlStatements.alterTable;
+import static dev.ornamental.sqlite.statement.SqlStatements.createIndex;
+import static dev.ornamental.sqlite.statement.SqlStatements.createTable;
+import static dev.ornamental.sqlite.statement.SqlStatements.createView;
+import static dev.ornamental.sqlite.statement.TableExpressions.table;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -84,6 +98,26 @@ public final class AlterTableTest {
 			alterTable("Table").addColumn("newColumn")
 				.constraint("date").defaultCurrentDate()
 				.constraint().uniqueOnConflict(REPLACE)
+		).addCase(
+			"ALTER TABLE \"User\" ADD COLUMN \"loginKey\" TEXT "
+				+ "GENERATED ALWAYS AS (LOWER(\"login\")) VIRTUAL "
+				+ "CONSTRAINT \"check key\" CHECK (\"loginKey\" <> '')",
+
+			alterTable("User").addColumn("loginKey").ofType("TEXT")
+				.constraint().generatedAs(lower(column("login")), VIRTUAL)
+				.constraint("check key").check(column("loginKey").neq(value("")))
+		)
+		.build();
+
+	private final StatementTestCases alterTableColumnCases = new StatementTestCases.Builder()
+		.addCase(
+			"ALTER TABLE \"Table1\" RENAME COLUMN \"a\" TO \"b\"",
+
+			alterTable("Table1").renameColumn("a", "b")
+		).addCase(
+			"ALTER TABLE \"Some Schema\".\"Table1\" DROP COLUMN \"a\"",
+
+			alterTable("Some Schema", "Table1").dropColumn("a")
 		)
 		.build();
 
@@ -96,4 +130,192 @@ public final class AlterTableTest {
 	public void testAlterTableAddColumn() {
 		alterTableAddColumnCases.test();
 	}
+
+	@Test
+	public void testTableRebuild() {
+		TableRebuild rebuild = TableRebuild.of(
+			createTable("Person")
+				.addColumn("id").ofType("INTEGER").withColumnConstraint().primaryKey()
+				.addColumn("name").ofType("TEXT")
+				.addColumn("born").ofType("TEXT")
+				.addColumn("nameLower").withColumnConstraint().generatedAs(lower(column("name"))),
+			createTable("new_Person")
+				.addColumn("id").ofType("INTEGER").withColumnConstraint().primaryKey()
+				.addColumn("name").ofType("TEXT").withColumnConstraint().notNull()
+				.addColumn("birthDate").ofType("TEXT")
+				.strict())
+			.mapColumn("name", ifNull(column("name"), value("")))
+			.mapColumn("birthDate", column("born"))
+			.withIndex(createIndex().named("IDX_person_name").onTable("Person").addColumn("name"))
+			.withView(createView("Adult").as(select(all()).from(table("Person"))))
+			.withChunkSize(5000);
+
+		assertEquals(
+			Arrays.asList(
+				"PRAGMA foreign_keys(FALSE)",
+				"CREATE TABLE \"new_Person\"(\"id\" INTEGER PRIMARY KEY, \"name\" TEXT NOT NULL, "
+					+ "\"birthDate\" TEXT) STRICT"),
+			build(rebuild.prepare()));
+		assertEquals(
+			Arrays.asList(
+				"INSERT INTO \"new_Person\"(\"id\", \"name\", \"birthDate\") "
+					+ "SELECT \"id\", IFNULL(\"name\", ''), \"born\" FROM \"Person\" "
+					+ "WHERE \"ROWID\" BETWEEN 1 AND 5000",
+				"INSERT INTO \"new_Person\"(\"id\", \"name\", \"birthDate\") "
+					+ "SELECT \"id\", IFNULL(\"name\", ''), \"born\" FROM \"Person\" "
+					+ "WHERE \"ROWID\" BETWEEN 5001 AND 7500"),
+			build(rebuild.copyChunks(1, 7500)));
+		assertEquals(
+			Arrays.asList(
+				"BEGIN IMMEDIATE TRANSACTION",
+				"DROP VIEW IF EXISTS \"Adult\"",
+				"DROP TABLE \"Person\"",
+				"ALTER TABLE \"new_Person\" RENAME TO \"Person\"",
+				"CREATE INDEX \"IDX_person_name\" ON \"Person\"(\"name\")",
+				"CREATE VIEW \"Adult\" AS SELECT * FROM \"Person\"",
+				"PRAGMA foreign_key_check",
+				"COMMIT TRANSACTION",
+				"PRAGMA foreign_keys(TRUE)"),
+			build(rebuild.finish()));
+		assertEquals(
+			Arrays.asList(
+				"BEGIN IMMEDIATE TRANSACTION",
+				"DROP VIEW IF EXISTS \"Adult\"",
+				"DROP TABLE \"Person\"",
+				"ALTER TABLE \"new_Person\" RENAME TO \"Person\"",
+				"CREATE INDEX \"IDX_person_name\" ON \"Person\"(\"name\")",
+				"CREATE VIEW \"Adult\" AS SELECT * FROM \"Person\"",
+				"COMMIT TRANSACTION"),
+			build(rebuild.finish(false)));
+	}
+
+	@Test
+	public void testAlterTableColumn() {
+		alterTableColumnCases.test();
+	}
+
+	@Test
+	public void testSchemaMigration() {
+		SchemaModel source = SchemaModel.empty()
+			.withTable(createTable("Person")
+				.addColumn("id").ofType("INTEGER").withColumnConstraint().primaryKey()
+				.addColumn("name").ofType("TEXT"))
+			.withTable(createTable("Log")
+				.addColumn("msg").ofType("TEXT")
+				.addColumn("level").ofType("INTEGER"))
+			.withTable(createTable("Tag").addColumn("label").ofType("TEXT"))
+			.withTable(createTable("Obsolete").addColumn("x"))
+			.withIndex(createIndex().named("IDX_person_name").onTable("Person").addColumn(column("name")))
+			.withIndex(createIndex().named("IDX_tag").onTable("Tag").addColumn(column("label")))
+			.withView(createView("People").as(select(all()).from(table("Person"))));
+		SchemaModel target = SchemaModel.empty()
+			.withTable(createTable("Person")
+				.addColumn("id").ofType("INTEGER").withColumnConstraint().primaryKey()
+				.addColumn("fullName").ofType("TEXT"))
+			.withTable(createTable("Log")
+				.addColumn("msg").ofType("TEXT")
+				.addColumn("ts").ofType("TEXT").withColumnConstraint().defaultValue(value("")))
+			.withTable(createTable("Tag")
+				.addColumn("label").ofType("TEXT").withColumnConstraint().notNull())
+			.withIndex(createIndex().named("IDX_person_name").onTable("Person").addColumn(column("fullName")))
+			.withIndex(createIndex().named("IDX_tag").onTable("Tag").addColumn(column("label")))
+			.withView(createView("People").as(select(all()).from(table("Person"))));
+
+		SchemaMigration migration = source.migrationTo(target);
+		assertEquals(
+			Arrays.asList(
+				"DROP VIEW IF EXISTS \"People\"",
+				"DROP TABLE \"Obsolete\"",
+				"ALTER TABLE \"Person\" RENAME COLUMN \"name\" TO \"fullName\"",
+				"ALTER TABLE \"Log\" DROP COLUMN \"level\"",
+				"ALTER TABLE \"Log\" ADD COLUMN \"ts\" TEXT DEFAULT ''",
+				"PRAGMA foreign_keys(FALSE)",
+				"CREATE TABLE \"new_Tag\"(\"label\" TEXT NOT NULL)",
+				"INSERT INTO \"new_Tag\"(\"label\") SELECT \"label\" FROM \"Tag\"",
+				"BEGIN IMMEDIATE TRANSACTION",
+				"DROP TABLE \"Tag\"",
+				"ALTER TABLE \"new_Tag\" RENAME TO \"Tag\"",
+				"PRAGMA foreign_key_check",
+				"COMMIT TRANSACTION",
+				"PRAGMA foreign_keys(TRUE)",
+				"CREATE INDEX \"IDX_tag\" ON \"Tag\"(\"label\")",
+				"CREATE VIEW \"People\" AS SELECT * FROM \"Person\""),
+			build(migration.statements()));
+		assertEquals(MigrationCost.TABLE_REWRITE, migration.cost());
+		assertEquals(Arrays.asList("Log", "Tag"), migration.rewrittenTables());
+		// Obsolete is dropped (1 x 100), Log is rewritten (2 x 10), Tag is rebuilt (2 x 1000) and indexed (1000)
+		assertEquals(3120, migration.estimateRowOperations(
+			table -> table.equals("Log") ? 10 : table.equals("Tag") ? 1000 : 100));
+		assertTrue(source.migrationTo(source).isEmpty());
+		source.migrationTo(target.withTable(createTable("New").addColumn("x")))
+			.requireCostAtMost(MigrationCost.TABLE_REWRITE);
+	}
+
+	@Test
+	public void testSchemaMigrationMatchesColumnsStructurally() {
+		// the quoted column name in the string literal is neither a reference nor renamed
+		SchemaModel source = SchemaModel.empty()
+			.withTable(createTable("T")
+				.addColumn("a").ofType("TEXT")
+				.addColumn("c").ofType("TEXT")
+				.withTableConstraint().primaryKey().addColumn("a")
+				.withTableConstraint().check(column("c").neq(value("\"a\""))))
+			.withTable(createTable("V")
+				.addColumn("a").ofType("TEXT")
+				.addColumn("ab").ofType("TEXT").withColumnConstraint().check(column("ab").neq(value("\"a\""))))
+			.withTable(createTable("U").addColumn("x").ofType("TEXT"))
+			.withTable(createTable("aux", "U").addColumn("x").ofType("TEXT"))
+			.withIndex(createIndex().named("aux", "IDX_u").onTable("U").addColumn(column("x")));
+		SchemaModel target = SchemaModel.empty()
+			.withTable(createTable("T")
+				.addColumn("b").ofType("TEXT")
+				.addColumn("c").ofType("TEXT")
+				.withTableConstraint().primaryKey().addColumn("b")
+				.withTableConstraint().check(column("c").neq(value("\"a\""))))
+			.withTable(createTable("V")
+				.addColumn("ab").ofType("TEXT").withColumnConstraint().check(column("ab").neq(value("\"a\""))))
+			.withTable(createTable("U").addColumn("x").ofType("TEXT").withColumnConstraint().notNull())
+			.withTable(createTable("aux", "U").addColumn("x").ofType("TEXT"))
+			.withIndex(createIndex().named("aux", "IDX_u").onTable("U").addColumn(column("x")));
+
+		// rebuilding the table U of the main schema does not recreate the index of the table aux.U
+		assertEquals(
+			Arrays.asList(
+				"ALTER TABLE \"T\" RENAME COLUMN \"a\" TO \"b\"",
+				"ALTER TABLE \"V\" DROP COLUMN \"a\"",
+				"PRAGMA foreign_keys(FALSE)",
+				"CREATE TABLE \"new_U\"(\"x\" TEXT NOT NULL)",
+				"INSERT INTO \"new_U\"(\"x\") SELECT \"x\" FROM \"U\"",
+				"BEGIN IMMEDIATE TRANSACTION",
+				"DROP TABLE \"U\"",
+				"ALTER TABLE \"new_U\" RENAME TO \"U\"",
+				"PRAGMA foreign_key_check",
+				"COMMIT TRANSACTION",
+				"PRAGMA foreign_keys(TRUE)"),
+			build(source.migrationTo(target).statements()));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testSchemaMigrationCostLimit() {
+		SchemaModel.empty().withTable(createTable("T").addColumn("a").addColumn("b"))
+			.migrationTo(SchemaModel.empty().withTable(createTable("T").addColumn("a")))
+			.requireCostAtMost(MigrationCost.TABLE_SCAN);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTableRebuildUnknownColumn() {
+		TableRebuild.of(
+			createTable("T").addColumn("a"),
+			createTable("new_T").addColumn("b"))
+			.mapColumn("a", column("a"));
+	}
+
+	private static List<String> build(List<? extends SqlStatement> statements) {
+		List<String> result = new ArrayList<>();
+		for (SqlStatement statement : statements) {
+			result.add(statement.build());
+		}
+
+		return result;
+	}
 }
@@ -0,0 +1,101 @@
+package dev.ornamental.sqlite.statement;
+
+import static dev.ornamental.sqlite.statement.SelectStatements.select;
+import static dev.ornamental.sqlite.statement.SqlExpressions.column;
+import static dev.ornamental.sqlite.statement.TableExpressions.table;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+
+import org.junit.Test;
+
+public final class AsyncExecutionTest {
+
+	private static final Executor DIRECT = Runnable::run;
+
+	private final KeysetPagination pagination =
+		KeysetPagination.of(select(column("id")).from(table("Event")), 2, column("id"));
+
+	private final List<String> executedSql = new ArrayList<>();
+
+	private final List<List<Object>> executedParameters = new ArrayList<>();
+
+	// reads the ids 1..5 in pages of two rows
+	private final BiFunction<String, List<Object>, List<Long>> runner = (sql, parameters) -> {
+		executedSql.add(sql);
+		executedParameters.add(parameters);
+		long after = parameters.isEmpty() ? 0 : (Long)parameters.get(0);
+		List<Long> rows = new ArrayList<>();
+		for (long id = after + 1; id <= Math.min(after + 2, 5); id++) {
+			rows.add(id);
+		}
+		return rows;
+	};
+
+	@Test
+	public void testExecute() {
+		CompletableFuture<String> result = AsyncExecution.execute(
+			select(column("id")).from(table("Event")), DIRECT, sql -> "executed " + sql);
+		assertEquals("executed SELECT \"id\" FROM \"Event\"", result.join());
+	}
+
+	@Test
+	public void testDefaultExecutor() {
+		// the blocking functions are not run by the common pool
+		String thread = AsyncExecution.execute(
+			select(column("id")).from(table("Event")), sql -> Thread.currentThread().getName()).join();
+		assertFalse(thread.startsWith("ForkJoinPool.commonPool"));
+		assertSame(AsyncExecution.defaultExecutor(), AsyncExecution.defaultExecutor());
+	}
+
+	@Test
+	public void testPages() {
+		Iterator<List<Long>> pages = pagination.pages(runner, Collections::singletonList);
+		assertTrue(executedSql.isEmpty());
+
+		assertEquals(Arrays.asList(1L, 2L), pages.next());
+		assertEquals(Arrays.asList(3L, 4L), pages.next());
+		assertEquals(Collections.singletonList(5L), pages.next());
+		assertFalse(pages.hasNext());
+		assertEquals(Arrays.asList(
+			"SELECT \"id\" FROM \"Event\" ORDER BY \"id\" ASC LIMIT 2",
+			"SELECT \"id\" FROM \"Event\" WHERE \"id\" > ?1 ORDER BY \"id\" ASC LIMIT 2",
+			"SELECT \"id\" FROM \"Event\" WHERE \"id\" > ?1 ORDER BY \"id\" ASC LIMIT 2"),
+			executedSql);
+		assertEquals(Arrays.asList(Collections.emptyList(), Arrays.asList(2L), Arrays.asList(4L)), executedParameters);
+	}
+
+	@Test
+	public void testForEachPage() {
+		List<List<Long>> consumed = new ArrayList<>();
+		List<CompletableFuture<Void>> processing = new ArrayList<>();
+		CompletableFuture<Void> result = AsyncExecution.forEachPage(pagination, DIRECT, runner,
+			Collections::singletonList,
+			page -> {
+				consumed.add(page);
+				CompletableFuture<Void> processed = new CompletableFuture<>();
+				processing.add(processed);
+				return processed;
+			});
+
+		// the next page is read only when the consumer has processed the previous one
+		assertEquals(1, executedSql.size());
+		processing.get(0).complete(null);
+		assertEquals(2, executedSql.size());
+		processing.get(1).complete(null);
+		processing.get(2).complete(null);
+		assertTrue(result.isDone());
+		assertEquals(3, consumed.size());
+		assertEquals(3, executedSql.size());
+	}
+}
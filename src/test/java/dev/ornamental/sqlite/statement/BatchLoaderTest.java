@@ -0,0 +1,157 @@
+package dev.ornamental.sqlite.statement;
+
+import static dev.ornamental.sqlite.statement.SelectStatements.select;
+import static dev.ornamental.sqlite.statement.SqlExpressions.column;
+import static dev.ornamental.sqlite.statement.TableExpressions.table;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public final class BatchLoaderTest {
+
+	private final List<String> executedSql = new ArrayList<>();
+
+	private final List<List<Object>> executedParameters = new ArrayList<>();
+
+	private final BatchLoader<Long, long[]> loader = BatchLoader.of(
+		select(column("id"), column("ownerId")).from(table("Item")), column("ownerId"), 3,
+		row -> row[1],
+		(sql, parameters) -> {
+			executedSql.add(sql);
+			executedParameters.add(parameters);
+			return Arrays.asList(new long[] { 10, 1 }, new long[] { 11, 2 }, new long[] { 12, 1 });
+		});
+
+	@Test
+	public void testBatching() {
+		CompletableFuture<List<long[]>> first = loader.load(1L);
+		CompletableFuture<List<long[]>> second = loader.load(2L);
+		assertSame(first, loader.load(1L));
+		assertFalse(first.isDone());
+
+		loader.dispatch();
+		assertEquals(
+			Collections.singletonList("SELECT \"id\", \"ownerId\" FROM \"Item\" WHERE \"ownerId\" IN (?1, ?2)"),
+			executedSql);
+		assertEquals(Arrays.asList(1L, 2L), executedParameters.get(0));
+		assertEquals(2, first.join().size());
+		assertEquals(11, second.join().get(0)[0]);
+
+		CompletableFuture<List<long[]>> third = loader.load(3L);
+		loader.load(4L);
+		loader.load(5L);
+		assertTrue(third.isDone());
+		assertTrue(third.join().isEmpty());
+		assertEquals(Arrays.asList(3L, 4L, 5L, 5L), executedParameters.get(1));
+	}
+
+	@Test
+	public void testStatements() {
+		assertEquals(
+			"SELECT \"id\", \"ownerId\" FROM \"Item\" WHERE \"ownerId\" IN (?1)",
+			loader.statement(1).build());
+		assertEquals(
+			"SELECT \"id\", \"ownerId\" FROM \"Item\" WHERE \"ownerId\" IN (?1, ?2, ?3, ?4)",
+			loader.statement(3).build());
+	}
+
+	@Test
+	public void testLargeBatch() {
+		// the keys beyond the IN list limit are bound as the parameters of another query
+		BatchLoader<Long, long[]> large = BatchLoader.of(
+			select(column("id"), column("ownerId")).from(table("Item")), column("ownerId"), 1000,
+			row -> row[1],
+			(sql, parameters) -> {
+				executedSql.add(sql);
+				executedParameters.add(parameters);
+				return Collections.singletonList(new long[] { 10, (Long)parameters.get(0) });
+			});
+
+		List<CompletableFuture<List<long[]>>> results = new ArrayList<>();
+		for (long ownerId = 1; ownerId <= BatchLoader.IN_LIST_LIMIT + 1; ownerId++) {
+			results.add(large.load(ownerId));
+		}
+		large.dispatch();
+
+		assertEquals(2, executedSql.size());
+		assertEquals(large.statement(BatchLoader.IN_LIST_LIMIT).build(), executedSql.get(0));
+		assertEquals(BatchLoader.IN_LIST_LIMIT, executedParameters.get(0).size());
+		assertEquals(large.statement(1).build(), executedSql.get(1));
+		assertEquals(Collections.singletonList((long)BatchLoader.IN_LIST_LIMIT + 1), executedParameters.get(1));
+		assertEquals(1, results.get(0).join().size());
+		assertTrue(results.get(1).join().isEmpty());
+		assertEquals(1, results.get(BatchLoader.IN_LIST_LIMIT).join().size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testStatementLimit() {
+		loader.statement(BatchLoader.IN_LIST_LIMIT + 1);
+	}
+
+	@Test
+	public void testWindow() throws Exception {
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		try {
+			BatchLoader<Long, long[]> windowed = BatchLoader.of(
+				select(column("id"), column("ownerId")).from(table("Item")), column("ownerId"), 10,
+				row -> row[1],
+				(sql, parameters) -> {
+					synchronized (executedParameters) {
+						executedParameters.add(parameters);
+					}
+					return Collections.singletonList(new long[] { 10, 1 });
+				},
+				scheduler, 1, TimeUnit.MILLISECONDS);
+
+			// the scheduler thread is held, so both keys are requested within the window
+			CountDownLatch held = new CountDownLatch(1);
+			scheduler.execute(() -> {
+				try {
+					held.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			CompletableFuture<List<long[]>> first = windowed.load(1L);
+			CompletableFuture<List<long[]>> second = windowed.load(2L);
+			assertFalse(first.isDone());
+			held.countDown();
+
+			// the batch is executed when the window elapses, without dispatch()
+			assertEquals(1, first.get(10, TimeUnit.SECONDS).size());
+			assertTrue(second.get(10, TimeUnit.SECONDS).isEmpty());
+			synchronized (executedParameters) {
+				assertEquals(Collections.singletonList(Arrays.asList(1L, 2L)), executedParameters);
+			}
+		} finally {
+			scheduler.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testFailure() {
+		BatchLoader<Long, long[]> failing = BatchLoader.of(
+			select(column("id")).from(table("Item")), column("id"), 10,
+			row -> row[0],
+			(sql, parameters) -> {
+				throw new IllegalStateException("database is locked");
+			});
+
+		CompletableFuture<List<long[]>> result = failing.load(1L);
+		failing.dispatch();
+		assertTrue(result.isCompletedExceptionally());
+	}
+}
@@ -0,0 +1,69 @@
+package dev.ornamental.sqlite.statement;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public final class ChangeLogTest {
+
+	private static final class Item extends Table {
+
+		Item() {
+			super("shop", "Item");
+		}
+	}
+
+	private final ChangeLog changeLog = ChangeLog.of(new Item(), 500);
+
+	@Test
+	public void testChangeLog() {
+		assertEquals(
+			"CREATE TABLE \"shop\".\"Item_changes\"(\"seq\" INTEGER PRIMARY KEY AUTOINCREMENT, "
+				+ "\"changedRow\" INTEGER NOT NULL, \"operation\" TEXT NOT NULL)",
+			changeLog.createTable().build());
+
+		List<CreateTrigger> triggers = changeLog.createTriggers();
+		assertEquals(
+			"CREATE TRIGGER \"shop\".\"Item_changes_insert\" AFTER INSERT ON \"Item\" BEGIN "
+				+ "INSERT INTO \"Item_changes\"(\"changedRow\", \"operation\") VALUES (\"NEW\".\"ROWID\", 'I'); END",
+			triggers.get(0).build());
+		assertEquals(
+			"CREATE TRIGGER \"shop\".\"Item_changes_update\" AFTER UPDATE ON \"Item\" BEGIN "
+				+ "INSERT INTO \"Item_changes\"(\"changedRow\", \"operation\") "
+				+ "SELECT \"OLD\".\"ROWID\", 'D' WHERE \"OLD\".\"ROWID\" IS NOT \"NEW\".\"ROWID\"; "
+				+ "INSERT INTO \"Item_changes\"(\"changedRow\", \"operation\") VALUES (\"NEW\".\"ROWID\", 'U'); END",
+			triggers.get(1).build());
+		assertEquals(
+			"CREATE TRIGGER \"shop\".\"Item_changes_delete\" AFTER DELETE ON \"Item\" BEGIN "
+				+ "INSERT INTO \"Item_changes\"(\"changedRow\", \"operation\") VALUES (\"OLD\".\"ROWID\", 'D'); END",
+			triggers.get(2).build());
+		assertEquals(5, changeLog.statements().size());
+	}
+
+	@Test
+	public void testReplaceRequiresRecursiveTriggers() {
+		// the rows deleted by REPLACE fire the delete trigger only with the recursive triggers enabled
+		assertEquals("PRAGMA recursive_triggers(TRUE)", changeLog.statements().get(0).build());
+	}
+
+	@Test
+	public void testReading() {
+		assertEquals(
+			"SELECT \"Item_changes\".\"seq\", \"Item_changes\".\"changedRow\", \"Item_changes\".\"operation\", "
+				+ "\"Item\".* FROM \"shop\".\"Item_changes\" LEFT JOIN \"shop\".\"Item\" "
+				+ "ON \"Item\".\"ROWID\" = \"Item_changes\".\"changedRow\" "
+				+ "WHERE \"Item_changes\".\"seq\" > ?1 ORDER BY \"Item_changes\".\"seq\" LIMIT 500",
+			changeLog.changesSince().build());
+		assertEquals(
+			"DELETE FROM \"shop\".\"ItemLog\" WHERE \"seq\" <= ?1",
+			changeLog.named("ItemLog").prune().build());
+		assertEquals(TriggerEvent.UPDATE, ChangeLog.operationOf("U"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownOperation() {
+		ChangeLog.operationOf("X");
+	}
+}
@@ -0,0 +1,99 @@
+package dev.ornamental.sqlite.statement;
+
+import static dev.ornamental.sqlite.statement.Literal.value;
+import static dev.ornamental.sqlite.statement.SelectStatements.select;
+import static dev.ornamental.sqlite.statement.SqlExpressions.column;
+import static dev.ornamental.sqlite.statement.SqlStatements.deleteFrom;
+import static dev.ornamental.sqlite.statement.SqlStatements.update;
+import static dev.ornamental.sqlite.statement.TableExpressions.table;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+public final class ConnectionPoolTest {
+
+	private final List<String> executed = new ArrayList<>();
+
+	// the tasks are run when the test decides to
+	private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+	private final ConnectionPool<String> pool = ConnectionPool.of(
+		PerformanceProfile.empty().cacheSize(1000, CacheSizeUnit.PAGE),
+		"writer", Arrays.asList("reader1", "reader2"),
+		(connection, sql) -> executed.add(connection + ": " + sql), tasks::add);
+
+	@Test
+	public void testInitialization() {
+		assertEquals(
+			Arrays.asList(
+				"writer: PRAGMA cache_size(1000)",
+				"reader1: PRAGMA cache_size(1000)", "reader1: PRAGMA query_only(TRUE)",
+				"reader2: PRAGMA cache_size(1000)", "reader2: PRAGMA query_only(TRUE)"),
+			executed);
+	}
+
+	@Test
+	public void testRouting() {
+		executed.clear();
+		CompletableFuture<String> firstRead = pool.execute(select(column("id")).from(table("Item")), this::run);
+		CompletableFuture<String> secondRead = pool.execute(select(value(1)), this::run);
+		CompletableFuture<String> firstWrite = pool.execute(deleteFrom("Log"), this::run);
+		CompletableFuture<String> secondWrite = pool.execute(update("Item").set("id", value(0)), this::run);
+		CompletableFuture<String> thirdRead = pool.execute(select(value(2)), this::run);
+
+		// the second write and the third read wait for the connections to become idle
+		assertEquals(3, tasks.size());
+		while (!tasks.isEmpty()) {
+			tasks.poll().run();
+		}
+		assertEquals("reader1: SELECT \"id\" FROM \"Item\"", firstRead.join());
+		assertEquals("reader2: SELECT 1", secondRead.join());
+		assertEquals("writer: DELETE FROM \"Log\"", firstWrite.join());
+		assertEquals("writer: UPDATE \"Item\" SET \"id\" = 0", secondWrite.join());
+		assertEquals("reader1: SELECT 2", thirdRead.join());
+
+		// the idle connections are reused
+		pool.execute(select(value(3)), this::run);
+		assertEquals(1, tasks.size());
+	}
+
+	@Test
+	public void testFailure() {
+		CompletableFuture<String> failed = pool.execute(deleteFrom("Log"), (connection, sql) -> {
+			throw new IllegalStateException("database is locked");
+		});
+		CompletableFuture<String> next = pool.execute(deleteFrom("Log"), this::run);
+		tasks.poll().run();
+
+		assertTrue(failed.isCompletedExceptionally());
+		assertEquals("writer: DELETE FROM \"Log\"", next.join());
+		assertTrue(tasks.isEmpty());
+	}
+
+	@Test
+	public void testWithoutReaders() {
+		ConnectionPool<String> single = ConnectionPool.of(
+			PerformanceProfile.empty(), "writer", Collections.emptyList(), (connection, sql) -> { }, Runnable::run);
+
+		assertEquals("writer: SELECT 1", single.execute(select(value(1)), this::run).join());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicateConnection() {
+		ConnectionPool.of(
+			PerformanceProfile.empty(), "writer", Collections.singletonList("writer"), (connection, sql) -> { });
+	}
+
+	private String run(String connection, String sql) {
+		return connection + ": " + sql;
+	}
+}
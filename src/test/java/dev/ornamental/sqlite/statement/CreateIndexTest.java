@@ -35,6 +35,11 @@ public final class CreateIndexTest {
 
 			createUniqueIndexIfNotExists().named("IDX_lastDigit")
 				.onTable("Measurement").addColumn(column("value").mod(value(10)))
+		).addCase(
+			"CREATE UNIQUE INDEX \"IDX_emailKey\" ON \"Account\"(\"emailKey\")",
+
+			// indexing a generated column is the same as indexing an ordinary one
+			createUniqueIndex().named("IDX_emailKey").onTable("Account").addColumn("emailKey")
 		)
 		.build();
 
@@ -6,6 +6,10 @@ import static dev.ornamental.sqlite.statement.ForeignKeyAction.CASCADE;
 import static dev.ornamental.sqlite.statement.ForeignKeyAction.NO_ACTION;
 import static dev.ornamental.sqlite.statement.ForeignKeyAction.RESTRICT;
 import static dev.ornamental.sqlite.statement.Functions.length;
+import static dev.ornamental.sqlite.statement.Functions.lower;
+import static dev.ornamental.sqlite.statement.Functions.substr;
+import static dev.ornamental.sqlite.statement.GeneratedColumnStorage.STORED;
+import static dev.ornamental.sqlite.statement.GeneratedColumnStorage.VIRTUAL;
 import static dev.ornamental.sqlite.statement.Literal.value;
 import static dev.ornamental.sqlite.statement.OnConflictAction.ABORT;
 import static dev.ornamental.sqlite.statement.OnConflictAction.FAIL;
@@ -113,6 +117,49 @@ public final class CreateTableTest {
 					.withColumnConstraint().references("State").onUpdate(RESTRICT).onDelete(RESTRICT)
 					.withColumnConstraint().defaultValue(1)
 					.withColumnConstraint().notNull()
+		).addCase(
+			"CREATE TABLE \"Account\"(\"email\" TEXT NOT NULL, \"price\" REAL, \"qty\" INTEGER, "
+				+ "\"emailKey\" TEXT GENERATED ALWAYS AS (LOWER(\"email\")) STORED UNIQUE, "
+				+ "\"total\" REAL GENERATED ALWAYS AS (\"price\" * \"qty\") VIRTUAL, "
+				+ "\"prefix\" CONSTRAINT \"GEN_prefix\" GENERATED ALWAYS AS (SUBSTR(\"email\", 1, 3)))",
+
+			createTable("Account")
+				.addColumn("email").ofType("TEXT").withColumnConstraint().notNull()
+				.addColumn("price").ofType("REAL")
+				.addColumn("qty").ofType("INTEGER")
+				.addColumn("emailKey").ofType("TEXT")
+					.withColumnConstraint().generatedAs(lower(column("email")), STORED)
+					.withColumnConstraint().unique()
+				.addColumn("total").ofType("REAL")
+					.withColumnConstraint().generatedAs(column("price").mult(column("qty")), VIRTUAL)
+				.addColumn("prefix")
+					.withColumnConstraint("GEN_prefix").generatedAs(substr(column("email"), value(1), value(3)))
+		)
+		.build();
+
+	private final StatementTestCases createStrictTableCases = new StatementTestCases.Builder()
+		.addCase(
+			"CREATE TABLE \"Key\"(\"id\" INTEGER PRIMARY KEY, \"value\" ANY NOT NULL) STRICT",
+
+			createTable("Key")
+				.addColumn("id").ofType(Types.INTEGER).withColumnConstraint().primaryKey()
+				.addColumn("value").ofType(Types.ANY).withColumnConstraint().notNull()
+				.strict()
+		).addCase(
+			"CREATE TABLE \"Pair\"(\"key\" text, \"value\" BLOB, PRIMARY KEY(\"key\")) STRICT, WITHOUT ROWID",
+
+			createTable("Pair")
+				.addColumn("key").ofType("text")
+				.addColumn("value").ofType(Types.BLOB)
+				.withTableConstraint().primaryKey().addColumn("key")
+				.strict().withoutRowId()
+		).addCase(
+			"CREATE TABLE \"Pair\"(\"key\" INT PRIMARY KEY, \"value\" REAL) WITHOUT ROWID, STRICT",
+
+			createTable("Pair")
+				.addColumn("key").ofType(Types.INT).withColumnConstraint().primaryKey()
+				.addColumn("value").ofType(Types.REAL)
+				.withoutRowId().strict()
 		)
 		.build();
 
@@ -148,6 +195,24 @@ public final class CreateTableTest {
 		createTableFromDefinitionCases.test();
 	}
 
+	@Test
+	public void testCreateStrictTable() {
+		createStrictTableCases.test();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testStrictTableWithUntypedColumn() {
+		createTable("Loose").addColumn("id").ofType(Types.INTEGER).addColumn("untyped").strict().build();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testStrictTableWithNonStrictType() {
+		createTable("Loose")
+			.addColumn("name").ofType(Types.VARCHAR).withColumnConstraint().notNull()
+			.addColumn("id").ofType(Types.INTEGER)
+			.withoutRowId().strict().build();
+	}
+
 	@Test
 	public void testCreateTableFromSelect() {
 		createTableFromSelectCases.test();
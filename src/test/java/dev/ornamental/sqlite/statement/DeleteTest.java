@@ -7,7 +7,9 @@ import static dev.ornamental.sqlite.statement.SelectStatements.select;
 import static dev.ornamental.sqlite.statement.SortingOrder.ASC;
 import static dev.ornamental.sqlite.statement.SqlExpressions.column;
 import static dev.ornamental.sqlite.statement.SqlStatements.deleteFrom;
+import static dev.ornamental.sqlite.statement.SqlStatements.update;
 import static dev.ornamental.sqlite.statement.TableExpressions.table;
+import static org.junit.Assert.assertEquals;
 
 import org.junit.Test;
 
@@ -38,8 +40,43 @@ public final class DeleteTest {
 		)
 		.build();
 
+	private final ChunkedWrite chunkedPurge =
+		ChunkedWrite.of(deleteFrom("Log").where(column("level").eq(value("DEBUG")).or(column("level").isNull())), 1000);
+
+	private final StatementTestCases chunkedDeleteCases = new StatementTestCases.Builder()
+		.addCase(
+			"DELETE FROM \"Log\" WHERE (\"level\" = 'DEBUG' OR \"level\" ISNULL) AND \"ROWID\" BETWEEN ?1 AND ?2",
+
+			chunkedPurge.rangeChunk()
+		).addCase(
+			"DELETE FROM \"Log\" WHERE (\"level\" = 'DEBUG' OR \"level\" ISNULL) AND \"ROWID\" BETWEEN 1001 AND 2000",
+
+			chunkedPurge.rangeChunks(1, 2500).get(1)
+		).addCase(
+			"DELETE FROM \"Log\" WHERE (\"level\" = 'DEBUG' OR \"level\" ISNULL) AND \"ROWID\" BETWEEN 2001 AND 2500",
+
+			chunkedPurge.rangeChunks(1, 2500).get(2)
+		).addCase(
+			"DELETE FROM \"Log\" WHERE \"level\" = 'DEBUG' OR \"level\" ISNULL LIMIT 1000",
+
+			chunkedPurge.limitChunk()
+		).addCase(
+			"UPDATE \"Event\" SET \"archived\" = 1 WHERE \"archived\" = 0 AND \"id\" BETWEEN ?1 AND ?2",
+
+			ChunkedWrite.of(update("Event").set("archived", value(1)).where(column("archived").eq(value(0))), 500)
+				.byKey(column("id")).rangeChunk()
+		)
+		.build();
+
 	@Test
 	public void testDelete() {
 		deleteCases.test();
 	}
+
+	@Test
+	public void testChunkedDelete() {
+		chunkedDeleteCases.test();
+		assertEquals(3, chunkedPurge.rangeChunks(1, 2500).size());
+		assertEquals(1, chunkedPurge.rangeChunks(Long.MAX_VALUE - 10, Long.MAX_VALUE).size());
+	}
 }
@@ -0,0 +1,82 @@
+package dev.ornamental.sqlite.statement;
+
+import static dev.ornamental.sqlite.statement.SqlExpressions.parameter;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public final class GraphTraversalTest {
+
+	private static final class Category extends Table {
+
+		Category() {
+			super("Category");
+		}
+	}
+
+	private final GraphTraversal traversal = GraphTraversal.of(new Category(), "parentId", "id");
+
+	@Test
+	public void testDescendants() {
+		assertEquals(
+			"WITH \"traversal\"(\"node\", \"depth\") AS (SELECT ?1, 0 UNION ALL "
+				+ "SELECT \"Category\".\"id\", \"traversal\".\"depth\" + 1 FROM \"traversal\" "
+				+ "INNER JOIN \"Category\" ON \"Category\".\"parentId\" = \"traversal\".\"node\") "
+				+ "SELECT \"node\", \"depth\" FROM \"traversal\" WHERE \"depth\" > 0",
+			traversal.descendantsOf(parameter("?1")).build());
+	}
+
+	@Test
+	public void testGuardedTraversal() {
+		assertEquals(
+			"WITH \"traversal\"(\"node\", \"depth\", \"path\") AS (SELECT ?1, 0, '/' || ?1 || '/' UNION "
+				+ "SELECT \"Category\".\"parentId\", \"traversal\".\"depth\" + 1, "
+				+ "\"traversal\".\"path\" || \"Category\".\"parentId\" || '/' FROM \"traversal\" "
+				+ "INNER JOIN \"Category\" ON \"Category\".\"id\" = \"traversal\".\"node\" "
+				+ "WHERE \"traversal\".\"depth\" < 3 "
+				+ "AND INSTR(\"traversal\".\"path\", '/' || \"Category\".\"parentId\" || '/') = 0) "
+				+ "SELECT \"node\", \"depth\" FROM \"traversal\" WHERE \"depth\" > 0",
+			traversal.maxDepth(3).withCycleGuard().union().ancestorsOf(parameter("?1")).build());
+		assertEquals(
+			"WITH \"traversal\"(\"ancestor\", \"descendant\", \"depth\") AS ("
+				+ "SELECT \"Category\".\"parentId\", \"Category\".\"id\", 1 FROM \"Category\" UNION ALL "
+				+ "SELECT \"traversal\".\"ancestor\", \"Category\".\"id\", \"traversal\".\"depth\" + 1 "
+				+ "FROM \"traversal\" INNER JOIN \"Category\" "
+				+ "ON \"Category\".\"parentId\" = \"traversal\".\"descendant\" WHERE \"traversal\".\"depth\" < 5) "
+				+ "SELECT \"ancestor\", \"descendant\", \"depth\" FROM \"traversal\"",
+			traversal.maxDepth(5).transitiveClosure().build());
+	}
+
+	@Test
+	public void testShortestHops() {
+		assertEquals(
+			"WITH \"traversal\"(\"node\", \"depth\") AS (SELECT ?1, 0 UNION "
+				+ "SELECT \"Category\".\"id\", \"traversal\".\"depth\" + 1 FROM \"traversal\" "
+				+ "INNER JOIN \"Category\" ON \"Category\".\"parentId\" = \"traversal\".\"node\" "
+				+ "WHERE \"traversal\".\"depth\" < (SELECT COUNT(*) FROM \"Category\") ORDER BY 2) "
+				+ "SELECT \"depth\" FROM \"traversal\" WHERE \"node\" = ?2 LIMIT 1",
+			traversal.shortestHops(parameter("?1"), parameter("?2")).build());
+
+		// neither the path nor UNION ALL is used, so a node is queued once per depth
+		assertEquals(
+			"WITH \"traversal\"(\"node\", \"depth\") AS (SELECT ?1, 0 UNION "
+				+ "SELECT \"Category\".\"id\", \"traversal\".\"depth\" + 1 FROM \"traversal\" "
+				+ "INNER JOIN \"Category\" ON \"Category\".\"parentId\" = \"traversal\".\"node\" "
+				+ "WHERE \"traversal\".\"depth\" < 5 ORDER BY 2) "
+				+ "SELECT \"depth\" FROM \"traversal\" WHERE \"node\" = ?2 LIMIT 1",
+			traversal.maxDepth(5).withCycleGuard().shortestHops(parameter("?1"), parameter("?2")).build());
+	}
+
+	@Test
+	public void testIndexes() {
+		List<ExplicableStatement> indexes = traversal.createIndexes();
+		assertEquals(
+			"CREATE INDEX \"Category_parentId_id\" ON \"Category\"(\"parentId\", \"id\")",
+			indexes.get(0).build());
+		assertEquals(
+			"CREATE INDEX \"Category_id_parentId\" ON \"Category\"(\"id\", \"parentId\")",
+			indexes.get(1).build());
+	}
+}
@@ -0,0 +1,132 @@
+package dev.ornamental.sqlite.statement;
+
+import static dev.ornamental.sqlite.statement.Literal.value;
+import static dev.ornamental.sqlite.statement.SqlExpressions.column;
+import static dev.ornamental.sqlite.statement.SqlStatements.beginTransaction;
+import static dev.ornamental.sqlite.statement.SqlStatements.deleteFrom;
+import static dev.ornamental.sqlite.statement.SqlStatements.update;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public final class GroupCommitTest {
+
+	private final List<SqlStatement> writes = Arrays.asList(
+		update("Counter").set("value", column("value").plus(value(1))).where(column("id").eq(value(1))),
+		deleteFrom("Log").where(column("id").lt(value(100))),
+		update("Counter").set("value", value(0)).where(column("id").eq(value(2))));
+
+	@Test
+	public void testGroupCommit() {
+		GroupCommit group = GroupCommit.of(writes);
+
+		List<String> actual = new ArrayList<>();
+		for (SqlStatement statement : group.statements()) {
+			actual.add(statement.build());
+		}
+		assertEquals(
+			Arrays.asList(
+				"BEGIN IMMEDIATE TRANSACTION",
+				"SAVEPOINT group_member_0",
+				"UPDATE \"Counter\" SET \"value\" = \"value\" + 1 WHERE \"id\" = 1",
+				"RELEASE SAVEPOINT group_member_0",
+				"SAVEPOINT group_member_1",
+				"DELETE FROM \"Log\" WHERE \"id\" < 100",
+				"RELEASE SAVEPOINT group_member_1",
+				"SAVEPOINT group_member_2",
+				"UPDATE \"Counter\" SET \"value\" = 0 WHERE \"id\" = 2",
+				"RELEASE SAVEPOINT group_member_2",
+				"COMMIT TRANSACTION"),
+			actual);
+
+		assertEquals("ROLLBACK TRANSACTION TO SAVEPOINT group_member_1", group.rollbackTo(1).build());
+	}
+
+	@Test
+	public void testPartition() {
+		List<GroupCommit> groups = GroupCommit.partition(2, writes);
+
+		assertEquals(2, groups.size());
+		assertEquals(2, groups.get(0).size());
+		assertEquals(1, groups.get(1).size());
+		assertEquals("DELETE FROM \"Log\" WHERE \"id\" < 100", groups.get(0).statement(1).build());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTransactionControlMember() {
+		GroupCommit.of(Arrays.asList(writes.get(0), beginTransaction()));
+	}
+
+	@Test
+	public void testCoordinator() {
+		List<String> executedSql = new ArrayList<>();
+		CommitCoordinator<Integer> coordinator = CommitCoordinator.of(3, sql -> {
+			executedSql.add(sql);
+			if (sql.startsWith("DELETE")) {
+				throw new IllegalStateException("constraint failed");
+			}
+			return executedSql.size();
+		});
+
+		CompletableFuture<Integer> first = coordinator.submit(writes.get(0));
+		CompletableFuture<Integer> second = coordinator.submit(writes.get(1));
+		assertFalse(first.isDone());
+		assertTrue(executedSql.isEmpty());
+
+		// the failure of a member is confined to its savepoint
+		CompletableFuture<Integer> third = coordinator.submit(writes.get(2));
+		assertEquals(
+			Arrays.asList(
+				"BEGIN IMMEDIATE TRANSACTION",
+				"SAVEPOINT group_member_0",
+				"UPDATE \"Counter\" SET \"value\" = \"value\" + 1 WHERE \"id\" = 1",
+				"RELEASE SAVEPOINT group_member_0",
+				"SAVEPOINT group_member_1",
+				"DELETE FROM \"Log\" WHERE \"id\" < 100",
+				"ROLLBACK TRANSACTION TO SAVEPOINT group_member_1",
+				"RELEASE SAVEPOINT group_member_1",
+				"SAVEPOINT group_member_2",
+				"UPDATE \"Counter\" SET \"value\" = 0 WHERE \"id\" = 2",
+				"RELEASE SAVEPOINT group_member_2",
+				"COMMIT TRANSACTION"),
+			executedSql);
+		assertEquals(3, (int)first.join());
+		assertTrue(second.isCompletedExceptionally());
+		assertEquals(10, (int)third.join());
+
+		executedSql.clear();
+		CompletableFuture<Integer> fourth = coordinator.submit(writes.get(0));
+		coordinator.flush();
+		assertEquals(5, executedSql.size());
+		assertEquals(3, (int)fourth.join());
+	}
+
+	@Test
+	public void testCoordinatorWindow() {
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		try {
+			List<String> executedSql = Collections.synchronizedList(new ArrayList<>());
+			CommitCoordinator<Integer> coordinator = CommitCoordinator.of(100, sql -> {
+				executedSql.add(sql);
+				return 1;
+			}, scheduler, 1, TimeUnit.MILLISECONDS);
+
+			// the group is committed by the scheduler although it is not full
+			assertEquals(1, (int)coordinator.submit(writes.get(0)).join());
+			assertEquals("COMMIT TRANSACTION", executedSql.get(executedSql.size() - 1));
+		} finally {
+			scheduler.shutdownNow();
+		}
+	}
+}
@@ -8,6 +8,7 @@ import static dev.ornamental.sqlite.statement.SelectStatements.values;
 import static dev.ornamental.sqlite.statement.SqlStatements.with;
 import static dev.ornamental.sqlite.statement.SqlExpressions.column;
 import static dev.ornamental.sqlite.statement.SqlExpressions.rowOf;
+import static dev.ornamental.sqlite.statement.SqlStatements.createIndex;
 import static dev.ornamental.sqlite.statement.SqlStatements.insertInto;
 import static dev.ornamental.sqlite.statement.SqlStatements.insertOrAbortInto;
 import static dev.ornamental.sqlite.statement.SqlStatements.insertOrFailInto;
@@ -15,6 +16,17 @@ import static dev.ornamental.sqlite.statement.SqlStatements.insertOrIgnoreInto;
 import static dev.ornamental.sqlite.statement.SqlStatements.insertOrReplaceInto;
 import static dev.ornamental.sqlite.statement.SqlStatements.insertOrRollbackInto;
 import static dev.ornamental.sqlite.statement.TableExpressions.table;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
 
 import org.junit.Test;
 
@@ -89,4 +101,86 @@ public final class InsertTest {
 	public void testInsert() {
 		insertCases.test();
 	}
+
+	@Test
+	public void testBulkLoad() {
+		BulkLoad load = BulkLoad.of(insertInto("main", "Measurement").columns("sensorId", "time", "value"))
+			.withMaxParameters(10)
+			.withIndex(createIndex().named("IDX_sensor_time").onTable("Measurement")
+				.addColumn("sensorId").addColumn("time"));
+
+		assertEquals(3, load.rowsPerStatement());
+		assertEquals(
+			"INSERT INTO \"main\".\"Measurement\"(\"sensorId\", \"time\", \"value\") "
+				+ "VALUES (?, ?, ?), (?, ?, ?), (?, ?, ?)",
+			load.insert().build());
+		assertEquals(
+			"INSERT INTO \"main\".\"Measurement\"(\"sensorId\", \"time\", \"value\") VALUES (?, ?, ?)",
+			load.insert(1).build());
+
+		List<SqlStatement> prologue = load.prologue();
+		assertEquals("PRAGMA journal_mode(MEMORY)", prologue.get(0).build());
+		assertEquals("DROP INDEX IF EXISTS \"IDX_sensor_time\"", prologue.get(prologue.size() - 1).build());
+		assertEquals(
+			"CREATE INDEX \"IDX_sensor_time\" ON \"Measurement\"(\"sensorId\", \"time\")",
+			load.epilogue().get(0).build());
+	}
+
+	@Test
+	public void testBulkLoader() {
+		BulkLoad plan = BulkLoad.of(insertInto("Item").columns("id", "name"))
+			.withProfile(PerformanceProfile.empty())
+			.withMaxParameters(4)
+			.withIndex(createIndex().named("IDX_name").onTable("Item").addColumn("name"));
+		List<String> executedSql = Collections.synchronizedList(new ArrayList<>());
+		List<Object> parameters = Collections.synchronizedList(new ArrayList<>());
+		List<Long> reportedRows = Collections.synchronizedList(new ArrayList<>());
+
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			BulkLoader<Integer> loader = BulkLoader.<Integer>of(
+				plan,
+				id -> Arrays.asList(id, "n" + id),
+				(sql, values) -> {
+					executedSql.add(sql);
+					if (values.contains(50)) {
+						throw new IllegalStateException("UNIQUE constraint failed");
+					}
+					parameters.addAll(values);
+					return null;
+				})
+				.withExecutor(executor)
+				.withProducers(1)
+				.withRowsPerTransaction(4)
+				.withReporter(progress -> reportedRows.add(progress.rows()));
+
+			BulkLoader.Progress progress = loader.load(IntStream.range(0, 5).iterator()).join();
+			assertEquals(5, progress.rows());
+			assertEquals(5 * 8 + 5 * 2, progress.bytes());
+			assertEquals(Arrays.asList(4L, 5L), reportedRows);
+			assertEquals(
+				Arrays.asList(
+					"DROP INDEX IF EXISTS \"IDX_name\"",
+					"BEGIN IMMEDIATE TRANSACTION",
+					"INSERT INTO \"Item\"(\"id\", \"name\") VALUES (?, ?), (?, ?)",
+					"INSERT INTO \"Item\"(\"id\", \"name\") VALUES (?, ?), (?, ?)",
+					"COMMIT TRANSACTION",
+					"BEGIN IMMEDIATE TRANSACTION",
+					"INSERT INTO \"Item\"(\"id\", \"name\") VALUES (?, ?)",
+					"COMMIT TRANSACTION",
+					"CREATE INDEX \"IDX_name\" ON \"Item\"(\"name\")"),
+				executedSql);
+			assertEquals(Arrays.asList(0, "n0", 1, "n1", 2, "n2", 3, "n3", 4, "n4"), parameters);
+
+			// a failed load is rolled back and the indexes are recreated
+			executedSql.clear();
+			CompletableFuture<BulkLoader.Progress> failed = loader.withProducers(2)
+				.load(IntStream.range(0, 100).iterator());
+			assertTrue(failed.handle((result, e) -> e != null).join());
+			assertEquals("ROLLBACK TRANSACTION", executedSql.get(executedSql.size() - 2));
+			assertEquals("CREATE INDEX \"IDX_name\" ON \"Item\"(\"name\")", executedSql.get(executedSql.size() - 1));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
 }
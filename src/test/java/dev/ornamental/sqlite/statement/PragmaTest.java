@@ -1,6 +1,103 @@
 package dev.ornamental.sqlite.statement;
 
+import static dev.ornamental.sqlite.statement.Literal.value;
+import static dev.ornamental.sqlite.statement.Pragmas.mmapSize;
+import static dev.ornamental.sqlite.statement.SelectStatements.select;
+import static dev.ornamental.sqlite.statement.SqlStatements.deleteFrom;
+import static dev.ornamental.sqlite.statement.SqlStatements.explainQueryPlan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
 public final class PragmaTest {
 
 	// TODO [MEDIUM] write the tests
+
+	private final StatementTestCases mmapSizeCases = new StatementTestCases.Builder()
+		.addCase(
+			"PRAGMA mmap_size(0)",
+
+			mmapSize(0)
+		).addCase(
+			"PRAGMA \"main\".mmap_size(214748364800)",
+
+			mmapSize("main", 200L << 30)
+		)
+		.build();
+
+	@Test
+	public void testMmapSize() {
+		mmapSizeCases.test();
+	}
+
+	@Test
+	public void testPerformanceProfile() {
+		assertTrue(PerformanceProfile.empty().statements().isEmpty());
+
+		assertEquals(
+			Arrays.asList(
+				"PRAGMA journal_mode(WAL)",
+				"PRAGMA synchronous(NORMAL)",
+				"PRAGMA wal_autocheckpoint(1000)",
+				"PRAGMA cache_size(-65536)",
+				"PRAGMA mmap_size(4294967296)",
+				"PRAGMA temp_store(MEMORY)"),
+			build(PerformanceProfile.readHeavyWal().statements()));
+
+		assertEquals(
+			Arrays.asList(
+				"PRAGMA page_size(65536)",
+				"PRAGMA journal_mode(MEMORY)",
+				"PRAGMA synchronous(OFF)",
+				"PRAGMA cache_size(-262144)",
+				"PRAGMA temp_store(MEMORY)"),
+			build(PerformanceProfile.bulkLoad().pageSize(65536).statements()));
+
+		assertEquals(
+			Arrays.asList(
+				"PRAGMA cache_size(100)",
+				"PRAGMA mmap_size(0)",
+				"PRAGMA temp_store(FILE)"),
+			build(PerformanceProfile.lowMemory().cacheSize(100, CacheSizeUnit.PAGE).statements()));
+	}
+
+	@Test
+	public void testReaderProfile() {
+		assertEquals(
+			Arrays.asList(
+				"PRAGMA cache_size(-65536)",
+				"PRAGMA mmap_size(4294967296)",
+				"PRAGMA temp_store(MEMORY)",
+				"PRAGMA query_only(TRUE)"),
+			build(PerformanceProfile.readHeavyWal().readerStatements()));
+
+		assertEquals(StatementAccess.READ, StatementAccess.of(select(value(1))));
+		assertEquals(StatementAccess.READ, StatementAccess.of(explainQueryPlan(deleteFrom("Log"))));
+		assertEquals(StatementAccess.WRITE, StatementAccess.of(deleteFrom("Log")));
+		assertEquals(StatementAccess.WRITE, StatementAccess.of(mmapSize()));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testPerformanceProfileWalCheckpointWithoutWal() {
+		PerformanceProfile.bulkLoad().walAutoCheckpoint(1000).statements();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPerformanceProfileInvalidPageSize() {
+		PerformanceProfile.empty().pageSize(3000);
+	}
+
+	private static List<String> build(List<SqlStatement> statements) {
+		List<String> result = new ArrayList<>();
+		for (SqlStatement statement : statements) {
+			result.add(statement.build());
+		}
+
+		return result;
+	}
 }
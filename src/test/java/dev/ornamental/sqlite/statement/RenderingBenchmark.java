@@ -0,0 +1,69 @@
+package dev.ornamental.sqlite.statement;
+
+import static dev.ornamental.sqlite.statement.Literal.value;
+import static dev.ornamental.sqlite.statement.ResultElements.all;
+import static dev.ornamental.sqlite.statement.SelectStatements.select;
+import static dev.ornamental.sqlite.statement.SqlExpressions.column;
+import static dev.ornamental.sqlite.statement.SqlExpressions.parameter;
+import static dev.ornamental.sqlite.statement.TableExpressions.table;
+
+import java.util.function.Supplier;
+
+/**
+ * Measures the time of rendering and copying the shallow statements, which the iterative rendering
+ * of the deep chains must not slow down. This is not a test: run it with
+ * <code>java -cp <em>classes</em> dev.ornamental.sqlite.statement.RenderingBenchmark</code>
+ * and compare the results obtained for the revisions being compared.
+ */
+public final class RenderingBenchmark {
+
+	private static final int WARMUP_ROUNDS = 10;
+
+	private static final int ROUNDS = 30;
+
+	private static final int ITERATIONS = 200_000;
+
+	private static int sink;
+
+	private RenderingBenchmark() { }
+
+	public static void main(String[] args) {
+		SelectStatement query = select(column("o", "id"), column("c", "name"))
+			.from(table("Order").alias("o").innerJoin(table("Customer").alias("c"))
+				.on(column("o", "customerId").eq(column("c", "id"))))
+			.where(column("o", "status").eq(parameter("?1"))
+				.and(column("o", "total").gt(value(100)))
+				.or(column("c", "vip").eq(value(1))))
+			.orderBy(column("o", "id"))
+			.limit(50);
+		SelectStatement compound = select(all()).from(table("Order")).where(column("id").lt(value(10)))
+			.unionAll().select(all()).from(table("ArchivedOrder")).where(column("id").lt(value(10)))
+			.unionAll(select(all()).from(table("PendingOrder")))
+			.orderBy(column("id"));
+
+		measure("shallow select build", query::build);
+		measure("shallow select copy", query::copy);
+		measure("shallow compound build", compound::build);
+		measure("shallow compound copy", compound::copy);
+	}
+
+	private static void measure(String name, Supplier<?> operation) {
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			run(operation);
+		}
+
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < ROUNDS; i++) {
+			best = Math.min(best, run(operation));
+		}
+		System.out.printf("%-24s %8.1f ns/op%n", name, (double)best / ITERATIONS);
+	}
+
+	private static long run(Supplier<?> operation) {
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			sink += System.identityHashCode(operation.get());
+		}
+		return System.nanoTime() - start;
+	}
+}
@@ -2,7 +2,11 @@ package dev.ornamental.sqlite.statement;
 
 import static dev.ornamental.sqlite.statement.Functions.count;
 import static dev.ornamental.sqlite.statement.Functions.countAll;
+import static dev.ornamental.sqlite.statement.Functions.groupConcat;
+import static dev.ornamental.sqlite.statement.Functions.groupConcatDistinct;
+import static dev.ornamental.sqlite.statement.Functions.instr;
 import static dev.ornamental.sqlite.statement.Functions.max;
+import static dev.ornamental.sqlite.statement.Functions.sum;
 import static dev.ornamental.sqlite.statement.Literal.value;
 import static dev.ornamental.sqlite.statement.ResultElements.all;
 import static dev.ornamental.sqlite.statement.SelectStatements.select;
@@ -10,10 +14,20 @@ import static dev.ornamental.sqlite.statement.SelectStatements.valuesInRow;
 import static dev.ornamental.sqlite.statement.SqlStatements.with;
 import static dev.ornamental.sqlite.statement.SortingOrder.DESC;
 import static dev.ornamental.sqlite.statement.SqlExpressions.column;
+import static dev.ornamental.sqlite.statement.SqlExpressions.not;
 import static dev.ornamental.sqlite.statement.SqlExpressions.notExists;
+import static dev.ornamental.sqlite.statement.SqlExpressions.parameter;
 import static dev.ornamental.sqlite.statement.SqlExpressions.rowOf;
 import static dev.ornamental.sqlite.statement.TableExpressions.table;
 import static dev.ornamental.sqlite.statement.TableExpressions.virtualTable;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -101,6 +115,44 @@ public final class SelectTest {
 			"SELECT \"value\" FROM \"generate_series\"(5, 50)",
 
 			select(column("value")).from(virtualTable("generate_series", value(5), value(50)))
+		).addCase(
+			"SELECT COUNT(*) FILTER (WHERE \"status\" = 'open') AS \"open\", "
+			+ "SUM(\"amount\") FILTER (WHERE \"status\" = 'paid') AS \"paid\", "
+			+ "GROUP_CONCAT(\"name\", ', ' ORDER BY \"priority\" DESC, \"name\") AS \"names\", "
+			+ "GROUP_CONCAT(DISTINCT \"tag\" ORDER BY \"tag\") FILTER (WHERE \"tag\" NOTNULL) AS \"tags\" "
+			+ "FROM \"Ticket\"",
+
+			select(
+				countAll().filter(column("status").eq(value("open"))).as("open"),
+				sum(column("amount")).filter(column("status").eq(value("paid"))).as("paid"),
+				groupConcat(column("name"), ", ").orderBy(column("priority"), DESC).orderBy(column("name"))
+					.as("names"),
+				groupConcatDistinct(column("tag")).orderBy(column("tag")).filter(column("tag").isNotNull())
+					.as("tags"))
+			.from(table("Ticket"))
+		)
+		.build();
+
+	private final KeysetPagination eventPages = KeysetPagination.of(
+		select(all()).from(table("Event")), 500, column("timestamp"), column("id"))
+		.where(column("kind").eq(value("login")));
+
+	private final StatementTestCases paginationCases = new StatementTestCases.Builder()
+		.addCase(
+			"SELECT * FROM \"Event\" WHERE \"kind\" = 'login' "
+				+ "ORDER BY \"timestamp\" ASC, \"id\" ASC LIMIT 500",
+
+			eventPages.firstPage()
+		).addCase(
+			"SELECT * FROM \"Event\" WHERE \"kind\" = 'login' AND (\"timestamp\", \"id\") > (?1, ?2) "
+				+ "ORDER BY \"timestamp\" ASC, \"id\" ASC LIMIT 500",
+
+			eventPages.nextPage()
+		).addCase(
+			"SELECT \"id\" FROM \"Event\" WHERE \"id\" < 1000 ORDER BY \"id\" DESC LIMIT 10",
+
+			KeysetPagination.of(select(column("id")).from(table("Event")), 10, column("id"))
+				.descending().pageAfter(Collections.singletonList(value(1000)))
 		)
 		.build();
 
@@ -108,4 +160,238 @@ public final class SelectTest {
 	public void testSelect() {
 		selectCases.test();
 	}
+
+	@Test
+	public void testKeysetPagination() {
+		paginationCases.test();
+	}
+
+	@Test
+	public void testInterning() {
+		assertSame(value(1024), value(1024));
+		assertNotSame(value(1025), value(1025));
+		assertSame(Literal.internedValue("active"), Literal.internedValue("active"));
+
+		ExpressionInterner interner = new ExpressionInterner();
+		SqlExpression first = interner.intern(column("Task", "status").eq(value("active")).and(column("deleted")));
+		SqlExpression second = interner.intern(column("Task", "status").eq(value("active")).and(column("deleted")));
+		assertSame(first, second);
+		assertSame(interner.column("deleted"), interner.intern(column("deleted")));
+		assertEquals(
+			"SELECT * FROM \"Task\" WHERE \"Task\".\"status\" = 'active' AND \"deleted\"",
+			select(all()).from(table("Task")).where(second).build());
+	}
+
+	@Test
+	public void testCompactChains() {
+		Select.Sorted sorted = select(all()).from(table("Task"))
+			.orderBy(column("priority"), DESC).orderBy(column("created")).orderBy(column("id"));
+		Select.Sorted compact = sorted.copy();
+		assertNotSame(sorted, compact);
+		assertSame(compact, compact.copy());
+		assertEquals(sorted.build(), compact.build());
+		assertEquals(
+			"SELECT * FROM \"Task\" ORDER BY \"priority\" DESC, \"created\", \"id\"",
+			compact.build());
+
+		Select.CompoundSet compound = select(column("id")).from(table("A"))
+			.union(select(column("id")).from(table("B")))
+			.unionAll(select(column("id")).from(table("C")))
+			.except(select(column("id")).from(table("D")));
+		Select.CompoundSet compactCompound = compound.copy();
+		assertNotSame(compound, compactCompound);
+		assertSame(compactCompound, compactCompound.copy());
+		assertEquals(
+			"SELECT \"id\" FROM \"A\" UNION SELECT \"id\" FROM \"B\" "
+				+ "UNION ALL SELECT \"id\" FROM \"C\" EXCEPT SELECT \"id\" FROM \"D\"",
+			compactCompound.build());
+		assertEquals(compound.build(), compactCompound.build());
+	}
+
+	@Test
+	public void testDeepChains() {
+		final int depth = 100_000;
+
+		SqlExpression condition = column("id").eq(value(0));
+		SqlExpression mixed = column("id").eq(value(0));
+		Select.NotSorted union = select(value(0));
+		Select.Sorted sorted = select(all()).from(table("Task")).orderBy(column("c0"));
+		CommonTableExpression cte = with("t0").as(select(value(0)));
+		for (int i = 1; i < depth; i++) {
+			condition = condition.or(column("id").eq(value(i)));
+			mixed = i % 2 == 0 ? mixed.or(column("id").eq(value(i))) : mixed.and(column("id").eq(value(i)));
+			union = union.unionAll(select(value(i)));
+			sorted = sorted.orderBy(column("c" + i));
+			cte = cte.andWith("t" + i).as(select(value(i)));
+		}
+
+		String where = select(all()).from(table("Task")).where(condition).build();
+		assertTrue(where.startsWith("SELECT * FROM \"Task\" WHERE ((\"id\" = 0 OR \"id\" = 1 OR "));
+		assertTrue(where.endsWith(" OR \"id\" = 99999))"));
+		assertEquals(where, select(all()).from(table("Task")).where(condition.copy()).build());
+
+		// the alternating operators nest an expression per term
+		String mixedWhere = select(all()).from(table("Task")).where(mixed).build();
+		String prefix = "SELECT * FROM \"Task\" WHERE ";
+		int operand = prefix.length() + depth / 2 - 1;
+		assertTrue(mixedWhere.startsWith(prefix + "(((("));
+		assertTrue(mixedWhere.startsWith("\"id\" = 0 AND \"id\" = 1 OR \"id\" = 2) AND ", operand));
+		assertTrue(mixedWhere.endsWith(" OR \"id\" = 99998) AND \"id\" = 99999"));
+		assertEquals(mixedWhere, select(all()).from(table("Task")).where(mixed.copy()).build());
+
+		String unionText = union.build();
+		assertTrue(unionText.startsWith("SELECT 0 UNION ALL SELECT 1 UNION ALL "));
+		assertTrue(unionText.endsWith(" UNION ALL SELECT 99999"));
+		assertEquals(unionText, union.copy().build());
+
+		String sortedText = sorted.build();
+		assertTrue(sortedText.endsWith(", \"c99998\", \"c99999\""));
+		assertEquals(sortedText, sorted.copy().build());
+
+		String cteText = cte.select(all()).from(table("t99999")).build();
+		assertTrue(cteText.startsWith("WITH \"t0\" AS (SELECT 0), \"t1\" AS (SELECT 1), "));
+		assertEquals(cteText, cte.copy().select(all()).from(table("t99999")).build());
+
+		ExpressionInterner interner = new ExpressionInterner();
+		assertSame(interner.intern(condition), interner.intern(condition.copy()));
+		assertSame(interner.intern(mixed), interner.intern(mixed.copy()));
+	}
+
+	@Test
+	public void testDeepFluentCompounds() {
+		final int operands = 100_000;
+
+		Select.NotSorted union = select(value(0)).from(table("t0"));
+		Select.NotSorted mixed = select(value(0));
+		for (int i = 1; i < operands; i++) {
+			union = union.unionAll().select(value(i)).from(table("t" + i)).where(column("id").eq(value(i)));
+			mixed = i % 3 == 0 ? mixed.union().values(i)
+				: i % 3 == 1 ? mixed.unionAll(select(value(i))) : mixed.except().select(value(i));
+		}
+
+		String unionText = union.build();
+		assertTrue(unionText.startsWith("SELECT 0 FROM \"t0\" UNION ALL SELECT 1 FROM \"t1\" WHERE \"id\" = 1 "));
+		assertTrue(unionText.endsWith(" UNION ALL SELECT 99999 FROM \"t99999\" WHERE \"id\" = 99999"));
+		assertEquals(unionText, union.copy().build());
+
+		String mixedText = mixed.build();
+		assertTrue(mixedText.startsWith("SELECT 0 UNION ALL SELECT 1 EXCEPT SELECT 2 UNION VALUES (3) UNION ALL "));
+		assertTrue(mixedText.endsWith(" UNION ALL SELECT 99997 EXCEPT SELECT 99998 UNION VALUES (99999)"));
+		assertEquals(mixedText, mixed.copy().build());
+	}
+
+	@Test
+	public void testNaryOperators() {
+		SqlExpression chained = column("a").and(column("b")).and(column("c").or(column("d"))).and(column("e"));
+		assertTrue(chained instanceof NaryOperator);
+		assertEquals(4, ((NaryOperator)chained).terms().size());
+		assertEquals("\"a\" AND \"b\" AND (\"c\" OR \"d\") AND \"e\"", build(chained));
+		assertEquals(build(chained), build(chained.copy()));
+		assertEquals(
+			"(\"a\" OR \"b\") AND \"c\" || \"d\" || 'x'",
+			build(SqlExpressions.and(
+				SqlExpressions.or(column("a"), column("b")),
+				SqlExpressions.concat(column("c"), column("d"), value("x")))));
+
+		List<SqlExpression> terms = new ArrayList<>();
+		for (int i = 0; i < 100_000; i++) {
+			terms.add(column("id").eq(value(i)));
+		}
+		String grouped = build(SqlExpressions.or(terms));
+		assertTrue(grouped.startsWith("((\"id\" = 0 OR \"id\" = 1 OR "));
+		assertTrue(grouped.endsWith(" OR \"id\" = 99999))"));
+	}
+
+	@Test
+	public void testFunctions() {
+		assertEquals(
+			"SELECT INSTR(\"path\", '/') FROM \"Category\"",
+			select(instr(column("path"), value("/"))).from(table("Category")).build());
+	}
+
+	@Test
+	public void testSimplifier() {
+		SqlExpression active = column("status").eq(value("active"));
+		assertEquals("\"status\" = 'active'", build(ExpressionSimplifier.simplify(active.and(Literal.TRUE))));
+		assertEquals("\"flags\" AND 1", build(ExpressionSimplifier.simplify(column("flags").and(value(1)))));
+		assertEquals("0", build(ExpressionSimplifier.simplify(column("flags").and(value(1).eq(value(2))))));
+		assertEquals("\"status\" = 'active'", build(ExpressionSimplifier.simplify(not(not(active)))));
+		assertEquals("NOT NOT \"flags\"", build(ExpressionSimplifier.simplify(not(not(column("flags"))))));
+		assertEquals(
+			"\"status\" = 'active' OR \"id\" > 5",
+			build(ExpressionSimplifier.simplify(
+				active.or(column("id").gt(value(2).plus(value(3)))).or(active).or(Literal.FALSE))));
+		assertEquals(
+			"\"a\" = 1 AND NULL",
+			build(ExpressionSimplifier.simplify(
+				column("a").eq(value(1)).and(Literal.NULL).and(value(1).eq(value(1))))));
+		assertEquals("NULL", build(ExpressionSimplifier.simplify(column("a").plus(Literal.NULL.mult(value(2))))));
+		assertEquals("NULL", build(ExpressionSimplifier.simplify(value(1).div(value(0)))));
+		assertEquals(
+			"9223372036854775807 + 1",
+			build(ExpressionSimplifier.simplify(value(Long.MAX_VALUE).plus(value(1)))));
+		assertEquals(
+			"'ab' || \"c\"",
+			build(ExpressionSimplifier.simplify(value("a").concat(value("b")).concat(column("c")))));
+		assertEquals(
+			"'high'",
+			build(ExpressionSimplifier.simplify(SqlExpressions.caseOf()
+				.when(Literal.FALSE).then(value("never"))
+				.when(value(1).lt(value(2))).then(value("high"))
+				.orElse(value("low")))));
+		assertEquals(
+			"CASE WHEN \"id\" > 1 THEN 'high' ELSE 'low' END",
+			build(ExpressionSimplifier.simplify(SqlExpressions.caseOf()
+				.when(Literal.NULL).then(value("never"))
+				.when(column("id").gt(value(1))).then(value("high"))
+				.when(Literal.TRUE).then(value("low")))));
+		assertEquals(
+			"\"id\" IN (1, 2)",
+			build(ExpressionSimplifier.simplify(column("id").in(value(1), value(2), value(1)))));
+		assertEquals("0", build(ExpressionSimplifier.simplify(Literal.NULL.in(new SqlExpression[0]))));
+		assertEquals("1", build(ExpressionSimplifier.simplify(value(-0.0).eq(value(0.0)))));
+		assertEquals("0", build(ExpressionSimplifier.simplify(value(-0.0).lt(value(0.0)))));
+		assertEquals("1", build(ExpressionSimplifier.simplify(value((Number)0.1f).eq(value(0.1)))));
+		assertEquals("0.1", build(ExpressionSimplifier.simplify(value((Number)0.1f).plus(value(0)))));
+		assertSame(active, ExpressionSimplifier.simplify(active));
+	}
+
+	@Test
+	public void testSargableRewriter() {
+		SargableRewriter rewriter = SargableRewriter.all();
+		assertEquals(
+			"\"id\" <= 5 OR \"name\" IS NOT NULL AND \"kind\" NOT IN (1, 2)",
+			build(rewriter.rewrite(not(column("id").gt(value(5)).and(column("name").is(Literal.NULL)
+				.or(column("kind").in(1, 2)))))));
+		assertEquals(
+			"\"kind\" IN (1, 2, ?1) OR \"id\" = 7",
+			build(rewriter.rewrite(column("kind").eq(value(1)).or(column("id").eq(value(7)))
+				.or(column("kind").eq(value(2))).or(column("kind").eq(parameter("?1"))))));
+		assertEquals(
+			"\"code\" >= '12' AND \"code\" < '13'",
+			build(rewriter.rewrite(column("code").like(value("12%")))));
+		SqlExpression like = column("name").like(value("abc%"));
+		assertSame(like, rewriter.rewrite(like));
+		assertEquals(
+			"\"name\" >= 'abc' AND \"name\" < 'abd'",
+			build(rewriter.assumingCaseSensitiveLike().rewrite(like)));
+		assertEquals(
+			"\"name\" >= 'ab' AND \"name\" < 'ac' AND \"name\" GLOB 'ab*c'",
+			build(rewriter.rewrite(column("name").glob(value("ab*c")))));
+		assertEquals(
+			"\"status\" = 'open' AND \"created\" >= '2024-02-28' AND \"created\" < '2024-02-29'",
+			build(rewriter.rewrite(column("status").eq(value("open"))
+				.and(DateTimeFunctions.date(column("created")).eq(value("2024-02-28"))))));
+		assertEquals(
+			"\"created\" < '2024-03-01'",
+			build(rewriter.rewrite(value("2024-02-29").geq(DateTimeFunctions.date(column("created"))))));
+		SqlExpression equalities = column("kind").eq(value(1)).or(column("kind").eq(value(2)));
+		assertSame(equalities, rewriter.without(SargableRewriter.Rewrite.EQUALITIES_TO_IN).rewrite(equalities));
+	}
+
+	private static String build(SqlExpression expression) {
+		StringBuilder result = new StringBuilder();
+		expression.appendTo(result);
+		return result.toString();
+	}
 }
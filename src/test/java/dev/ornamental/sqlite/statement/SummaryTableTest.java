@@ -0,0 +1,101 @@
+package dev.ornamental.sqlite.statement;
+
+import static dev.ornamental.sqlite.statement.Functions.avg;
+import static dev.ornamental.sqlite.statement.Functions.countAll;
+import static dev.ornamental.sqlite.statement.Functions.max;
+import static dev.ornamental.sqlite.statement.Functions.sum;
+import static dev.ornamental.sqlite.statement.Literal.value;
+import static dev.ornamental.sqlite.statement.SelectStatements.select;
+import static dev.ornamental.sqlite.statement.SqlExpressions.column;
+import static dev.ornamental.sqlite.statement.SqlStatements.createView;
+import static dev.ornamental.sqlite.statement.TableExpressions.table;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public final class SummaryTableTest {
+
+	@Test
+	public void testSummaryTable() {
+		SummaryTable summary = SummaryTable.of("ProductStats",
+			createView("ProductStatsView").withColumnNames("category", "products", "averagePrice").as(
+				select(column("categoryId"), countAll(), avg(column("price")))
+					.from(table("shop", "Product"))
+					.where(column("price").gt(value(0)))
+					.groupBy(column("categoryId"))));
+
+		assertEquals(
+			"CREATE TABLE \"shop\".\"ProductStats\"(\"category\", \"rowCount\" INTEGER, "
+				+ "\"averagePrice_sum\" REAL, \"averagePrice_count\" INTEGER)",
+			summary.createTable().build());
+		assertEquals(
+			"CREATE UNIQUE INDEX \"shop\".\"ProductStats_key\" ON \"ProductStats\"(\"category\")",
+			summary.createIndex().build());
+		assertEquals(
+			"INSERT INTO \"shop\".\"ProductStats\"(\"category\", \"rowCount\", \"averagePrice_sum\", "
+				+ "\"averagePrice_count\") "
+				+ "SELECT \"categoryId\", COUNT(*), TOTAL(\"price\"), COUNT(\"price\") FROM \"shop\".\"Product\" "
+				+ "WHERE \"price\" > 0 GROUP BY \"categoryId\"",
+			summary.populate().build());
+		assertEquals(4, summary.createTriggers().size());
+		assertEquals(
+			"CREATE TRIGGER \"shop\".\"ProductStats_delete\" BEFORE DELETE ON \"Product\" "
+				+ "WHEN EXISTS (SELECT 1 FROM \"Product\" WHERE \"ROWID\" = \"OLD\".\"ROWID\" AND \"price\" > 0) "
+				+ "BEGIN "
+				+ "UPDATE \"ProductStats\" SET (\"rowCount\", \"averagePrice_sum\", \"averagePrice_count\") = "
+					+ "(SELECT \"ProductStats\".\"rowCount\" - 1, "
+					+ "\"ProductStats\".\"averagePrice_sum\" - COALESCE(\"price\", 0), "
+					+ "\"ProductStats\".\"averagePrice_count\" - (\"price\" NOTNULL) "
+					+ "FROM \"Product\" WHERE \"ROWID\" = \"OLD\".\"ROWID\") "
+				+ "WHERE \"category\" IS (SELECT \"categoryId\" FROM \"Product\" WHERE \"ROWID\" = \"OLD\".\"ROWID\"); "
+				+ "DELETE FROM \"ProductStats\" WHERE \"rowCount\" = 0 "
+				+ "AND \"category\" IS (SELECT \"categoryId\" FROM \"Product\" WHERE \"ROWID\" = \"OLD\".\"ROWID\"); "
+				+ "END",
+			summary.createTriggers().get(3).build());
+		assertEquals(
+			"SELECT \"category\", \"rowCount\" AS \"products\", "
+				+ "\"averagePrice_sum\" / NULLIF(\"averagePrice_count\", 0) AS \"averagePrice\" "
+				+ "FROM \"shop\".\"ProductStats\"",
+			summary.query().build());
+	}
+
+	@Test
+	public void testWithoutGroupingKeys() {
+		SummaryTable summary = SummaryTable.of("PaymentTotal",
+			select(sum(column("amount")).as("amount")).from(table("Payment")).groupBy());
+
+		assertNull(summary.createIndex());
+		assertEquals(
+			"CREATE TRIGGER \"PaymentTotal_insert\" AFTER INSERT ON \"Payment\" BEGIN "
+				+ "INSERT INTO \"PaymentTotal\"(\"rowCount\", \"amount\", \"amount_count\") SELECT 0, 0, 0 "
+				+ "FROM \"Payment\" WHERE \"ROWID\" = \"NEW\".\"ROWID\" "
+				+ "AND NOT EXISTS (SELECT 1 FROM \"PaymentTotal\"); "
+				+ "UPDATE \"PaymentTotal\" SET (\"rowCount\", \"amount\", \"amount_count\") = "
+					+ "(SELECT \"PaymentTotal\".\"rowCount\" + 1, "
+					+ "\"PaymentTotal\".\"amount\" + COALESCE(\"amount\", 0), "
+					+ "\"PaymentTotal\".\"amount_count\" + (\"amount\" NOTNULL) "
+					+ "FROM \"Payment\" WHERE \"ROWID\" = \"NEW\".\"ROWID\"); "
+				+ "END",
+			summary.createTriggers().get(0).build());
+		assertEquals(
+			"SELECT CASE WHEN \"amount_count\" > 0 THEN \"amount\" END AS \"amount\" FROM \"PaymentTotal\"",
+			summary.query().build());
+	}
+
+	@Test
+	public void testReplaceRequiresRecursiveTriggers() {
+		// the rows deleted by REPLACE are subtracted by the delete trigger only with the recursive triggers enabled
+		SummaryTable summary = SummaryTable.of("PaymentTotal",
+			select(sum(column("amount")).as("amount")).from(table("Payment")).groupBy());
+		assertEquals("PRAGMA recursive_triggers(TRUE)", summary.statements().get(0).build());
+		assertEquals(summary.createTable().build(), summary.statements().get(1).build());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonIncrementalAggregate() {
+		SummaryTable.of("MaxPrice",
+			select(column("categoryId"), max(column("price")).as("maxPrice"))
+				.from(table("Product")).groupBy(column("categoryId")));
+	}
+}
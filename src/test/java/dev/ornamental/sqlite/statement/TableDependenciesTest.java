@@ -0,0 +1,129 @@
+package dev.ornamental.sqlite.statement;
+
+import static dev.ornamental.sqlite.statement.Literal.value;
+import static dev.ornamental.sqlite.statement.ResultElements.all;
+import static dev.ornamental.sqlite.statement.SelectStatements.select;
+import static dev.ornamental.sqlite.statement.SqlExpressions.column;
+import static dev.ornamental.sqlite.statement.SqlExpressions.exists;
+import static dev.ornamental.sqlite.statement.SqlStatements.createView;
+import static dev.ornamental.sqlite.statement.SqlStatements.deleteFrom;
+import static dev.ornamental.sqlite.statement.SqlStatements.update;
+import static dev.ornamental.sqlite.statement.SqlStatements.with;
+import static dev.ornamental.sqlite.statement.TableExpressions.table;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public final class TableDependenciesTest {
+
+	private final List<CreateView> views = Arrays.asList(
+		createView("ActiveCustomer").as(
+			select(all()).from(table("Customer")).where(column("id").in("Subscription"))),
+		createView("ActiveOrder").as(
+			select(all()).from(table("Order").innerJoin(table("ActiveCustomer"))
+				.on(column("customerId").eq(column("ActiveCustomer", "id"))))));
+
+	@Test
+	public void testReadTables() {
+		SqlStatement statement = with("Recent").as(
+			select(all()).from(table("main", "Order")).where(column("id").gt(value(100)))
+		).select(all())
+			.from(table("Recent").innerJoin(table("Customer")).on(column("customerId").eq(column("Customer", "id"))))
+			.where(column("productId").in(select(column("id")).from(table("Product")))
+				.and(exists(select(value(1)).from(table("Coupon")))));
+
+		TableDependencies dependencies = TableDependencies.of(statement);
+		assertEquals(
+			new HashSet<>(Arrays.asList("main.order", "customer", "product", "coupon")),
+			dependencies.readTables());
+		assertEquals(Collections.emptySet(), dependencies.writtenTables());
+		assertEquals(statement.build(), dependencies.sql());
+	}
+
+	@Test
+	public void testCommonTableScope() {
+		// the common table defined in the subquery does not hide the table read by the outer query
+		SqlStatement statement = select(all()).from(table("Item")).where(column("id").in(
+			with("Item").as(select(value(1))).select(all()).from(table("Item"))));
+		assertEquals(Collections.singleton("item"), TableDependencies.of(statement).readTables());
+
+		// the common table defined by the outer query is visible in the subquery
+		statement = with("Recent").as(select(column("id")).from(table("Order")))
+			.select(all()).from(table("Customer"))
+			.where(exists(select(value(1)).from(table("Recent")).where(column("id").eq(column("Customer", "id")))));
+		assertEquals(
+			new HashSet<>(Arrays.asList("order", "customer")),
+			TableDependencies.of(statement).readTables());
+	}
+
+	@Test
+	public void testViews() {
+		TableDependencies dependencies = TableDependencies.of(
+			select(all()).from(table("ActiveOrder")), views);
+		assertEquals(
+			new HashSet<>(Arrays.asList("activeorder", "order", "activecustomer", "customer", "subscription")),
+			dependencies.readTables());
+	}
+
+	@Test
+	public void testWrittenTables() {
+		TableDependencies dependencies = TableDependencies.of(
+			deleteFrom("Order").where(column("customerId").in(select(column("id")).from(table("Customer")))));
+		assertEquals(Collections.singleton("order"), dependencies.writtenTables());
+		assertEquals(Collections.singleton("customer"), dependencies.readTables());
+	}
+
+	@Test
+	public void testCacheInvalidation() {
+		QueryResultCache<String> cache = QueryResultCache.of(2, views);
+		List<String> loads = new ArrayList<>();
+		Function<String, String> loader = sql -> {
+			loads.add(sql);
+			return "result" + loads.size();
+		};
+		SelectStatement orders = select(all()).from(table("ActiveOrder"));
+		SelectStatement products = select(all()).from(table("Product")).where(column("id").eq(value(1)));
+
+		assertEquals("result1", cache.get(orders, Collections.emptyList(), loader));
+		assertEquals("result1", cache.get(orders, Collections.emptyList(), loader));
+		assertEquals("result2", cache.get(products, Collections.emptyList(), loader));
+		assertEquals(Arrays.asList(orders.build(), products.build()), loads);
+
+		cache.written(update("Subscription").set("active", value(0)));
+		assertEquals(1, cache.size());
+		assertEquals("result3", cache.get(orders, Collections.emptyList(), loader));
+		assertEquals("result4", cache.get(orders, Collections.singletonList(1), loader));
+		assertEquals(2, cache.size());
+		assertEquals("result4", cache.get(orders, Collections.singletonList(1), loader));
+		assertEquals("result5", cache.get(products, Collections.emptyList(), loader));
+
+		cache.invalidate("ORDER");
+		assertEquals(1, cache.size());
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testDataVersion() {
+		QueryResultCache<String> cache = QueryResultCache.of(4);
+		long[] dataVersion = { 3 };
+		SelectStatement products = select(all()).from(table("Product"));
+
+		assertEquals("a", cache.get(products, Collections.emptyList(), () -> dataVersion[0], sql -> "a"));
+		assertEquals("a", cache.get(products, Collections.emptyList(), () -> dataVersion[0], sql -> "b"));
+		dataVersion[0] = 4;
+		assertEquals("c", cache.get(products, Collections.emptyList(), () -> dataVersion[0], sql -> "c"));
+		assertFalse(cache.validate(4));
+		assertTrue(cache.validate(5));
+		assertEquals(0, cache.size());
+	}
+}
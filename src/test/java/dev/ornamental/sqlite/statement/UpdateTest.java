@@ -128,9 +128,33 @@ public final class UpdateTest {
 			"UPDATE \"Log\" SET \"deprecated\" = TRUE LIMIT 0.9 * (SELECT COUNT(*) FROM \"Log\")",
 
 			update("Log").set("deprecated", TRUE).limit(value(0.9).mult(select(countAll()).from(table("Log"))))
+		).addCase(
+			"UPDATE \"File\" SET \"unusedBytes\" = 1000000 WHERE \"File\".\"id\" = 1",
+
+			update(FileTable.FILE).set(FileTable.FILE.unusedBytes, value(1_000_000L))
+				.where(FileTable.FILE.id().eq(value(1)))
 		)
 		.build();
 
+	private static final class FileTable extends Table {
+
+		static final FileTable FILE = new FileTable();
+
+		public final String id = "id";
+
+		public final String unusedBytes = "unusedBytes";
+
+		private final SqlExpression idColumn = columnExpression(id);
+
+		private FileTable() {
+			super("File");
+		}
+
+		public SqlExpression id() {
+			return idColumn;
+		}
+	}
+
 	@Test
 	public void testUpdate() {
 		updateCases.test();
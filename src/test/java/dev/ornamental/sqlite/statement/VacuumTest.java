@@ -1,5 +1,7 @@
 package dev.ornamental.sqlite.statement;
 
+import static dev.ornamental.sqlite.statement.DateTimeFunctions.date;
+import static dev.ornamental.sqlite.statement.Literal.value;
 import static dev.ornamental.sqlite.statement.SqlStatements.vacuum;
 
 import org.junit.Test;
@@ -15,6 +17,14 @@ public final class VacuumTest {
 			"VACUUM \"schema name\"",
 
 			vacuum("schema name")
+		).addCase(
+			"VACUUM INTO 'backup''s copy.db'",
+
+			vacuum().into("backup's copy.db")
+		).addCase(
+			"VACUUM \"archive\" INTO 'archive-' || DATE('now') || '.db'",
+
+			vacuum("archive").into(value("archive-").concat(date(value("now"))).concat(value(".db")))
 		)
 		.build();
 
@@ -0,0 +1,102 @@
+package dev.ornamental.sqlite.statement;
+
+import static dev.ornamental.sqlite.statement.SelectStatements.select;
+import static dev.ornamental.sqlite.statement.SqlExpressions.column;
+import static dev.ornamental.sqlite.statement.TableExpressions.table;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.BiFunction;
+
+import org.junit.Test;
+
+public final class PagePublisherTest {
+
+	private static final Executor DIRECT = Runnable::run;
+
+	private final KeysetPagination pagination =
+		KeysetPagination.of(select(column("id")).from(table("Event")), 2, column("id"));
+
+	private final List<String> executedSql = new ArrayList<>();
+
+	// reads the ids 1..5 in pages of two rows
+	private final BiFunction<String, List<Object>, List<Long>> runner = (sql, parameters) -> {
+		executedSql.add(sql);
+		long after = parameters.isEmpty() ? 0 : (Long)parameters.get(0);
+		List<Long> rows = new ArrayList<>();
+		for (long id = after + 1; id <= Math.min(after + 2, 5); id++) {
+			rows.add(id);
+		}
+		return rows;
+	};
+
+	private final List<Object> signals = new ArrayList<>();
+
+	private Flow.Subscription subscription;
+
+	private final Flow.Subscriber<List<Long>> subscriber = new Flow.Subscriber<List<Long>>() {
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			PagePublisherTest.this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(List<Long> page) {
+			signals.add(page);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			signals.add(throwable);
+		}
+
+		@Override
+		public void onComplete() {
+			signals.add("complete");
+		}
+	};
+
+	@Test
+	public void testDemand() {
+		PagePublisher.of(pagination, DIRECT, runner, Collections::singletonList).subscribe(subscriber);
+
+		// the pages are read only when they are requested
+		assertTrue(executedSql.isEmpty());
+		subscription.request(1);
+		assertEquals(Collections.singletonList(Arrays.asList(1L, 2L)), signals);
+		assertEquals(1, executedSql.size());
+		subscription.request(5);
+		assertEquals(
+			Arrays.asList(Arrays.asList(1L, 2L), Arrays.asList(3L, 4L), Collections.singletonList(5L), "complete"),
+			signals);
+		assertEquals(3, executedSql.size());
+	}
+
+	@Test
+	public void testCancellation() {
+		PagePublisher.of(pagination, DIRECT, runner, Collections::singletonList).subscribe(subscriber);
+
+		subscription.request(1);
+		subscription.cancel();
+		subscription.request(1);
+		assertEquals(Collections.singletonList(Arrays.asList(1L, 2L)), signals);
+		assertEquals(1, executedSql.size());
+	}
+
+	@Test
+	public void testInvalidRequest() {
+		PagePublisher.of(pagination, DIRECT, runner, Collections::singletonList).subscribe(subscriber);
+
+		subscription.request(0);
+		assertEquals(1, signals.size());
+		assertTrue(signals.get(0) instanceof IllegalArgumentException);
+		assertTrue(executedSql.isEmpty());
+	}
+}